@@ -0,0 +1,236 @@
+package org.phoebus.channelfinder;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.logging.FileHandler;
+import java.util.logging.Formatter;
+import java.util.logging.Handler;
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+import java.util.logging.Logger;
+
+/**
+ * The audit trail of the write operations: who did what to which channels, tags or properties.
+ * <p>
+ * The events are structured: user, operation, resource, count and the first names, the complete payloads are only
+ * included if enabled. They are handed over through a bounded lock-free ring buffer to a background thread, which
+ * formats and writes them, to a rotating file if configured, else to the audit logger. The request threads do not
+ * wait for the audit, the events which do not fit in the buffer are dropped and counted. The background thread
+ * blocks while the buffer is empty, it is woken up by the next event.
+ */
+@Component
+public class AuditLog {
+
+    private static final Logger logger = Logger.getLogger(AuditLog.class.getName());
+    private static final Logger auditLogger = Logger.getLogger("org.phoebus.channelfinder.audit");
+
+    public static final String CF_AUDIT_DROPPED = "cf.audit.dropped";
+
+    public static final String READ = "read";
+    public static final String CREATE = "create";
+    public static final String UPDATE = "update";
+    public static final String DELETE = "delete";
+
+    public static final String CHANNEL = "channel";
+    public static final String TAG = "tag";
+    public static final String PROPERTY = "property";
+
+    /**
+     * The appender is woken up by the first event offered while it is idle, the timeout is only a safety net
+     */
+    private static final long IDLE_PARK_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    /**
+     * An audit event
+     *
+     * @param timestamp the time of the event, in epoch milliseconds
+     * @param user the user name
+     * @param operation the operation, e.g. create or delete
+     * @param resource the type of the resource, e.g. channel
+     * @param count the number of resources
+     * @param names the names of the first resources
+     * @param payload the payload, if enabled
+     */
+    public record AuditEvent(long timestamp, String user, String operation, String resource, int count,
+                             List<String> names, String payload) {
+
+        String format() {
+            StringBuilder line = new StringBuilder(96 + (payload == null ? 0 : payload.length()))
+                    .append("time=").append(Instant.ofEpochMilli(timestamp))
+                    .append(" user=").append(user)
+                    .append(" op=").append(operation)
+                    .append(" resource=").append(resource)
+                    .append(" count=").append(count)
+                    .append(" names=").append(String.join(",", names));
+            if (count > names.size()) {
+                line.append(",...");
+            }
+            if (payload != null) {
+                line.append(" payload=").append(payload);
+            }
+            return line.toString();
+        }
+    }
+
+    private final AuditRingBuffer<AuditEvent> buffer;
+    private final int maxNames;
+    private final boolean payloadEnabled;
+    private final Handler fileHandler;
+    private final Counter dropped;
+    private final Thread appender;
+    private volatile boolean running = true;
+    private volatile boolean idle;
+
+    /**
+     * @param file - the audit file pattern, see {@link FileHandler}, empty to write to the audit logger
+     * @param fileLimit - the size in bytes at which the file is rotated
+     * @param fileCount - the number of rotated files kept
+     * @param bufferSize - the number of events waiting to be written
+     * @param maxNames - the maximum number of resource names of an event
+     * @param payloadEnabled - true to include the complete payloads
+     */
+    @Autowired
+    public AuditLog(@Value("${audit.file:}") String file,
+                    @Value("${audit.file.limit_bytes:10485760}") int fileLimit,
+                    @Value("${audit.file.count:10}") int fileCount,
+                    @Value("${audit.buffer_size:8192}") int bufferSize,
+                    @Value("${audit.max_names:10}") int maxNames,
+                    @Value("${audit.payload.enabled:false}") boolean payloadEnabled,
+                    final MeterRegistry meterRegistry) throws IOException {
+        this.buffer = new AuditRingBuffer<>(bufferSize);
+        this.maxNames = maxNames;
+        this.payloadEnabled = payloadEnabled;
+        this.dropped = Counter.builder(CF_AUDIT_DROPPED)
+                .description("Audit events dropped because the audit buffer was full")
+                .register(meterRegistry);
+        if (file.isEmpty()) {
+            this.fileHandler = null;
+        } else {
+            this.fileHandler = new FileHandler(file, fileLimit, fileCount, true);
+            this.fileHandler.setFormatter(new Formatter() {
+                @Override
+                public String format(LogRecord logRecord) {
+                    return logRecord.getMessage() + System.lineSeparator();
+                }
+            });
+        }
+        this.appender = new Thread(this::append, "cf-audit");
+        this.appender.setDaemon(true);
+        this.appender.start();
+    }
+
+    /**
+     * Audit an operation on a single resource
+     */
+    public void log(String operation, String resource, String name) {
+        offer(operation, resource, 1, Collections.singletonList(name), null);
+    }
+
+    /**
+     * Audit an operation on resources
+     *
+     * @param operation - the operation, e.g. create
+     * @param resource - the type of the resources, e.g. channel
+     * @param items - the resources
+     * @param name - the name of a resource
+     */
+    public <T> void log(String operation, String resource, Iterable<T> items, Function<T, String> name) {
+        log(operation, resource, items, name, null);
+    }
+
+    /**
+     * Audit an operation on resources, with the payload if enabled
+     *
+     * @param payload - the payload, e.g. the resources with their properties and tags, only called if enabled
+     */
+    public <T> void log(String operation, String resource, Iterable<T> items, Function<T, String> name,
+                        Supplier<String> payload) {
+        List<String> names = new ArrayList<>(maxNames);
+        int count = 0;
+        for (T item : items) {
+            if (count++ < maxNames) {
+                names.add(name.apply(item));
+            }
+        }
+        offer(operation, resource, count, names, payload);
+    }
+
+    private void offer(String operation, String resource, int count, List<String> names, Supplier<String> payload) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        AuditEvent event = new AuditEvent(System.currentTimeMillis(),
+                authentication == null ? "-" : authentication.getName(), operation, resource, count, names,
+                payloadEnabled && payload != null ? payload.get() : null);
+        if (!buffer.offer(event)) {
+            dropped.increment();
+        } else if (idle) {
+            LockSupport.unpark(appender);
+        }
+    }
+
+    private void append() {
+        while (running) {
+            if (drain() > 0) {
+                continue;
+            }
+            idle = true;
+            // the events offered before the appender was idle are drained here, the ones offered after unpark it
+            if (drain() == 0 && running) {
+                LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+            }
+            idle = false;
+        }
+        drain();
+        if (fileHandler != null) {
+            fileHandler.close();
+        }
+    }
+
+    /**
+     * Write the buffered events
+     *
+     * @return the number of events written
+     */
+    private int drain() {
+        int count = 0;
+        for (AuditEvent event = buffer.poll(); event != null; event = buffer.poll()) {
+            try {
+                String line = event.format();
+                if (fileHandler != null) {
+                    fileHandler.publish(new LogRecord(Level.INFO, line));
+                } else {
+                    auditLogger.log(Level.INFO, line);
+                }
+            } catch (RuntimeException e) {
+                logger.log(Level.WARNING, TextUtil.AUDIT_FAILED, e);
+            }
+            count++;
+        }
+        if (count > 0 && fileHandler != null) {
+            fileHandler.flush();
+        }
+        return count;
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        running = false;
+        LockSupport.unpark(appender);
+        appender.join(TimeUnit.SECONDS.toMillis(5));
+    }
+}
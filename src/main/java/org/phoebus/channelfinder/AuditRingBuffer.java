@@ -0,0 +1,75 @@
+package org.phoebus.channelfinder;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * A bounded, lock-free ring buffer with many producers and a single consumer.
+ * <p>
+ * Each slot has a sequence number: a producer claims the slot at the tail with a CAS when its sequence equals the
+ * tail, stores the item and publishes it by advancing the sequence, the consumer takes it once published and frees
+ * the slot for the next round. A producer never waits, the item is rejected when the buffer is full.
+ */
+class AuditRingBuffer<T> {
+
+    private final int mask;
+    private final AtomicReferenceArray<T> items;
+    private final AtomicLongArray sequences;
+    private final AtomicLong tail = new AtomicLong();
+    // only used by the consumer
+    private long head;
+
+    /**
+     * @param capacity - the capacity, rounded up to a power of two
+     */
+    AuditRingBuffer(int capacity) {
+        int size = Integer.highestOneBit(Math.max(2, capacity) - 1) << 1;
+        this.mask = size - 1;
+        this.items = new AtomicReferenceArray<>(size);
+        this.sequences = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    /**
+     * @return false if the buffer is full and the item was not added
+     */
+    boolean offer(T item) {
+        while (true) {
+            long position = tail.get();
+            int index = (int) (position & mask);
+            long sequence = sequences.get(index);
+            if (sequence == position) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    items.set(index, item);
+                    sequences.set(index, position + 1);
+                    return true;
+                }
+            } else if (sequence < position) {
+                // the slot of the previous round has not been consumed yet
+                return false;
+            }
+        }
+    }
+
+    /**
+     * @return the oldest published item, null if there is none. Only called by the consumer
+     */
+    T poll() {
+        int index = (int) (head & mask);
+        if (sequences.get(index) != head + 1) {
+            return null;
+        }
+        T item = items.get(index);
+        items.set(index, null);
+        sequences.set(index, head + mask + 1);
+        head++;
+        return item;
+    }
+
+    int capacity() {
+        return mask + 1;
+    }
+}
@@ -0,0 +1,42 @@
+package org.phoebus.channelfinder;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+/**
+ * Authenticates the requests carrying a bearer token issued by the {@link AuthTokenService}. The requests with an
+ * invalid or expired token are left unauthenticated, and rejected as such.
+ */
+public class AuthTokenFilter extends OncePerRequestFilter {
+
+    private static final String BEARER_PREFIX = AuthTokenService.TOKEN_TYPE + " ";
+
+    private final AuthTokenService authTokenService;
+
+    public AuthTokenFilter(AuthTokenService authTokenService) {
+        this.authTokenService = authTokenService;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String header = request.getHeader(HttpHeaders.AUTHORIZATION);
+        if (header != null && header.regionMatches(true, 0, BEARER_PREFIX, 0, BEARER_PREFIX.length())) {
+            long start = System.nanoTime();
+            Authentication authentication = authTokenService.authenticate(header.substring(BEARER_PREFIX.length()).trim());
+            authTokenService.record("token", authentication != null, System.nanoTime() - start);
+            if (authentication != null) {
+                SecurityContextHolder.getContext().setAuthentication(authentication);
+            }
+        }
+        chain.doFilter(request, response);
+    }
+}
@@ -0,0 +1,55 @@
+package org.phoebus.channelfinder;
+
+import static org.phoebus.channelfinder.CFResourceDescriptors.TOKEN_RESOURCE_URI;
+
+import java.text.MessageFormat;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.phoebus.channelfinder.entity.AuthToken;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.web.authentication.preauth.PreAuthenticatedAuthenticationToken;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * Issue bearer tokens, see {@link AuthTokenService}
+ */
+@CrossOrigin
+@RestController
+@RequestMapping(TOKEN_RESOURCE_URI)
+@EnableAutoConfiguration
+public class AuthTokenManager {
+
+    private static final Logger logger = Logger.getLogger(AuthTokenManager.class.getName());
+    private static final Logger tokenManagerAudit = Logger.getLogger(AuthTokenManager.class.getName() + ".audit");
+
+    @Autowired
+    AuthTokenService authTokenService;
+
+    /**
+     * POST method issuing a bearer token for the user authenticated with its credentials, e.g. with HTTP Basic
+     * against LDAP. The token is then sent instead of the credentials until it expires.
+     *
+     * @return the token
+     */
+    @PostMapping
+    public AuthToken issue() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        // a token is not renewed with itself, so that the roles are resolved again at least once per lifetime
+        if (authentication instanceof PreAuthenticatedAuthenticationToken) {
+            logger.log(Level.SEVERE, TextUtil.AUTH_TOKEN_NOT_RENEWABLE);
+            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, TextUtil.AUTH_TOKEN_NOT_RENEWABLE, null);
+        }
+        AuthToken token = authTokenService.issue(authentication);
+        tokenManagerAudit.log(Level.INFO, () -> MessageFormat.format(TextUtil.AUTH_TOKEN_ISSUED, authentication.getName(), token.expiresIn()));
+        return token;
+    }
+}
@@ -0,0 +1,165 @@
+package org.phoebus.channelfinder;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.phoebus.channelfinder.entity.AuthToken;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.web.authentication.preauth.PreAuthenticatedAuthenticationToken;
+import org.springframework.stereotype.Service;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.text.MessageFormat;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
+
+/**
+ * Issues and verifies short-lived bearer tokens, so that the clients making many requests, e.g. recsync, only pay
+ * for the LDAP bind or BCrypt hash of their credentials once per token rather than on every request.
+ * <p>
+ * A token carries the username, the resolved roles and the expiry, signed with HMAC-SHA256. It is verified with
+ * a single HMAC, without any lookup. The tokens are signed with the first of the configured keys and verified with
+ * any of them, so that a key can be rotated by adding a new key in front and removing the old key once the tokens
+ * signed with it have expired.
+ */
+@Service
+public class AuthTokenService {
+
+    private static final Logger logger = Logger.getLogger(AuthTokenService.class.getName());
+
+    public static final String CF_AUTHENTICATION = "cf.authentication";
+    public static final String TOKEN_TYPE = "Bearer";
+
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final String GENERATED_KEY_ID = "generated";
+    private static final char SEPARATOR = '\n';
+
+    private final MeterRegistry meterRegistry;
+    private final Map<String, SecretKeySpec> keys = new LinkedHashMap<>();
+    private final String signingKeyId;
+    private final long lifetimeSeconds;
+
+    /**
+     * @param keys - the keys as <code>id:secret</code>, the first one signs the tokens. A random key is generated
+     *             if there is none, the tokens are then only valid until a restart and on this instance
+     * @param lifetimeSeconds - the lifetime of the tokens
+     */
+    @Autowired
+    public AuthTokenService(final MeterRegistry meterRegistry,
+                            @Value("${auth.token.keys:}") String[] keys,
+                            @Value("${auth.token.lifetime_s:900}") long lifetimeSeconds) {
+        this.meterRegistry = meterRegistry;
+        this.lifetimeSeconds = lifetimeSeconds;
+        for (String key : keys) {
+            int separator = key.indexOf(':');
+            if (separator <= 0 || separator == key.length() - 1) {
+                throw new IllegalArgumentException(MessageFormat.format(TextUtil.AUTH_TOKEN_KEY_INVALID,
+                        separator <= 0 ? key : key.substring(0, separator)));
+            }
+            this.keys.put(key.substring(0, separator).trim(),
+                    new SecretKeySpec(key.substring(separator + 1).trim().getBytes(StandardCharsets.UTF_8), ALGORITHM));
+        }
+        if (this.keys.isEmpty()) {
+            byte[] secret = new byte[32];
+            new SecureRandom().nextBytes(secret);
+            this.keys.put(GENERATED_KEY_ID, new SecretKeySpec(secret, ALGORITHM));
+            logger.log(Level.INFO, TextUtil.AUTH_TOKEN_KEY_GENERATED);
+        }
+        this.signingKeyId = this.keys.keySet().iterator().next();
+    }
+
+    /**
+     * Issue a token for the authenticated user, with its roles
+     *
+     * @param authentication - the authentication with the user credentials
+     * @return the signed token
+     */
+    public AuthToken issue(Authentication authentication) {
+        long expires = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(lifetimeSeconds);
+        String roles = authentication.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .collect(Collectors.joining(","));
+        String payload = signingKeyId + SEPARATOR + authentication.getName() + SEPARATOR + expires + SEPARATOR + roles;
+        byte[] payloadBytes = payload.getBytes(StandardCharsets.UTF_8);
+        Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+        String token = encoder.encodeToString(payloadBytes) + "." + encoder.encodeToString(sign(keys.get(signingKeyId), payloadBytes));
+        return new AuthToken(token, TOKEN_TYPE, lifetimeSeconds);
+    }
+
+    /**
+     * Verify the token
+     *
+     * @param token - the token
+     * @return the authentication carried by the token, null if the token is not valid, expired or signed with
+     * an unknown key
+     */
+    public Authentication authenticate(String token) {
+        try {
+            int dot = token.indexOf('.');
+            if (dot <= 0) {
+                return null;
+            }
+            Base64.Decoder decoder = Base64.getUrlDecoder();
+            byte[] payloadBytes = decoder.decode(token.substring(0, dot));
+            byte[] signature = decoder.decode(token.substring(dot + 1));
+            String[] payload = new String(payloadBytes, StandardCharsets.UTF_8).split(String.valueOf(SEPARATOR), -1);
+            if (payload.length != 4) {
+                return null;
+            }
+            SecretKeySpec key = keys.get(payload[0]);
+            if (key == null || !MessageDigest.isEqual(signature, sign(key, payloadBytes))) {
+                return null;
+            }
+            if (System.currentTimeMillis() >= Long.parseLong(payload[2])) {
+                return null;
+            }
+            List<GrantedAuthority> authorities = payload[3].isEmpty() ? List.of() : Arrays.stream(payload[3].split(","))
+                    .map(SimpleGrantedAuthority::new)
+                    .collect(Collectors.toList());
+            return new PreAuthenticatedAuthenticationToken(payload[1], null, authorities);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Record the latency of an authentication
+     *
+     * @param mechanism - the authentication mechanism, e.g. token, ldap or basic
+     * @param success - true if the authentication succeeded
+     * @param nanos - the latency in nanoseconds
+     */
+    public void record(String mechanism, boolean success, long nanos) {
+        Timer.builder(CF_AUTHENTICATION)
+                .tag("mechanism", mechanism)
+                .tag("outcome", success ? "success" : "failure")
+                .register(meterRegistry)
+                .record(nanos, TimeUnit.NANOSECONDS);
+        RequestPhases.record(RequestPhases.Phase.AUTHENTICATION, nanos);
+    }
+
+    private static byte[] sign(SecretKeySpec key, byte[] payload) {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(key);
+            return mac.doFinal(payload);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
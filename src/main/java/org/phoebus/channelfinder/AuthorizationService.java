@@ -1,23 +1,36 @@
 package org.phoebus.channelfinder;
 
-import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import org.phoebus.channelfinder.entity.Channel;
 import org.phoebus.channelfinder.entity.Property;
 import org.phoebus.channelfinder.entity.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.stereotype.Service;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
 
 @Service
 public class AuthorizationService {
 
+    private static final String ROLE_PREFIX = "ROLE_";
+    private static final String CONTEXT_ATTRIBUTE = AuthorizationContext.class.getName();
+
+    @Autowired
+    WriteMetrics writeMetrics;
+
     public static List<String> admin_groups;
     public static List<String> channel_groups;
     public static List<String> property_groups;
@@ -61,59 +74,144 @@ public class AuthorizationService {
         }
     }
 
+    /**
+     * The authorization of a user, computed once from its authorities and reused for all the checks of a request
+     *
+     * @param authentication the authentication it was computed from
+     * @param name the user name
+     * @param groups the groups of the user, i.e. its roles without the ROLE_ prefix
+     * @param roles the roles the user is authorized for, including the roles implied by its other roles
+     */
+    public record AuthorizationContext(Authentication authentication, String name, Set<String> groups, Set<ROLES> roles) {
+
+        static AuthorizationContext of(Authentication authentication) {
+            Set<String> authorities = new HashSet<>();
+            for (GrantedAuthority authority : authentication.getAuthorities()) {
+                authorities.add(authority.getAuthority());
+            }
+            Set<ROLES> roles = EnumSet.noneOf(ROLES.class);
+            if (!Collections.disjoint(authorities, ROLES.CF_ADMIN.groups)) {
+                roles.addAll(EnumSet.allOf(ROLES.class));
+            }
+            if (!Collections.disjoint(authorities, ROLES.CF_CHANNEL.groups)) {
+                roles.addAll(EnumSet.of(ROLES.CF_CHANNEL, ROLES.CF_PROPERTY, ROLES.CF_TAG));
+            }
+            if (!Collections.disjoint(authorities, ROLES.CF_PROPERTY.groups)) {
+                roles.addAll(EnumSet.of(ROLES.CF_PROPERTY, ROLES.CF_TAG));
+            }
+            if (!Collections.disjoint(authorities, ROLES.CF_TAG.groups)) {
+                roles.add(ROLES.CF_TAG);
+            }
+            Set<String> groups = authorities.stream()
+                    .filter(authority -> authority.startsWith(ROLE_PREFIX))
+                    .map(authority -> authority.substring(ROLE_PREFIX.length()))
+                    .collect(Collectors.toUnmodifiableSet());
+            return new AuthorizationContext(authentication, authentication.getName(), groups, Collections.unmodifiableSet(roles));
+        }
+
+        public boolean isAdmin() {
+            return roles.contains(ROLES.CF_ADMIN);
+        }
+
+        /**
+         * @return true if the user is the owner, or in the owner group
+         */
+        public boolean isOwner(String owner) {
+            return owner != null && (owner.equals(name) || groups.contains(owner.trim().toUpperCase()));
+        }
+    }
+
+    /**
+     * The last context computed outside of a request, e.g. by a background job
+     */
+    private volatile AuthorizationContext lastContext;
+
+    /**
+     * @return the authorization of the user, computed once per request
+     */
+    public AuthorizationContext context(Authentication authentication) {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null) {
+            AuthorizationContext context = lastContext;
+            if (context == null || context.authentication() != authentication) {
+                context = AuthorizationContext.of(authentication);
+                lastContext = context;
+            }
+            return context;
+        }
+        if (attributes.getAttribute(CONTEXT_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST) instanceof AuthorizationContext context
+                && context.authentication() == authentication) {
+            return context;
+        }
+        RequestPhases.Scope scope = RequestPhases.start(RequestPhases.Phase.AUTHORIZATION);
+        try {
+            AuthorizationContext context = AuthorizationContext.of(authentication);
+            attributes.setAttribute(CONTEXT_ATTRIBUTE, context, RequestAttributes.SCOPE_REQUEST);
+            return context;
+        } finally {
+            scope.close();
+        }
+    }
+
     public boolean isAuthorizedOwner(Authentication authentication, Tag data) {
-        ArrayList<String> auth = new ArrayList<>();
-        Collection<? extends GrantedAuthority> auths = authentication.getAuthorities();
-        for(GrantedAuthority a: auths)
-            auth.add(a.getAuthority());
-        
-        if(!Collections.disjoint(auth,ROLES.CF_ADMIN.groups))
-            return true;
-        if(authentication.getName().equals(data.getOwner()) || auth.contains("ROLE_" + data.getOwner().trim().toUpperCase()))
-            return true;
-        return false;
+        AuthorizationContext context = context(authentication);
+        return authorized(context.isAdmin() || context.isOwner(data.getOwner()), AuditLog.TAG);
     }
 
     public boolean isAuthorizedOwner(Authentication authentication, Property data) {
-        ArrayList<String> auth = new ArrayList<>();
-        Collection<? extends GrantedAuthority> auths = authentication.getAuthorities();
-        for(GrantedAuthority a: auths)
-            auth.add(a.getAuthority());
-        
-        if(!Collections.disjoint(auth,ROLES.CF_ADMIN.groups))
-            return true;
-        if(authentication.getName().equals(data.getOwner()) || auth.contains("ROLE_" + data.getOwner().trim().toUpperCase()))
-            return true;
-        return false;
+        AuthorizationContext context = context(authentication);
+        return authorized(context.isAdmin() || context.isOwner(data.getOwner()), AuditLog.PROPERTY);
     }
 
     public boolean isAuthorizedOwner(Authentication authentication, Channel data) {
-        ArrayList<String> auth = new ArrayList<>();
-        Collection<? extends GrantedAuthority> auths = authentication.getAuthorities();
-        for(GrantedAuthority a: auths)
-            auth.add(a.getAuthority());
-        
-        if(!Collections.disjoint(auth,ROLES.CF_ADMIN.groups))
-            return true;
-        if(authentication.getName().equals(data.getOwner()) || auth.contains("ROLE_" + data.getOwner().trim().toUpperCase()))
-            return true;
-        return false;
+        AuthorizationContext context = context(authentication);
+        return authorized(context.isAdmin() || context.isOwner(data.getOwner()), AuditLog.CHANNEL);
+    }
+
+    /**
+     * Check the ownership of a batch of items at once, each distinct owner is checked once
+     *
+     * @param authentication - the user
+     * @param items - the items, e.g. channels
+     * @param owner - the owner of an item
+     * @return the items the user is not authorized on, in order
+     */
+    public <T> List<T> findUnauthorizedOwners(Authentication authentication, Collection<T> items, Function<T, String> owner) {
+        RequestPhases.Scope scope = RequestPhases.start(RequestPhases.Phase.AUTHORIZATION);
+        try {
+            AuthorizationContext context = context(authentication);
+            if (context.isAdmin()) {
+                return Collections.emptyList();
+            }
+            Set<String> owners = items.stream().map(owner).filter(Objects::nonNull).collect(Collectors.toSet());
+            owners.removeIf(context::isOwner);
+            List<T> unauthorized = items.stream()
+                    .filter(item -> owner.apply(item) == null || owners.contains(owner.apply(item)))
+                    .collect(Collectors.toList());
+            if (!unauthorized.isEmpty()) {
+                writeMetrics.ownershipRejected(resource(unauthorized.get(0)), unauthorized.size());
+            }
+            return unauthorized;
+        } finally {
+            scope.close();
+        }
+    }
+
+    private boolean authorized(boolean authorized, String resource) {
+        if (!authorized) {
+            writeMetrics.ownershipRejected(resource, 1);
+        }
+        return authorized;
+    }
+
+    private static String resource(Object item) {
+        if (item instanceof Tag) {
+            return AuditLog.TAG;
+        }
+        return item instanceof Property ? AuditLog.PROPERTY : AuditLog.CHANNEL;
     }
 
     public boolean isAuthorizedRole(Authentication authentication, ROLES expectedRole) {
-        ArrayList<String> auth = new ArrayList<>();
-        Collection<? extends GrantedAuthority> auths = authentication.getAuthorities();
-        for(GrantedAuthority a: auths)
-            auth.add(a.getAuthority());
-
-        if(!Collections.disjoint(auth,ROLES.CF_ADMIN.groups))
-            return true;
-        else if(!Collections.disjoint(auth,ROLES.CF_CHANNEL.groups) && expectedRole != ROLES.CF_ADMIN)
-            return true;
-        else if(!Collections.disjoint(auth,ROLES.CF_PROPERTY.groups) && (expectedRole == ROLES.CF_PROPERTY || expectedRole == ROLES.CF_TAG))
-            return true;
-        else if(!Collections.disjoint(auth,ROLES.CF_TAG.groups) && expectedRole == ROLES.CF_TAG)
-            return true;
-        return false;
+        return context(authentication).roles().contains(expectedRole);
     }
 }
@@ -0,0 +1,35 @@
+package org.phoebus.channelfinder;
+
+import org.phoebus.channelfinder.entity.BulkItemResult;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.text.MessageFormat;
+import java.util.List;
+
+/**
+ * Thrown when some items of a bulk write failed, even after the retries, with the outcome of every item,
+ * so that the clients can resend only the failed items.
+ * <p>
+ * The status is MULTI_STATUS if some items were written, INTERNAL_SERVER_ERROR if none of them was, i.e. they
+ * all failed or were not found.
+ */
+public class BulkWriteException extends ResponseStatusException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final transient List<BulkItemResult> items;
+
+    public BulkWriteException(List<BulkItemResult> items) {
+        super(items.stream().anyMatch(BulkItemResult::written) ? HttpStatus.MULTI_STATUS : HttpStatus.INTERNAL_SERVER_ERROR,
+                MessageFormat.format(TextUtil.BULK_ITEMS_FAILED, items.stream().filter(BulkItemResult::failed).count(), items.size()));
+        this.items = items;
+    }
+
+    /**
+     * @return the outcome of each item of the bulk write
+     */
+    public List<BulkItemResult> getItems() {
+        return items;
+    }
+}
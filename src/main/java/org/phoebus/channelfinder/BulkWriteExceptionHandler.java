@@ -0,0 +1,20 @@
+package org.phoebus.channelfinder;
+
+import org.phoebus.channelfinder.entity.BulkItemResult;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+import java.util.List;
+
+/**
+ * Responds to a partially failed bulk write with the outcome of each item
+ */
+@RestControllerAdvice
+public class BulkWriteExceptionHandler {
+
+    @ExceptionHandler(BulkWriteException.class)
+    public ResponseEntity<List<BulkItemResult>> handle(BulkWriteException e) {
+        return ResponseEntity.status(e.getStatus()).body(e.getItems());
+    }
+}
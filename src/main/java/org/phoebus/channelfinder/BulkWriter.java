@@ -0,0 +1,221 @@
+package org.phoebus.channelfinder;
+
+import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import co.elastic.clients.elasticsearch._types.ElasticsearchException;
+import co.elastic.clients.elasticsearch._types.Refresh;
+import co.elastic.clients.elasticsearch._types.Result;
+import co.elastic.clients.elasticsearch.core.BulkResponse;
+import co.elastic.clients.elasticsearch.core.bulk.BulkOperation;
+import co.elastic.clients.elasticsearch.core.bulk.BulkOperationBase;
+import co.elastic.clients.elasticsearch.core.bulk.BulkResponseItem;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.phoebus.channelfinder.entity.BulkItemResult;
+import org.phoebus.channelfinder.entity.BulkItemResult.Outcome;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Executes bulk requests, retrying the items which failed with a transient error, i.e. rejected because elastic
+ * is overloaded (429) or because of unavailable shards (503), with an exponential backoff and jitter.
+ * <p>
+ * The outcome of every item is returned, so that the callers, and their clients, know which items were written,
+ * and counted by index, operation and outcome.
+ */
+@Component
+public class BulkWriter {
+
+    private static final Logger logger = Logger.getLogger(BulkWriter.class.getName());
+
+    public static final String CF_BULK_ITEMS_RETRIED = "cf.bulk.items.retried";
+    public static final String CF_BULK_ITEMS_FAILED = "cf.bulk.items.failed";
+    public static final String CF_WRITE_OPERATIONS = "cf.write.operations";
+
+    private final ElasticsearchClient client;
+    private final MeterRegistry meterRegistry;
+    private final int maxRetries;
+    private final long initialBackoffMillis;
+    private final long maxBackoffMillis;
+
+    @Autowired
+    public BulkWriter(@Qualifier("indexClient") ElasticsearchClient client,
+                      final MeterRegistry meterRegistry,
+                      @Value("${elasticsearch.bulk.max_retries:3}") int maxRetries,
+                      @Value("${elasticsearch.bulk.backoff.initial_ms:100}") long initialBackoffMillis,
+                      @Value("${elasticsearch.bulk.backoff.max_ms:5000}") long maxBackoffMillis) {
+        this.client = client;
+        this.meterRegistry = meterRegistry;
+        this.maxRetries = maxRetries;
+        this.initialBackoffMillis = initialBackoffMillis;
+        this.maxBackoffMillis = maxBackoffMillis;
+    }
+
+    /**
+     * Execute the operations in a bulk request, retrying the items which failed with a transient error
+     *
+     * @param operations - the bulk operations
+     * @return the outcome of each operation, in the order of the operations
+     * @throws IOException if a bulk request failed
+     */
+    public List<BulkItemResult> execute(List<BulkOperation> operations) throws IOException {
+        BulkItemResult[] results = new BulkItemResult[operations.size()];
+        List<Integer> pending = new ArrayList<>();
+        for (int i = 0; i < operations.size(); i++) {
+            pending.add(i);
+        }
+        for (int attempt = 0; !pending.isEmpty(); attempt++) {
+            List<BulkOperation> batch = pending.stream().map(operations::get).toList();
+            BulkResponse response = client.bulk(b -> b.operations(batch).refresh(Refresh.True));
+            List<Integer> retry = new ArrayList<>();
+            for (int i = 0; i < pending.size(); i++) {
+                BulkResponseItem item = response.items().get(i);
+                results[pending.get(i)] = result(item);
+                if (item.error() != null && isRetryable(item.status())) {
+                    retry.add(pending.get(i));
+                }
+            }
+            if (retry.isEmpty() || attempt >= maxRetries) {
+                break;
+            }
+            long backoff = backoff(attempt);
+            int retryCount = retry.size();
+            int retryAttempt = attempt + 1;
+            logger.log(Level.WARNING, () -> MessageFormat.format(TextUtil.RETRY_BULK_ITEMS, retryCount, backoff, retryAttempt));
+            Counter.builder(CF_BULK_ITEMS_RETRIED).register(meterRegistry).increment(retryCount);
+            try {
+                Thread.sleep(backoff);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            pending = retry;
+        }
+
+        List<BulkItemResult> outcome = Arrays.asList(results);
+        count(operations, outcome);
+        long failed = outcome.stream().filter(BulkItemResult::failed).count();
+        if (failed > 0) {
+            logger.log(Level.SEVERE, TextUtil.BULK_HAD_ERRORS);
+            outcome.stream().filter(BulkItemResult::failed)
+                    .forEach(result -> logger.log(Level.SEVERE, () -> result.id() + " : " + result.reason()));
+            Counter.builder(CF_BULK_ITEMS_FAILED).register(meterRegistry).increment(failed);
+        }
+        return outcome;
+    }
+
+    /**
+     * Execute the operations in a bulk request, retrying the items which failed with a transient error
+     *
+     * @param operations - the bulk operations
+     * @return the outcome of each operation, in the order of the operations
+     * @throws IOException if a bulk request failed
+     * @throws BulkWriteException if some items failed
+     */
+    public List<BulkItemResult> executeOrThrow(List<BulkOperation> operations) throws IOException {
+        List<BulkItemResult> results = execute(operations);
+        if (results.stream().anyMatch(BulkItemResult::failed)) {
+            throw new BulkWriteException(results);
+        }
+        return results;
+    }
+
+    /**
+     * Count the outcomes of the operations, grouped first so that each counter is incremented once per request
+     */
+    private void count(List<BulkOperation> operations, List<BulkItemResult> outcome) {
+        Map<List<String>, Integer> counts = new HashMap<>();
+        for (int i = 0; i < operations.size(); i++) {
+            BulkOperation operation = operations.get(i);
+            String index = operation._get() instanceof BulkOperationBase base ? base.index() : null;
+            String result = outcome.get(i) == null ? "unknown" : outcome.get(i).outcome().name().toLowerCase(Locale.ROOT);
+            counts.merge(List.of(index == null ? "none" : index, operation._kind().jsonValue(), result), 1, Integer::sum);
+        }
+        counts.forEach((tags, count) -> increment(tags.get(0), tags.get(1), tags.get(2), count));
+    }
+
+    /**
+     * Count a single document write, which is not made with a bulk request, with the bulk writes
+     *
+     * @param index - the written index
+     * @param operation - the write operation, e.g. index or delete
+     * @param outcome - the outcome of the write
+     */
+    public void countWrite(String index, BulkOperation.Kind operation, Outcome outcome) {
+        increment(index, operation.jsonValue(), outcome.name().toLowerCase(Locale.ROOT), 1);
+    }
+
+    private void increment(String index, String operation, String outcome, int count) {
+        Counter.builder(CF_WRITE_OPERATIONS)
+                .description("Written items by index, operation and outcome")
+                .tag("index", index)
+                .tag("operation", operation)
+                .tag("outcome", outcome)
+                .register(meterRegistry)
+                .increment(count);
+    }
+
+    /**
+     * @return the backoff before the given retry attempt, exponential with "equal jitter": between half and all of
+     * the exponential backoff, so that the retries of concurrent requests are spread out
+     */
+    long backoff(int attempt) {
+        long exponential = Math.min(maxBackoffMillis, initialBackoffMillis << Math.min(attempt, 30));
+        return exponential / 2 + ThreadLocalRandom.current().nextLong(exponential / 2 + 1);
+    }
+
+    static boolean isRetryable(int status) {
+        return status == HttpStatus.TOO_MANY_REQUESTS.value() || status == HttpStatus.SERVICE_UNAVAILABLE.value();
+    }
+
+    /**
+     * @return the outcome of a single document write
+     */
+    static Outcome outcome(Result result) {
+        return switch (result) {
+            case Created -> Outcome.CREATED;
+            case Deleted -> Outcome.DELETED;
+            case NoOp -> Outcome.NOOP;
+            case NotFound -> Outcome.NOT_FOUND;
+            default -> Outcome.UPDATED;
+        };
+    }
+
+    /**
+     * @return the outcome of a single document write which failed
+     */
+    static Outcome outcome(Exception e) {
+        return e instanceof ElasticsearchException elasticsearchException
+                && elasticsearchException.status() == HttpStatus.NOT_FOUND.value() ? Outcome.NOT_FOUND : Outcome.FAILED;
+    }
+
+    static BulkItemResult result(BulkResponseItem item) {
+        if (item.error() != null) {
+            return item.status() == HttpStatus.NOT_FOUND.value()
+                    ? new BulkItemResult(item.id(), Outcome.NOT_FOUND, item.status(), item.error().reason())
+                    : new BulkItemResult(item.id(), Outcome.FAILED, item.status(), item.error().reason());
+        }
+        Outcome outcome = switch (item.result() == null ? "" : item.result()) {
+            case "created" -> Outcome.CREATED;
+            case "deleted" -> Outcome.DELETED;
+            case "noop" -> Outcome.NOOP;
+            case "not_found" -> Outcome.NOT_FOUND;
+            default -> Outcome.UPDATED;
+        };
+        return new BulkItemResult(item.id(), outcome, item.status(), null);
+    }
+}
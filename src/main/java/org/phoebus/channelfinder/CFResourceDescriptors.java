@@ -4,9 +4,16 @@ public class CFResourceDescriptors {
 
     public static final String CF_SERVICE = "ChannelFinder";
     public static final String CF_SERVICE_INFO = CF_SERVICE;
+    public static final String TOKEN_RESOURCE_URI = CF_SERVICE + "/resources/token";
     public static final String TAG_RESOURCE_URI = CF_SERVICE + "/resources/tags";
     public static final String PROPERTY_RESOURCE_URI = CF_SERVICE + "/resources/properties";
     public static final String CHANNEL_RESOURCE_URI = CF_SERVICE + "/resources/channels";
     public static final String SCROLL_RESOURCE_URI = CF_SERVICE + "/resources/scroll";
+    public static final String SYNC_RESOURCE_URI = CF_SERVICE + "/resources/sync";
+    public static final String RENAME_RESOURCE_URI = CF_SERVICE + "/resources/renames";
+    public static final String MUTATION_RESOURCE_URI = CF_SERVICE + "/resources/mutations";
+    public static final String TASK_RESOURCE_URI = CF_SERVICE + "/resources/tasks";
+    public static final String JOB_RESOURCE_URI = CF_SERVICE + "/resources/jobs";
     public static final String CHANNEL_PROCESSOR_RESOURCE_URI = CF_SERVICE + "/resources/processors";
+    public static final String SLOW_QUERY_RESOURCE_URI = CF_SERVICE + "/resources/slowqueries";
 }
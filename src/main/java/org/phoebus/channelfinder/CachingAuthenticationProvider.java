@@ -0,0 +1,140 @@
+package org.phoebus.channelfinder;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.GuavaCacheMetrics;
+import org.springframework.security.authentication.AuthenticationProvider;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.AuthenticationException;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.text.MessageFormat;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Caches the successful authentications of an authentication provider, e.g. the LDAP bind and group search, and
+ * for a shorter time its failed authentications, so that a client repeating the same credentials, e.g. many IOCs
+ * rebooting at once, does not hit the LDAP server with every request.
+ * <p>
+ * The credentials are not kept, only a salted hash of them to recognize them. A cached authentication is only used
+ * for the same credentials, a different password is always verified by the provider. Changes of the password or
+ * of the groups of a user are seen at the latest after the cache TTL.
+ */
+public class CachingAuthenticationProvider implements AuthenticationProvider {
+
+    private static final Logger logger = Logger.getLogger(CachingAuthenticationProvider.class.getName());
+
+    public static final String CF_LDAP_AUTHENTICATION = "cf.ldap.authentication";
+
+    private static final SecureRandom random = new SecureRandom();
+
+    private record Entry(byte[] salt, byte[] hash, Authentication authentication) {
+    }
+
+    private final AuthenticationProvider provider;
+    private final MeterRegistry meterRegistry;
+    private final Cache<String, Entry> authentications;
+    private final Cache<String, Entry> failures;
+
+    /**
+     * @param provider - the authentication provider to cache
+     * @param name - the name of the cached provider, e.g. ldap, for the metrics
+     * @param ttlSeconds - how long a successful authentication is cached
+     * @param failureTtlSeconds - how long a failed authentication is cached, 0 to not cache the failures
+     * @param maxSize - the maximum number of cached users
+     */
+    public CachingAuthenticationProvider(AuthenticationProvider provider, String name, MeterRegistry meterRegistry,
+                                         long ttlSeconds, long failureTtlSeconds, long maxSize) {
+        this.provider = provider;
+        this.meterRegistry = meterRegistry;
+        this.authentications = CacheBuilder.newBuilder()
+                .expireAfterWrite(ttlSeconds, TimeUnit.SECONDS)
+                .maximumSize(maxSize)
+                .recordStats()
+                .build();
+        this.failures = CacheBuilder.newBuilder()
+                .expireAfterWrite(failureTtlSeconds, TimeUnit.SECONDS)
+                .maximumSize(maxSize)
+                .recordStats()
+                .build();
+        GuavaCacheMetrics.monitor(meterRegistry, authentications, name + ".authentications");
+        GuavaCacheMetrics.monitor(meterRegistry, failures, name + ".failures");
+    }
+
+    @Override
+    public Authentication authenticate(Authentication authentication) throws AuthenticationException {
+        String username = authentication.getName();
+        byte[] credentials = String.valueOf(authentication.getCredentials()).getBytes(StandardCharsets.UTF_8);
+
+        Entry cached = authentications.getIfPresent(username);
+        if (cached != null && matches(cached, credentials)) {
+            return cached.authentication();
+        }
+        Entry failed = failures.getIfPresent(username);
+        if (failed != null && matches(failed, credentials)) {
+            throw new BadCredentialsException(MessageFormat.format(TextUtil.AUTHENTICATION_FAILED_RECENTLY, username));
+        }
+
+        long start = System.nanoTime();
+        try {
+            Authentication result = provider.authenticate(authentication);
+            record(true, System.nanoTime() - start);
+            if (result != null) {
+                authentications.put(username, entry(credentials, new UsernamePasswordAuthenticationToken(
+                        result.getPrincipal(), null, result.getAuthorities())));
+                failures.invalidate(username);
+            }
+            return result;
+        } catch (BadCredentialsException e) {
+            record(false, System.nanoTime() - start);
+            // only the rejected credentials are cached, the other errors, e.g. LDAP unavailable, are not
+            failures.put(username, entry(credentials, null));
+            logger.log(Level.FINE, () -> MessageFormat.format(TextUtil.AUTHENTICATION_FAILED, username));
+            throw e;
+        } catch (AuthenticationException e) {
+            record(false, System.nanoTime() - start);
+            throw e;
+        }
+    }
+
+    @Override
+    public boolean supports(Class<?> authentication) {
+        return provider.supports(authentication);
+    }
+
+    private void record(boolean success, long nanos) {
+        Timer.builder(CF_LDAP_AUTHENTICATION)
+                .tag("outcome", success ? "success" : "failure")
+                .register(meterRegistry)
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    private static Entry entry(byte[] credentials, Authentication authentication) {
+        byte[] salt = new byte[16];
+        random.nextBytes(salt);
+        return new Entry(salt, hash(salt, credentials), authentication);
+    }
+
+    private static boolean matches(Entry entry, byte[] credentials) {
+        return MessageDigest.isEqual(entry.hash(), hash(entry.salt(), credentials));
+    }
+
+    private static byte[] hash(byte[] salt, byte[] credentials) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(salt);
+            return digest.digest(credentials);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
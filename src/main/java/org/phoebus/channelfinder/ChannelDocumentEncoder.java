@@ -0,0 +1,121 @@
+package org.phoebus.channelfinder;
+
+import co.elastic.clients.util.BinaryData;
+import co.elastic.clients.util.ContentType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.phoebus.channelfinder.entity.Channel;
+import org.phoebus.channelfinder.entity.Property;
+import org.phoebus.channelfinder.entity.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.text.MessageFormat;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Serializes channels into the JSON documents stored in the channel index, with their {@link ChannelFingerprint}.
+ * <p>
+ * The documents are passed to the bulk requests as {@link BinaryData}, which the elastic client copies as is
+ * into the request body, so each channel is serialized once, by a single shared writer. Large batches are
+ * serialized in parallel, in chunks, on the common fork join pool.
+ */
+@Component
+public class ChannelDocumentEncoder {
+
+    private static final Logger logger = Logger.getLogger(ChannelDocumentEncoder.class.getName());
+
+    private static final int INITIAL_BUFFER_SIZE = 4096;
+
+    private final ObjectWriter writer = new ObjectMapper()
+            .addMixIn(Tag.class, Tag.OnlyTag.class)
+            .addMixIn(Property.class, Property.OnlyProperty.class)
+            .addMixIn(Channel.class, Channel.IndexedChannel.class)
+            .writerFor(Channel.class);
+
+    /**
+     * The serialization buffer of each thread, reused for all the channels it serializes
+     */
+    private final ThreadLocal<ByteArrayOutputStream> buffers =
+            ThreadLocal.withInitial(() -> new ByteArrayOutputStream(INITIAL_BUFFER_SIZE));
+
+    private final int chunkSize;
+
+    @Autowired
+    public ChannelDocumentEncoder(@Value("${elasticsearch.bulk.encode.chunk_size:256}") int chunkSize) {
+        this.chunkSize = Math.max(1, chunkSize);
+    }
+
+    /**
+     * @param channel - the channel
+     * @return the channel document, with the fingerprint of the channel
+     */
+    public BinaryData encode(Channel channel) {
+        ByteArrayOutputStream buffer = buffers.get();
+        buffer.reset();
+        try {
+            writer.withAttribute(ChannelFingerprint.FIELD, ChannelFingerprint.of(channel)).writeValue(buffer, channel);
+        } catch (IOException e) {
+            String message = MessageFormat.format(TextUtil.FAILED_TO_INDEX_CHANNEL, channel.toLog());
+            logger.log(Level.SEVERE, message, e);
+            throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, message, null);
+        }
+        return BinaryData.of(buffer.toByteArray(), ContentType.APPLICATION_JSON);
+    }
+
+    /**
+     * Serialize the channels, in parallel if there are more than one chunk of them
+     *
+     * @param channels - the channels
+     * @return the channel documents, in the order of the channels
+     */
+    public List<BinaryData> encodeAll(List<Channel> channels) {
+        BinaryData[] documents = new BinaryData[channels.size()];
+        EncodeTask task = new EncodeTask(channels, documents, 0, channels.size());
+        if (channels.size() <= chunkSize) {
+            task.compute();
+        } else {
+            ForkJoinPool.commonPool().invoke(task);
+        }
+        return Arrays.asList(documents);
+    }
+
+    private class EncodeTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final transient List<Channel> channels;
+        private final transient BinaryData[] documents;
+        private final int from;
+        private final int to;
+
+        private EncodeTask(List<Channel> channels, BinaryData[] documents, int from, int to) {
+            this.channels = channels;
+            this.documents = documents;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= chunkSize) {
+                for (int i = from; i < to; i++) {
+                    documents[i] = encode(channels.get(i));
+                }
+            } else {
+                int middle = (from + to) >>> 1;
+                invokeAll(new EncodeTask(channels, documents, from, middle),
+                        new EncodeTask(channels, documents, middle, to));
+            }
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package org.phoebus.channelfinder;
+
+import org.phoebus.channelfinder.entity.Channel;
+import org.phoebus.channelfinder.entity.Property;
+import org.phoebus.channelfinder.entity.Tag;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.List;
+
+/**
+ * Fingerprint of the content of a channel, a hash of its owner, tags and properties.
+ * <p>
+ * The fingerprint is stored with each channel document, so that writes of unchanged channels, e.g. the channels
+ * re-submitted after an IOC restart, can be detected and skipped. The tags and properties are sorted, so the
+ * fingerprint does not depend on their order.
+ */
+public class ChannelFingerprint {
+
+    /**
+     * The field of the channel document holding the fingerprint
+     */
+    public static final String FIELD = "fingerprint";
+
+    private static final Comparator<String> NULLS_FIRST = Comparator.nullsFirst(Comparator.naturalOrder());
+    private static final Comparator<Tag> TAG_ORDER = Comparator.comparing(Tag::getName, NULLS_FIRST)
+            .thenComparing(Tag::getOwner, NULLS_FIRST);
+    private static final Comparator<Property> PROPERTY_ORDER = Comparator.comparing(Property::getName, NULLS_FIRST)
+            .thenComparing(Property::getOwner, NULLS_FIRST)
+            .thenComparing(Property::getValue, NULLS_FIRST);
+
+    /**
+     * This class is not to be instantiated.
+     */
+    private ChannelFingerprint() {
+        throw new IllegalStateException("Utility class");
+    }
+
+    /**
+     * @param channel - the channel
+     * @return the hex encoded SHA-256 hash of the owner, the sorted tags and the sorted properties of the channel
+     */
+    public static String of(Channel channel) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        update(digest, channel.getOwner());
+
+        List<Tag> tags = channel.getTags() == null ? Collections.emptyList() : channel.getTags();
+        digest.update(ByteBuffer.allocate(Integer.BYTES).putInt(tags.size()).array());
+        tags.stream().sorted(TAG_ORDER).forEach(tag -> {
+            update(digest, tag.getName());
+            update(digest, tag.getOwner());
+        });
+
+        List<Property> properties = channel.getProperties() == null ? Collections.emptyList() : channel.getProperties();
+        digest.update(ByteBuffer.allocate(Integer.BYTES).putInt(properties.size()).array());
+        properties.stream().sorted(PROPERTY_ORDER).forEach(property -> {
+            update(digest, property.getName());
+            update(digest, property.getOwner());
+            update(digest, property.getValue());
+        });
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    /**
+     * Length prefixed, so that the boundaries between values are part of the fingerprint
+     */
+    private static void update(MessageDigest digest, String value) {
+        if (value == null) {
+            digest.update(ByteBuffer.allocate(Integer.BYTES).putInt(-1).array());
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        digest.update(ByteBuffer.allocate(Integer.BYTES).putInt(bytes.length).array());
+        digest.update(bytes);
+    }
+}
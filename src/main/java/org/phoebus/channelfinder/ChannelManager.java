@@ -1,9 +1,11 @@
 package org.phoebus.channelfinder;
 
-import com.google.common.collect.FluentIterable;
-import com.google.common.collect.Lists;
+import com.google.common.collect.Iterables;
 import org.phoebus.channelfinder.AuthorizationService.ROLES;
+import org.phoebus.channelfinder.ChannelRepository.SaveResult;
+import org.phoebus.channelfinder.ChannelRepository.VersionedChannel;
 import org.phoebus.channelfinder.entity.Channel;
+import org.phoebus.channelfinder.entity.JobStatus;
 import org.phoebus.channelfinder.entity.Property;
 import org.phoebus.channelfinder.entity.SearchResult;
 import org.phoebus.channelfinder.entity.Tag;
@@ -11,6 +13,7 @@ import org.phoebus.channelfinder.processors.ChannelProcessorService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.util.MultiValueMap;
 import org.springframework.web.bind.annotation.CrossOrigin;
@@ -22,11 +25,15 @@ import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
 import org.springframework.web.server.ResponseStatusException;
 
-import javax.servlet.ServletContext;
 import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -43,11 +50,10 @@ import static org.phoebus.channelfinder.CFResourceDescriptors.CHANNEL_RESOURCE_U
 @EnableAutoConfiguration
 public class ChannelManager {
 
-    private static final Logger channelManagerAudit = Logger.getLogger(ChannelManager.class.getName() + ".audit");
     private static final Logger logger = Logger.getLogger(ChannelManager.class.getName());
 
-    @Autowired
-    private ServletContext servletContext;
+    public static final String UNCHANGED_CHANNELS_HEADER = "X-CF-Unchanged-Channels";
+    public static final String MERGED_CHANNELS_HEADER = "X-CF-Merged-Channels";
 
     @Autowired
     TagRepository tagRepository;
@@ -61,9 +67,18 @@ public class ChannelManager {
     @Autowired
     AuthorizationService authorizationService;
 
+    @Autowired
+    JobService jobService;
+
     @Autowired
     ChannelProcessorService channelProcessorService;
 
+    @Autowired
+    AuditLog auditLog;
+
+    @Autowired
+    WriteMetrics writeMetrics;
+
     /**
      * GET method for querying a collection of Channel instances, based on a
      * multi-parameter query specifying patterns for tags, property values, and
@@ -111,14 +126,14 @@ public class ChannelManager {
      */
     @GetMapping("/{channelName}")
     public Channel read(@PathVariable("channelName") String channelName) {
-        channelManagerAudit.log(Level.INFO, () -> MessageFormat.format(TextUtil.FIND_CHANNEL, channelName));
+        auditLog.log(AuditLog.READ, AuditLog.CHANNEL, channelName);
 
         Optional<Channel> foundChannel = channelRepository.findById(channelName);
         if (foundChannel.isPresent())
             return foundChannel.get();
         else {
             String message = MessageFormat.format(TextUtil.CHANNEL_NAME_DOES_NOT_EXIST, channelName);
-            logger.log(Level.SEVERE, message, new ResponseStatusException(HttpStatus.NOT_FOUND));
+            logger.log(Level.SEVERE, message);
             throw new ResponseStatusException(HttpStatus.NOT_FOUND, message);
         }
     }
@@ -136,7 +151,8 @@ public class ChannelManager {
     public Channel create(@PathVariable("channelName") String channelName, @RequestBody Channel channel) {
         // check if authorized role
         if(authorizationService.isAuthorizedRole(SecurityContextHolder.getContext().getAuthentication(), ROLES.CF_CHANNEL)) {
-            channelManagerAudit.log(Level.INFO, () -> MessageFormat.format(TextUtil.CREATE_CHANNEL, channel.toLog()));
+            auditLog.log(AuditLog.CREATE, AuditLog.CHANNEL, List.of(channel), Channel::getName, channel::toLog);
+            writeMetrics.request(AuditLog.CHANNEL, 1);
             // Validate request parameters
             validateChannelRequest(channel);
 
@@ -161,7 +177,7 @@ public class ChannelManager {
             return createdChannel;
         } else {
             String message = MessageFormat.format(TextUtil.USER_NOT_AUTHORIZED_ON_CHANNEL, channelName);
-            logger.log(Level.SEVERE, message, new ResponseStatusException(HttpStatus.UNAUTHORIZED));
+            logger.log(Level.SEVERE, message);
             throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, message, null);
         }
     }
@@ -174,60 +190,146 @@ public class ChannelManager {
      */
     @PutMapping
     public Iterable<Channel> create(@RequestBody Iterable<Channel> channels) {
+        return replace(channels).channels();
+    }
+
+    /**
+     * PUT method for creating multiple channels, returning the body selected by the <code>returnDocument</code>
+     * parameter, one of none, minimal or full.
+     *
+     * @param channels - XmlChannels to be created
+     * @param returnDocument - the body to return
+     * @return no body, the outcome of the write of each channel or the channels created
+     */
+    @PutMapping(params = ReturnDocument.PARAMETER)
+    public ResponseEntity<Object> create(@RequestBody Iterable<Channel> channels,
+                                         @RequestParam(ReturnDocument.PARAMETER) String returnDocument) {
+        return respond(ReturnDocument.of(returnDocument), replace(channels));
+    }
+
+    private SaveResult replace(Iterable<Channel> payload) {
+        List<Channel> channels = deduplicate(payload);
         // check if authorized role
         if(authorizationService.isAuthorizedRole(SecurityContextHolder.getContext().getAuthentication(), ROLES.CF_CHANNEL)) {
+            auditLog.log(AuditLog.CREATE, AuditLog.CHANNEL, channels, Channel::getName, () -> toLog(channels));
+            writeMetrics.request(AuditLog.CHANNEL, channels);
             // check if authorized owner
-            long start = System.currentTimeMillis();
             Map<String, Channel> existingChannels = channelRepository.findAllById(StreamSupport
                     .stream(channels.spliterator(), true)
                     .map(Channel::getName)
                     .toList())
                     .stream().collect(Collectors.toMap(Channel::getName, channel -> channel));
+            List<Channel> ownedChannels = new ArrayList<>();
+            for(Channel channel: channels) {
+                Channel existingChannel = existingChannels.get(channel.getName());
+                ownedChannels.add(existingChannel != null ? existingChannel : channel);
+            }
+            checkAuthorizedOwners(ownedChannels);
             for(Channel channel: channels) {
-                boolean present = existingChannels.containsKey(channel.getName());
-                if(present) {
-                    Channel existingChannel = existingChannels.get(channel.getName());
-                    checkAndThrow(!authorizationService.isAuthorizedOwner(SecurityContextHolder.getContext().getAuthentication(), existingChannel), TextUtil.USER_NOT_AUTHORIZED_ON_CHANNEL, existingChannel, HttpStatus.UNAUTHORIZED);
+                Channel existingChannel = existingChannels.get(channel.getName());
+                if(existingChannel != null) {
                     channel.setOwner(existingChannel.getOwner());
-                } else {
-                    checkAndThrow(!authorizationService.isAuthorizedOwner(SecurityContextHolder.getContext().getAuthentication(), channel), TextUtil.USER_NOT_AUTHORIZED_ON_CHANNEL, channel, HttpStatus.UNAUTHORIZED);
                 }
             }
-            logger.log(Level.INFO, "Completed Authorization check : " + (System.currentTimeMillis() - start) + "ms");
-            start = System.currentTimeMillis();
             // Validate request parameters
             validateChannelRequest(channels);
-            logger.log(Level.INFO, "Completed validation check : " + (System.currentTimeMillis() - start) + "ms");
-            start = System.currentTimeMillis();
-
-            // delete existing channels
-            channelRepository.deleteAll(channels);
-            logger.log(Level.INFO, "Completed replacement of Channels : " + (System.currentTimeMillis() - start) + "ms");
-            start = System.currentTimeMillis();
 
             // reset owners of attached tags/props back to existing owners
             resetOwnersToExisting(channels);
 
-            logger.log(Level.INFO, "Completed reset tag and property ownership : " + (System.currentTimeMillis() - start) + "ms");
-            start = System.currentTimeMillis();
-
-            logger.log(Level.INFO, "Completed logging : " + (System.currentTimeMillis() - start) + "ms");
-            start = System.currentTimeMillis();
-            List<Channel> createdChannels = channelRepository.indexAll(Lists.newArrayList(channels));
+            // replace the existing channels, the unchanged channels are not written
+            SaveResult createdChannels = channelRepository.replaceAll(channels);
 
-            logger.log(Level.INFO, "Completed indexing : " + (System.currentTimeMillis() - start) + "ms");
+            reportUnchanged(createdChannels);
             // process the results
-            channelProcessorService.sendToProcessors(createdChannels);
+            channelProcessorService.sendToProcessors(createdChannels.changedChannels());
             // created new channel
             return createdChannels;
         } else {
             String message = MessageFormat.format(TextUtil.USER_NOT_AUTHORIZED_ON_CHANNELS, channels);
-            logger.log(Level.SEVERE, message, new ResponseStatusException(HttpStatus.UNAUTHORIZED));
+            logger.log(Level.SEVERE, message);
             throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, message, null);
         }
     }
 
-    private void resetOwnersToExisting(Iterable<Channel> channels) {
+    /**
+     * PUT method for creating multiple channels in a background job, the job result is the number of channels created.
+     *
+     * @param channels - XmlChannels to be created
+     * @return the submitted job, its progress can be followed with the job resource
+     */
+    @PutMapping(params = "async=true")
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    public JobStatus createAsync(@RequestBody List<Channel> channels) {
+        return jobService.submit(MessageFormat.format(TextUtil.CREATE_CHANNELS_JOB, channels.size()), progress -> {
+            progress.setTotal(channels.size());
+            long created = Iterables.size(create(channels));
+            progress.processed(created);
+            return created;
+        });
+    }
+
+    /**
+     * PUT method for creating multiple channels in a background job with a <code>returnDocument</code>, which is
+     * rejected since the job result is only the number of channels created.
+     */
+    @PutMapping(params = {"async=true", ReturnDocument.PARAMETER})
+    public void createAsyncWithReturnDocument() {
+        logger.log(Level.SEVERE, TextUtil.RETURN_DOCUMENT_ASYNC);
+        throw new ResponseStatusException(HttpStatus.BAD_REQUEST, TextUtil.RETURN_DOCUMENT_ASYNC, null);
+    }
+
+    /**
+     * @return the response of a bulk write with the body selected by the return document
+     */
+    private static ResponseEntity<Object> respond(ReturnDocument returnDocument, SaveResult result) {
+        switch (returnDocument) {
+            case NONE:
+                return ResponseEntity.noContent().build();
+            case MINIMAL:
+                return ResponseEntity.ok(result.items());
+            default:
+                return ResponseEntity.ok(result.channels());
+        }
+    }
+
+    /**
+     * Merge the entries of the same channel in the payload, in order, the later entries winning for the owner and
+     * for the properties and tags with the same name, so that each channel is authorized and written once.
+     * The number of merged entries is reported in the {@value #MERGED_CHANNELS_HEADER} response header
+     */
+    static List<Channel> deduplicate(Iterable<Channel> payload) {
+        Map<String, Channel> channels = new LinkedHashMap<>();
+        int entries = 0;
+        for (Channel channel : payload) {
+            channels.merge(channel.getName(), channel, ChannelRepository::merge);
+            entries++;
+        }
+        int merged = entries - channels.size();
+        if (merged > 0) {
+            logger.log(Level.FINE, () -> MessageFormat.format(TextUtil.MERGED_DUPLICATE_CHANNELS, merged));
+        }
+        if (RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes
+                && attributes.getResponse() != null) {
+            attributes.getResponse().setHeader(MERGED_CHANNELS_HEADER, String.valueOf(merged));
+        }
+        return new ArrayList<>(channels.values());
+    }
+
+    /**
+     * Report the number of unchanged channels, which were not written, in the {@value #UNCHANGED_CHANNELS_HEADER} response header
+     */
+    private void reportUnchanged(SaveResult result) {
+        if (RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes
+                && attributes.getResponse() != null) {
+            attributes.getResponse().setHeader(UNCHANGED_CHANNELS_HEADER, String.valueOf(result.unchanged()));
+        }
+    }
+
+    /**
+     * Reset the owners of the tags and properties of the channels to the owners of the existing tags and properties
+     */
+    void resetOwnersToExisting(Iterable<Channel> channels) {
         Map<String, String> propOwners = StreamSupport
                 .stream(propertyRepository.findAll().spliterator(), true)
                 .collect(Collectors.toUnmodifiableMap(Property::getName, Property::getOwner));
@@ -252,48 +354,64 @@ public class ChannelManager {
     @PostMapping("/{channelName}")
     public Channel update(@PathVariable("channelName") String channelName, @RequestBody Channel channel) {
         if(authorizationService.isAuthorizedRole(SecurityContextHolder.getContext().getAuthentication(), ROLES.CF_CHANNEL)) {
-            long start = System.currentTimeMillis();
+            auditLog.log(AuditLog.UPDATE, AuditLog.CHANNEL, List.of(channel), c -> channelName, channel::toLog);
+            writeMetrics.request(AuditLog.CHANNEL, 1);
 
             // Validate request parameters
             validateChannelRequest(channel);
 
-            final long time = System.currentTimeMillis() - start;
-            channelManagerAudit.log(Level.INFO, () -> MessageFormat.format(TextUtil.PATH_POST_VALIDATION_TIME, servletContext.getContextPath(), time));
-
             // check if authorized owner
             checkAndThrow(!authorizationService.isAuthorizedOwner(SecurityContextHolder.getContext().getAuthentication(), channel), TextUtil.USER_NOT_AUTHORIZED_ON_CHANNEL, channel, HttpStatus.UNAUTHORIZED);
-            Optional<Channel> existingChannel = channelRepository.findById(channelName);
+            Optional<VersionedChannel> existingChannel = Optional.ofNullable(
+                    channelRepository.findAllVersionedById(List.of(channelName)).get(channelName));
             boolean present = existingChannel.isPresent();
 
-            Channel newChannel;
+            // reset owners of attached tags/props back to existing owners
+            channel.getProperties().forEach(prop -> prop.setOwner(propertyRepository.findById(prop.getName()).get().getOwner()));
+            channel.getTags().forEach(tag -> tag.setOwner(tagRepository.findById(tag.getName()).get().getOwner()));
+
+            Channel updatedChannels = null;
+            SaveResult savedChannels = null;
             if(present) {
-                checkAndThrow(!authorizationService.isAuthorizedOwner(SecurityContextHolder.getContext().getAuthentication(), existingChannel.get()), TextUtil.USER_NOT_AUTHORIZED_ON_CHANNEL, existingChannel.get(), HttpStatus.UNAUTHORIZED);
-                newChannel = existingChannel.get();
-                newChannel.setOwner(channel.getOwner());
-                newChannel.addProperties(channel.getProperties());
-                newChannel.addTags(channel.getTags());
+                Channel existing = existingChannel.get().channel();
+                checkAndThrow(!authorizationService.isAuthorizedOwner(SecurityContextHolder.getContext().getAuthentication(), existing), TextUtil.USER_NOT_AUTHORIZED_ON_CHANNEL, existing, HttpStatus.UNAUTHORIZED);
                 // Is an existing channel being renamed
-                if (!channel.getName().equalsIgnoreCase(existingChannel.get().getName())) {
+                if (!channel.getName().equalsIgnoreCase(existing.getName())) {
+                    Channel newChannel = existing;
+                    newChannel.setOwner(channel.getOwner());
+                    newChannel.addProperties(channel.getProperties());
+                    newChannel.addTags(channel.getTags());
                     // Since this is a rename operation we will need to remove the old channel.
-                    channelRepository.deleteById(existingChannel.get().getName());
+                    channelRepository.deleteById(existing.getName());
                     newChannel.setName(channel.getName());
+                    updatedChannels = channelRepository.save(newChannel);
+                } else {
+                    // merge into the existing channel, conditionally on it not having been modified since it was read
+                    channel.setName(existing.getName());
+                    savedChannels = channelRepository.saveAll(List.of(channel), Map.of(existing.getName(), existingChannel.get()),
+                            ownershipRecheck(false));
                 }
             } else {
-                newChannel = channel;
+                savedChannels = channelRepository.saveAll(List.of(channel), Map.of(), ownershipRecheck(false));
+            }
+            if (savedChannels != null) {
+                reportUnchanged(savedChannels);
+                updatedChannels = savedChannels.channels().get(0);
+            } else if (updatedChannels == null) {
+                String message = MessageFormat.format(TextUtil.FAILED_TO_UPDATE_CHANNEL, channelName);
+                logger.log(Level.SEVERE, message);
+                throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, message, null);
             }
 
-            // reset owners of attached tags/props back to existing owners
-            channel.getProperties().forEach(prop -> prop.setOwner(propertyRepository.findById(prop.getName()).get().getOwner()));
-            channel.getTags().forEach(tag -> tag.setOwner(tagRepository.findById(tag.getName()).get().getOwner()));
-
-            Channel updatedChannels = channelRepository.save(newChannel);
-            // process the results
-            channelProcessorService.sendToProcessors(List.of(updatedChannels));
+            // process the results, unless the channel is unchanged
+            if (savedChannels == null || !savedChannels.changedChannels().isEmpty()) {
+                channelProcessorService.sendToProcessors(List.of(updatedChannels));
+            }
             // created new channel
             return updatedChannels;
         } else {
             String message = MessageFormat.format(TextUtil.USER_NOT_AUTHORIZED_ON_CHANNEL, channelName);
-            logger.log(Level.SEVERE, message, new ResponseStatusException(HttpStatus.UNAUTHORIZED));
+            logger.log(Level.SEVERE, message);
             throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, message, null);
         }
     }
@@ -307,40 +425,64 @@ public class ChannelManager {
      */
     @PostMapping()
     public Iterable<Channel> update(@RequestBody Iterable<Channel> channels) {
+        return merge(channels).channels();
+    }
+
+    /**
+     * POST method for merging properties and tags of the Channels identified by the payload into existing
+     * channels, returning the body selected by the <code>returnDocument</code> parameter, one of none, minimal or full.
+     *
+     * @param channels - XmlChannels to be updated
+     * @param returnDocument - the body to return
+     * @return no body, the outcome of the write of each channel or the updated channels
+     */
+    @PostMapping(params = ReturnDocument.PARAMETER)
+    public ResponseEntity<Object> update(@RequestBody Iterable<Channel> channels,
+                                         @RequestParam(ReturnDocument.PARAMETER) String returnDocument) {
+        return respond(ReturnDocument.of(returnDocument), merge(channels));
+    }
+
+    private SaveResult merge(Iterable<Channel> payload) {
+        List<Channel> channels = deduplicate(payload);
         // check if authorized role
         if(authorizationService.isAuthorizedRole(SecurityContextHolder.getContext().getAuthentication(), ROLES.CF_CHANNEL)) {
-            long start = System.currentTimeMillis();
+            auditLog.log(AuditLog.UPDATE, AuditLog.CHANNEL, channels, Channel::getName, () -> toLog(channels));
+            writeMetrics.request(AuditLog.CHANNEL, channels);
 
+            // load the existing channels once, they are used for the authorization check and the merge
+            Map<String, VersionedChannel> existingChannels = channelRepository.findAllVersionedById(StreamSupport
+                    .stream(channels.spliterator(), false)
+                    .map(Channel::getName)
+                    .toList());
+            List<Channel> ownedChannels = new ArrayList<>();
             for(Channel channel: channels) {
-                Optional<Channel> existingChannel = channelRepository.findById(channel.getName());
-                boolean present = existingChannel.isPresent();
-                if(present) {
-                    checkAndThrow(!authorizationService.isAuthorizedOwner(SecurityContextHolder.getContext().getAuthentication(), existingChannel.get()), TextUtil.USER_NOT_AUTHORIZED_ON_CHANNEL, existingChannel.get(), HttpStatus.UNAUTHORIZED);
-                    channel.setOwner(existingChannel.get().getOwner());
-                } else {
-                    checkAndThrow(!authorizationService.isAuthorizedOwner(SecurityContextHolder.getContext().getAuthentication(), channel), TextUtil.USER_NOT_AUTHORIZED_ON_CHANNEL, channel, HttpStatus.UNAUTHORIZED);
+                Channel existingChannel = existingChannels.containsKey(channel.getName())
+                        ? existingChannels.get(channel.getName()).channel() : null;
+                ownedChannels.add(existingChannel != null ? existingChannel : channel);
+            }
+            checkAuthorizedOwners(ownedChannels);
+            for(Channel channel: channels) {
+                if(existingChannels.containsKey(channel.getName())) {
+                    channel.setOwner(existingChannels.get(channel.getName()).channel().getOwner());
                 }
             }
 
             // Validate request parameters
             validateChannelRequest(channels);
 
-            final long time = System.currentTimeMillis() - start;
-            channelManagerAudit.log(Level.INFO, () -> MessageFormat.format(TextUtil.PATH_POST_PREPERATION_TIME, servletContext.getContextPath(), time));
-
             // reset owners of attached tags/props back to existing owners
             resetOwnersToExisting(channels);
-            channelManagerAudit.log(Level.INFO, () -> MessageFormat.format(TextUtil.PATH_POST_PREPERATION_TIME, servletContext.getContextPath(), time));
 
-            // update channels
-            List<Channel> updatedChannels =  FluentIterable.from(channelRepository.saveAll(channels)).toList();
-            // process the results
-            channelProcessorService.sendToProcessors(updatedChannels);
+            // update channels, the updated channels are merged in memory rather than read back
+            SaveResult updatedChannels = channelRepository.saveAll(channels, existingChannels, ownershipRecheck(true));
+            reportUnchanged(updatedChannels);
+            // process the results, the unchanged channels are not sent to the processors
+            channelProcessorService.sendToProcessors(updatedChannels.changedChannels());
             // created new channel
             return updatedChannels;
         } else {
             String message = MessageFormat.format(TextUtil.USER_NOT_AUTHORIZED_ON_CHANNELS, channels);
-            logger.log(Level.SEVERE, message, new ResponseStatusException(HttpStatus.UNAUTHORIZED));
+            logger.log(Level.SEVERE, message);
             throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, message, null);
         }
     }
@@ -355,7 +497,8 @@ public class ChannelManager {
     public void remove(@PathVariable("channelName") String channelName) {
         // check if authorized role
         if(authorizationService.isAuthorizedRole(SecurityContextHolder.getContext().getAuthentication(), ROLES.CF_CHANNEL)) {
-            channelManagerAudit.log(Level.INFO, () -> MessageFormat.format(TextUtil.DELETE_CHANNEL, channelName));
+            auditLog.log(AuditLog.DELETE, AuditLog.CHANNEL, channelName);
+            writeMetrics.request(AuditLog.CHANNEL, 1);
             Optional<Channel> existingChannel = channelRepository.findById(channelName);
             if(existingChannel.isPresent()) {
                 // check if authorized owner
@@ -364,17 +507,17 @@ public class ChannelManager {
                     channelRepository.deleteById(channelName);
                 } else {
                     String message = MessageFormat.format(TextUtil.USER_NOT_AUTHORIZED_ON_CHANNEL, channelName);
-                    logger.log(Level.SEVERE, message, new ResponseStatusException(HttpStatus.UNAUTHORIZED));
+                    logger.log(Level.SEVERE, message);
                     throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, message, null);
                 }
             } else {
                 String message = MessageFormat.format(TextUtil.CHANNEL_NAME_DOES_NOT_EXIST, channelName);
-                logger.log(Level.SEVERE, message, new ResponseStatusException(HttpStatus.NOT_FOUND));
+                logger.log(Level.SEVERE, message);
                 throw new ResponseStatusException(HttpStatus.NOT_FOUND, message);
             }
         } else {
             String message = MessageFormat.format(TextUtil.USER_NOT_AUTHORIZED_ON_CHANNEL, channelName);
-            logger.log(Level.SEVERE, message, new ResponseStatusException(HttpStatus.UNAUTHORIZED));
+            logger.log(Level.SEVERE, message);
             throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, message, null);
         }
     }
@@ -388,14 +531,19 @@ public class ChannelManager {
      * @param channel channel to be validated
      */
     public void validateChannelRequest(Channel channel) {
-        // 1
-        checkAndThrow(channel.getName() == null || channel.getName().isEmpty(), TextUtil.CHANNEL_NAME_CANNOT_BE_NULL_OR_EMPTY, channel, HttpStatus.BAD_REQUEST);
-        // 2
-        checkAndThrow(channel.getOwner() == null || channel.getOwner().isEmpty(), TextUtil.CHANNEL_OWNER_CANNOT_BE_NULL_OR_EMPTY, channel, HttpStatus.BAD_REQUEST);
-        // 3 
-        checkTags(channel);
-        // 3 
-        checkProperties(channel);
+        RequestPhases.Scope scope = RequestPhases.start(RequestPhases.Phase.VALIDATION);
+        try {
+            // 1
+            checkValid(channel.getName() == null || channel.getName().isEmpty(), WriteMetrics.NAME, TextUtil.CHANNEL_NAME_CANNOT_BE_NULL_OR_EMPTY, channel);
+            // 2
+            checkValid(channel.getOwner() == null || channel.getOwner().isEmpty(), WriteMetrics.OWNER, TextUtil.CHANNEL_OWNER_CANNOT_BE_NULL_OR_EMPTY, channel);
+            // 3 
+            checkTags(channel);
+            // 3 
+            checkProperties(channel);
+        } finally {
+            scope.close();
+        }
     }
 
     private void checkProperties(Channel channel) {
@@ -404,7 +552,8 @@ public class ChannelManager {
         for(String propertyName:propertyNames) {
             if(!propertyRepository.existsById(propertyName)) {
                 String message = MessageFormat.format(TextUtil.PROPERTY_NAME_DOES_NOT_EXIST, propertyName);
-                logger.log(Level.SEVERE, message, new ResponseStatusException(HttpStatus.NOT_FOUND));
+                writeMetrics.validationFailed(AuditLog.CHANNEL, WriteMetrics.PROPERTY_NOT_FOUND);
+                logger.log(Level.SEVERE, message);
                 throw new ResponseStatusException(HttpStatus.NOT_FOUND, message);
             }
         }
@@ -415,7 +564,8 @@ public class ChannelManager {
         for(String propertyValue:propertyValues) {
             if(propertyValue == null || propertyValue.isEmpty()) {
                 String message = MessageFormat.format(TextUtil.PROPERTY_VALUE_NULL_OR_EMPTY, propertyNames.get(propertyValues.indexOf(propertyValue)), propertyValue);
-                logger.log(Level.SEVERE, message, new ResponseStatusException(HttpStatus.BAD_REQUEST));
+                writeMetrics.validationFailed(AuditLog.CHANNEL, WriteMetrics.VALUE);
+                logger.log(Level.SEVERE, message);
                 throw new ResponseStatusException(HttpStatus.BAD_REQUEST, message);
             }
         }
@@ -426,16 +576,63 @@ public class ChannelManager {
         for(String tagName:tagNames) {
             if(!tagRepository.existsById(tagName)) {
                 String message = MessageFormat.format(TextUtil.TAG_NAME_DOES_NOT_EXIST, tagName);
-                logger.log(Level.SEVERE, message, new ResponseStatusException(HttpStatus.NOT_FOUND));
+                writeMetrics.validationFailed(AuditLog.CHANNEL, WriteMetrics.TAG_NOT_FOUND);
+                logger.log(Level.SEVERE, message);
                 throw new ResponseStatusException(HttpStatus.NOT_FOUND, message);
             }
         }
     }
 
+    private static String toLog(List<Channel> channels) {
+        return channels.stream().map(Channel::toLog).collect(Collectors.joining(","));
+    }
+
+    /**
+     * Check the ownership of all the channels at once, each distinct owner is checked once
+     *
+     * @param channels - the existing channels, or the new channels which do not exist
+     */
+    void checkAuthorizedOwners(List<Channel> channels) {
+        List<Channel> unauthorized = authorizationService.findUnauthorizedOwners(
+                SecurityContextHolder.getContext().getAuthentication(), channels, Channel::getOwner);
+        if (!unauthorized.isEmpty()) {
+            checkAndThrow(true, TextUtil.USER_NOT_AUTHORIZED_ON_CHANNEL, unauthorized.get(0), HttpStatus.UNAUTHORIZED);
+        }
+    }
+
+    private void checkValid(boolean invalid, String reason, String messageTemplate, Channel channel) {
+        if (invalid) {
+            writeMetrics.validationFailed(AuditLog.CHANNEL, reason);
+            checkAndThrow(true, messageTemplate, channel, HttpStatus.BAD_REQUEST);
+        }
+    }
+
+    /**
+     * The ownership check of the channels read again before retrying a conflicting write: the user must own the
+     * channels which were created, or whose owner changed, in the meantime
+     *
+     * @param keepOwners - true if the merged channels keep the owner of the existing channels
+     */
+    ChannelRepository.RetryCheck ownershipRecheck(boolean keepOwners) {
+        return (channels, existingChannels) -> {
+            List<Channel> ownedChannels = new ArrayList<>();
+            for (Channel channel : channels) {
+                VersionedChannel existingChannel = existingChannels.get(channel.getName());
+                ownedChannels.add(existingChannel != null ? existingChannel.channel() : channel);
+            }
+            checkAuthorizedOwners(ownedChannels);
+            if (keepOwners) {
+                for (int i = 0; i < channels.size(); i++) {
+                    channels.get(i).setOwner(ownedChannels.get(i).getOwner());
+                }
+            }
+        };
+    }
+
     private static void checkAndThrow(boolean channel, String channelNameCannotBeNullOrEmpty, Channel channel1, HttpStatus badRequest) {
         if (channel) {
             String message = MessageFormat.format(channelNameCannotBeNullOrEmpty, channel1.toLog());
-            logger.log(Level.SEVERE, message, new ResponseStatusException(badRequest));
+            logger.log(Level.SEVERE, message);
             throw new ResponseStatusException(badRequest, message, null);
         }
     }
@@ -449,39 +646,46 @@ public class ChannelManager {
      * @param channels list of channels to be validated
      */
     public void validateChannelRequest(Iterable<Channel> channels) {
-        List<String> existingProperties = StreamSupport
-                .stream(propertyRepository.findAll().spliterator(), true)
-                .map(Property::getName)
-                .toList();
-        List<String> existingTags = StreamSupport
-                .stream(tagRepository.findAll().spliterator(), true)
-                .map(Tag::getName)
-                .toList();
-        for(Channel channel: channels) {
-            // 1
-            checkAndThrow(channel.getName() == null || channel.getName().isEmpty(), TextUtil.CHANNEL_NAME_CANNOT_BE_NULL_OR_EMPTY, channel, HttpStatus.BAD_REQUEST);
-            // 2
-            checkAndThrow(channel.getOwner() == null || channel.getOwner().isEmpty(), TextUtil.CHANNEL_OWNER_CANNOT_BE_NULL_OR_EMPTY, channel, HttpStatus.BAD_REQUEST);
-            // 3
-            List <String> tagNames = channel.getTags().stream().map(Tag::getName).toList();
-            for(String tagName:tagNames) {
-                if(!existingTags.contains(tagName)) {
-                    String message = MessageFormat.format(TextUtil.TAG_NAME_DOES_NOT_EXIST, tagName);
-                    logger.log(Level.SEVERE, message, new ResponseStatusException(HttpStatus.NOT_FOUND));
-                    throw new ResponseStatusException(HttpStatus.NOT_FOUND, message);
+        RequestPhases.Scope scope = RequestPhases.start(RequestPhases.Phase.VALIDATION);
+        try {
+            List<String> existingProperties = StreamSupport
+                    .stream(propertyRepository.findAll().spliterator(), true)
+                    .map(Property::getName)
+                    .toList();
+            List<String> existingTags = StreamSupport
+                    .stream(tagRepository.findAll().spliterator(), true)
+                    .map(Tag::getName)
+                    .toList();
+            for(Channel channel: channels) {
+                // 1
+                checkValid(channel.getName() == null || channel.getName().isEmpty(), WriteMetrics.NAME, TextUtil.CHANNEL_NAME_CANNOT_BE_NULL_OR_EMPTY, channel);
+                // 2
+                checkValid(channel.getOwner() == null || channel.getOwner().isEmpty(), WriteMetrics.OWNER, TextUtil.CHANNEL_OWNER_CANNOT_BE_NULL_OR_EMPTY, channel);
+                // 3
+                List <String> tagNames = channel.getTags().stream().map(Tag::getName).toList();
+                for(String tagName:tagNames) {
+                    if(!existingTags.contains(tagName)) {
+                        String message = MessageFormat.format(TextUtil.TAG_NAME_DOES_NOT_EXIST, tagName);
+                        writeMetrics.validationFailed(AuditLog.CHANNEL, WriteMetrics.TAG_NOT_FOUND);
+                        logger.log(Level.SEVERE, message);
+                        throw new ResponseStatusException(HttpStatus.NOT_FOUND, message);
+                    }
                 }
-            }
-            // 3
-            List <String> propertyNames = channel.getProperties().stream().map(Property::getName).toList();
-            List <String> propertyValues = channel.getProperties().stream().map(Property::getValue).toList();
-            for(String propertyName:propertyNames) {
-                if(!existingProperties.contains(propertyName)) {
-                    String message = MessageFormat.format(TextUtil.PROPERTY_NAME_DOES_NOT_EXIST, propertyName);
-                    logger.log(Level.SEVERE, message, new ResponseStatusException(HttpStatus.NOT_FOUND));
-                    throw new ResponseStatusException(HttpStatus.NOT_FOUND, message);
+                // 3
+                List <String> propertyNames = channel.getProperties().stream().map(Property::getName).toList();
+                List <String> propertyValues = channel.getProperties().stream().map(Property::getValue).toList();
+                for(String propertyName:propertyNames) {
+                    if(!existingProperties.contains(propertyName)) {
+                        String message = MessageFormat.format(TextUtil.PROPERTY_NAME_DOES_NOT_EXIST, propertyName);
+                        writeMetrics.validationFailed(AuditLog.CHANNEL, WriteMetrics.PROPERTY_NOT_FOUND);
+                        logger.log(Level.SEVERE, message);
+                        throw new ResponseStatusException(HttpStatus.NOT_FOUND, message);
+                    }
                 }
+                checkValues(propertyNames, propertyValues);
             }
-            checkValues(propertyNames, propertyValues);
+        } finally {
+            scope.close();
         }
     }
 
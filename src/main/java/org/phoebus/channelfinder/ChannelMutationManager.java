@@ -0,0 +1,308 @@
+package org.phoebus.channelfinder;
+
+import static org.phoebus.channelfinder.CFResourceDescriptors.MUTATION_RESOURCE_URI;
+
+import java.io.IOException;
+import java.text.MessageFormat;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.phoebus.channelfinder.AuthorizationService.ROLES;
+import org.phoebus.channelfinder.entity.Channel;
+import org.phoebus.channelfinder.entity.ChannelMutation;
+import org.phoebus.channelfinder.entity.Property;
+import org.phoebus.channelfinder.entity.Tag;
+import org.phoebus.channelfinder.entity.TaskStatus;
+import org.phoebus.channelfinder.processors.ChannelProcessorService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.MultiValueMap;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import javax.annotation.PreDestroy;
+
+import co.elastic.clients.elasticsearch._types.ElasticsearchException;
+import co.elastic.clients.elasticsearch._types.Script;
+
+/**
+ * Apply a mutation, e.g. adding a tag or setting a property value, to all the channels matching a query.
+ * The mutation is run by elastic as an update (or delete) by query task, its progress can be followed
+ * with the task resource.
+ */
+@CrossOrigin
+@RestController
+@RequestMapping(MUTATION_RESOURCE_URI)
+@EnableAutoConfiguration
+public class ChannelMutationManager {
+
+    private static final Logger logger = Logger.getLogger(ChannelMutationManager.class.getName());
+
+    private static final String POINT_IN_TIME_KEEP_ALIVE = "5m";
+    private static final long TASK_POLL_INTERVAL_MILLIS = 1000;
+
+    @Autowired
+    private ElasticConfig esService;
+
+    @Autowired
+    ChannelRepository channelRepository;
+
+    @Autowired
+    TagRepository tagRepository;
+
+    @Autowired
+    PropertyRepository propertyRepository;
+
+    @Autowired
+    AuthorizationService authorizationService;
+
+    @Autowired
+    ChannelProcessorService channelProcessorService;
+
+    @Autowired
+    TaskRegistry taskRegistry;
+
+    @Autowired
+    AuditLog auditLog;
+
+    @Autowired
+    private TaskExecutor taskExecutor;
+
+    @Value("${elasticsearch.query.size:10000}")
+    private int defaultMaxSize;
+
+    @Value("${mutation.notify.max_wait_minutes:60}")
+    private long maxWaitMinutes;
+
+    /**
+     * Polls the running tasks, the processors are notified on the task executor once a task has completed
+     */
+    private final ScheduledExecutorService taskPoller = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "cf-mutation-task-poller");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * POST method applying the <code>mutation</code> to all the channels matching the search parameters.
+     * <p>
+     * Adding or removing a tag requires ownership of the tag, setting or removing a property requires ownership
+     * of the property and deleting the matching channels requires the admin role.
+     * The enabled channel processors are notified of the updated channels, in batches, once the task has completed.
+     *
+     * @param allRequestParams - channel search parameters, at least one is required
+     * @param mutation - the mutation to apply
+     * @return the submitted task
+     */
+    @PostMapping
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    public TaskStatus mutate(@RequestParam MultiValueMap<String, String> allRequestParams,
+                             @RequestBody ChannelMutation mutation) {
+        MultiValueMap<String, String> searchParameters = new LinkedMultiValueMap<>(allRequestParams);
+        searchParameters.remove("~size");
+        searchParameters.remove("~from");
+        searchParameters.remove("~search_after");
+        searchParameters.remove("~track_total_hits");
+        if (searchParameters.isEmpty()) {
+            logger.log(Level.SEVERE, TextUtil.MUTATION_REQUIRES_SEARCH_PARAMETERS);
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, TextUtil.MUTATION_REQUIRES_SEARCH_PARAMETERS);
+        }
+
+        String description = MessageFormat.format(TextUtil.MUTATE_CHANNELS, searchParameters, mutation == null ? null : mutation.toLog());
+        String taskId;
+        if (mutation != null && mutation.action() == ChannelMutation.Action.DELETE) {
+            checkAuthorizedRole(ROLES.CF_ADMIN, description);
+            taskId = channelRepository.deleteByQueryAsync(searchParameters);
+        } else {
+            Script script = authorizedScript(mutation, description);
+            // the point in time is opened before the update, so the channels which no longer match the query
+            // after the update, e.g. when removing the tag used in the query, are still notified
+            String pitId = channelProcessorService.hasEnabledProcessors() ? channelRepository.openPointInTime(POINT_IN_TIME_KEEP_ALIVE) : null;
+            try {
+                taskId = channelRepository.updateByQueryAsync(searchParameters, script);
+            } catch (ResponseStatusException e) {
+                if (pitId != null) {
+                    channelRepository.closePointInTime(pitId);
+                }
+                throw e;
+            }
+            if (pitId != null) {
+                long deadline = System.nanoTime() + TimeUnit.MINUTES.toNanos(maxWaitMinutes);
+                schedulePoll(taskId, pitId, searchParameters, deadline);
+            }
+        }
+        taskRegistry.register(taskId, SecurityContextHolder.getContext().getAuthentication().getName());
+        auditLog.log(mutation.action() == ChannelMutation.Action.DELETE ? AuditLog.DELETE : AuditLog.UPDATE, AuditLog.CHANNEL,
+                List.of(searchParameters.toString()), scope -> scope, mutation::toLog);
+        logger.log(Level.INFO, () -> MessageFormat.format(TextUtil.SUBMITTED_TASK, taskId, description));
+        return TaskStatus.submitted(taskId, description);
+    }
+
+    /**
+     * Validate the mutation, check that the user is authorized to apply it and create the script applying it.
+     *
+     * @return the script, null for a delete which is not applied with a script
+     */
+    Script authorizedScript(ChannelMutation mutation, String description) {
+        if (mutation == null || mutation.action() == null) {
+            throw invalid(mutation);
+        }
+        switch (mutation.action()) {
+            case DELETE:
+                checkAuthorizedRole(ROLES.CF_ADMIN, description);
+                return null;
+            case ADD_TAG:
+            case REMOVE_TAG: {
+                if (mutation.tag() == null || mutation.tag().getName() == null || mutation.tag().getName().isEmpty()) {
+                    throw invalid(mutation);
+                }
+                checkAuthorizedRole(ROLES.CF_TAG, description);
+                Tag tag = tagRepository.findById(mutation.tag().getName()).orElseThrow(() -> {
+                    String message = MessageFormat.format(TextUtil.TAG_NAME_DOES_NOT_EXIST, mutation.tag().getName());
+                    logger.log(Level.SEVERE, message);
+                    return new ResponseStatusException(HttpStatus.NOT_FOUND, message);
+                });
+                if (!authorizationService.isAuthorizedOwner(SecurityContextHolder.getContext().getAuthentication(), tag)) {
+                    String message = MessageFormat.format(TextUtil.USER_NOT_AUTHORIZED_ON_TAG, tag.toLog());
+                    logger.log(Level.SEVERE, message);
+                    throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, message, null);
+                }
+                return mutation.action() == ChannelMutation.Action.ADD_TAG
+                        ? ChannelScripts.addTag(new Tag(tag.getName(), tag.getOwner()))
+                        : ChannelScripts.removeTag(tag.getName());
+            }
+            case SET_PROPERTY:
+            case REMOVE_PROPERTY: {
+                if (mutation.property() == null || mutation.property().getName() == null || mutation.property().getName().isEmpty()) {
+                    throw invalid(mutation);
+                }
+                boolean set = mutation.action() == ChannelMutation.Action.SET_PROPERTY;
+                if (set && (mutation.property().getValue() == null || mutation.property().getValue().isEmpty())) {
+                    String message = MessageFormat.format(TextUtil.PROPERTY_VALUE_NULL_OR_EMPTY,
+                            mutation.property().getName(), mutation.property().getValue());
+                    logger.log(Level.SEVERE, message);
+                    throw new ResponseStatusException(HttpStatus.BAD_REQUEST, message);
+                }
+                checkAuthorizedRole(ROLES.CF_PROPERTY, description);
+                Property property = propertyRepository.findById(mutation.property().getName()).orElseThrow(() -> {
+                    String message = MessageFormat.format(TextUtil.PROPERTY_NAME_DOES_NOT_EXIST, mutation.property().getName());
+                    logger.log(Level.SEVERE, message);
+                    return new ResponseStatusException(HttpStatus.NOT_FOUND, message);
+                });
+                if (!authorizationService.isAuthorizedOwner(SecurityContextHolder.getContext().getAuthentication(), property)) {
+                    String message = MessageFormat.format(TextUtil.USER_NOT_AUTHORIZED_ON_PROPERTY, property.toLog());
+                    logger.log(Level.SEVERE, message);
+                    throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, message, null);
+                }
+                return set
+                        ? ChannelScripts.addProperty(new Property(property.getName(), property.getOwner(), mutation.property().getValue()))
+                        : ChannelScripts.removeProperty(property.getName());
+            }
+            default:
+                throw invalid(mutation);
+        }
+    }
+
+    private void checkAuthorizedRole(ROLES role, String description) {
+        if (!authorizationService.isAuthorizedRole(SecurityContextHolder.getContext().getAuthentication(), role)) {
+            String message = MessageFormat.format(TextUtil.USER_NOT_AUTHORIZED_ON_CHANNELS, description);
+            logger.log(Level.SEVERE, message);
+            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, message, null);
+        }
+    }
+
+    private static ResponseStatusException invalid(ChannelMutation mutation) {
+        String message = MessageFormat.format(TextUtil.MUTATION_INVALID, mutation == null ? null : mutation.toLog());
+        logger.log(Level.SEVERE, message);
+        return new ResponseStatusException(HttpStatus.BAD_REQUEST, message);
+    }
+
+    private void schedulePoll(String taskId, String pitId, MultiValueMap<String, String> searchParameters, long deadline) {
+        taskPoller.schedule(() -> poll(taskId, pitId, searchParameters, deadline),
+                TASK_POLL_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Check if the task has completed, then notify the processors on the task executor. Otherwise extend the point
+     * in time and poll again, until the maximum wait.
+     * <p>
+     * A task which can no longer be found is no longer running, the processors are notified of the channels it
+     * may have updated.
+     */
+    private void poll(String taskId, String pitId, MultiValueMap<String, String> searchParameters, long deadline) {
+        try {
+            boolean completed;
+            try {
+                completed = esService.getSearchClient().tasks().get(g -> g.taskId(taskId)).completed();
+            } catch (ElasticsearchException e) {
+                if (e.status() != HttpStatus.NOT_FOUND.value()) {
+                    throw e;
+                }
+                logger.log(Level.WARNING, () -> MessageFormat.format(TextUtil.NOTIFY_PROCESSORS_TASK_NOT_FOUND, taskId));
+                completed = true;
+            }
+            if (completed) {
+                taskExecutor.execute(() -> notifyProcessors(taskId, pitId, searchParameters));
+                return;
+            }
+            if (System.nanoTime() - deadline >= 0) {
+                logger.log(Level.SEVERE, () -> MessageFormat.format(TextUtil.NOTIFY_PROCESSORS_TIMED_OUT, taskId, maxWaitMinutes));
+                channelRepository.closePointInTime(pitId);
+                return;
+            }
+            // extend the point in time while waiting
+            channelRepository.findNames(pitId, POINT_IN_TIME_KEEP_ALIVE, searchParameters, null, 0);
+            schedulePoll(taskId, pitId, searchParameters, deadline);
+        } catch (RuntimeException | IOException e) {
+            logger.log(Level.SEVERE, MessageFormat.format(TextUtil.FAILED_TO_NOTIFY_PROCESSORS, taskId), e);
+            channelRepository.closePointInTime(pitId);
+        }
+    }
+
+    /**
+     * Send the channels updated by the completed task to the processors in batches.
+     * The names of the channels are read from the point in time opened before the update, the channels
+     * themselves are read after the update.
+     */
+    private void notifyProcessors(String taskId, String pitId, MultiValueMap<String, String> searchParameters) {
+        try {
+            long count = 0;
+            String searchAfter = null;
+            List<String> names = channelRepository.findNames(pitId, POINT_IN_TIME_KEEP_ALIVE, searchParameters, searchAfter, defaultMaxSize);
+            while (!names.isEmpty()) {
+                List<Channel> channels = channelRepository.findAllById(names);
+                channelProcessorService.sendToProcessors(channels);
+                count += channels.size();
+                searchAfter = names.get(names.size() - 1);
+                names = names.size() < defaultMaxSize ? List.of()
+                        : channelRepository.findNames(pitId, POINT_IN_TIME_KEEP_ALIVE, searchParameters, searchAfter, defaultMaxSize);
+            }
+            long notified = count;
+            logger.log(Level.INFO, () -> MessageFormat.format(TextUtil.NOTIFIED_PROCESSORS, notified, taskId));
+        } catch (ElasticsearchException | ResponseStatusException e) {
+            logger.log(Level.SEVERE, MessageFormat.format(TextUtil.FAILED_TO_NOTIFY_PROCESSORS, taskId), e);
+        } finally {
+            channelRepository.closePointInTime(pitId);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        taskPoller.shutdownNow();
+    }
+}
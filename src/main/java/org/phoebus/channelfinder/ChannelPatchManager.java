@@ -0,0 +1,221 @@
+package org.phoebus.channelfinder;
+
+import static org.phoebus.channelfinder.CFResourceDescriptors.CHANNEL_RESOURCE_URI;
+
+import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
+
+import org.phoebus.channelfinder.AuthorizationService.ROLES;
+import org.phoebus.channelfinder.entity.BulkItemResult;
+import org.phoebus.channelfinder.entity.BulkItemResult.Outcome;
+import org.phoebus.channelfinder.entity.Channel;
+import org.phoebus.channelfinder.entity.ChannelPatch;
+import org.phoebus.channelfinder.entity.Property;
+import org.phoebus.channelfinder.entity.Tag;
+import org.phoebus.channelfinder.processors.ChannelProcessorService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.PatchMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import co.elastic.clients.elasticsearch._types.Script;
+
+/**
+ * Apply a batch of small changes, e.g. adding a tag or setting a property value, to explicitly named channels,
+ * without reading and writing back the complete channels.
+ * <p>
+ * The operations are grouped per channel and applied with a single bulk of scripted partial updates, one
+ * update per channel.
+ */
+@CrossOrigin
+@RestController
+@RequestMapping(CHANNEL_RESOURCE_URI)
+@EnableAutoConfiguration
+public class ChannelPatchManager {
+
+    private static final Logger logger = Logger.getLogger(ChannelPatchManager.class.getName());
+
+    @Autowired
+    ChannelRepository channelRepository;
+
+    @Autowired
+    TagRepository tagRepository;
+
+    @Autowired
+    PropertyRepository propertyRepository;
+
+    @Autowired
+    AuthorizationService authorizationService;
+
+    @Autowired
+    ChannelProcessorService channelProcessorService;
+
+    @Autowired
+    AuditLog auditLog;
+
+    /**
+     * PATCH method applying the operations to the named channels, in order.
+     * <p>
+     * Each operation requires ownership of the channel, adding or removing a tag also requires ownership of the
+     * tag, setting or removing a property ownership of the property, and setting the owner ownership of the new
+     * owner. The operations which are invalid or not authorized are not applied, the other operations of the
+     * same channel are.
+     *
+     * @param patches - the operations, keyed by channel name
+     * @return the outcome of each operation, the outcome of the update of its channel if it was applied,
+     * with the status MULTI_STATUS if some operations were not applied
+     */
+    @PatchMapping
+    public ResponseEntity<List<BulkItemResult>> patch(@RequestBody List<ChannelPatch> patches) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        List<String> patchedChannels = patches.stream().filter(Objects::nonNull).map(ChannelPatch::channel).distinct().toList();
+        String description = MessageFormat.format(TextUtil.PATCH_CHANNELS, patchedChannels.size(), patches.size());
+        if (!authorizationService.isAuthorizedRole(authentication, ROLES.CF_CHANNEL)) {
+            String message = MessageFormat.format(TextUtil.USER_NOT_AUTHORIZED_ON_CHANNELS, description);
+            logger.log(Level.SEVERE, message);
+            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, message, null);
+        }
+        auditLog.log(AuditLog.UPDATE, AuditLog.CHANNEL, patchedChannels, name -> name,
+                () -> patches.stream().map(patch -> patch == null ? null : patch.toLog()).toList().toString());
+
+        // the channels, tags and properties are each read once, for all the operations
+        Map<String, Channel> channels = byName(channelRepository.findAllById(names(patches, patch -> true, ChannelPatch::channel)), Channel::getName);
+        Map<String, Tag> tags = byName(tagRepository.findAllById(names(patches,
+                patch -> patch.op() == ChannelPatch.Op.ADD_TAG || patch.op() == ChannelPatch.Op.REMOVE_TAG, ChannelPatch::name)), Tag::getName);
+        Map<String, Property> properties = byName(propertyRepository.findAllById(names(patches,
+                patch -> patch.op() == ChannelPatch.Op.SET_PROPERTY || patch.op() == ChannelPatch.Op.REMOVE_PROPERTY, ChannelPatch::name)), Property::getName);
+
+        BulkItemResult[] results = new BulkItemResult[patches.size()];
+        Map<String, List<ChannelPatch>> channelPatches = new LinkedHashMap<>();
+        Map<String, List<Integer>> channelPatchIndexes = new LinkedHashMap<>();
+        for (int i = 0; i < patches.size(); i++) {
+            ChannelPatch patch = patches.get(i);
+            results[i] = validate(authentication, patch, channels, tags, properties);
+            if (results[i] == null) {
+                channelPatches.computeIfAbsent(patch.channel(), name -> new ArrayList<>()).add(patch);
+                channelPatchIndexes.computeIfAbsent(patch.channel(), name -> new ArrayList<>()).add(i);
+            }
+        }
+
+        Map<String, Script> scripts = new LinkedHashMap<>();
+        channelPatches.forEach((name, namePatches) -> scripts.put(name, ChannelScripts.patch(namePatches, tags, properties)));
+        List<String> updated = new ArrayList<>();
+        for (BulkItemResult item : channelRepository.updateAll(scripts)) {
+            channelPatchIndexes.get(item.id()).forEach(i -> results[i] = item);
+            if (item.outcome() == Outcome.UPDATED) {
+                updated.add(item.id());
+            }
+        }
+        if (!updated.isEmpty() && channelProcessorService.hasEnabledProcessors()) {
+            channelProcessorService.sendToProcessors(channelRepository.findAllById(updated));
+        }
+
+        List<BulkItemResult> outcome = Arrays.asList(results);
+        long failed = outcome.stream().filter(item -> item.failed() || item.outcome() == Outcome.NOT_FOUND).count();
+        logger.log(Level.INFO, () -> MessageFormat.format(TextUtil.PATCHED_CHANNELS,
+                scripts.size(), updated.size(), scripts.size() - updated.size(), failed));
+        return ResponseEntity.status(failed > 0 ? HttpStatus.MULTI_STATUS : HttpStatus.OK).body(outcome);
+    }
+
+    /**
+     * Check that the operation is valid and that the user is authorized to apply it
+     *
+     * @return the result of the operation if it is not to be applied, null if it is to be applied
+     */
+    private BulkItemResult validate(Authentication authentication, ChannelPatch patch, Map<String, Channel> channels,
+                                    Map<String, Tag> tags, Map<String, Property> properties) {
+        if (patch == null || patch.op() == null || patch.channel() == null || patch.channel().isEmpty()) {
+            return failed(patch, HttpStatus.BAD_REQUEST, MessageFormat.format(TextUtil.PATCH_INVALID, patch == null ? null : patch.toLog()));
+        }
+        Channel channel = channels.get(patch.channel());
+        if (channel == null) {
+            return new BulkItemResult(patch.channel(), Outcome.NOT_FOUND, HttpStatus.NOT_FOUND.value(),
+                    MessageFormat.format(TextUtil.CHANNEL_NAME_DOES_NOT_EXIST, patch.channel()));
+        }
+        if (!authorizationService.isAuthorizedOwner(authentication, channel)) {
+            return failed(patch, HttpStatus.UNAUTHORIZED, MessageFormat.format(TextUtil.USER_NOT_AUTHORIZED_ON_CHANNEL, channel.toLog()));
+        }
+        switch (patch.op()) {
+            case ADD_TAG:
+            case REMOVE_TAG: {
+                if (patch.name() == null || patch.name().isEmpty()) {
+                    return failed(patch, HttpStatus.BAD_REQUEST, MessageFormat.format(TextUtil.PATCH_INVALID, patch.toLog()));
+                }
+                Tag tag = tags.get(patch.name());
+                if (tag == null) {
+                    return failed(patch, HttpStatus.NOT_FOUND, MessageFormat.format(TextUtil.TAG_NAME_DOES_NOT_EXIST, patch.name()));
+                }
+                if (!authorizationService.isAuthorizedOwner(authentication, tag)) {
+                    return failed(patch, HttpStatus.UNAUTHORIZED, MessageFormat.format(TextUtil.USER_NOT_AUTHORIZED_ON_TAG, tag.toLog()));
+                }
+                return null;
+            }
+            case SET_PROPERTY:
+            case REMOVE_PROPERTY: {
+                if (patch.name() == null || patch.name().isEmpty()) {
+                    return failed(patch, HttpStatus.BAD_REQUEST, MessageFormat.format(TextUtil.PATCH_INVALID, patch.toLog()));
+                }
+                if (patch.op() == ChannelPatch.Op.SET_PROPERTY && (patch.value() == null || patch.value().isEmpty())) {
+                    return failed(patch, HttpStatus.BAD_REQUEST, MessageFormat.format(TextUtil.PROPERTY_VALUE_NULL_OR_EMPTY, patch.name(), patch.value()));
+                }
+                Property property = properties.get(patch.name());
+                if (property == null) {
+                    return failed(patch, HttpStatus.NOT_FOUND, MessageFormat.format(TextUtil.PROPERTY_NAME_DOES_NOT_EXIST, patch.name()));
+                }
+                if (!authorizationService.isAuthorizedOwner(authentication, property)) {
+                    return failed(patch, HttpStatus.UNAUTHORIZED, MessageFormat.format(TextUtil.USER_NOT_AUTHORIZED_ON_PROPERTY, property.toLog()));
+                }
+                return null;
+            }
+            case SET_OWNER: {
+                if (patch.value() == null || patch.value().isEmpty()) {
+                    return failed(patch, HttpStatus.BAD_REQUEST, MessageFormat.format(TextUtil.CHANNEL_OWNER_CANNOT_BE_NULL_OR_EMPTY, patch.channel()));
+                }
+                Channel owned = new Channel(channel.getName(), patch.value());
+                if (!authorizationService.isAuthorizedOwner(authentication, owned)) {
+                    return failed(patch, HttpStatus.UNAUTHORIZED, MessageFormat.format(TextUtil.USER_NOT_AUTHORIZED_ON_CHANNEL, owned.toLog()));
+                }
+                return null;
+            }
+            default:
+                return failed(patch, HttpStatus.BAD_REQUEST, MessageFormat.format(TextUtil.PATCH_INVALID, patch.toLog()));
+        }
+    }
+
+    private static BulkItemResult failed(ChannelPatch patch, HttpStatus status, String message) {
+        logger.log(Level.WARNING, message);
+        return new BulkItemResult(patch == null ? null : patch.channel(), Outcome.FAILED, status.value(), message);
+    }
+
+    private static List<String> names(List<ChannelPatch> patches, Predicate<ChannelPatch> filter,
+                                      Function<ChannelPatch, String> name) {
+        return patches.stream()
+                .filter(patch -> patch != null && patch.op() != null && filter.test(patch))
+                .map(name)
+                .filter(Objects::nonNull)
+                .distinct()
+                .collect(Collectors.toList());
+    }
+
+    private static <T> Map<String, T> byName(List<T> items, Function<T, String> name) {
+        return items.stream().collect(Collectors.toMap(name, Function.identity(), (a, b) -> a));
+    }
+}
@@ -0,0 +1,150 @@
+package org.phoebus.channelfinder;
+
+import static org.phoebus.channelfinder.CFResourceDescriptors.RENAME_RESOURCE_URI;
+
+import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
+
+import org.phoebus.channelfinder.AuthorizationService.ROLES;
+import org.phoebus.channelfinder.ChannelRepository.VersionedChannel;
+import org.phoebus.channelfinder.entity.BulkItemResult;
+import org.phoebus.channelfinder.entity.Channel;
+import org.phoebus.channelfinder.entity.ChannelRename;
+import org.phoebus.channelfinder.processors.ChannelProcessorService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * Rename many channels in a single request, e.g. when reorganizing the naming conventions, instead of one
+ * request, delete and refresh per channel.
+ * <p>
+ * The renamed channels are checked for collisions with a single batched existence check, and each rename is
+ * written as the create of the renamed channel and the delete of the channel, all in a single bulk request.
+ */
+@CrossOrigin
+@RestController
+@RequestMapping(RENAME_RESOURCE_URI)
+@EnableAutoConfiguration
+public class ChannelRenameManager {
+
+    private static final Logger logger = Logger.getLogger(ChannelRenameManager.class.getName());
+
+    @Autowired
+    ChannelRepository channelRepository;
+
+    @Autowired
+    AuthorizationService authorizationService;
+
+    @Autowired
+    ChannelProcessorService channelProcessorService;
+
+    @Autowired
+    AuditLog auditLog;
+
+    /**
+     * POST method renaming the channels.
+     * <p>
+     * The renames are all applied, or none of them is when a channel does not exist, the user is not authorized
+     * on a channel or a new name is already used. A rename which fails while writing, e.g. because the channel
+     * was modified since it was read, is undone.
+     *
+     * @param renames - the old and new name of each channel
+     * @return the renamed channels
+     * @throws BulkWriteException if some renames failed while writing, with the outcome of each rename
+     */
+    @PostMapping
+    public List<Channel> rename(@RequestBody List<ChannelRename> renames) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        String description = MessageFormat.format(TextUtil.RENAME_CHANNELS, renames.size());
+        if (!authorizationService.isAuthorizedRole(authentication, ROLES.CF_CHANNEL)) {
+            String message = MessageFormat.format(TextUtil.USER_NOT_AUTHORIZED_ON_CHANNELS, description);
+            logger.log(Level.SEVERE, message);
+            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, message, null);
+        }
+        validate(renames);
+        auditLog.log(AuditLog.UPDATE, AuditLog.CHANNEL, renames, ChannelRename::from,
+                () -> renames.stream().map(ChannelRename::toLog).toList().toString());
+
+        List<String> from = renames.stream().map(ChannelRename::from).collect(Collectors.toList());
+        List<String> to = renames.stream().map(ChannelRename::to).collect(Collectors.toList());
+        Map<String, VersionedChannel> existing = channelRepository.findAllVersionedById(from);
+        List<String> missing = from.stream().filter(name -> !existing.containsKey(name)).collect(Collectors.toList());
+        if (!missing.isEmpty()) {
+            String message = MessageFormat.format(TextUtil.CHANNEL_NAMES_DO_NOT_EXIST, missing.size(), missing);
+            logger.log(Level.SEVERE, message);
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, message);
+        }
+        List<VersionedChannel> channels = from.stream().map(existing::get).collect(Collectors.toList());
+        List<VersionedChannel> unauthorized = authorizationService.findUnauthorizedOwners(authentication, channels,
+                channel -> channel.channel().getOwner());
+        if (!unauthorized.isEmpty()) {
+            String message = MessageFormat.format(TextUtil.USER_NOT_AUTHORIZED_ON_CHANNEL, unauthorized.get(0).channel().toLog());
+            logger.log(Level.SEVERE, message);
+            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, message, null);
+        }
+        // a single existence check of all the new names
+        Set<String> free = new HashSet<>(channelRepository.findMissingIds(to));
+        List<String> used = to.stream().filter(name -> !free.contains(name)).collect(Collectors.toList());
+        if (!used.isEmpty()) {
+            String message = MessageFormat.format(TextUtil.RENAME_TARGETS_EXIST, used.size(), used);
+            logger.log(Level.SEVERE, message);
+            throw new ResponseStatusException(HttpStatus.CONFLICT, message, null);
+        }
+
+        List<BulkItemResult> items = channelRepository.renameAll(channels, to);
+        List<Channel> renamed = new ArrayList<>();
+        for (int i = 0; i < channels.size(); i++) {
+            if (items.get(i).outcome() == BulkItemResult.Outcome.CREATED) {
+                Channel channel = channels.get(i).channel();
+                renamed.add(new Channel(to.get(i), channel.getOwner(), channel.getProperties(), channel.getTags()));
+            }
+        }
+        logger.log(Level.INFO, () -> MessageFormat.format(TextUtil.RENAMED_CHANNELS, renamed.size()));
+        channelProcessorService.sendToProcessors(renamed);
+        if (renamed.size() < channels.size()) {
+            throw new BulkWriteException(items);
+        }
+        return renamed;
+    }
+
+    /**
+     * Check that each rename has distinct names, and that no channel is renamed twice or renamed to the name of
+     * another renamed channel
+     */
+    private static void validate(List<ChannelRename> renames) {
+        Set<String> from = new HashSet<>();
+        Set<String> to = new HashSet<>();
+        for (ChannelRename rename : renames) {
+            if (rename == null || rename.from() == null || rename.from().isEmpty()
+                    || rename.to() == null || rename.to().isEmpty() || rename.from().equals(rename.to())
+                    || !from.add(rename.from()) || !to.add(rename.to())) {
+                String message = MessageFormat.format(TextUtil.RENAME_INVALID, rename == null ? null : rename.toLog());
+                logger.log(Level.SEVERE, message);
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, message, null);
+            }
+        }
+        for (ChannelRename rename : renames) {
+            if (from.contains(rename.to())) {
+                String message = MessageFormat.format(TextUtil.RENAME_INVALID, rename.toLog());
+                logger.log(Level.SEVERE, message);
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, message, null);
+            }
+        }
+    }
+}
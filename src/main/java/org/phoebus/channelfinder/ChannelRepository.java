@@ -1,34 +1,47 @@
 package org.phoebus.channelfinder;
 
 import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import co.elastic.clients.elasticsearch._types.Conflicts;
 import co.elastic.clients.elasticsearch._types.ElasticsearchException;
 import co.elastic.clients.elasticsearch._types.FieldSort;
 import co.elastic.clients.elasticsearch._types.FieldValue;
 import co.elastic.clients.elasticsearch._types.Refresh;
 import co.elastic.clients.elasticsearch._types.Result;
+import co.elastic.clients.elasticsearch._types.Script;
 import co.elastic.clients.elasticsearch._types.SortOptions;
+import co.elastic.clients.elasticsearch._types.aggregations.Aggregate;
+import co.elastic.clients.elasticsearch._types.aggregations.Aggregation;
+import co.elastic.clients.elasticsearch._types.aggregations.StringTermsAggregate;
 import co.elastic.clients.elasticsearch._types.query_dsl.BoolQuery;
 import co.elastic.clients.elasticsearch._types.query_dsl.DisMaxQuery;
 import co.elastic.clients.elasticsearch._types.query_dsl.IdsQuery;
 import co.elastic.clients.elasticsearch._types.query_dsl.NestedQuery;
 import co.elastic.clients.elasticsearch._types.query_dsl.Query;
+import co.elastic.clients.elasticsearch._types.query_dsl.TermQuery;
 import co.elastic.clients.elasticsearch._types.query_dsl.WildcardQuery;
-import co.elastic.clients.elasticsearch.core.BulkRequest;
-import co.elastic.clients.elasticsearch.core.BulkResponse;
 import co.elastic.clients.elasticsearch.core.CountRequest;
 import co.elastic.clients.elasticsearch.core.CountResponse;
+import co.elastic.clients.elasticsearch.core.DeleteByQueryResponse;
 import co.elastic.clients.elasticsearch.core.DeleteResponse;
 import co.elastic.clients.elasticsearch.core.ExistsRequest;
 import co.elastic.clients.elasticsearch.core.GetResponse;
 import co.elastic.clients.elasticsearch.core.IndexRequest;
 import co.elastic.clients.elasticsearch.core.IndexResponse;
+import co.elastic.clients.elasticsearch.core.MgetResponse;
 import co.elastic.clients.elasticsearch.core.SearchRequest;
 import co.elastic.clients.elasticsearch.core.SearchResponse;
-import co.elastic.clients.elasticsearch.core.bulk.BulkResponseItem;
+import co.elastic.clients.elasticsearch.core.UpdateByQueryResponse;
+import co.elastic.clients.elasticsearch.core.UpdateResponse;
+import co.elastic.clients.elasticsearch.core.bulk.BulkOperation;
+import co.elastic.clients.elasticsearch.core.get.GetResult;
+import co.elastic.clients.elasticsearch.core.mget.MultiGetResponseItem;
 import co.elastic.clients.elasticsearch.core.search.Hit;
-import co.elastic.clients.json.JsonData;
-import co.elastic.clients.json.jackson.JacksonJsonpMapper;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import co.elastic.clients.elasticsearch.core.search.SourceConfigParam;
+import co.elastic.clients.util.BinaryData;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.phoebus.channelfinder.entity.BulkItemResult;
 import org.phoebus.channelfinder.entity.Channel;
 import org.phoebus.channelfinder.entity.Property;
 import org.phoebus.channelfinder.entity.SearchResult;
@@ -45,12 +58,18 @@ import org.springframework.web.server.ResponseStatusException;
 
 import java.io.IOException;
 import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import java.util.stream.Collectors;
@@ -62,16 +81,88 @@ public class ChannelRepository implements CrudRepository<Channel, String> {
 
     private static final Logger logger = Logger.getLogger(ChannelRepository.class.getName());
 
+    private static final int MGET_BATCH_SIZE = 1000;
+
+    public static final String CF_CHANNEL_WRITE_CONFLICTS = "cf.channel.write.conflicts";
+    public static final String CF_CHANNEL_WRITE_RETRIES = "cf.channel.write.retries";
+    public static final String CF_CHANNEL_WRITE_UNCHANGED = "cf.channel.write.unchanged";
+
+    /**
+     * A channel along with the sequence number and primary term of the document it was read from
+     *
+     * @param channel the channel
+     * @param seqNo the sequence number of the channel document
+     * @param primaryTerm the primary term of the channel document
+     */
+    public record VersionedChannel(Channel channel, long seqNo, long primaryTerm) {
+    }
+
+    /**
+     * Checks the channels read again after a conflicting write, before the write is retried
+     */
+    @FunctionalInterface
+    public interface RetryCheck {
+
+        RetryCheck NONE = (channels, existingChannels) -> { };
+
+        /**
+         * @param channels - the channels to be written again, e.g. their owner can be reset
+         * @param existingChannels - the existing channels read again, by name, the channels which do not exist are
+         * to be created
+         * @throws ResponseStatusException to stop the retries, e.g. if the user does not own a channel anymore
+         */
+        void check(List<Channel> channels, Map<String, VersionedChannel> existingChannels);
+    }
+
+    /**
+     * The result of saving channels
+     *
+     * @param channels all the saved channels, as they are stored
+     * @param changedChannels the channels which were written, i.e. excluding the unchanged channels
+     * @param items the outcome of the write of each channel, the unchanged channels are {@link BulkItemResult#noop(String)}
+     */
+    public record SaveResult(List<Channel> channels, List<Channel> changedChannels, List<BulkItemResult> items) {
+        /**
+         * @return the number of unchanged channels, which were not written
+         */
+        public int unchanged() {
+            return channels.size() - changedChannels.size();
+        }
+    }
+
+    /**
+     * The channel counts of a single aggregation search
+     *
+     * @param total the number of channels
+     * @param matches the number of channels matching each of the queries, by key
+     * @param byPropertyValue the number of channels by property and value, for the most frequent values, the
+     *                        channels with the other values are counted under {@link #OTHER}
+     * @param byOwner the number of channels by owner, for the most frequent owners, the channels of the other
+     *                owners are counted under {@link #OTHER}
+     */
+    public record ChannelCounts(long total, Map<String, Long> matches, Map<String, Map<String, Long>> byPropertyValue,
+                                Map<String, Long> byOwner) {
+        public static final String OTHER = "other";
+    }
+
     @Autowired
     ElasticConfig esService;
 
     @Autowired
     @Qualifier("indexClient")
     ElasticsearchClient client;
-    
-    final ObjectMapper objectMapper = new ObjectMapper()
-            .addMixIn(Tag.class, Tag.OnlyTag.class)
-            .addMixIn(Property.class, Property.OnlyProperty.class);
+
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    @Autowired
+    ChannelDocumentEncoder channelDocumentEncoder;
+
+    @Autowired
+    BulkWriter bulkWriter;
+
+    @Autowired
+    SlowQueryLog slowQueryLog;
 
     /**
      * create a new channel using the given Channel
@@ -84,15 +175,17 @@ public class ChannelRepository implements CrudRepository<Channel, String> {
         try {
             IndexRequest request = IndexRequest.of(i -> i.index(esService.getES_CHANNEL_INDEX())
                     .id(channel.getName())
-                    .document(JsonData.of(channel, new JacksonJsonpMapper(objectMapper)))
+                    .document(channelDocumentEncoder.encode(channel))
                     .refresh(Refresh.True));
             IndexResponse response = client.index(request);
+            bulkWriter.countWrite(esService.getES_CHANNEL_INDEX(), BulkOperation.Kind.Index, BulkWriter.outcome(response.result()));
             // verify the creation of the tag
             if (response.result().equals(Result.Created) || response.result().equals(Result.Updated)) {
                 logger.log(Level.CONFIG, () -> MessageFormat.format(TextUtil.CREATE_CHANNEL, channel.toLog()));
-                return findById(channel.getName()).get();
+                return stored(channel);
             }
         } catch (Exception e) {
+            bulkWriter.countWrite(esService.getES_CHANNEL_INDEX(), BulkOperation.Kind.Index, BulkWriter.outcome(e));
             String message = MessageFormat.format(TextUtil.FAILED_TO_INDEX_CHANNEL, channel.toLog());
             logger.log(Level.SEVERE, message, e);
             throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, message, null);
@@ -107,40 +200,62 @@ public class ChannelRepository implements CrudRepository<Channel, String> {
      * @return the created channels
      */
     public List<Channel> indexAll(List<Channel> channels) {
-        BulkRequest.Builder br = new BulkRequest.Builder();
+        write(channels);
+        return channels;
+    }
 
-        for (Channel channel : channels) {
-            br.operations(op -> op
+    /**
+     * index the given channels with a bulk request
+     *
+     * @param channels - channels to be indexed
+     * @return the outcome of each write, in the order of the channels
+     */
+    private List<BulkItemResult> write(List<Channel> channels) {
+        // the documents are serialized up front, in parallel, rather than by the bulk request
+        List<BinaryData> documents = channelDocumentEncoder.encodeAll(channels);
+        List<BulkOperation> operations = new ArrayList<>();
+        for (int i = 0; i < channels.size(); i++) {
+            Channel channel = channels.get(i);
+            BinaryData document = documents.get(i);
+            operations.add(BulkOperation.of(op -> op
                     .index(idx -> idx
                             .index(esService.getES_CHANNEL_INDEX())
                             .id(channel.getName())
-                            .document(JsonData.of(channel, new JacksonJsonpMapper(objectMapper)))
+                            .document(document)
                     )
-            ).refresh(Refresh.True);
+            ));
         }
 
-        BulkResponse result = null;
         try {
-            result = client.bulk(br.build());
-            // Log errors, if any
-            if (result.errors()) {
-                logger.log(Level.SEVERE, TextUtil.BULK_HAD_ERRORS);
-                for (BulkResponseItem item : result.items()) {
-                    if (item.error() != null) {
-                        logger.log(Level.SEVERE, () -> item.error().reason());
-                    }
-                }
-                // TODO cleanup? or throw exception?
-            } else {
-                return channels;
-            }
+            return bulkWriter.executeOrThrow(operations);
         } catch (IOException e) {
             String message = MessageFormat.format(TextUtil.FAILED_TO_INDEX_CHANNELS, channels);
             logger.log(Level.SEVERE, message, e);
             throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, message, null);
+        }
+    }
 
+    /**
+     * create or replace the given channels, skipping the channels which are unchanged, i.e. which have the same
+     * {@link ChannelFingerprint} as the stored channel
+     *
+     * @param channels - channels to be created or replaced
+     * @return all the channels, and the channels which were written
+     */
+    public SaveResult replaceAll(List<Channel> channels) {
+        Map<String, String> fingerprints = findFingerprints(channels.stream().map(Channel::getName).collect(Collectors.toList()));
+        List<Channel> changedChannels = channels.stream()
+                .filter(channel -> !ChannelFingerprint.of(channel).equals(fingerprints.get(channel.getName())))
+                .collect(Collectors.toList());
+        Map<String, BulkItemResult> written = new HashMap<>();
+        if (!changedChannels.isEmpty()) {
+            write(changedChannels).forEach(item -> written.put(item.id(), item));
         }
-        return Collections.emptyList();
+        countUnchanged(channels.size() - changedChannels.size());
+        List<BulkItemResult> items = channels.stream()
+                .map(channel -> written.getOrDefault(channel.getName(), BulkItemResult.noop(channel.getName())))
+                .collect(Collectors.toList());
+        return new SaveResult(channels, changedChannels, items);
     }
 
     /**
@@ -154,14 +269,16 @@ public class ChannelRepository implements CrudRepository<Channel, String> {
         try {
             IndexResponse response = client.index(i -> i.index(esService.getES_CHANNEL_INDEX())
                     .id(channel.getName())
-                    .document(JsonData.of(channel, new JacksonJsonpMapper(objectMapper)))
+                    .document(channelDocumentEncoder.encode(channel))
                     .refresh(Refresh.True));
+            bulkWriter.countWrite(esService.getES_CHANNEL_INDEX(), BulkOperation.Kind.Index, BulkWriter.outcome(response.result()));
             // verify the creation of the channel
             if (response.result().equals(Result.Created) || response.result().equals(Result.Updated)) {
                 logger.log(Level.CONFIG, () -> MessageFormat.format(TextUtil.CREATE_CHANNEL, channel.toLog()));
-                return findById(channel.getName()).get();
+                return stored(channel);
             }
         } catch (Exception e) {
+            bulkWriter.countWrite(esService.getES_CHANNEL_INDEX(), BulkOperation.Kind.Index, BulkWriter.outcome(e));
             String message = MessageFormat.format(TextUtil.FAILED_TO_INDEX_CHANNEL, channel.toLog());
             logger.log(Level.SEVERE, message, e);
             throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, message, null);
@@ -179,6 +296,9 @@ public class ChannelRepository implements CrudRepository<Channel, String> {
 
     /**
      * update/save channels using the given XmlChannels
+     * <p>
+     * The channels are merged into existing channels on the elastic side with a scripted partial update,
+     * channels which do not exist yet are created as is.
      *
      * @param <S> extends Channel
      * @param channels - channels to be saved
@@ -189,51 +309,608 @@ public class ChannelRepository implements CrudRepository<Channel, String> {
     public <S extends Channel> Iterable<S> saveAll(Iterable<S> channels) {
         // Create a list of all channel names
         List<String> ids = StreamSupport.stream(channels.spliterator(), false).map(Channel::getName).collect(Collectors.toList());
+        return (Iterable<S>) saveAll((Iterable<Channel>) channels, findAllVersionedById(ids)).channels();
+    }
+
+    /**
+     * Merge the given channels into the existing channels, the channels which do not exist yet are created as is.
+     * <p>
+     * Each update is conditional on the sequence number and primary term of the existing channel it was merged
+     * with, and each create fails if the channel has been created in the meantime. The channels with a conflicting
+     * concurrent write are read again and retried, up to {@link ElasticConfig#getES_CONFLICT_MAX_RETRIES()} times.
+     * <p>
+     * The channels are not read back after the update, the returned channels are merged in memory from the
+     * existing channels, loaded by the caller, the same way the bulk update merges them. Channels which are
+     * unchanged by the merge, as per their {@link ChannelFingerprint}, are not written.
+     *
+     * @param channels - channels to be saved
+     * @param existingChannels - the existing channels, by name, which are to be updated
+     * @return the updated/saved channels, sorted by name
+     * @throws ResponseStatusException CONFLICT if channels still have conflicting writes after the retries
+     * @throws BulkWriteException if some channels could not be written, with the outcome of each channel
+     */
+    public SaveResult saveAll(Iterable<Channel> channels, Map<String, VersionedChannel> existingChannels) {
+        return saveAll(channels, existingChannels, RetryCheck.NONE);
+    }
 
+    /**
+     * Merge the given channels into the existing channels, as {@link #saveAll(Iterable, Map)}, checking the channels
+     * with conflicting writes again before they are retried, e.g. because they have been created or their owner has
+     * changed in the meantime.
+     *
+     * @param channels - channels to be saved
+     * @param existingChannels - the existing channels, by name, which are to be updated
+     * @param retryCheck - the check of the channels read again before each retry
+     * @return the updated/saved channels, sorted by name
+     * @throws ResponseStatusException CONFLICT if channels still have conflicting writes after the retries
+     * @throws BulkWriteException if some channels could not be written, with the outcome of each channel
+     */
+    public SaveResult saveAll(Iterable<Channel> channels, Map<String, VersionedChannel> existingChannels,
+                              RetryCheck retryCheck) {
+        // combine the updates of the same channel, so that each channel is written once
+        Map<String, Channel> updates = new LinkedHashMap<>();
+        for (Channel channel : channels) {
+            updates.merge(channel.getName(), channel, ChannelRepository::merge);
+        }
+        Map<String, VersionedChannel> existing = new HashMap<>(existingChannels);
+        Map<String, Channel> mergedChannels = new HashMap<>();
+        Set<String> unchanged = new HashSet<>();
+        Map<String, BulkItemResult> outcomes = new LinkedHashMap<>();
+        Collection<String> pending = updates.keySet();
         try {
-            Map<String, Channel> existingChannels = findAllById(ids).stream().collect(Collectors.toMap(Channel::getName, c -> c));
-
-            BulkRequest.Builder br = new BulkRequest.Builder();
-
-            for (Channel channel : channels) {
-                if (existingChannels.containsKey(channel.getName())) {
-                    // merge with existing channel
-                    Channel updatedChannel = existingChannels.get(channel.getName());
-                    if (channel.getOwner() != null && !channel.getOwner().isEmpty())
-                        updatedChannel.setOwner(channel.getOwner());
-                    updatedChannel.addProperties(channel.getProperties());
-                    updatedChannel.addTags(channel.getTags());
-                    br.operations(op -> op.index(i -> i.index(esService.getES_CHANNEL_INDEX())
-                            .id(updatedChannel.getName())
-                            .document(JsonData.of(updatedChannel, new JacksonJsonpMapper(objectMapper)))));
-                } else {
-                    br.operations(op -> op.index(i -> i.index(esService.getES_CHANNEL_INDEX())
-                            .id(channel.getName())
-                            .document(JsonData.of(channel, new JacksonJsonpMapper(objectMapper)))));
+            for (int attempt = 0; ; attempt++) {
+                List<BulkOperation> operations = new ArrayList<>();
+                List<Channel> creates = new ArrayList<>();
+                for (String name : pending) {
+                    Channel channel = updates.get(name);
+                    VersionedChannel existingChannel = existing.get(name);
+                    if (existingChannel == null) {
+                        Channel merged = merge(null, channel);
+                        creates.add(merged);
+                        mergedChannels.put(name, merged);
+                        unchanged.remove(name);
+                    } else {
+                        Channel merged = merge(existingChannel.channel(), channel);
+                        mergedChannels.put(name, merged);
+                        String fingerprint = ChannelFingerprint.of(merged);
+                        if (fingerprint.equals(ChannelFingerprint.of(existingChannel.channel()))) {
+                            unchanged.add(name);
+                            outcomes.put(name, BulkItemResult.noop(name));
+                            continue;
+                        }
+                        unchanged.remove(name);
+                        // merge with the existing channel, unless it has been modified since it was read
+                        operations.add(BulkOperation.of(op -> op.update(u -> u.index(esService.getES_CHANNEL_INDEX())
+                                .id(name)
+                                .ifSeqNo(existingChannel.seqNo())
+                                .ifPrimaryTerm(existingChannel.primaryTerm())
+                                .action(a -> a.script(ChannelScripts.merge(channel, fingerprint))))));
+                    }
                 }
-
-            }
-            BulkResponse result = null;
-            result = client.bulk(br.refresh(Refresh.True).build());
-            // Log errors, if any
-            if (result.errors()) {
-                logger.log(Level.SEVERE, TextUtil.BULK_HAD_ERRORS);
-                for (BulkResponseItem item : result.items()) {
-                    if (item.error() != null) {
-                        logger.log(Level.SEVERE, () -> item.error().reason());
+                // the created documents are serialized up front, in parallel, rather than by the bulk request
+                List<BinaryData> documents = channelDocumentEncoder.encodeAll(creates);
+                for (int i = 0; i < creates.size(); i++) {
+                    String name = creates.get(i).getName();
+                    BinaryData document = documents.get(i);
+                    operations.add(BulkOperation.of(op -> op.create(c -> c.index(esService.getES_CHANNEL_INDEX())
+                            .id(name)
+                            .document(document))));
+                }
+                List<String> conflicts = new ArrayList<>();
+                boolean failed = false;
+                if (!operations.isEmpty()) {
+                    for (BulkItemResult item : bulkWriter.execute(operations)) {
+                        outcomes.put(item.id(), item);
+                        if (item.failed() && item.status() == HttpStatus.CONFLICT.value()) {
+                            conflicts.add(item.id());
+                        } else if (item.failed()) {
+                            failed = true;
+                        }
                     }
                 }
-                // TODO cleanup? or throw exception?
-            } else {
-                return (Iterable<S>) findAllById(ids);
+                // the channels with conflicting writes are not retried when other channels failed
+                if (failed) {
+                    throw new BulkWriteException(new ArrayList<>(outcomes.values()));
+                }
+                if (conflicts.isEmpty()) {
+                    countUnchanged(unchanged.size());
+                    List<Channel> saved = mergedChannels.values().stream()
+                            .sorted(Comparator.comparing(Channel::getName))
+                            .collect(Collectors.toList());
+                    return new SaveResult(saved,
+                            saved.stream().filter(c -> !unchanged.contains(c.getName())).collect(Collectors.toList()),
+                            saved.stream().map(c -> outcomes.get(c.getName())).collect(Collectors.toList()));
+                }
+                Counter.builder(CF_CHANNEL_WRITE_CONFLICTS).register(meterRegistry).increment(conflicts.size());
+                if (attempt >= esService.getES_CONFLICT_MAX_RETRIES()) {
+                    String message = MessageFormat.format(TextUtil.CHANNELS_WRITE_CONFLICT, conflicts.size(), conflicts);
+                    logger.log(Level.SEVERE, message);
+                    throw new ResponseStatusException(HttpStatus.CONFLICT, message, null);
+                }
+                logger.log(Level.FINE, () -> MessageFormat.format(TextUtil.RETRY_CHANNELS_WRITE_CONFLICT, conflicts.size(), conflicts));
+                Counter.builder(CF_CHANNEL_WRITE_RETRIES).register(meterRegistry).increment(conflicts.size());
+                // read the channels with conflicting writes again, they may have been created or deleted since
+                Map<String, VersionedChannel> current = findAllVersionedById(conflicts);
+                retryCheck.check(conflicts.stream().map(updates::get).collect(Collectors.toList()), current);
+                conflicts.forEach(existing::remove);
+                existing.putAll(current);
+                pending = conflicts;
             }
         } catch (IOException e) {
             String message = MessageFormat.format(TextUtil.FAILED_TO_INDEX_CHANNELS, channels);
             logger.log(Level.SEVERE, message, e);
             throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, message, null);
+        }
+    }
 
+    /**
+     * @return the channel as it is stored, i.e. without the channels of its tags and properties
+     */
+    private static Channel stored(Channel channel) {
+        Channel stored = new Channel(channel.getName(), channel.getOwner());
+        if (channel.getProperties() != null) {
+            channel.getProperties().forEach(p -> stored.getProperties().add(new Property(p.getName(), p.getOwner(), p.getValue())));
+        }
+        if (channel.getTags() != null) {
+            channel.getTags().forEach(t -> stored.getTags().add(new Tag(t.getName(), t.getOwner())));
+        }
+        return stored;
+    }
+
+    private void countUnchanged(int count) {
+        if (count > 0) {
+            logger.log(Level.FINE, () -> MessageFormat.format(TextUtil.SKIPPED_UNCHANGED_CHANNELS, count));
+        }
+        Counter.builder(CF_CHANNEL_WRITE_UNCHANGED).register(meterRegistry).increment(count);
+    }
+
+    /**
+     * Merge the channel into the existing channel in memory, as done by {@link ChannelScripts#merge(Channel, String)}
+     *
+     * @param existingChannel - the existing channel, null if it does not exist
+     * @param channel - the channel to be merged
+     * @return the merged channel, as it is stored
+     */
+    static Channel merge(Channel existingChannel, Channel channel) {
+        Channel merged = existingChannel == null
+                ? new Channel(channel.getName(), channel.getOwner())
+                : new Channel(existingChannel.getName(), existingChannel.getOwner(),
+                        new ArrayList<>(existingChannel.getProperties()), new ArrayList<>(existingChannel.getTags()));
+        if (channel.getOwner() != null && !channel.getOwner().isEmpty()) {
+            merged.setOwner(channel.getOwner());
+        }
+        if (channel.getProperties() != null) {
+            channel.getProperties().forEach(p -> merged.addProperty(new Property(p.getName(), p.getOwner(), p.getValue())));
+        }
+        if (channel.getTags() != null) {
+            channel.getTags().forEach(t -> merged.addTag(new Tag(t.getName(), t.getOwner())));
+        }
+        return merged;
+    }
+
+    /**
+     * add the given tag to the channel, replacing a tag with the same name
+     * <p>
+     * The channel is updated with a scripted partial update, it is not read and re-indexed
+     *
+     * @param channelName - name of the channel to be updated
+     * @param tag - tag to be added
+     * @return the updated channel
+     */
+    public Channel addTag(String channelName, Tag tag) {
+        return update(channelName, ChannelScripts.addTag(tag));
+    }
+
+    /**
+     * remove the tag with the given name from the channel
+     *
+     * @param channelName - name of the channel to be updated
+     * @param tagName - name of the tag to be removed
+     * @return the updated channel
+     */
+    public Channel removeTag(String channelName, String tagName) {
+        return update(channelName, ChannelScripts.removeTag(tagName));
+    }
+
+    /**
+     * add the given property to the channel, replacing a property with the same name
+     * <p>
+     * The channel is updated with a scripted partial update, it is not read and re-indexed
+     *
+     * @param channelName - name of the channel to be updated
+     * @param property - property, with value, to be added
+     * @return the updated channel
+     */
+    public Channel addProperty(String channelName, Property property) {
+        return update(channelName, ChannelScripts.addProperty(property));
+    }
+
+    /**
+     * remove the property with the given name from the channel
+     *
+     * @param channelName - name of the channel to be updated
+     * @param propertyName - name of the property to be removed
+     * @return the updated channel
+     */
+    public Channel removeProperty(String channelName, String propertyName) {
+        return update(channelName, ChannelScripts.removeProperty(propertyName));
+    }
+
+    /**
+     * remove the deleted tag from all channels with an update by query, waiting for the update to complete
+     *
+     * @param tagName - name of the deleted tag
+     * @return the number of updated channels
+     */
+    public long removeTagFromAll(String tagName) {
+        UpdateByQueryResponse response = updateByQuery(tagQuery(tagName), ChannelScripts.deleteTag(tagName), true,
+                MessageFormat.format(TextUtil.FAILED_TO_DELETE_TAG, tagName));
+        return response.updated() == null ? 0 : response.updated();
+    }
+
+    /**
+     * remove the deleted tag from all channels with an update by query which is run as an elastic task
+     *
+     * @param tagName - name of the deleted tag
+     * @return the id of the elastic task, which can be used to track the progress of the update
+     */
+    public String removeTagFromAllAsync(String tagName) {
+        return updateByQuery(tagQuery(tagName), ChannelScripts.deleteTag(tagName), false,
+                MessageFormat.format(TextUtil.FAILED_TO_DELETE_TAG, tagName)).task();
+    }
+
+    /**
+     * remove the deleted property from all channels with an update by query, waiting for the update to complete
+     *
+     * @param propertyName - name of the deleted property
+     * @return the number of updated channels
+     */
+    public long removePropertyFromAll(String propertyName) {
+        UpdateByQueryResponse response = updateByQuery(propertyQuery(propertyName), ChannelScripts.deleteProperty(propertyName), true,
+                MessageFormat.format(TextUtil.FAILED_TO_DELETE_PROPERTY, propertyName));
+        return response.updated() == null ? 0 : response.updated();
+    }
+
+    /**
+     * remove the deleted property from all channels with an update by query which is run as an elastic task
+     *
+     * @param propertyName - name of the deleted property
+     * @return the id of the elastic task, which can be used to track the progress of the update
+     */
+    public String removePropertyFromAllAsync(String propertyName) {
+        return updateByQuery(propertyQuery(propertyName), ChannelScripts.deleteProperty(propertyName), false,
+                MessageFormat.format(TextUtil.FAILED_TO_DELETE_PROPERTY, propertyName)).task();
+    }
+
+    /**
+     * update all the channels matching the search parameters with the given script, the update by query is run
+     * as an elastic task
+     *
+     * @param searchParameters - channel search parameters, the size and from parameters are ignored
+     * @param script - script applied to each matching channel
+     * @return the id of the elastic task, which can be used to track the progress of the update
+     */
+    public String updateByQueryAsync(MultiValueMap<String, String> searchParameters, Script script) {
+        return updateByQuery(getBuiltQuery(searchParameters).boolQuery.build()._toQuery(), script, false,
+                MessageFormat.format(TextUtil.FAILED_TO_UPDATE_CHANNELS_BY_QUERY, searchParameters)).task();
+    }
+
+    /**
+     * delete all the channels matching the search parameters, the delete by query is run as an elastic task
+     *
+     * @param searchParameters - channel search parameters, the size and from parameters are ignored
+     * @return the id of the elastic task, which can be used to track the progress of the delete
+     */
+    public String deleteByQueryAsync(MultiValueMap<String, String> searchParameters) {
+        Query query = getBuiltQuery(searchParameters).boolQuery.build()._toQuery();
+        try {
+            DeleteByQueryResponse response = client.deleteByQuery(d -> d.index(esService.getES_CHANNEL_INDEX())
+                    .query(query)
+                    .conflicts(Conflicts.Proceed)
+                    .slices(esService.getES_UPDATE_BY_QUERY_SLICES())
+                    .requestsPerSecond(esService.getES_UPDATE_BY_QUERY_REQUESTS_PER_SECOND())
+                    .refresh(true)
+                    .waitForCompletion(false));
+            return response.task();
+        } catch (ElasticsearchException | IOException e) {
+            String message = MessageFormat.format(TextUtil.FAILED_TO_DELETE_CHANNELS_BY_QUERY, searchParameters);
+            logger.log(Level.SEVERE, message, e);
+            throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, message, null);
+        }
+    }
+
+    /**
+     * open a point in time on the channel index, searches using it see the channels as they were when it was opened
+     *
+     * @param keepAlive - how long the point in time is kept, e.g. "5m"
+     * @return the id of the point in time
+     */
+    public String openPointInTime(String keepAlive) {
+        try {
+            return client.openPointInTime(o -> o.index(esService.getES_CHANNEL_INDEX()).keepAlive(t -> t.time(keepAlive))).id();
+        } catch (ElasticsearchException | IOException e) {
+            String message = MessageFormat.format(TextUtil.FAILED_TO_OPEN_POINT_IN_TIME, esService.getES_CHANNEL_INDEX());
+            logger.log(Level.SEVERE, message, e);
+            throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, message, null);
+        }
+    }
+
+    /**
+     * close the given point in time, failures are only logged
+     *
+     * @param pitId - id of the point in time
+     */
+    public void closePointInTime(String pitId) {
+        try {
+            client.closePointInTime(c -> c.id(pitId));
+        } catch (ElasticsearchException | IOException e) {
+            logger.log(Level.WARNING, MessageFormat.format(TextUtil.FAILED_TO_CLOSE_POINT_IN_TIME, pitId), e);
+        }
+    }
+
+    /**
+     * find the names of the channels matching the search parameters in the given point in time, sorted by name.
+     * Each call also extends the point in time by the keep alive.
+     *
+     * @param pitId - id of the point in time
+     * @param keepAlive - how long the point in time is kept after this search
+     * @param searchParameters - channel search parameters, the size and from parameters are ignored
+     * @param searchAfter - the last name of the previous page, null for the first page
+     * @param size - the maximum number of names to return
+     * @return the channel names
+     */
+    public List<String> findNames(String pitId, String keepAlive, MultiValueMap<String, String> searchParameters,
+                                  String searchAfter, int size) {
+        Query query = getBuiltQuery(searchParameters).boolQuery.build()._toQuery();
+        try {
+            SearchRequest.Builder searchBuilder = new SearchRequest.Builder()
+                    .pit(p -> p.id(pitId).keepAlive(t -> t.time(keepAlive)))
+                    .query(query)
+                    .size(size)
+                    .source(src -> src.fetch(false))
+                    .trackTotalHits(builder -> builder.enabled(false))
+                    .sort(SortOptions.of(o -> o.field(FieldSort.of(f -> f.field("name")))));
+            if (searchAfter != null) {
+                searchBuilder.searchAfter(FieldValue.of(searchAfter));
+            }
+            SearchResponse<Channel> response = client.search(searchBuilder.build(), Channel.class);
+            return response.hits().hits().stream().map(Hit::id).collect(Collectors.toList());
+        } catch (ElasticsearchException | IOException e) {
+            String message = MessageFormat.format(TextUtil.SEARCH_FAILED_CAUSE, searchParameters, e.getMessage());
+            logger.log(Level.SEVERE, message, e);
+            throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, message, e);
+        }
+    }
+
+    /**
+     * find the channels matching the search parameters in the given point in time, sorted by name, along with
+     * the sequence numbers and primary terms needed to update them conditionally.
+     * Each call also extends the point in time by the keep alive.
+     *
+     * @param pitId - id of the point in time
+     * @param keepAlive - how long the point in time is kept after this search
+     * @param searchParameters - channel search parameters, the size and from parameters are ignored
+     * @param searchAfter - the last name of the previous page, null for the first page
+     * @param size - the maximum number of channels to return
+     * @return the channels
+     */
+    public List<VersionedChannel> findAllVersioned(String pitId, String keepAlive, MultiValueMap<String, String> searchParameters,
+                                                   String searchAfter, int size) {
+        Query query = getBuiltQuery(searchParameters).boolQuery.build()._toQuery();
+        try {
+            SearchRequest.Builder searchBuilder = new SearchRequest.Builder()
+                    .pit(p -> p.id(pitId).keepAlive(t -> t.time(keepAlive)))
+                    .query(query)
+                    .size(size)
+                    .seqNoPrimaryTerm(true)
+                    .trackTotalHits(builder -> builder.enabled(false))
+                    .sort(SortOptions.of(o -> o.field(FieldSort.of(f -> f.field("name")))));
+            if (searchAfter != null) {
+                searchBuilder.searchAfter(FieldValue.of(searchAfter));
+            }
+            SearchResponse<Channel> response = client.search(searchBuilder.build(), Channel.class);
+            return response.hits().hits().stream()
+                    .map(hit -> new VersionedChannel(hit.source(), hit.seqNo(), hit.primaryTerm()))
+                    .collect(Collectors.toList());
+        } catch (ElasticsearchException | IOException e) {
+            String message = MessageFormat.format(TextUtil.SEARCH_FAILED_CAUSE, searchParameters, e.getMessage());
+            logger.log(Level.SEVERE, message, e);
+            throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, message, e);
+        }
+    }
+
+    /**
+     * apply the script to the given channels with a bulk of scripted partial updates
+     *
+     * @param channelNames - names of the channels to be updated
+     * @param script - the script to apply, e.g. one of the {@link ChannelScripts}
+     * @return the number of updated channels, the channels which no longer exist are skipped
+     * @throws BulkWriteException if some channels could not be updated, with the outcome of each channel
+     */
+    public long updateAll(Collection<String> channelNames, Script script) {
+        if (channelNames.isEmpty()) {
+            return 0;
+        }
+        List<BulkOperation> operations = new ArrayList<>();
+        for (String channelName : channelNames) {
+            operations.add(BulkOperation.of(op -> op.update(u -> u.index(esService.getES_CHANNEL_INDEX())
+                    .id(channelName)
+                    .retryOnConflict(esService.getES_CONFLICT_MAX_RETRIES())
+                    .action(a -> a.script(script)))));
+        }
+        try {
+            return bulkWriter.executeOrThrow(operations).stream()
+                    .filter(item -> item.outcome() != BulkItemResult.Outcome.NOT_FOUND)
+                    .count();
+        } catch (ElasticsearchException | IOException e) {
+            String message = MessageFormat.format(TextUtil.FAILED_TO_UPDATE_CHANNELS, channelNames.size());
+            logger.log(Level.SEVERE, message, e);
+            throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, message, null);
+        }
+    }
+
+    /**
+     * apply a script to each of the given channels with a bulk of scripted partial updates
+     *
+     * @param scripts - the script to apply, by channel name
+     * @return the outcome of each update, in the order of the channels, the updates of unchanged channels are noops
+     */
+    public List<BulkItemResult> updateAll(Map<String, Script> scripts) {
+        if (scripts.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<BulkOperation> operations = new ArrayList<>();
+        scripts.forEach((channelName, script) -> operations.add(BulkOperation.of(op -> op.update(u -> u.index(esService.getES_CHANNEL_INDEX())
+                .id(channelName)
+                .retryOnConflict(esService.getES_CONFLICT_MAX_RETRIES())
+                .action(a -> a.script(script))))));
+        try {
+            return bulkWriter.execute(operations);
+        } catch (ElasticsearchException | IOException e) {
+            String message = MessageFormat.format(TextUtil.FAILED_TO_UPDATE_CHANNELS, scripts.size());
+            logger.log(Level.SEVERE, message, e);
+            throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, message, null);
+        }
+    }
+
+    /**
+     * rename the given channels, each rename is the create of the renamed channel and the delete of the channel,
+     * unless it has been modified since it was read, and all of them are sent in a single bulk request.
+     * <p>
+     * The items of a bulk request are not applied atomically, when only one half of a rename succeeded it is undone
+     * with a second bulk request, so that the channel is neither lost nor duplicated.
+     *
+     * @param channels - the channels to be renamed
+     * @param names - the new names, in the order of the channels
+     * @return the outcome of each rename, in the order of the channels: the create of the renamed channel if it
+     * succeeded, else the failed create or delete
+     */
+    public List<BulkItemResult> renameAll(List<VersionedChannel> channels, List<String> names) {
+        if (channels.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<Channel> renamed = new ArrayList<>();
+        for (int i = 0; i < channels.size(); i++) {
+            Channel channel = stored(channels.get(i).channel());
+            channel.setName(names.get(i));
+            renamed.add(channel);
+        }
+        // the documents are serialized up front, in parallel, rather than by the bulk request
+        List<BinaryData> documents = channelDocumentEncoder.encodeAll(renamed);
+        List<BulkOperation> operations = new ArrayList<>();
+        for (int i = 0; i < channels.size(); i++) {
+            VersionedChannel channel = channels.get(i);
+            String name = names.get(i);
+            BinaryData document = documents.get(i);
+            operations.add(BulkOperation.of(op -> op.create(c -> c.index(esService.getES_CHANNEL_INDEX())
+                    .id(name)
+                    .document(document))));
+            operations.add(BulkOperation.of(op -> op.delete(d -> d.index(esService.getES_CHANNEL_INDEX())
+                    .id(channel.channel().getName())
+                    .ifSeqNo(channel.seqNo())
+                    .ifPrimaryTerm(channel.primaryTerm()))));
+        }
+        try {
+            List<BulkItemResult> items = bulkWriter.execute(operations);
+            List<BulkItemResult> results = new ArrayList<>();
+            List<BulkOperation> undo = new ArrayList<>();
+            List<Channel> restored = new ArrayList<>();
+            for (int i = 0; i < channels.size(); i++) {
+                BulkItemResult created = items.get(2 * i);
+                BulkItemResult deleted = items.get(2 * i + 1);
+                boolean isCreated = created.outcome() == BulkItemResult.Outcome.CREATED;
+                boolean isDeleted = deleted.outcome() == BulkItemResult.Outcome.DELETED;
+                results.add(isCreated && !isDeleted ? deleted : created);
+                if (isCreated && !isDeleted) {
+                    String name = names.get(i);
+                    undo.add(BulkOperation.of(op -> op.delete(d -> d.index(esService.getES_CHANNEL_INDEX()).id(name))));
+                } else if (!isCreated && isDeleted) {
+                    restored.add(stored(channels.get(i).channel()));
+                }
+            }
+            List<BinaryData> restoredDocuments = channelDocumentEncoder.encodeAll(restored);
+            for (int i = 0; i < restored.size(); i++) {
+                String name = restored.get(i).getName();
+                BinaryData document = restoredDocuments.get(i);
+                undo.add(BulkOperation.of(op -> op.create(c -> c.index(esService.getES_CHANNEL_INDEX())
+                        .id(name)
+                        .document(document))));
+            }
+            if (!undo.isEmpty()) {
+                List<String> failed = bulkWriter.execute(undo).stream()
+                        .filter(BulkItemResult::failed)
+                        .map(BulkItemResult::id)
+                        .collect(Collectors.toList());
+                if (!failed.isEmpty()) {
+                    logger.log(Level.SEVERE, () -> MessageFormat.format(TextUtil.FAILED_TO_UNDO_RENAME, failed));
+                }
+            }
+            return results;
+        } catch (ElasticsearchException | IOException e) {
+            String message = MessageFormat.format(TextUtil.FAILED_TO_RENAME_CHANNELS, names);
+            logger.log(Level.SEVERE, message, e);
+            throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, message, null);
+        }
+    }
+
+    private static Query tagQuery(String tagName) {
+        return NestedQuery.of(n -> n.path("tags").query(
+                TermQuery.of(t -> t.field("tags.name").value(tagName).caseInsensitive(true))._toQuery()))._toQuery();
+    }
+
+    private static Query propertyQuery(String propertyName) {
+        return NestedQuery.of(n -> n.path("properties").query(
+                TermQuery.of(t -> t.field("properties.name").value(propertyName).caseInsensitive(true))._toQuery()))._toQuery();
+    }
+
+    private UpdateByQueryResponse updateByQuery(Query query, Script script, boolean waitForCompletion, String failureMessage) {
+        try {
+            UpdateByQueryResponse response = client.updateByQuery(u -> u.index(esService.getES_CHANNEL_INDEX())
+                    .query(query)
+                    .script(script)
+                    .conflicts(Conflicts.Proceed)
+                    .slices(esService.getES_UPDATE_BY_QUERY_SLICES())
+                    .requestsPerSecond(esService.getES_UPDATE_BY_QUERY_REQUESTS_PER_SECOND())
+                    .refresh(true)
+                    .waitForCompletion(waitForCompletion));
+            if (!response.failures().isEmpty()) {
+                logger.log(Level.SEVERE, TextUtil.BULK_HAD_ERRORS);
+                response.failures().forEach(failure -> logger.log(Level.SEVERE, () -> failure.id() + " : " + failure.cause().reason()));
+            }
+            return response;
+        } catch (ElasticsearchException | IOException e) {
+            logger.log(Level.SEVERE, failureMessage, e);
+            throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, failureMessage, null);
+        }
+    }
+
+    private Channel update(String channelName, Script script) {
+        try {
+            UpdateResponse<Channel> response = client.update(u -> u.index(esService.getES_CHANNEL_INDEX())
+                    .id(channelName)
+                    .script(script)
+                    .retryOnConflict(esService.getES_CONFLICT_MAX_RETRIES())
+                    .source(s -> s.fetch(true))
+                    .refresh(Refresh.True), Channel.class);
+            bulkWriter.countWrite(esService.getES_CHANNEL_INDEX(), BulkOperation.Kind.Update, BulkWriter.outcome(response.result()));
+            logger.log(Level.CONFIG, () -> MessageFormat.format(TextUtil.UPDATE_CHANNEL, channelName));
+            return response.get().source();
+        } catch (ElasticsearchException e) {
+            bulkWriter.countWrite(esService.getES_CHANNEL_INDEX(), BulkOperation.Kind.Update, BulkWriter.outcome(e));
+            if (e.status() == HttpStatus.NOT_FOUND.value()) {
+                String message = MessageFormat.format(TextUtil.CHANNEL_NAME_DOES_NOT_EXIST, channelName);
+                logger.log(Level.SEVERE, message, e);
+                throw new ResponseStatusException(HttpStatus.NOT_FOUND, message, null);
+            }
+            String message = MessageFormat.format(TextUtil.FAILED_TO_UPDATE_CHANNEL, channelName);
+            logger.log(Level.SEVERE, message, e);
+            throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, message, null);
+        } catch (IOException e) {
+            bulkWriter.countWrite(esService.getES_CHANNEL_INDEX(), BulkOperation.Kind.Update, BulkWriter.outcome(e));
+            String message = MessageFormat.format(TextUtil.FAILED_TO_UPDATE_CHANNEL, channelName);
+            logger.log(Level.SEVERE, message, e);
+            throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, message, null);
         }
-        return null;
     }
 
     /**
@@ -269,19 +946,77 @@ public class ChannelRepository implements CrudRepository<Channel, String> {
      * @return true if all the channel id's exist
      */
     public boolean existsByIds(List<String> channelIds) {
+        return findMissingIds(channelIds).isEmpty();
+    }
+
+    /**
+     * Check the existence of the channels with the given ids, using multi gets without the document source
+     * in chunks of {@value #MGET_BATCH_SIZE} ids.
+     *
+     * @param channelIds - ids of the channels to check
+     * @return the ids of the channels which do not exist, in the order they were given
+     */
+    public List<String> findMissingIds(Collection<String> channelIds) {
+        List<String> missing = new ArrayList<>();
         try {
-            List<String> ids = StreamSupport.stream(channelIds.spliterator(), false).collect(Collectors.toList());
+            mget(channelIds, false, doc -> {
+                if (!doc.found()) {
+                    missing.add(doc.id());
+                }
+            });
+            return missing;
+        } catch (ElasticsearchException | IOException | ResponseStatusException e) {
+            String message = MessageFormat.format(TextUtil.FAILED_TO_CHECK_IF_CHANNELS_EXIST, channelIds.size());
+            logger.log(Level.SEVERE, message, e);
+            throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, message, null);
+        }
+    }
 
-            SearchRequest.Builder searchBuilder = new SearchRequest.Builder()
+    /**
+     * Get the channels with the given ids with multi gets, in chunks of {@value #MGET_BATCH_SIZE} ids
+     *
+     * @param channelIds - ids of the channels, duplicates are only fetched once
+     * @param fetchSource - false to only check the existence of the channels
+     * @param consumer - called with the result for each id, in the order of the ids
+     */
+    private void mget(Collection<String> channelIds, boolean fetchSource, Consumer<GetResult<Channel>> consumer) throws IOException {
+        mget(channelIds, SourceConfigParam.of(src -> src.fetch(fetchSource)), Channel.class, consumer);
+    }
+
+    private <T> void mget(Collection<String> channelIds, SourceConfigParam source, Class<T> documentClass,
+                          Consumer<GetResult<T>> consumer) throws IOException {
+        List<String> ids = channelIds.stream().distinct().collect(Collectors.toList());
+        for (int from = 0; from < ids.size(); from += MGET_BATCH_SIZE) {
+            List<String> chunk = ids.subList(from, Math.min(from + MGET_BATCH_SIZE, ids.size()));
+            MgetResponse<T> response = client.mget(m -> m
                     .index(esService.getES_CHANNEL_INDEX())
-                    .query(IdsQuery.of(q -> q.values(ids))._toQuery())
-                    .size(esService.getES_QUERY_SIZE())
-                    .sort(SortOptions.of(s -> s.field(FieldSort.of(f -> f.field("name")))));
-            SearchResponse<Channel> response = client.search(searchBuilder.build(), Channel.class);
-            return new HashSet<>(response.hits()
-                    .hits().stream().map(h -> h.source().getName()).collect(Collectors.toList()))
-                    .containsAll(channelIds);
-        } catch (ElasticsearchException | IOException e) {
+                    .ids(chunk)
+                    .source(source), documentClass);
+            for (MultiGetResponseItem<T> doc : response.docs()) {
+                if (doc.isFailure()) {
+                    throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, doc.failure().error().reason());
+                }
+                consumer.accept(doc.result());
+            }
+        }
+    }
+
+    /**
+     * find the stored {@link ChannelFingerprint}s of the channels with the given ids, without reading the channels
+     *
+     * @param channelIds - ids of the channels
+     * @return the fingerprints, by channel name, of the channels which exist and have a fingerprint
+     */
+    public Map<String, String> findFingerprints(Collection<String> channelIds) {
+        try {
+            Map<String, String> fingerprints = new HashMap<>();
+            mget(channelIds, SourceConfigParam.of(src -> src.fields(List.of(ChannelFingerprint.FIELD))), ObjectNode.class, doc -> {
+                if (doc.found() && doc.source() != null && doc.source().hasNonNull(ChannelFingerprint.FIELD)) {
+                    fingerprints.put(doc.id(), doc.source().get(ChannelFingerprint.FIELD).asText());
+                }
+            });
+            return fingerprints;
+        } catch (ElasticsearchException | IOException | ResponseStatusException e) {
             logger.log(Level.SEVERE, TextUtil.FAILED_TO_FIND_ALL_CHANNELS, e);
             throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, TextUtil.FAILED_TO_FIND_ALL_CHANNELS, null);
         }
@@ -325,15 +1060,37 @@ public class ChannelRepository implements CrudRepository<Channel, String> {
     public List<Channel> findAllById(Iterable<String> channelIds) {
         try {
             List<String> ids = StreamSupport.stream(channelIds.spliterator(), false).collect(Collectors.toList());
+            List<Channel> channels = new ArrayList<>();
+            mget(ids, true, doc -> {
+                if (doc.found()) {
+                    channels.add(doc.source());
+                }
+            });
+            channels.sort(Comparator.comparing(Channel::getName));
+            return channels;
+        } catch (ElasticsearchException | IOException | ResponseStatusException e) {
+            logger.log(Level.SEVERE, TextUtil.FAILED_TO_FIND_ALL_CHANNELS, e);
+            throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, TextUtil.FAILED_TO_FIND_ALL_CHANNELS, null);
+        }
+    }
 
-            SearchRequest.Builder searchBuilder = new SearchRequest.Builder()
-                    .index(esService.getES_CHANNEL_INDEX())
-                    .query(IdsQuery.of(q -> q.values(ids))._toQuery())
-                    .size(esService.getES_QUERY_SIZE())
-                    .sort(SortOptions.of(s -> s.field(FieldSort.of(f -> f.field("name")))));
-            SearchResponse<Channel> response = client.search(searchBuilder.build(), Channel.class);
-            return response.hits().hits().stream().map(Hit::source).collect(Collectors.toList());
-        } catch (ElasticsearchException | IOException e) {
+    /**
+     * find channels using the given channel ids, along with the sequence numbers and primary terms
+     * needed to update them conditionally
+     *
+     * @param channelIds - ids of channels to be found
+     * @return the found channels, by name
+     */
+    public Map<String, VersionedChannel> findAllVersionedById(Collection<String> channelIds) {
+        try {
+            Map<String, VersionedChannel> channels = new HashMap<>();
+            mget(channelIds, true, doc -> {
+                if (doc.found()) {
+                    channels.put(doc.id(), new VersionedChannel(doc.source(), doc.seqNo(), doc.primaryTerm()));
+                }
+            });
+            return channels;
+        } catch (ElasticsearchException | IOException | ResponseStatusException e) {
             logger.log(Level.SEVERE, TextUtil.FAILED_TO_FIND_ALL_CHANNELS, e);
             throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, TextUtil.FAILED_TO_FIND_ALL_CHANNELS, null);
         }
@@ -354,11 +1111,13 @@ public class ChannelRepository implements CrudRepository<Channel, String> {
         try {
             DeleteResponse response = client
                     .delete(i -> i.index(esService.getES_CHANNEL_INDEX()).id(channelName).refresh(Refresh.True));
+            bulkWriter.countWrite(esService.getES_CHANNEL_INDEX(), BulkOperation.Kind.Delete, BulkWriter.outcome(response.result()));
             // verify the deletion of the channel
             if (response.result().equals(Result.Deleted)) {
                 logger.log(Level.CONFIG, () -> MessageFormat.format(TextUtil.DELETE_CHANNEL, channelName));
             }
         } catch (ElasticsearchException | IOException e) {
+            bulkWriter.countWrite(esService.getES_CHANNEL_INDEX(), BulkOperation.Kind.Delete, BulkWriter.outcome(e));
             String message = MessageFormat.format(TextUtil.FAILED_TO_DELETE_CHANNEL, channelName);
             logger.log(Level.SEVERE, message, e);
             throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, message, null);
@@ -378,16 +1137,16 @@ public class ChannelRepository implements CrudRepository<Channel, String> {
     @Override
     public void deleteAll(Iterable<? extends Channel> channels) {
 
-        BulkRequest.Builder br = new BulkRequest.Builder();
+        List<BulkOperation> operations = new ArrayList<>();
         for (Channel channel : channels) {
-            br.operations(op -> op
+            operations.add(BulkOperation.of(op -> op
                     . delete(idx -> idx
                             .index(esService.getES_CHANNEL_INDEX())
                             .id(channel.getName()))
-                    ).refresh(Refresh.True);
+                    ));
         }
         try {
-            BulkResponse result = client.bulk(br.build());
+            bulkWriter.executeOrThrow(operations);
         } catch (IOException e) {
             logger.log(Level.WARNING, e.getMessage(), e);
         }
@@ -432,9 +1191,12 @@ public class ChannelRepository implements CrudRepository<Channel, String> {
                             .sort(SortOptions.of(o -> o.field(FieldSort.of(f -> f.field("name")))));
             builtQuery.searchAfter.ifPresent(s -> searchBuilder.searchAfter(FieldValue.of(s)));
 
-            SearchResponse<Channel> response = client.search(searchBuilder.build(),
+            SearchRequest request = searchBuilder.build();
+            long start = System.nanoTime();
+            SearchResponse<Channel> response = client.search(request,
                                                                 Channel.class
             );
+            long nanos = System.nanoTime() - start;
 
             List<Hit<Channel>> hits = response.hits().hits();
             long count = hits.size();
@@ -442,6 +1204,7 @@ public class ChannelRepository implements CrudRepository<Channel, String> {
                 assert response.hits().total() != null;
                 count = response.hits().total().value();
             }
+            slowQueryLog.record(SlowQueryLog.SEARCH, searchParameters, nanos, count, () -> request);
             return new SearchResult(hits.stream().map(Hit::source).collect(Collectors.toList()), count);
         } catch (Exception e) {
             String message = MessageFormat.format(TextUtil.SEARCH_FAILED_CAUSE, searchParameters, e.getMessage());
@@ -566,9 +1329,14 @@ public class ChannelRepository implements CrudRepository<Channel, String> {
 
         try {
 
+            Query query = builtQuery.boolQuery.build()._toQuery();
             CountRequest.Builder countBuilder = new CountRequest.Builder();
-            countBuilder.index(esService.getES_CHANNEL_INDEX()).query(builtQuery.boolQuery.build()._toQuery());
+            countBuilder.index(esService.getES_CHANNEL_INDEX()).query(query);
+            long start = System.nanoTime();
             CountResponse response = client.count(countBuilder.build());
+            // a count is profiled as a search without hits
+            slowQueryLog.record(SlowQueryLog.COUNT, searchParameters, System.nanoTime() - start, response.count(),
+                    () -> SearchRequest.of(s -> s.index(esService.getES_CHANNEL_INDEX()).query(query).size(0)));
 
             return response.count();
         } catch (Exception e) {
@@ -602,6 +1370,77 @@ public class ChannelRepository implements CrudRepository<Channel, String> {
         return this.count(params);
     }
 
+    /**
+     * Count the channels matching each of the queries, and the channels by value of each of the properties and by
+     * owner, with the aggregations of a single search
+     *
+     * @param queries - channel search parameters, by key
+     * @param properties - the properties to count the channels by value of
+     * @param byOwner - true to count the channels by owner
+     * @param size - the number of most frequent property values and owners counted
+     * @return the channel counts
+     */
+    public ChannelCounts countAll(Map<String, MultiValueMap<String, String>> queries, List<String> properties,
+                                  boolean byOwner, int size) {
+        Map<String, Query> filters = new LinkedHashMap<>();
+        queries.forEach((key, searchParameters) ->
+                filters.put(key, getBuiltQuery(searchParameters).boolQuery.build()._toQuery()));
+        Map<String, Aggregation> aggregations = new LinkedHashMap<>();
+        if (!filters.isEmpty()) {
+            aggregations.put("matches", Aggregation.of(a -> a.filters(f -> f.filters(b -> b.keyed(filters)))));
+        }
+        for (int i = 0; i < properties.size(); i++) {
+            String property = properties.get(i);
+            aggregations.put("property" + i, Aggregation.of(a -> a
+                    .nested(n -> n.path("properties"))
+                    .aggregations("name", name -> name
+                            .filter(q -> q.term(t -> t.field("properties.name").value(property)))
+                            .aggregations("values", values -> values
+                                    .terms(t -> t.field("properties.value").size(size))
+                                    .aggregations("channels", channels -> channels.reverseNested(r -> r))))));
+        }
+        if (byOwner) {
+            aggregations.put("owners", Aggregation.of(a -> a.terms(t -> t.field("owner").size(size))));
+        }
+        try {
+            SearchResponse<Channel> response = client.search(s -> s
+                            .index(esService.getES_CHANNEL_INDEX())
+                            .size(0)
+                            .trackTotalHits(t -> t.enabled(true))
+                            .aggregations(aggregations),
+                    Channel.class);
+            Map<String, Aggregate> results = response.aggregations();
+
+            Map<String, Long> matches = new LinkedHashMap<>();
+            if (results.containsKey("matches")) {
+                results.get("matches").filters().buckets().keyed()
+                        .forEach((key, bucket) -> matches.put(key, bucket.docCount()));
+            }
+            Map<String, Map<String, Long>> byPropertyValue = new LinkedHashMap<>();
+            for (int i = 0; i < properties.size(); i++) {
+                StringTermsAggregate values = results.get("property" + i).nested().aggregations().get("name")
+                        .filter().aggregations().get("values").sterms();
+                Map<String, Long> counts = new LinkedHashMap<>();
+                values.buckets().array().forEach(bucket -> counts.put(bucket.key().stringValue(),
+                        bucket.aggregations().get("channels").reverseNested().docCount()));
+                counts.put(ChannelCounts.OTHER, values.sumOtherDocCount() == null ? 0 : values.sumOtherDocCount());
+                byPropertyValue.put(properties.get(i), counts);
+            }
+            Map<String, Long> owners = new LinkedHashMap<>();
+            if (byOwner) {
+                StringTermsAggregate terms = results.get("owners").sterms();
+                terms.buckets().array().forEach(bucket -> owners.put(bucket.key().stringValue(), bucket.docCount()));
+                owners.put(ChannelCounts.OTHER, terms.sumOtherDocCount() == null ? 0 : terms.sumOtherDocCount());
+            }
+            return new ChannelCounts(response.hits().total() == null ? 0 : response.hits().total().value(),
+                    matches, byPropertyValue, owners);
+        } catch (Exception e) {
+            String message = MessageFormat.format(TextUtil.COUNT_FAILED_CAUSE, queries, e.getMessage());
+            logger.log(Level.SEVERE, message, e);
+            throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, message, e);
+        }
+    }
+
 
 
     @Override
@@ -0,0 +1,229 @@
+package org.phoebus.channelfinder;
+
+import co.elastic.clients.elasticsearch._types.Script;
+import co.elastic.clients.json.JsonData;
+import org.phoebus.channelfinder.entity.Channel;
+import org.phoebus.channelfinder.entity.ChannelPatch;
+import org.phoebus.channelfinder.entity.Property;
+import org.phoebus.channelfinder.entity.Tag;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Painless scripts used to execute partial updates of channel documents on the elastic side,
+ * removing the need to read, modify and re-index the complete channel document.
+ * <p>
+ * The scripts follow the semantics of {@link Channel#addTag(Tag)}, {@link Channel#removeTag(Tag)},
+ * {@link Channel#addProperty(Property)} and {@link Channel#removeProperty(Property)}: tags and properties
+ * are matched on their name, an added tag or property replaces an existing one with the same name.
+ */
+public class ChannelScripts {
+
+    static final String LANG = "painless";
+
+    /**
+     * The partial updates do not compute the fingerprint of the updated channel, they remove it instead,
+     * the channel is then considered changed by the next write which stores the fingerprint again.
+     */
+    static final String REMOVE_FINGERPRINT = "ctx._source.remove('" + ChannelFingerprint.FIELD + "');";
+
+    static final String ADD_TAG =
+            "if (ctx._source.tags == null) { ctx._source.tags = new ArrayList(); } "
+            + "ctx._source.tags.removeIf(t -> t.name == params.tag.name); "
+            + "ctx._source.tags.add(params.tag); "
+            + REMOVE_FINGERPRINT;
+
+    static final String REMOVE_TAG =
+            "if (ctx._source.tags == null || !ctx._source.tags.removeIf(t -> t.name == params.name)) { ctx.op = 'noop'; } "
+            + "else { " + REMOVE_FINGERPRINT + " }";
+
+    static final String ADD_PROPERTY =
+            "if (ctx._source.properties == null) { ctx._source.properties = new ArrayList(); } "
+            + "ctx._source.properties.removeIf(p -> p.name == params.property.name); "
+            + "ctx._source.properties.add(params.property); "
+            + REMOVE_FINGERPRINT;
+
+    static final String REMOVE_PROPERTY =
+            "if (ctx._source.properties == null || !ctx._source.properties.removeIf(p -> p.name == params.name)) { ctx.op = 'noop'; } "
+            + "else { " + REMOVE_FINGERPRINT + " }";
+
+    static final String DELETE_TAG =
+            "if (ctx._source.tags == null || !ctx._source.tags.removeIf(t -> params.name.equalsIgnoreCase(t.name))) { ctx.op = 'noop'; } "
+            + "else { " + REMOVE_FINGERPRINT + " }";
+
+    static final String DELETE_PROPERTY =
+            "if (ctx._source.properties == null || !ctx._source.properties.removeIf(p -> params.name.equalsIgnoreCase(p.name))) { ctx.op = 'noop'; } "
+            + "else { " + REMOVE_FINGERPRINT + " }";
+
+    static final String MERGE =
+            "if (params.owner != null && params.owner != '') { ctx._source.owner = params.owner; } "
+            + "if (ctx._source.properties == null) { ctx._source.properties = new ArrayList(); } "
+            + "for (def property : params.properties) { "
+            + "  ctx._source.properties.removeIf(p -> p.name == property.name); "
+            + "  ctx._source.properties.add(property); "
+            + "} "
+            + "if (ctx._source.tags == null) { ctx._source.tags = new ArrayList(); } "
+            + "for (def tag : params.tags) { "
+            + "  ctx._source.tags.removeIf(t -> t.name == tag.name); "
+            + "  ctx._source.tags.add(tag); "
+            + "} "
+            + "ctx._source." + ChannelFingerprint.FIELD + " = params.fingerprint;";
+
+    static final String PATCH =
+            "boolean changed = false; "
+            + "for (def patch : params.patches) { "
+            + "  if (patch.op == 'ADD_TAG') { "
+            + "    if (ctx._source.tags == null) { ctx._source.tags = new ArrayList(); } "
+            + "    if (!ctx._source.tags.removeIf(t -> t.name == patch.tag.name && t.owner == patch.tag.owner)) { changed = true; } "
+            + "    ctx._source.tags.removeIf(t -> t.name == patch.tag.name); "
+            + "    ctx._source.tags.add(patch.tag); "
+            + "  } else if (patch.op == 'REMOVE_TAG') { "
+            + "    if (ctx._source.tags != null && ctx._source.tags.removeIf(t -> t.name == patch.name)) { changed = true; } "
+            + "  } else if (patch.op == 'SET_PROPERTY') { "
+            + "    if (ctx._source.properties == null) { ctx._source.properties = new ArrayList(); } "
+            + "    if (!ctx._source.properties.removeIf(p -> p.name == patch.property.name && p.owner == patch.property.owner "
+            + "        && p.value == patch.property.value)) { changed = true; } "
+            + "    ctx._source.properties.removeIf(p -> p.name == patch.property.name); "
+            + "    ctx._source.properties.add(patch.property); "
+            + "  } else if (patch.op == 'REMOVE_PROPERTY') { "
+            + "    if (ctx._source.properties != null && ctx._source.properties.removeIf(p -> p.name == patch.name)) { changed = true; } "
+            + "  } else if (patch.op == 'SET_OWNER') { "
+            + "    if (ctx._source.owner != patch.owner) { ctx._source.owner = patch.owner; changed = true; } "
+            + "  } "
+            + "} "
+            + "if (changed) { " + REMOVE_FINGERPRINT + " } else { ctx.op = 'noop'; }";
+
+    /**
+     * This class is not to be instantiated.
+     */
+    private ChannelScripts() {
+        throw new IllegalStateException("Utility class");
+    }
+
+    /**
+     * @param tag - tag to be added to (or replaced on) a channel
+     * @return script adding the tag
+     */
+    public static Script addTag(Tag tag) {
+        return script(ADD_TAG, Map.of("tag", JsonData.of(toMap(tag))));
+    }
+
+    /**
+     * @param tagName - name of the tag to be removed from a channel
+     * @return script removing the tag, the update is a noop if the channel does not have the tag
+     */
+    public static Script removeTag(String tagName) {
+        return script(REMOVE_TAG, Map.of("name", JsonData.of(tagName)));
+    }
+
+    /**
+     * @param property - property to be added to (or replaced on) a channel
+     * @return script adding the property
+     */
+    public static Script addProperty(Property property) {
+        return script(ADD_PROPERTY, Map.of("property", JsonData.of(toMap(property))));
+    }
+
+    /**
+     * @param propertyName - name of the property to be removed from a channel
+     * @return script removing the property, the update is a noop if the channel does not have the property
+     */
+    public static Script removeProperty(String propertyName) {
+        return script(REMOVE_PROPERTY, Map.of("name", JsonData.of(propertyName)));
+    }
+
+    /**
+     * @param tagName - name of a deleted tag, matched ignoring case
+     * @return script removing the deleted tag from a channel, the update is a noop if the channel does not have the tag
+     */
+    public static Script deleteTag(String tagName) {
+        return script(DELETE_TAG, Map.of("name", JsonData.of(tagName)));
+    }
+
+    /**
+     * @param propertyName - name of a deleted property, matched ignoring case
+     * @return script removing the deleted property from a channel, the update is a noop if the channel does not have the property
+     */
+    public static Script deleteProperty(String propertyName) {
+        return script(DELETE_PROPERTY, Map.of("name", JsonData.of(propertyName)));
+    }
+
+    /**
+     * Merge the owner, tags and properties of the given channel into an existing channel, the same way
+     * {@link ChannelRepository#saveAll(Iterable)} merges channels.
+     *
+     * @param channel - channel with the owner, tags and properties to be merged
+     * @param fingerprint - the {@link ChannelFingerprint} of the merged channel
+     * @return script merging the channel
+     */
+    public static Script merge(Channel channel, String fingerprint) {
+        Map<String, JsonData> params = new LinkedHashMap<>();
+        params.put("owner", JsonData.of(channel.getOwner() == null ? "" : channel.getOwner()));
+        params.put("properties", JsonData.of(nonNull(channel.getProperties()).stream()
+                .map(ChannelScripts::toMap).collect(Collectors.toList())));
+        params.put("tags", JsonData.of(nonNull(channel.getTags()).stream()
+                .map(ChannelScripts::toMap).collect(Collectors.toList())));
+        params.put("fingerprint", JsonData.of(fingerprint));
+        return script(MERGE, params);
+    }
+
+    /**
+     * Apply the patches of a channel in order, the update is a noop if none of them changes the channel
+     *
+     * @param patches - the patches of the channel, validated
+     * @param tags - the tags the patches add, by name, with their owner
+     * @param properties - the properties the patches set, by name, with their owner
+     * @return script applying the patches
+     */
+    public static Script patch(List<ChannelPatch> patches, Map<String, Tag> tags, Map<String, Property> properties) {
+        List<Map<String, Object>> params = new ArrayList<>();
+        for (ChannelPatch patch : patches) {
+            Map<String, Object> param = new LinkedHashMap<>();
+            param.put("op", patch.op().name());
+            switch (patch.op()) {
+                case ADD_TAG:
+                    param.put("tag", toMap(tags.get(patch.name())));
+                    break;
+                case SET_PROPERTY:
+                    Property property = properties.get(patch.name());
+                    param.put("property", toMap(new Property(property.getName(), property.getOwner(), patch.value())));
+                    break;
+                case SET_OWNER:
+                    param.put("owner", patch.value());
+                    break;
+                default:
+                    param.put("name", patch.name());
+            }
+            params.add(param);
+        }
+        return script(PATCH, Map.of("patches", JsonData.of(params)));
+    }
+
+    static Script script(String source, Map<String, JsonData> params) {
+        return Script.of(s -> s.inline(i -> i.lang(LANG).source(source).params(params)));
+    }
+
+    private static <T> List<T> nonNull(List<T> list) {
+        return list == null ? Collections.emptyList() : list;
+    }
+
+    private static Map<String, String> toMap(Tag tag) {
+        Map<String, String> map = new LinkedHashMap<>();
+        map.put("name", tag.getName());
+        map.put("owner", tag.getOwner());
+        return map;
+    }
+
+    private static Map<String, String> toMap(Property property) {
+        Map<String, String> map = new LinkedHashMap<>();
+        map.put("name", property.getName());
+        map.put("owner", property.getOwner());
+        map.put("value", property.getValue());
+        return map;
+    }
+}
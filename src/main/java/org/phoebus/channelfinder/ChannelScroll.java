@@ -50,6 +50,9 @@ public class ChannelScroll {
     @Qualifier("indexClient")
     ElasticsearchClient client;
 
+    @Autowired
+    SlowQueryLog slowQueryLog;
+
     /**
      * GET method for retrieving a collection of Channel instances, based on a
      * multi-parameter query specifying patterns for tags, property values, and
@@ -169,14 +172,24 @@ public class ChannelScroll {
                     .from(from)
                     .size(size)
                     .sort(SortOptions.of(o -> o.field(FieldSort.of(f -> f.field("name")))));
-            if(scrollId != null && !scrollId.isEmpty()) {
+            boolean firstPage = scrollId == null || scrollId.isEmpty();
+            if(!firstPage) {
                 builder.searchAfter(FieldValue.of(scrollId));
             }
-            SearchResponse<Channel> response = client.search(builder.build(),
+            // the total is only counted on the first page, past the default limit of elastic
+            builder.trackTotalHits(track -> track.enabled(firstPage));
+            SearchRequest request = builder.build();
+            long start = System.nanoTime();
+            SearchResponse<Channel> response = client.search(request,
                     Channel.class
             );
             List<Hit<Channel>> hits = response.hits().hits();
-            return new Scroll(!hits.isEmpty() ? hits.get(hits.size()-1).id() : null, hits.stream().map(Hit::source).collect(Collectors.toList()));
+            slowQueryLog.record(SlowQueryLog.SCROLL, searchParameters, System.nanoTime() - start, hits.size(), () -> request);
+            Scroll scroll = new Scroll(!hits.isEmpty() ? hits.get(hits.size()-1).id() : null, hits.stream().map(Hit::source).collect(Collectors.toList()));
+            if (firstPage && response.hits().total() != null) {
+                scroll.setTotal(response.hits().total().value());
+            }
+            return scroll;
         } catch (Exception e) {
             String message = MessageFormat.format(TextUtil.SEARCH_FAILED_CAUSE, searchParameters, e.getMessage());
             logger.log(Level.SEVERE, message, e);
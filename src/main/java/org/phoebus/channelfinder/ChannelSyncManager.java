@@ -0,0 +1,285 @@
+package org.phoebus.channelfinder;
+
+import static org.phoebus.channelfinder.CFResourceDescriptors.SYNC_RESOURCE_URI;
+
+import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
+
+import org.phoebus.channelfinder.AuthorizationService.ROLES;
+import org.phoebus.channelfinder.ChannelRepository.SaveResult;
+import org.phoebus.channelfinder.ChannelRepository.VersionedChannel;
+import org.phoebus.channelfinder.entity.Channel;
+import org.phoebus.channelfinder.entity.ChannelMutation;
+import org.phoebus.channelfinder.entity.ChannelSync;
+import org.phoebus.channelfinder.entity.ChannelSyncResult;
+import org.phoebus.channelfinder.processors.ChannelProcessorService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.MultiValueMap;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import co.elastic.clients.elasticsearch._types.Script;
+
+/**
+ * Synchronize the complete set of channels of a scope, e.g. all the channels of an IOC, with the index in a
+ * single request, instead of querying the channels of the scope, computing the differences on the client side
+ * and sending the creates, updates and scope exits separately.
+ * <p>
+ * The differences are computed with a sorted merge of the channels, sorted by name, and the channels of the
+ * scope, read page by page in name order from a point in time. Only one page of the scope is held in memory.
+ */
+@CrossOrigin
+@RestController
+@RequestMapping(SYNC_RESOURCE_URI)
+@EnableAutoConfiguration
+public class ChannelSyncManager {
+
+    private static final Logger logger = Logger.getLogger(ChannelSyncManager.class.getName());
+
+    private static final String POINT_IN_TIME_KEEP_ALIVE = "5m";
+
+    /**
+     * The order of the channel names in elastic, the keyword field is sorted by unicode code point
+     */
+    static final Comparator<String> NAME_ORDER = ChannelSyncManager::compareCodePoints;
+
+    @Autowired
+    ChannelRepository channelRepository;
+
+    @Autowired
+    ChannelManager channelManager;
+
+    @Autowired
+    ChannelMutationManager channelMutationManager;
+
+    @Autowired
+    AuthorizationService authorizationService;
+
+    @Autowired
+    ChannelProcessorService channelProcessorService;
+
+    @Autowired
+    AuditLog auditLog;
+
+    @Value("${elasticsearch.query.size:10000}")
+    private int defaultMaxSize;
+
+    /**
+     * PUT method synchronizing the channels of the scope defined by the search parameters, e.g. iocName=X
+     * <p>
+     * The channels are merged into the existing channels, as by a POST of the channels, the channels which do not
+     * exist are created and the channels which are unchanged are not written. The <code>exit</code> mutation is
+     * applied to the channels of the scope which are not part of the sync, unless it has already been applied.
+     * <p>
+     * The channels are written in batches, one per page of the scope. A sync which fails part way can be repeated,
+     * the batches already written are then unchanged.
+     *
+     * @param allRequestParams - channel search parameters defining the scope, at least one is required
+     * @param sync - the channels of the scope and the scope exit mutation
+     * @return the number of created, updated, unchanged and exited channels
+     */
+    @PutMapping
+    public ChannelSyncResult sync(@RequestParam MultiValueMap<String, String> allRequestParams,
+                                  @RequestBody ChannelSync sync) {
+        MultiValueMap<String, String> scope = new LinkedMultiValueMap<>(allRequestParams);
+        scope.remove("~size");
+        scope.remove("~from");
+        scope.remove("~search_after");
+        scope.remove("~track_total_hits");
+        if (scope.isEmpty()) {
+            logger.log(Level.SEVERE, TextUtil.SYNC_REQUIRES_SEARCH_PARAMETERS);
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, TextUtil.SYNC_REQUIRES_SEARCH_PARAMETERS);
+        }
+        List<Channel> channels = sync.channels() == null ? new ArrayList<>() : new ArrayList<>(sync.channels());
+        ChannelMutation exit = sync.exit();
+        String description = MessageFormat.format(TextUtil.SYNC_CHANNELS, channels.size(), scope, exit == null ? null : exit.toLog());
+        if (!authorizationService.isAuthorizedRole(SecurityContextHolder.getContext().getAuthentication(), ROLES.CF_CHANNEL)) {
+            String message = MessageFormat.format(TextUtil.USER_NOT_AUTHORIZED_ON_CHANNELS, description);
+            logger.log(Level.SEVERE, message);
+            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, message, null);
+        }
+        Script exitScript = exit == null ? null : channelMutationManager.authorizedScript(exit, description);
+        auditLog.log(AuditLog.UPDATE, AuditLog.CHANNEL, channels, Channel::getName, () -> description);
+
+        channelManager.validateChannelRequest(channels);
+        channelManager.resetOwnersToExisting(channels);
+        channels.sort(Comparator.comparing(Channel::getName, NAME_ORDER));
+
+        SyncCounts counts = new SyncCounts();
+        String pitId = channelRepository.openPointInTime(POINT_IN_TIME_KEEP_ALIVE);
+        try {
+            int next = 0;
+            List<VersionedChannel> page = channelRepository.findAllVersioned(pitId, POINT_IN_TIME_KEEP_ALIVE, scope, null, defaultMaxSize);
+            while (!page.isEmpty()) {
+                List<Channel> writes = new ArrayList<>();
+                Map<String, VersionedChannel> existing = new HashMap<>();
+                List<Channel> exits = new ArrayList<>();
+                for (VersionedChannel current : page) {
+                    String name = current.channel().getName();
+                    // channels before the current channel of the scope are not in the scope
+                    while (next < channels.size() && NAME_ORDER.compare(channels.get(next).getName(), name) < 0) {
+                        writes.add(channels.get(next++));
+                    }
+                    boolean inSync = false;
+                    while (next < channels.size() && channels.get(next).getName().equals(name)) {
+                        writes.add(channels.get(next++));
+                        inSync = true;
+                    }
+                    if (inSync) {
+                        existing.put(name, current);
+                    } else {
+                        exits.add(current.channel());
+                    }
+                }
+                apply(writes, existing, counts);
+                exit(exits, exit, exitScript, counts);
+                if (page.size() < defaultMaxSize) {
+                    break;
+                }
+                String searchAfter = page.get(page.size() - 1).channel().getName();
+                page = channelRepository.findAllVersioned(pitId, POINT_IN_TIME_KEEP_ALIVE, scope, searchAfter, defaultMaxSize);
+            }
+            // the remaining channels are after the last channel of the scope
+            for (int from = next; from < channels.size(); from += defaultMaxSize) {
+                apply(channels.subList(from, Math.min(from + defaultMaxSize, channels.size())), new HashMap<>(), counts);
+            }
+        } finally {
+            channelRepository.closePointInTime(pitId);
+        }
+        ChannelSyncResult result = counts.result();
+        logger.log(Level.INFO, () -> MessageFormat.format(TextUtil.SYNCED_CHANNELS, scope, result));
+        return result;
+    }
+
+    /**
+     * Merge the channels into the existing channels, the channels which are not in the scope are read first
+     *
+     * @param channels - the channels to write
+     * @param existing - the existing channels of the scope, by name
+     */
+    private void apply(List<Channel> channels, Map<String, VersionedChannel> existing, SyncCounts counts) {
+        if (channels.isEmpty()) {
+            return;
+        }
+        List<String> outOfScope = channels.stream()
+                .map(Channel::getName)
+                .filter(name -> !existing.containsKey(name))
+                .collect(Collectors.toList());
+        if (!outOfScope.isEmpty()) {
+            existing.putAll(channelRepository.findAllVersionedById(outOfScope));
+        }
+        List<Channel> ownedChannels = new ArrayList<>();
+        for (Channel channel : channels) {
+            VersionedChannel existingChannel = existing.get(channel.getName());
+            ownedChannels.add(existingChannel == null ? channel : existingChannel.channel());
+        }
+        List<Channel> unauthorized = authorizationService.findUnauthorizedOwners(
+                SecurityContextHolder.getContext().getAuthentication(), ownedChannels, Channel::getOwner);
+        if (!unauthorized.isEmpty()) {
+            String message = MessageFormat.format(TextUtil.USER_NOT_AUTHORIZED_ON_CHANNEL, unauthorized.get(0).toLog());
+            logger.log(Level.SEVERE, message);
+            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, message, null);
+        }
+        for (int i = 0; i < channels.size(); i++) {
+            channels.get(i).setOwner(ownedChannels.get(i).getOwner());
+        }
+        SaveResult saved = channelRepository.saveAll(channels, existing, channelManager.ownershipRecheck(true));
+        for (Channel channel : saved.changedChannels()) {
+            if (existing.containsKey(channel.getName())) {
+                counts.updated++;
+            } else {
+                counts.created++;
+            }
+        }
+        counts.unchanged += saved.unchanged();
+        channelProcessorService.sendToProcessors(saved.changedChannels());
+    }
+
+    /**
+     * Apply the scope exit mutation to the channels of the scope which are not part of the sync
+     */
+    private void exit(List<Channel> channels, ChannelMutation exit, Script exitScript, SyncCounts counts) {
+        if (exit == null || channels.isEmpty()) {
+            return;
+        }
+        List<Channel> exiting = channels.stream().filter(channel -> !isApplied(exit, channel)).collect(Collectors.toList());
+        counts.exitUnchanged += channels.size() - exiting.size();
+        if (exiting.isEmpty()) {
+            return;
+        }
+        if (exitScript == null) {
+            channelRepository.deleteAll(exiting);
+            counts.exited += exiting.size();
+            return;
+        }
+        List<String> names = exiting.stream().map(Channel::getName).collect(Collectors.toList());
+        counts.exited += channelRepository.updateAll(names, exitScript);
+        if (channelProcessorService.hasEnabledProcessors()) {
+            channelProcessorService.sendToProcessors(channelRepository.findAllById(names));
+        }
+    }
+
+    /**
+     * @return true if applying the mutation to the channel would not change it
+     */
+    static boolean isApplied(ChannelMutation mutation, Channel channel) {
+        switch (mutation.action()) {
+            case ADD_TAG:
+                return channel.getTags().stream().anyMatch(tag -> tag.getName().equals(mutation.tag().getName()));
+            case REMOVE_TAG:
+                return channel.getTags().stream().noneMatch(tag -> tag.getName().equals(mutation.tag().getName()));
+            case SET_PROPERTY:
+                return channel.getProperties().stream().anyMatch(property -> property.getName().equals(mutation.property().getName())
+                        && Objects.equals(property.getValue(), mutation.property().getValue()));
+            case REMOVE_PROPERTY:
+                return channel.getProperties().stream().noneMatch(property -> property.getName().equals(mutation.property().getName()));
+            default:
+                return false;
+        }
+    }
+
+    private static int compareCodePoints(String a, String b) {
+        int i = 0;
+        int j = 0;
+        while (i < a.length() && j < b.length()) {
+            int ca = a.codePointAt(i);
+            int cb = b.codePointAt(j);
+            if (ca != cb) {
+                return Integer.compare(ca, cb);
+            }
+            i += Character.charCount(ca);
+            j += Character.charCount(cb);
+        }
+        return Integer.compare(a.length() - i, b.length() - j);
+    }
+
+    private static class SyncCounts {
+        private long created;
+        private long updated;
+        private long unchanged;
+        private long exited;
+        private long exitUnchanged;
+
+        private ChannelSyncResult result() {
+            return new ChannelSyncResult(created, updated, unchanged, exited, exitUnchanged);
+        }
+    }
+}
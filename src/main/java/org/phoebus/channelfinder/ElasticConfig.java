@@ -34,6 +34,7 @@ import co.elastic.clients.elasticsearch.indices.PutIndicesSettingsRequest;
 import co.elastic.clients.elasticsearch.indices.PutIndicesSettingsResponse;
 import co.elastic.clients.transport.endpoints.BooleanResponse;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.apache.http.Header;
 import org.apache.http.HttpHost;
 import org.apache.http.auth.AuthScope;
@@ -44,8 +45,10 @@ import org.apache.http.impl.nio.client.HttpAsyncClientBuilder;
 import org.apache.http.message.BasicHeader;
 import org.elasticsearch.client.RestClient;
 import org.elasticsearch.client.RestClientBuilder;
+import org.phoebus.channelfinder.entity.Channel;
 import org.phoebus.channelfinder.entity.Property;
 import org.phoebus.channelfinder.entity.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.Bean;
@@ -54,6 +57,8 @@ import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.PropertySource;
 
 import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import co.elastic.clients.elasticsearch._types.Slices;
+import co.elastic.clients.elasticsearch._types.SlicesCalculation;
 import co.elastic.clients.json.jackson.JacksonJsonpMapper;
 import co.elastic.clients.transport.ElasticsearchTransport;
 import co.elastic.clients.transport.rest_client.RestClientTransport;
@@ -74,6 +79,12 @@ public class ElasticConfig implements ServletContextListener {
     private ElasticsearchClient searchClient;
     private ElasticsearchClient indexClient;
 
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${elasticsearch.metrics.histograms:false}")
+    private boolean metricsHistograms;
+
     @Value("${elasticsearch.network.host:localhost}")
     private String host;
     @Value("${elasticsearch.host_urls:http://localhost:9200}")
@@ -97,6 +108,12 @@ public class ElasticConfig implements ServletContextListener {
     private String ES_CHANNEL_INDEX;
     @Value("${elasticsearch.query.size:10000}")
     private int ES_QUERY_SIZE;
+    @Value("${elasticsearch.update_by_query.requests_per_second:-1}")
+    private float ES_UPDATE_BY_QUERY_REQUESTS_PER_SECOND;
+    @Value("${elasticsearch.update_by_query.slices:auto}")
+    private String ES_UPDATE_BY_QUERY_SLICES;
+    @Value("${elasticsearch.conflict.max_retries:3}")
+    private int ES_CONFLICT_MAX_RETRIES;
 
     public String getES_TAG_INDEX() {
         return this.ES_TAG_INDEX;
@@ -113,13 +130,28 @@ public class ElasticConfig implements ServletContextListener {
     public int getES_MAX_RESULT_WINDOW_SIZE() {
         return ES_QUERY_SIZE;
     }
+    public float getES_UPDATE_BY_QUERY_REQUESTS_PER_SECOND() {
+        return this.ES_UPDATE_BY_QUERY_REQUESTS_PER_SECOND;
+    }
+    public Slices getES_UPDATE_BY_QUERY_SLICES() {
+        if (ES_UPDATE_BY_QUERY_SLICES == null || ES_UPDATE_BY_QUERY_SLICES.isBlank()
+                || ES_UPDATE_BY_QUERY_SLICES.trim().equalsIgnoreCase("auto")) {
+            return Slices.of(s -> s.computed(SlicesCalculation.Auto));
+        }
+        return Slices.of(s -> s.value(Integer.valueOf(ES_UPDATE_BY_QUERY_SLICES.trim())));
+    }
+    public int getES_CONFLICT_MAX_RETRIES() {
+        return this.ES_CONFLICT_MAX_RETRIES;
+    }
 
     ObjectMapper objectMapper = new ObjectMapper()
             .addMixIn(Tag.class, Tag.OnlyTag.class)
-            .addMixIn(Property.class, Property.OnlyProperty.class);
+            .addMixIn(Property.class, Property.OnlyProperty.class)
+            .addMixIn(Channel.class, Channel.StoredChannel.class);
 
     private static ElasticsearchClient createClient(ElasticsearchClient currentClient, ObjectMapper objectMapper,
-                                                    HttpHost[] httpHosts, String createIndices, ElasticConfig config) {
+                                                    HttpHost[] httpHosts, String createIndices, ElasticConfig config,
+                                                    ElasticInstrumentation instrumentation) {
         ElasticsearchClient client;
         if (currentClient == null) {
             // Create the low-level client
@@ -138,7 +170,8 @@ public class ElasticConfig implements ServletContextListener {
             RestClient httpClient = clientBuilder.build();
 
             // Create the Java API Client with the same low level client
-            ElasticsearchTransport transport = new RestClientTransport(httpClient, new JacksonJsonpMapper(objectMapper));
+            ElasticsearchTransport transport = new RestClientTransport(httpClient, new JacksonJsonpMapper(objectMapper),
+                    null, instrumentation);
 
             client = new ElasticsearchClient(transport);
         } else {
@@ -171,13 +204,15 @@ public class ElasticConfig implements ServletContextListener {
 
     @Bean({ "searchClient" })
     public ElasticsearchClient getSearchClient() {
-        searchClient = createClient(searchClient, objectMapper, getHttpHosts(), createIndices, this);
+        searchClient = createClient(searchClient, objectMapper, getHttpHosts(), createIndices, this,
+                new ElasticInstrumentation("search", meterRegistry, metricsHistograms));
         return searchClient;
     }
 
     @Bean({ "indexClient" })
     public ElasticsearchClient getIndexClient() {
-        indexClient = createClient(indexClient, objectMapper, getHttpHosts(), createIndices, this);
+        indexClient = createClient(indexClient, objectMapper, getHttpHosts(), createIndices, this,
+                new ElasticInstrumentation("index", meterRegistry, metricsHistograms));
         return indexClient;
     }
 
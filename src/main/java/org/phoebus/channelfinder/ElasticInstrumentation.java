@@ -0,0 +1,173 @@
+package org.phoebus.channelfinder;
+
+import co.elastic.clients.elasticsearch.core.BulkRequest;
+import co.elastic.clients.elasticsearch.core.BulkResponse;
+import co.elastic.clients.transport.Endpoint;
+import co.elastic.clients.transport.TransportOptions;
+import co.elastic.clients.transport.http.TransportHttpClient;
+import co.elastic.clients.transport.instrumentation.Instrumentation;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.http.HttpStatus;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Instruments every elastic request of a client: the latency by operation, index and status, the size of the
+ * request and response bodies, the number of items of the bulk requests and the rejections, i.e. the requests and
+ * bulk items which elastic rejected because it is overloaded (429).
+ * <p>
+ * The round trips are also recorded in the phases of the current request, see {@link RequestPhases}.
+ */
+public class ElasticInstrumentation implements Instrumentation {
+
+    public static final String CF_ELASTIC_REQUESTS = "cf.elastic.requests";
+    public static final String CF_ELASTIC_REQUEST_BYTES = "cf.elastic.request.bytes";
+    public static final String CF_ELASTIC_RESPONSE_BYTES = "cf.elastic.response.bytes";
+    public static final String CF_ELASTIC_BULK_ITEMS = "cf.elastic.bulk.items";
+    public static final String CF_ELASTIC_REJECTIONS = "cf.elastic.rejections";
+
+    private static final String NONE = "none";
+    private static final String IO_ERROR = "IO_ERROR";
+    private static final String ENDPOINT_PREFIX = "es/";
+
+    private static final ThreadScope NOOP_SCOPE = () -> { };
+
+    private final String client;
+    private final MeterRegistry meterRegistry;
+    private final boolean histograms;
+
+    /**
+     * @param client - the name of the instrumented client, e.g. search or index
+     * @param histograms - true to publish the latency histograms, for percentiles aggregated across instances
+     */
+    public ElasticInstrumentation(String client, MeterRegistry meterRegistry, boolean histograms) {
+        this.client = client;
+        this.meterRegistry = meterRegistry;
+        this.histograms = histograms;
+    }
+
+    @Override
+    public <TRequest> Context newContext(TRequest request, Endpoint<TRequest, ?, ?> endpoint) {
+        String operation = endpoint.id().startsWith(ENDPOINT_PREFIX)
+                ? endpoint.id().substring(ENDPOINT_PREFIX.length()) : endpoint.id();
+        String index = endpoint.pathParameters(request).getOrDefault("index", NONE);
+        if (request instanceof BulkRequest bulkRequest) {
+            DistributionSummary.builder(CF_ELASTIC_BULK_ITEMS)
+                    .description("Number of items of the elastic bulk requests")
+                    .tag("client", client)
+                    .tag("index", index)
+                    .register(meterRegistry)
+                    .record(bulkRequest.operations().size());
+        }
+        // the synchronous requests are instrumented on the calling thread
+        return new RoundTrip(operation, index);
+    }
+
+    private class RoundTrip implements Context {
+
+        private final String operation;
+        private final String index;
+        private final long start = System.nanoTime();
+        private long requestBytes;
+        private long responseBytes;
+        private String status = IO_ERROR;
+
+        RoundTrip(String operation, String index) {
+            this.operation = operation;
+            this.index = index;
+        }
+
+        @Override
+        public ThreadScope makeCurrent() {
+            return NOOP_SCOPE;
+        }
+
+        @Override
+        public void beforeSendingHttpRequest(TransportHttpClient.Request httpRequest, TransportOptions options) {
+            if (httpRequest.body() != null) {
+                for (ByteBuffer buffer : httpRequest.body()) {
+                    requestBytes += buffer.remaining();
+                }
+            }
+        }
+
+        @Override
+        public void afterReceivingHttpResponse(TransportHttpClient.Response httpResponse) {
+            status = Integer.toString(httpResponse.statusCode());
+            if (httpResponse.statusCode() == HttpStatus.TOO_MANY_REQUESTS.value()) {
+                rejected(1);
+            }
+            try {
+                if (httpResponse.body() != null) {
+                    // unknown if the response is chunked
+                    responseBytes = Math.max(0, httpResponse.body().size());
+                }
+            } catch (IOException e) {
+                // the size is only informative
+            }
+        }
+
+        @Override
+        public <TResponse> void afterDecodingApiResponse(TResponse apiResponse) {
+            if (apiResponse instanceof BulkResponse bulkResponse && bulkResponse.errors()) {
+                long rejected = bulkResponse.items().stream()
+                        .filter(item -> item.status() == HttpStatus.TOO_MANY_REQUESTS.value())
+                        .count();
+                if (rejected > 0) {
+                    rejected(rejected);
+                }
+            }
+        }
+
+        @Override
+        public void recordException(Throwable throwable) {
+            // the status of the response is kept, e.g. for an error response
+        }
+
+        @Override
+        public void close() {
+            long nanos = System.nanoTime() - start;
+            Timer.builder(CF_ELASTIC_REQUESTS)
+                    .description("Latency of the elastic requests")
+                    .tag("client", client)
+                    .tag("operation", operation)
+                    .tag("index", index)
+                    .tag("status", status)
+                    .publishPercentileHistogram(histograms)
+                    .register(meterRegistry)
+                    .record(nanos, TimeUnit.NANOSECONDS);
+            DistributionSummary.builder(CF_ELASTIC_REQUEST_BYTES)
+                    .description("Size of the elastic request bodies")
+                    .baseUnit("bytes")
+                    .tag("client", client)
+                    .tag("operation", operation)
+                    .tag("index", index)
+                    .register(meterRegistry)
+                    .record(requestBytes);
+            DistributionSummary.builder(CF_ELASTIC_RESPONSE_BYTES)
+                    .description("Size of the elastic response bodies")
+                    .baseUnit("bytes")
+                    .tag("client", client)
+                    .tag("operation", operation)
+                    .tag("index", index)
+                    .register(meterRegistry)
+                    .record(responseBytes);
+            RequestPhases.recordElastic(nanos, requestBytes + responseBytes);
+        }
+
+        private void rejected(long count) {
+            Counter.builder(CF_ELASTIC_REJECTIONS)
+                    .description("Elastic requests and bulk items rejected because elastic is overloaded")
+                    .tag("client", client)
+                    .tag("operation", operation)
+                    .tag("index", index)
+                    .register(meterRegistry)
+                    .increment(count);
+        }
+    }
+}
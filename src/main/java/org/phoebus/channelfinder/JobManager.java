@@ -0,0 +1,101 @@
+package org.phoebus.channelfinder;
+
+import static org.phoebus.channelfinder.CFResourceDescriptors.JOB_RESOURCE_URI;
+
+import java.text.MessageFormat;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.phoebus.channelfinder.AuthorizationService.ROLES;
+import org.phoebus.channelfinder.entity.JobStatus;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * Follow the progress of, retrieve the results of and cancel the jobs submitted to the {@link JobService}
+ */
+@CrossOrigin
+@RestController
+@RequestMapping(JOB_RESOURCE_URI)
+@EnableAutoConfiguration
+public class JobManager {
+
+    private static final Logger logger = Logger.getLogger(JobManager.class.getName());
+
+    @Autowired
+    JobService jobService;
+
+    @Autowired
+    AuthorizationService authorizationService;
+
+    /**
+     * GET method for listing the jobs of the user, admins see the jobs of all users
+     *
+     * @return the status of the jobs
+     */
+    @GetMapping
+    public List<JobStatus> list() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null) {
+            logger.log(Level.SEVERE, TextUtil.USER_NOT_AUTHORIZED_ON_JOBS);
+            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, TextUtil.USER_NOT_AUTHORIZED_ON_JOBS, null);
+        }
+        if (authorizationService.isAuthorizedRole(authentication, ROLES.CF_ADMIN)) {
+            return jobService.findAll(null);
+        }
+        return jobService.findAll(authentication.getName());
+    }
+
+    /**
+     * GET method for retrieving the status, progress and result of the job identified by <code>jobId</code>
+     *
+     * @param jobId - job id
+     * @return the status of the job
+     */
+    @GetMapping("/{jobId}")
+    public JobStatus read(@PathVariable("jobId") String jobId) {
+        JobStatus job = jobService.findById(jobId).orElseThrow(() -> notFound(jobId));
+        checkAuthorized(job);
+        return job;
+    }
+
+    /**
+     * DELETE method for cancelling the job identified by <code>jobId</code>
+     *
+     * @param jobId - job id
+     * @return the status of the cancelled job
+     */
+    @DeleteMapping("/{jobId}")
+    public JobStatus cancel(@PathVariable("jobId") String jobId) {
+        checkAuthorized(jobService.findById(jobId).orElseThrow(() -> notFound(jobId)));
+        return jobService.cancel(jobId).orElseThrow(() -> notFound(jobId));
+    }
+
+    private void checkAuthorized(JobStatus job) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null
+                || !(authentication.getName().equals(job.owner())
+                || authorizationService.isAuthorizedRole(authentication, ROLES.CF_ADMIN))) {
+            String message = MessageFormat.format(TextUtil.USER_NOT_AUTHORIZED_ON_JOB, job.id());
+            logger.log(Level.SEVERE, message);
+            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, message, null);
+        }
+    }
+
+    private static ResponseStatusException notFound(String jobId) {
+        String message = MessageFormat.format(TextUtil.JOB_DOES_NOT_EXIST, jobId);
+        logger.log(Level.SEVERE, message);
+        return new ResponseStatusException(HttpStatus.NOT_FOUND, message);
+    }
+}
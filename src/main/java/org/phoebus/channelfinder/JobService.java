@@ -0,0 +1,300 @@
+package org.phoebus.channelfinder;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.phoebus.channelfinder.entity.JobStatus;
+import org.phoebus.channelfinder.entity.JobStatus.State;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import javax.annotation.PreDestroy;
+import java.text.MessageFormat;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
+
+/**
+ * Runs long running operations, e.g. processing all channels or large bulk updates, on a bounded executor
+ * instead of the request thread. Each submitted job gets an id which can be used to follow its progress,
+ * retrieve its result or cancel it.
+ * <p>
+ * The number of queued and running jobs per user is limited, finished jobs are kept for the retention time.
+ * The job runs with the security context of the user who submitted it, so the usual authorization checks apply.
+ */
+@Service
+public class JobService {
+
+    private static final Logger logger = Logger.getLogger(JobService.class.getName());
+    private static final Logger jobServiceAudit = Logger.getLogger(JobService.class.getName() + ".audit");
+
+    public static final String CF_JOBS_RUNNING = "cf.jobs.running";
+    public static final String CF_JOBS_QUEUED = "cf.jobs.queued";
+    public static final String CF_JOBS = "cf.jobs";
+    public static final String CF_JOBS_DURATION = "cf.jobs.duration";
+
+    /**
+     * A long running operation
+     */
+    @FunctionalInterface
+    public interface Job {
+        /**
+         * @param progress used to report the progress of the job and to check if it has been cancelled
+         * @return the result of the job, kept until the job is evicted
+         * @throws Exception if the job failed
+         */
+        Object run(JobProgress progress) throws Exception;
+    }
+
+    /**
+     * Progress reporting for a running job
+     */
+    public interface JobProgress {
+        /**
+         * @param total the number of items the job will process
+         */
+        void setTotal(long total);
+
+        /**
+         * @param count the number of items processed since the last call
+         */
+        void processed(long count);
+
+        /**
+         * @return true if the job has been cancelled and should stop
+         */
+        boolean isCancelled();
+    }
+
+    private final ThreadPoolExecutor executor;
+    private final Map<String, JobEntry> jobs = new ConcurrentHashMap<>();
+    private final int maxJobsPerUser;
+    private final Duration retention;
+    private final MeterRegistry meterRegistry;
+    private final Timer jobDuration;
+
+    @Autowired
+    public JobService(@Value("${jobs.pool.size:2}") int poolSize,
+                      @Value("${jobs.queue.capacity:20}") int queueCapacity,
+                      @Value("${jobs.max.per.user:2}") int maxJobsPerUser,
+                      @Value("${jobs.retention.minutes:60}") long retentionMinutes,
+                      final MeterRegistry meterRegistry) {
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "cf-job-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        this.maxJobsPerUser = maxJobsPerUser;
+        this.retention = Duration.ofMinutes(retentionMinutes);
+        this.meterRegistry = meterRegistry;
+
+        Gauge.builder(CF_JOBS_RUNNING, executor, ThreadPoolExecutor::getActiveCount)
+                .description("Number of running jobs")
+                .register(meterRegistry);
+        Gauge.builder(CF_JOBS_QUEUED, executor, e -> e.getQueue().size())
+                .description("Number of jobs waiting to run")
+                .register(meterRegistry);
+        this.jobDuration = Timer.builder(CF_JOBS_DURATION)
+                .description("Time taken to run a job")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Submit a job to be run in the background
+     *
+     * @param description - description of the job
+     * @param job - the operation to run
+     * @return the status of the queued job
+     * @throws ResponseStatusException TOO_MANY_REQUESTS if the user has too many jobs,
+     *                                 SERVICE_UNAVAILABLE if the job queue is full
+     */
+    public JobStatus submit(String description, Job job) {
+        SecurityContext securityContext = SecurityContextHolder.getContext();
+        Authentication authentication = securityContext.getAuthentication();
+        String owner = authentication == null ? null : authentication.getName();
+
+        JobEntry entry = new JobEntry(UUID.randomUUID().toString(), owner, description);
+        // the per user limit is checked and the job registered atomically
+        synchronized (jobs) {
+            long active = jobs.values().stream().filter(e -> !e.state.isDone() && Objects.equals(owner, e.owner)).count();
+            if (active >= maxJobsPerUser) {
+                count(CF_JOBS, "rejected");
+                String message = MessageFormat.format(TextUtil.TOO_MANY_JOBS, owner, maxJobsPerUser);
+                logger.log(Level.WARNING, message);
+                throw new ResponseStatusException(HttpStatus.TOO_MANY_REQUESTS, message);
+            }
+            jobs.put(entry.id, entry);
+        }
+        try {
+            entry.future = executor.submit(() -> run(entry, job, securityContext));
+        } catch (RejectedExecutionException e) {
+            jobs.remove(entry.id);
+            count(CF_JOBS, "rejected");
+            String message = MessageFormat.format(TextUtil.JOB_QUEUE_FULL, description);
+            logger.log(Level.WARNING, message, e);
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, message);
+        }
+        jobServiceAudit.log(Level.INFO, () -> MessageFormat.format(TextUtil.SUBMITTED_JOB, entry.id, owner, description));
+        return entry.status();
+    }
+
+    private void run(JobEntry entry, Job job, SecurityContext securityContext) {
+        if (entry.state == State.CANCELLED) {
+            return;
+        }
+        entry.state = State.RUNNING;
+        entry.started = System.currentTimeMillis();
+        SecurityContextHolder.setContext(securityContext);
+        try {
+            Object result = job.run(entry);
+            entry.result = result;
+            entry.state = entry.cancelled ? State.CANCELLED : State.COMPLETED;
+        } catch (ResponseStatusException e) {
+            entry.error = e.getReason();
+            entry.state = entry.cancelled ? State.CANCELLED : State.FAILED;
+        } catch (Exception e) {
+            logger.log(Level.SEVERE, MessageFormat.format(TextUtil.JOB_FAILED, entry.id, entry.description), e);
+            entry.error = e.getMessage();
+            entry.state = entry.cancelled ? State.CANCELLED : State.FAILED;
+        } finally {
+            SecurityContextHolder.clearContext();
+            entry.finished = System.currentTimeMillis();
+            jobDuration.record(entry.finished - entry.started, TimeUnit.MILLISECONDS);
+            count(CF_JOBS, entry.state.name().toLowerCase());
+            jobServiceAudit.log(Level.INFO, () -> MessageFormat.format(TextUtil.FINISHED_JOB, entry.id, entry.state, entry.finished - entry.started));
+        }
+    }
+
+    /**
+     * @param id - job id
+     * @return the status of the job, empty if there is no such job or it has been evicted
+     */
+    public Optional<JobStatus> findById(String id) {
+        return Optional.ofNullable(jobs.get(id)).map(JobEntry::status);
+    }
+
+    /**
+     * @param owner - the user who submitted the jobs, null for the jobs of all users
+     * @return the status of the jobs, most recently submitted first
+     */
+    public List<JobStatus> findAll(String owner) {
+        return jobs.values().stream()
+                .filter(e -> owner == null || owner.equals(e.owner))
+                .map(JobEntry::status)
+                .sorted(Comparator.comparingLong(JobStatus::submitted).reversed())
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Cancel the job, a queued job will not be run and a running job is interrupted.
+     * Jobs are expected to stop at the next check of {@link JobProgress#isCancelled()}, work already done is not reverted.
+     *
+     * @param id - job id
+     * @return the status of the job, empty if there is no such job
+     */
+    public Optional<JobStatus> cancel(String id) {
+        JobEntry entry = jobs.get(id);
+        if (entry == null) {
+            return Optional.empty();
+        }
+        if (!entry.state.isDone()) {
+            entry.cancelled = true;
+            if (entry.state == State.QUEUED) {
+                entry.state = State.CANCELLED;
+                entry.finished = System.currentTimeMillis();
+                count(CF_JOBS, "cancelled");
+            }
+            if (entry.future != null) {
+                entry.future.cancel(true);
+            }
+            jobServiceAudit.log(Level.INFO, () -> MessageFormat.format(TextUtil.CANCEL_JOB, id));
+        }
+        return Optional.of(entry.status());
+    }
+
+    /**
+     * Remove the finished jobs which are older than the retention time
+     */
+    @Scheduled(fixedRate = 60000)
+    public void evictFinishedJobs() {
+        long oldest = System.currentTimeMillis() - retention.toMillis();
+        jobs.values().removeIf(e -> e.state.isDone() && e.finished < oldest);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private void count(String name, String state) {
+        Counter.builder(name).tag("state", state).register(meterRegistry).increment();
+    }
+
+    private static class JobEntry implements JobProgress {
+        private final String id;
+        private final String owner;
+        private final String description;
+        private final long submitted = System.currentTimeMillis();
+        private final AtomicLong total = new AtomicLong();
+        private final AtomicLong processed = new AtomicLong();
+        private volatile State state = State.QUEUED;
+        private volatile boolean cancelled = false;
+        private volatile long started;
+        private volatile long finished;
+        private volatile Object result;
+        private volatile String error;
+        private volatile Future<?> future;
+
+        private JobEntry(String id, String owner, String description) {
+            this.id = id;
+            this.owner = owner;
+            this.description = description;
+        }
+
+        @Override
+        public void setTotal(long total) {
+            this.total.set(total);
+        }
+
+        @Override
+        public void processed(long count) {
+            this.processed.addAndGet(count);
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return cancelled || Thread.currentThread().isInterrupted();
+        }
+
+        private JobStatus status() {
+            return new JobStatus(id, owner, description, state, submitted, started, finished,
+                    total.get(), processed.get(), result, error);
+        }
+    }
+}
@@ -4,18 +4,29 @@ import io.micrometer.core.instrument.Gauge;
 import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.MultiGauge;
 import io.micrometer.core.instrument.Tags;
+import org.phoebus.channelfinder.ChannelRepository.ChannelCounts;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.PropertySource;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.MultiValueMap;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
+/**
+ * Channel, tag and property counts, collected periodically and cached between the scrapes.
+ * <p>
+ * The channel counts, in total, per configured tag and property value, and the dynamic series, e.g. the channels
+ * per iocName or per owner for the most frequent values, are collected with the aggregations of a single search.
+ */
 @Service
 @PropertySource(value = "classpath:application.properties")
 public class MetricsService {
@@ -25,17 +36,29 @@ public class MetricsService {
     public static final String CF_PROPERTY_COUNT = "cf.property.count";
     public static final String CF_TAG_COUNT = "cf.tag.count";
     public static final String CF_CHANNEL_COUNT = "cf.channel.count";
+    public static final String CF_CHANNEL_COUNT_BY_PROPERTY = "cf.channel.count.by.property";
+    public static final String CF_CHANNEL_COUNT_BY_OWNER = "cf.channel.count.by.owner";
     private static final String METRIC_DESCRIPTION_TOTAL_CHANNEL_COUNT = "Count of all ChannelFinder channels";
     private static final String METRIC_DESCRIPTION_PROPERTY_COUNT = "Count of all ChannelFinder properties";
     private static final String METRIC_DESCRIPTION_TAG_COUNT = "Count of all ChannelFinder tags";
     private static final String METRIC_DESCRIPTION_CHANNEL_COUNT =
             "Count of channels with specific property with and specific value";
+    private static final String METRIC_DESCRIPTION_CHANNEL_COUNT_BY_PROPERTY =
+            "Count of channels by value of a property, for the most frequent values";
+    private static final String METRIC_DESCRIPTION_CHANNEL_COUNT_BY_OWNER =
+            "Count of channels by owner, for the most frequent owners";
     private final ChannelRepository channelRepository;
     private final PropertyRepository propertyRepository;
     private final TagRepository tagRepository;
     private final MeterRegistry meterRegistry;
 
+    private final AtomicLong totalChannelCount = new AtomicLong();
+    private final AtomicLong propertyCount = new AtomicLong();
+    private final AtomicLong tagCount = new AtomicLong();
+
     MultiGauge channelCounts;
+    MultiGauge channelCountsByProperty;
+    MultiGauge channelCountsByOwner;
 
     @Value("${metrics.tags}")
     private String[] tags;
@@ -43,6 +66,15 @@ public class MetricsService {
     @Value("#{${metrics.properties:{{'pvStatus', 'Active'}, {'pvStatus', 'Inactive'}}}}")
     private String[][] properties;
 
+    @Value("${metrics.series.properties:}")
+    private String[] seriesProperties;
+
+    @Value("${metrics.series.owner:false}")
+    private boolean seriesOwner;
+
+    @Value("${metrics.series.size:10}")
+    private int seriesSize;
+
     @Autowired
     public MetricsService(
             final ChannelRepository channelRepository,
@@ -57,46 +89,71 @@ public class MetricsService {
     }
 
     private void registerGaugeMetrics() {
-        Gauge.builder(CF_TOTAL_CHANNEL_COUNT, () -> channelRepository.count(new LinkedMultiValueMap<>()))
+        Gauge.builder(CF_TOTAL_CHANNEL_COUNT, totalChannelCount, AtomicLong::get)
                 .description(METRIC_DESCRIPTION_TOTAL_CHANNEL_COUNT)
                 .register(meterRegistry);
-        Gauge.builder(CF_PROPERTY_COUNT, propertyRepository::count)
+        Gauge.builder(CF_PROPERTY_COUNT, propertyCount, AtomicLong::get)
                 .description(METRIC_DESCRIPTION_PROPERTY_COUNT)
                 .register(meterRegistry);
-        Gauge.builder(CF_TAG_COUNT, tagRepository::count)
+        Gauge.builder(CF_TAG_COUNT, tagCount, AtomicLong::get)
                 .description(METRIC_DESCRIPTION_TAG_COUNT)
                 .register(meterRegistry);
         channelCounts = MultiGauge.builder(CF_CHANNEL_COUNT)
                 .description(METRIC_DESCRIPTION_CHANNEL_COUNT)
                 .baseUnit("channels")
                 .register(meterRegistry);
+        channelCountsByProperty = MultiGauge.builder(CF_CHANNEL_COUNT_BY_PROPERTY)
+                .description(METRIC_DESCRIPTION_CHANNEL_COUNT_BY_PROPERTY)
+                .baseUnit("channels")
+                .register(meterRegistry);
+        channelCountsByOwner = MultiGauge.builder(CF_CHANNEL_COUNT_BY_OWNER)
+                .description(METRIC_DESCRIPTION_CHANNEL_COUNT_BY_OWNER)
+                .baseUnit("channels")
+                .register(meterRegistry);
     }
 
-    @Scheduled(fixedRate = 5000)
+    @Scheduled(fixedRateString = "${metrics.update_rate_ms:5000}")
     public void updateMetrics() {
         logger.log(
                 Level.FINER,
                 () -> "Updating metrics for properties " + Arrays.deepToString(properties) + " and tags " + Arrays.toString(tags));
-        ArrayList<MultiGauge.Row<?>> rows = new ArrayList<>();
 
-        // Add tags
+        // the queries of the tags and properties, keyed by their row
+        Map<String, MultiValueMap<String, String>> queries = new LinkedHashMap<>();
+        Map<String, Tags> rowTags = new LinkedHashMap<>();
         for (String tag: tags) {
-            long count = channelRepository.countByTag(tag);
-            rows.add(MultiGauge.Row.of(Tags.of("tag", tag), count ));
-            logger.log(
-                    Level.FINER,
-                    () -> "Updating metrics for tag " + tag + " to " + count);
+            MultiValueMap<String, String> params = new LinkedMultiValueMap<>();
+            params.add("~tag", tag);
+            queries.put("tag:" + tag, params);
+            rowTags.put("tag:" + tag, Tags.of("tag", tag));
         }
-
-        // Add properties
         for (String[] propertyValue: properties) {
-            long count = channelRepository.countByProperty(propertyValue[0], propertyValue[1]);
-            rows.add(MultiGauge.Row.of(Tags.of(propertyValue[0], propertyValue[1]), count));
-            logger.log(
-                    Level.FINER,
-                    () -> "Updating metrics for property " + propertyValue[0]  + ":" + propertyValue[1] + " to " + count);
+            MultiValueMap<String, String> params = new LinkedMultiValueMap<>();
+            params.add(propertyValue[0], propertyValue[1] == null ? "*" : propertyValue[1]);
+            String key = "property:" + propertyValue[0] + ":" + propertyValue[1];
+            queries.put(key, params);
+            rowTags.put(key, Tags.of(propertyValue[0], propertyValue[1]));
         }
 
+        ChannelCounts counts = channelRepository.countAll(queries, Arrays.asList(seriesProperties), seriesOwner, seriesSize);
+        totalChannelCount.set(counts.total());
+        propertyCount.set(propertyRepository.count());
+        tagCount.set(tagRepository.count());
+
+        ArrayList<MultiGauge.Row<?>> rows = new ArrayList<>();
+        counts.matches().forEach((key, count) -> {
+            rows.add(MultiGauge.Row.of(rowTags.get(key), count));
+            logger.log(Level.FINER, () -> "Updating metrics for " + key + " to " + count);
+        });
         channelCounts.register(rows, true);
+
+        ArrayList<MultiGauge.Row<?>> propertyRows = new ArrayList<>();
+        counts.byPropertyValue().forEach((property, values) -> values.forEach((value, count) ->
+                propertyRows.add(MultiGauge.Row.of(Tags.of("property", property, "value", value), count))));
+        channelCountsByProperty.register(propertyRows, true);
+
+        ArrayList<MultiGauge.Row<?>> ownerRows = new ArrayList<>();
+        counts.byOwner().forEach((owner, count) -> ownerRows.add(MultiGauge.Row.of(Tags.of("owner", owner), count)));
+        channelCountsByOwner.register(ownerRows, true);
     }
 }
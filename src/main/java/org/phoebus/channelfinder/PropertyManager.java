@@ -12,11 +12,14 @@ import java.util.Map;
 import java.util.Optional;
 import java.util.logging.Level;
 import java.util.logging.Logger;
+import java.util.stream.Collectors;
 
 import com.google.common.collect.Lists;
 import org.phoebus.channelfinder.AuthorizationService.ROLES;
 import org.phoebus.channelfinder.entity.Channel;
+import org.phoebus.channelfinder.entity.JobStatus;
 import org.phoebus.channelfinder.entity.Property;
+import org.phoebus.channelfinder.entity.TaskStatus;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
 import org.springframework.http.HttpStatus;
@@ -30,6 +33,7 @@ import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.server.ResponseStatusException;
 
@@ -39,7 +43,6 @@ import org.springframework.web.server.ResponseStatusException;
 @EnableAutoConfiguration
 public class PropertyManager {
 
-    private static final Logger propertyManagerAudit = Logger.getLogger(PropertyManager.class.getName() + ".audit");
     private static final Logger logger = Logger.getLogger(PropertyManager.class.getName());
 
     @Autowired
@@ -54,6 +57,18 @@ public class PropertyManager {
     @Autowired
     AuthorizationService authorizationService;
 
+    @Autowired
+    AuditLog auditLog;
+
+    @Autowired
+    WriteMetrics writeMetrics;
+
+    @Autowired
+    JobService jobService;
+
+    @Autowired
+    TaskRegistry taskRegistry;
+
     /**
      * GET method for retrieving the list of properties in the database.
      *
@@ -76,7 +91,7 @@ public class PropertyManager {
     @GetMapping("/{propertyName}")
     public Property read(@PathVariable("propertyName") String propertyName,
                          @RequestParam(value = "withChannels", defaultValue = "true") boolean withChannels) {
-        propertyManagerAudit.log(Level.INFO, () -> MessageFormat.format(TextUtil.FIND_PROPERTY, propertyName));
+        auditLog.log(AuditLog.READ, AuditLog.PROPERTY, propertyName);
 
         Optional<Property> foundProperty;
         if(withChannels) {
@@ -88,7 +103,7 @@ public class PropertyManager {
             return foundProperty.get();
         } else {
             String message = MessageFormat.format(TextUtil.PROPERTY_NAME_DOES_NOT_EXIST, propertyName);
-            logger.log(Level.SEVERE, message, new ResponseStatusException(HttpStatus.NOT_FOUND));
+            logger.log(Level.SEVERE, message);
             throw new ResponseStatusException(HttpStatus.NOT_FOUND, message);
         }
     }
@@ -109,15 +124,15 @@ public class PropertyManager {
     public Property create(@PathVariable("propertyName") String propertyName, @RequestBody Property property) {
         // check if authorized role
         if(authorizationService.isAuthorizedRole(SecurityContextHolder.getContext().getAuthentication(), ROLES.CF_PROPERTY)) {
-            long start = System.currentTimeMillis();
-            propertyManagerAudit.log(Level.INFO, () -> MessageFormat.format(TextUtil.CLIENT_INITIALIZATION, (System.currentTimeMillis() - start)));
+            auditLog.log(AuditLog.CREATE, AuditLog.PROPERTY, propertyName);
+            writeMetrics.request(AuditLog.PROPERTY, 1);
             // Validate request parameters
             validatePropertyRequest(property);
 
             // check if authorized owner
             if(!authorizationService.isAuthorizedOwner(SecurityContextHolder.getContext().getAuthentication(), property)) {
                 String message = MessageFormat.format(TextUtil.USER_NOT_AUTHORIZED_ON_PROPERTY, property.toLog());
-                logger.log(Level.SEVERE, message, new ResponseStatusException(HttpStatus.UNAUTHORIZED));
+                logger.log(Level.SEVERE, message);
                 throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, message, null);
             }
             Optional<Property> existingProperty = propertyRepository.findById(propertyName);
@@ -144,11 +159,33 @@ public class PropertyManager {
             return createdProperty;
         } else {
             String message = MessageFormat.format(TextUtil.USER_NOT_AUTHORIZED_ON_PROPERTY, propertyName);
-            logger.log(Level.SEVERE, message, new ResponseStatusException(HttpStatus.UNAUTHORIZED));
+            logger.log(Level.SEVERE, message);
             throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, message, null);
         }
     }
 
+    /**
+     * PUT method for creating and <b>exclusively</b> adding the property identified by the path parameter
+     * <code>propertyName</code> to all channels identified by the payload structure <code>property</code>,
+     * in a background job. The job result is the number of channels the property was added to.
+     *
+     * @param propertyName - name of property to be created
+     * @param property - Property structure containing the list of channels, with values, to be updated
+     * @return the submitted job, its progress can be followed with the job resource
+     */
+    @PutMapping(value = "/{propertyName}", params = "async=true")
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    public JobStatus createAsync(@PathVariable("propertyName") String propertyName, @RequestBody Property property) {
+        long channelCount = property.getChannels() == null ? 0 : property.getChannels().size();
+        return jobService.submit(MessageFormat.format(TextUtil.CREATE_PROPERTY_JOB, propertyName, channelCount), progress -> {
+            progress.setTotal(channelCount);
+            Property createdProperty = create(propertyName, property);
+            long updated = createdProperty.getChannels() == null ? 0 : createdProperty.getChannels().size();
+            progress.processed(updated);
+            return updated;
+        });
+    }
+
     /**
      * PUT method for creating multiple properties.
      *
@@ -159,8 +196,8 @@ public class PropertyManager {
     public Iterable<Property> create(@RequestBody Iterable<Property> properties) {
         // check if authorized role
         if(authorizationService.isAuthorizedRole(SecurityContextHolder.getContext().getAuthentication(), ROLES.CF_PROPERTY)) {
-            long start = System.currentTimeMillis();
-            propertyManagerAudit.log(Level.INFO, () -> MessageFormat.format(TextUtil.CLIENT_INITIALIZATION, (System.currentTimeMillis() - start)));
+            auditLog.log(AuditLog.CREATE, AuditLog.PROPERTY, properties, Property::getName);
+            writeMetrics.request(AuditLog.PROPERTY, properties);
 
             // check if authorized owner
             checkPropertiesAuthorization(properties);
@@ -199,7 +236,7 @@ public class PropertyManager {
             return properties;
         } else {
             String message = MessageFormat.format(TextUtil.USER_NOT_AUTHORIZED_ON_PROPERTIES, properties);
-            logger.log(Level.SEVERE, message, new ResponseStatusException(HttpStatus.UNAUTHORIZED));
+            logger.log(Level.SEVERE, message);
             throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, message, null);
         }
     }
@@ -220,13 +257,12 @@ public class PropertyManager {
     public Property addSingle(@PathVariable("propertyName") String propertyName, @PathVariable("channelName") String channelName, @RequestBody Property property) {
         // check if authorized role
         if(authorizationService.isAuthorizedRole(SecurityContextHolder.getContext().getAuthentication(), ROLES.CF_PROPERTY)) {
-            long start = System.currentTimeMillis();
-            propertyManagerAudit.log(Level.INFO, () -> MessageFormat.format(TextUtil.CLIENT_INITIALIZATION, (System.currentTimeMillis() - start)));
+            auditLog.log(AuditLog.UPDATE, AuditLog.PROPERTY, propertyName);
+            writeMetrics.request(AuditLog.PROPERTY, 1);
             // Validate request parameters
-            validatePropertyRequest(channelName);
             if(!propertyName.equals(property.getName()) || property.getValue().isEmpty() || property.getValue() == null) {
                 String message = MessageFormat.format(TextUtil.PAYLOAD_PROPERTY_DOES_NOT_MATCH_URI_OR_HAS_BAD_VALUE, property.toLog());
-                logger.log(Level.SEVERE, message, new ResponseStatusException(HttpStatus.BAD_REQUEST));
+                logger.log(Level.SEVERE, message);
                 throw new ResponseStatusException(HttpStatus.BAD_REQUEST, message);
             }
 
@@ -235,11 +271,17 @@ public class PropertyManager {
             boolean present = existingProperty.isPresent();
             if(present) {
                 checkPropertyAuthorization(existingProperty);
-                // add property to channel
-                Channel channel = channelRepository.findById(channelName).get();
+                // add property to channel, a channel which does not exist is reported by the update
                 Property prop = existingProperty.get();
-                channel.addProperty(new Property(prop.getName(),prop.getOwner(),property.getValue()));
-                Channel taggedChannel = channelRepository.save(channel);
+                Channel taggedChannel;
+                try {
+                    taggedChannel = channelRepository.addProperty(channelName, new Property(prop.getName(),prop.getOwner(),property.getValue()));
+                } catch (ResponseStatusException e) {
+                    if (e.getStatus() == HttpStatus.NOT_FOUND) {
+                        writeMetrics.validationFailed(AuditLog.PROPERTY, WriteMetrics.CHANNEL_NOT_FOUND);
+                    }
+                    throw e;
+                }
                 Property addedProperty = new Property(prop.getName(),prop.getOwner(),property.getValue());
                 taggedChannel.setTags(new ArrayList<>());
                 taggedChannel.setProperties(new ArrayList<>());
@@ -247,12 +289,12 @@ public class PropertyManager {
                 return addedProperty;
             } else {
                 String message = MessageFormat.format(TextUtil.PROPERTY_NAME_DOES_NOT_EXIST, propertyName);
-                logger.log(Level.SEVERE, message, new ResponseStatusException(HttpStatus.NOT_FOUND));
+                logger.log(Level.SEVERE, message);
                 throw new ResponseStatusException(HttpStatus.NOT_FOUND, message);
             }
         } else {
             String message = MessageFormat.format(TextUtil.USER_NOT_AUTHORIZED_ON_PROPERTY, propertyName);
-            logger.log(Level.SEVERE, message, new ResponseStatusException(HttpStatus.UNAUTHORIZED));
+            logger.log(Level.SEVERE, message);
             throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, message, null);
         }
     }
@@ -272,19 +314,19 @@ public class PropertyManager {
         // check if authorized role
         if(!authorizationService.isAuthorizedRole(SecurityContextHolder.getContext().getAuthentication(), ROLES.CF_PROPERTY)) {
             String message = MessageFormat.format(TextUtil.USER_NOT_AUTHORIZED_ON_PROPERTY, propertyName);
-            logger.log(Level.SEVERE, message, new ResponseStatusException(HttpStatus.UNAUTHORIZED));
+            logger.log(Level.SEVERE, message);
             throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, message, null);
         }
 
-        long start = System.currentTimeMillis();
-        propertyManagerAudit.log(Level.INFO, () -> MessageFormat.format(TextUtil.CLIENT_INITIALIZATION, (System.currentTimeMillis() - start)));
+        auditLog.log(AuditLog.UPDATE, AuditLog.PROPERTY, propertyName);
+        writeMetrics.request(AuditLog.PROPERTY, 1);
         // Validate request parameters
         validatePropertyRequest(property);
 
         // check if authorized owner
         if(!authorizationService.isAuthorizedOwner(SecurityContextHolder.getContext().getAuthentication(), property)) {
             String message = MessageFormat.format(TextUtil.USER_NOT_AUTHORIZED_ON_PROPERTY, property.toLog());
-            logger.log(Level.SEVERE, message, new ResponseStatusException(HttpStatus.UNAUTHORIZED));
+            logger.log(Level.SEVERE, message);
             throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, message, null);
         }
 
@@ -368,8 +410,8 @@ public class PropertyManager {
     public Iterable<Property> update(@RequestBody Iterable<Property> properties) {
         // check if authorized role
         if(authorizationService.isAuthorizedRole(SecurityContextHolder.getContext().getAuthentication(), ROLES.CF_PROPERTY)) {
-            long start = System.currentTimeMillis();
-            propertyManagerAudit.log(Level.INFO, () -> MessageFormat.format(TextUtil.CLIENT_INITIALIZATION, (System.currentTimeMillis() - start)));
+            auditLog.log(AuditLog.UPDATE, AuditLog.PROPERTY, properties, Property::getName);
+            writeMetrics.request(AuditLog.PROPERTY, properties);
 
             // check if authorized owner
             checkPropertiesAuthorization(properties);
@@ -414,7 +456,7 @@ public class PropertyManager {
             return properties;
         } else {
             String message = MessageFormat.format(TextUtil.USER_NOT_AUTHORIZED_ON_PROPERTIES, properties);
-            logger.log(Level.SEVERE, message, new ResponseStatusException(HttpStatus.UNAUTHORIZED));
+            logger.log(Level.SEVERE, message);
             throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, message, null);
         }
     }
@@ -430,7 +472,7 @@ public class PropertyManager {
             } else {
                 if(!authorizationService.isAuthorizedOwner(SecurityContextHolder.getContext().getAuthentication(), property)) {
                     String message = MessageFormat.format(TextUtil.USER_NOT_AUTHORIZED_ON_PROPERTY, property.toLog());
-                    logger.log(Level.SEVERE, message, new ResponseStatusException(HttpStatus.UNAUTHORIZED));
+                    logger.log(Level.SEVERE, message);
                     throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, message, null);
                 }
             }
@@ -440,7 +482,7 @@ public class PropertyManager {
     private void checkPropertyAuthorization(Optional<Property> existingProperty) {
         if(!authorizationService.isAuthorizedOwner(SecurityContextHolder.getContext().getAuthentication(), existingProperty.get())) {
             String message = MessageFormat.format(TextUtil.USER_NOT_AUTHORIZED_ON_PROPERTY, existingProperty.get().toLog());
-            logger.log(Level.SEVERE, message, new ResponseStatusException(HttpStatus.UNAUTHORIZED));
+            logger.log(Level.SEVERE, message);
             throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, message, null);
         }
     }
@@ -453,27 +495,54 @@ public class PropertyManager {
      */
     @DeleteMapping("/{propertyName}")
     public void remove(@PathVariable("propertyName") String propertyName) {
+        checkRemoveAuthorization(propertyName);
+        auditLog.log(AuditLog.DELETE, AuditLog.PROPERTY, propertyName);
+        writeMetrics.request(AuditLog.PROPERTY, 1);
+        // delete property
+        propertyRepository.deleteById(propertyName);
+    }
+
+    /**
+     * DELETE method for deleting the property identified by the path parameter
+     * <code>propertyName</code>, the property is removed from all channels by an elastic
+     * task running in the background.
+     *
+     * @param propertyName - name of property to remove
+     * @return the submitted task, its progress can be followed with the task resource
+     */
+    @DeleteMapping(value = "/{propertyName}", params = "async=true")
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    public TaskStatus removeAsync(@PathVariable("propertyName") String propertyName) {
+        checkRemoveAuthorization(propertyName);
+        auditLog.log(AuditLog.DELETE, AuditLog.PROPERTY, propertyName);
+        writeMetrics.request(AuditLog.PROPERTY, 1);
+        // delete property, the channels are updated in the background
+        String taskId = propertyRepository.deleteByIdAsync(propertyName);
+        taskRegistry.register(taskId, SecurityContextHolder.getContext().getAuthentication().getName());
+        String description = MessageFormat.format(TextUtil.DELETE_PROPERTY, propertyName);
+        logger.log(Level.INFO, () -> MessageFormat.format(TextUtil.SUBMITTED_TASK, taskId, description));
+        return TaskStatus.submitted(taskId, description);
+    }
+
+    private void checkRemoveAuthorization(String propertyName) {
         // check if authorized role
         if(authorizationService.isAuthorizedRole(SecurityContextHolder.getContext().getAuthentication(), ROLES.CF_PROPERTY)) {
             Optional<Property> existingProperty = propertyRepository.findById(propertyName);
             if(existingProperty.isPresent()) {
                 // check if authorized owner
-                if(authorizationService.isAuthorizedOwner(SecurityContextHolder.getContext().getAuthentication(), existingProperty.get())) {
-                    // delete property
-                    propertyRepository.deleteById(propertyName);
-                } else {
+                if(!authorizationService.isAuthorizedOwner(SecurityContextHolder.getContext().getAuthentication(), existingProperty.get())) {
                     String message = MessageFormat.format(TextUtil.USER_NOT_AUTHORIZED_ON_PROPERTY, propertyName);
-                    logger.log(Level.SEVERE, message, new ResponseStatusException(HttpStatus.UNAUTHORIZED));
+                    logger.log(Level.SEVERE, message);
                     throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, message, null);
                 }
             } else {
                 String message = MessageFormat.format(TextUtil.PROPERTY_NAME_DOES_NOT_EXIST, propertyName);
-                logger.log(Level.SEVERE, message, new ResponseStatusException(HttpStatus.NOT_FOUND));
+                logger.log(Level.SEVERE, message);
                 throw new ResponseStatusException(HttpStatus.NOT_FOUND, message);
             }
         } else {
             String message = MessageFormat.format(TextUtil.USER_NOT_AUTHORIZED_ON_PROPERTY, propertyName);
-            logger.log(Level.SEVERE, message, new ResponseStatusException(HttpStatus.UNAUTHORIZED));
+            logger.log(Level.SEVERE, message);
             throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, message, null);
         }
     }
@@ -493,30 +562,23 @@ public class PropertyManager {
             if(existingProperty.isPresent()) {
                 // check if authorized owner
                 if(authorizationService.isAuthorizedOwner(SecurityContextHolder.getContext().getAuthentication(), existingProperty.get())) {
-                    Optional<Channel> ch = channelRepository.findById(channelName);
-                    if(ch.isPresent()) {
-                        // remove property from channel
-                        Channel channel = ch.get();
-                        channel.removeProperty(new Property(propertyName, ""));
-                        channelRepository.index(channel);
-                    } else {
-                        String message = MessageFormat.format(TextUtil.CHANNEL_NAME_DOES_NOT_EXIST, channelName);
-                        logger.log(Level.SEVERE, message, new ResponseStatusException(HttpStatus.NOT_FOUND));
-                        throw new ResponseStatusException(HttpStatus.NOT_FOUND, message);
-                    }
+                    // remove property from channel, a missing channel is reported as not found
+                    auditLog.log(AuditLog.UPDATE, AuditLog.PROPERTY, propertyName);
+                    writeMetrics.request(AuditLog.PROPERTY, 1);
+                    channelRepository.removeProperty(channelName, propertyName);
                 } else {
                     String message = MessageFormat.format(TextUtil.USER_NOT_AUTHORIZED_ON_PROPERTY, propertyName);
-                    logger.log(Level.SEVERE, message, new ResponseStatusException(HttpStatus.UNAUTHORIZED));
+                    logger.log(Level.SEVERE, message);
                     throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, message, null);
                 }
             } else {
                 String message = MessageFormat.format(TextUtil.PROPERTY_NAME_DOES_NOT_EXIST, propertyName);
-                logger.log(Level.SEVERE, message, new ResponseStatusException(HttpStatus.NOT_FOUND));
+                logger.log(Level.SEVERE, message);
                 throw new ResponseStatusException(HttpStatus.NOT_FOUND, message);
             }
         } else {
             String message = MessageFormat.format(TextUtil.USER_NOT_AUTHORIZED_ON_PROPERTY, propertyName);
-            logger.log(Level.SEVERE, message, new ResponseStatusException(HttpStatus.UNAUTHORIZED));
+            logger.log(Level.SEVERE, message);
             throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, message, null);
         }
     }
@@ -530,61 +592,79 @@ public class PropertyManager {
      * @param property validate property
      */
     public void validatePropertyRequest(Property property) {
+        RequestPhases.Scope scope = RequestPhases.start(RequestPhases.Phase.VALIDATION);
+        try {
+            validatePropertyNameOwnerAndValues(property);
+            validateChannelsExist(property.getChannels().stream().map(Channel::getName).collect(Collectors.toList()));
+        } finally {
+            scope.close();
+        }
+    }
+
+    /**
+     * Checks if
+     * 1. the property name is not null and matches the name in the body
+     * 2. the property owner is not null or empty
+     * 3. the property value is not null or empty
+     * 4. all the listed channels exist
+     * 
+     * @param properties properties to be validated
+     */
+    public void validatePropertyRequest(Iterable<Property> properties) {
+        RequestPhases.Scope scope = RequestPhases.start(RequestPhases.Phase.VALIDATION);
+        try {
+            List<String> channelNames = new ArrayList<>();
+            for(Property property: properties) {
+                validatePropertyNameOwnerAndValues(property);
+                property.getChannels().forEach(channel -> channelNames.add(channel.getName()));
+            }
+            validateChannelsExist(channelNames);
+        } finally {
+            scope.close();
+        }
+    }
+
+    private void validatePropertyNameOwnerAndValues(Property property) {
         // 1 
         if (property.getName() == null || property.getName().isEmpty()) {
             String message = MessageFormat.format(TextUtil.PROPERTY_NAME_CANNOT_BE_NULL_OR_EMPTY, property.toLog());
-            logger.log(Level.SEVERE, message, new ResponseStatusException(HttpStatus.BAD_REQUEST));
+            writeMetrics.validationFailed(AuditLog.PROPERTY, WriteMetrics.NAME);
+            logger.log(Level.SEVERE, message);
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, message, null);
         }
         // 2
         if (property.getOwner() == null || property.getOwner().isEmpty()) {
             String message = MessageFormat.format(TextUtil.PROPERTY_OWNER_CANNOT_BE_NULL_OR_EMPTY, property.toLog());
-            logger.log(Level.SEVERE, message, new ResponseStatusException(HttpStatus.BAD_REQUEST));
+            writeMetrics.validationFailed(AuditLog.PROPERTY, WriteMetrics.OWNER);
+            logger.log(Level.SEVERE, message);
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, message, null);
         }
         // 3
-        property.getChannels().stream().forEach((channel) -> {
-            // Check if all the channels exists 
-            if(!channelRepository.existsById(channel.getName())) {
-                String message = MessageFormat.format(TextUtil.CHANNEL_NAME_DOES_NOT_EXIST, channel.getName());
-                logger.log(Level.SEVERE, message, new ResponseStatusException(HttpStatus.BAD_REQUEST));
-                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, message);
-            }
+        property.getChannels().forEach(channel -> {
             // Check if the channel data has the requested property attached with a non null - non empty value
             if(!channel.getProperties().stream().anyMatch(p ->
                 p.getName().equals(property.getName()) && p.getValue() != null && !p.getValue().isEmpty()
             )) {
                 String message = MessageFormat.format(TextUtil.CHANNEL_NAME_NO_VALID_INSTANCE_PROPERTY, channel.getName(), property.toLog());
-                logger.log(Level.SEVERE, message, new ResponseStatusException(HttpStatus.BAD_REQUEST));
+                writeMetrics.validationFailed(AuditLog.PROPERTY, WriteMetrics.VALUE);
+                logger.log(Level.SEVERE, message);
                 throw new ResponseStatusException(HttpStatus.BAD_REQUEST, message);
             }
         });
     }
 
     /**
-     * Checks if
-     * 1. the property name is not null and matches the name in the body
-     * 2. the property owner is not null or empty
-     * 3. the property value is not null or empty
-     * 4. all the listed channels exist
-     * 
-     * @param properties properties to be validated
-     */
-    public void validatePropertyRequest(Iterable<Property> properties) {
-        for(Property property: properties) {
-            validatePropertyRequest(property);
-        }
-    }
-
-    /**
-     * Checks if the channel exists
-     * @param channelName check channel exists
+     * Checks, with a single batched lookup, that all the channels exist, reporting all the missing channels
      */
-    public void validatePropertyRequest(String channelName) {
-        if(!channelRepository.existsById(channelName)) {
-            String message = MessageFormat.format(TextUtil.CHANNEL_NAME_DOES_NOT_EXIST, channelName);
-            logger.log(Level.SEVERE, message, new ResponseStatusException(HttpStatus.NOT_FOUND));
-            throw new ResponseStatusException(HttpStatus.NOT_FOUND, message);
+    private void validateChannelsExist(List<String> channelNames) {
+        List<String> missing = channelRepository.findMissingIds(channelNames);
+        if (!missing.isEmpty()) {
+            String message = missing.size() == 1
+                    ? MessageFormat.format(TextUtil.CHANNEL_NAME_DOES_NOT_EXIST, missing.get(0))
+                    : MessageFormat.format(TextUtil.CHANNEL_NAMES_DO_NOT_EXIST, missing.size(), missing);
+            writeMetrics.validationFailed(AuditLog.PROPERTY, WriteMetrics.CHANNEL_NOT_FOUND);
+            logger.log(Level.SEVERE, message);
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, message);
         }
     }
 
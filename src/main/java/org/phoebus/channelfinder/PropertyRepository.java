@@ -2,8 +2,11 @@ package org.phoebus.channelfinder;
 
 import java.io.IOException;
 import java.text.MessageFormat;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.TreeMap;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import java.util.stream.StreamSupport;
@@ -15,8 +18,6 @@ import co.elastic.clients.elasticsearch._types.Result;
 import co.elastic.clients.elasticsearch._types.SortOptions;
 import co.elastic.clients.elasticsearch._types.query_dsl.IdsQuery;
 import co.elastic.clients.elasticsearch._types.query_dsl.MatchAllQuery;
-import co.elastic.clients.elasticsearch.core.BulkRequest;
-import co.elastic.clients.elasticsearch.core.BulkResponse;
 import co.elastic.clients.elasticsearch.core.CountRequest;
 import co.elastic.clients.elasticsearch.core.CountResponse;
 import co.elastic.clients.elasticsearch.core.DeleteResponse;
@@ -26,12 +27,11 @@ import co.elastic.clients.elasticsearch.core.IndexRequest;
 import co.elastic.clients.elasticsearch.core.IndexResponse;
 import co.elastic.clients.elasticsearch.core.SearchRequest;
 import co.elastic.clients.elasticsearch.core.SearchResponse;
-import co.elastic.clients.elasticsearch.core.bulk.BulkResponseItem;
+import co.elastic.clients.elasticsearch.core.bulk.BulkOperation;
 import co.elastic.clients.elasticsearch.core.search.Hit;
 import co.elastic.clients.json.JsonData;
 import co.elastic.clients.json.jackson.JacksonJsonpMapper;
 import org.phoebus.channelfinder.entity.Property.OnlyNameOwnerProperty;
-import org.phoebus.channelfinder.entity.Channel;
 import org.phoebus.channelfinder.entity.Property;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
@@ -63,6 +63,9 @@ public class PropertyRepository implements CrudRepository<Property, String> {
     @Autowired
     ChannelRepository channelRepository;
 
+    @Autowired
+    BulkWriter bulkWriter;
+
     ObjectMapper objectMapper = new ObjectMapper().addMixIn(Property.class, OnlyNameOwnerProperty.class);
 
     /**
@@ -82,36 +85,24 @@ public class PropertyRepository implements CrudRepository<Property, String> {
      * @return the created properties
      */
     public List<Property> indexAll(List<Property> properties) {
-        BulkRequest.Builder br = new BulkRequest.Builder();
+        List<BulkOperation> operations = new ArrayList<>();
         for (Property property : properties) {
-            br.operations(op -> op
+            operations.add(BulkOperation.of(op -> op
                     .index(idx -> idx
                                     .index(esService.getES_PROPERTY_INDEX())
                                     .id(property.getName())
                                     .document(JsonData.of(property, new JacksonJsonpMapper(objectMapper)))
                     )
-            );
+            ));
         }
         try {
-            BulkResponse result  = client.bulk(br.refresh(Refresh.True).build());
-            // Log errors, if any
-            if (result.errors()) {
-                logger.log(Level.SEVERE, TextUtil.BULK_HAD_ERRORS);
-                for (BulkResponseItem item : result.items()) {
-                    if (item.error() != null) {
-                        logger.log(Level.SEVERE, () -> item.error().reason());
-                    }
-                }
-            } else {
-                return findAllById(properties.stream().map(Property::getName).toList());
-            }
+            bulkWriter.executeOrThrow(operations);
+            return stored(properties);
         } catch (IOException e) {
             String message = MessageFormat.format(TextUtil.FAILED_TO_INDEX_PROPERTIES, properties);
             logger.log(Level.SEVERE, message, e);
             throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, message, null);
-
         }
-        return null;
     }
 
     /**
@@ -131,12 +122,14 @@ public class PropertyRepository implements CrudRepository<Property, String> {
                     .refresh(Refresh.True));
 
             IndexResponse response = client.index(request);
+            bulkWriter.countWrite(esService.getES_PROPERTY_INDEX(), BulkOperation.Kind.Index, BulkWriter.outcome(response.result()));
             // verify the creation of the tag
             if (response.result().equals(Result.Created) || response.result().equals(Result.Updated)) {
                 logger.log(Level.CONFIG, () -> MessageFormat.format(TextUtil.CREATE_PROPERTY, property.toLog()));
-                return (S) findById(propertyName).get();
+                return (S) new Property(property.getName(), property.getOwner());
             }
         } catch (Exception e) {
+            bulkWriter.countWrite(esService.getES_PROPERTY_INDEX(), BulkOperation.Kind.Index, BulkWriter.outcome(e));
             String message = MessageFormat.format(TextUtil.FAILED_TO_INDEX_PROPERTY, property.toLog());
             logger.log(Level.SEVERE, message, e);
             throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, message, null);
@@ -162,37 +155,31 @@ public class PropertyRepository implements CrudRepository<Property, String> {
     @SuppressWarnings("unchecked")
     @Override
     public <S extends Property> Iterable<S> saveAll(Iterable<S> properties) {
-        List<String> ids = StreamSupport.stream(properties.spliterator(), false)
-                .map(Property::getName).toList();
-
-        BulkRequest.Builder br = new BulkRequest.Builder();
+        List<BulkOperation> operations = new ArrayList<>();
 
         for (Property property : properties) {
-            br.operations(op -> op.index(i -> i.index(esService.getES_PROPERTY_INDEX())
+            operations.add(BulkOperation.of(op -> op.index(i -> i.index(esService.getES_PROPERTY_INDEX())
                     .id(property.getName())
-                    .document(JsonData.of(property, new JacksonJsonpMapper(objectMapper)))));
+                    .document(JsonData.of(property, new JacksonJsonpMapper(objectMapper))))));
         }
 
         try {
-            BulkResponse result = client.bulk(br.refresh(Refresh.True).build());
-            // Log errors, if any
-            if (result.errors()) {
-                logger.log(Level.SEVERE, TextUtil.BULK_HAD_ERRORS);
-                for (BulkResponseItem item : result.items()) {
-                    if (item.error() != null) {
-                        logger.log(Level.SEVERE, () -> item.error().reason());
-                    }
-                }
-                // TODO cleanup? or throw exception?
-            } else {
-                return (Iterable<S>) findAllById(ids);
-            }
+            bulkWriter.executeOrThrow(operations);
+            return (Iterable<S>) stored(properties);
         } catch (IOException e) {
             String message = MessageFormat.format(TextUtil.FAILED_TO_UPDATE_SAVE_PROPERTIES, properties);
             logger.log(Level.SEVERE, message, e);
             throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, message, null);
         }
-        return null;
+    }
+
+    /**
+     * @return the properties as they are stored, without their value and channels, sorted by name, as they would be found
+     */
+    private static List<Property> stored(Iterable<? extends Property> properties) {
+        Map<String, Property> stored = new TreeMap<>();
+        properties.forEach(property -> stored.put(property.getName(), new Property(property.getName(), property.getOwner())));
+        return new ArrayList<>(stored.values());
     }
 
     /**
@@ -311,57 +298,41 @@ public class PropertyRepository implements CrudRepository<Property, String> {
     }
 
     /**
-     * delete the given property by property name
+     * delete the given property by property name, the property is removed from all channels
+     * with an update by query which is completed before returning
      *
-     * @param propertyName - name of property to be deleted
+     * @param propertyName - property to be deleted
      */
     @Override
     public void deleteById(String propertyName) {
+        deletePropertyDocument(propertyName);
+        long updated = channelRepository.removePropertyFromAll(propertyName);
+        logger.log(Level.CONFIG, () -> MessageFormat.format(TextUtil.REMOVED_PROPERTY_FROM_CHANNELS, propertyName, updated));
+    }
+
+    /**
+     * delete the given property by property name, the property is removed from all channels
+     * with an update by query which is run in the background as an elastic task
+     *
+     * @param propertyName - property to be deleted
+     * @return the id of the elastic task removing the property from the channels
+     */
+    public String deleteByIdAsync(String propertyName) {
+        deletePropertyDocument(propertyName);
+        return channelRepository.removePropertyFromAllAsync(propertyName);
+    }
+
+    private void deletePropertyDocument(String propertyName) {
         try {
             DeleteResponse response = client
                     .delete(i -> i.index(esService.getES_PROPERTY_INDEX()).id(propertyName).refresh(Refresh.True));
+            bulkWriter.countWrite(esService.getES_PROPERTY_INDEX(), BulkOperation.Kind.Delete, BulkWriter.outcome(response.result()));
             // verify the deletion of the property
             if (response.result().equals(Result.Deleted)) {
                 logger.log(Level.CONFIG, () -> MessageFormat.format(TextUtil.DELETE_PROPERTY, propertyName));
             }
-
-            // Remove the Property from Channels
-            BulkRequest.Builder br = new BulkRequest.Builder().refresh(Refresh.True);
-            MultiValueMap<String, String> params = new LinkedMultiValueMap<>();
-            params.add(propertyName, "*");
-            List<Channel> channels = channelRepository.search(params).channels();
-            while (channels.size() > 0) {
-                for (Channel channel : channels) {
-                    channel.removeProperty(
-                            channel.getProperties().stream().filter(prop -> propertyName.equalsIgnoreCase(prop.getName())).findAny().get());
-                    br.operations(op -> op.update(
-                            u -> u.index(esService.getES_CHANNEL_INDEX())
-                                    .id(channel.getName())
-                                    .action(a -> a.doc(channel))));
-                }
-                try {
-                    br.refresh(Refresh.True);
-                    BulkResponse result = client.bulk(br.build());
-                    // Log errors, if any
-                    if (result.errors()) {
-                        logger.log(Level.SEVERE, TextUtil.BULK_HAD_ERRORS);
-                        for (BulkResponseItem item : result.items()) {
-                            if (item.error() != null) {
-                                logger.log(Level.SEVERE, () -> item.error().reason());
-                            }
-                        }
-                    } else {
-                    }
-                } catch (IOException e) {
-                    String message = MessageFormat.format(TextUtil.FAILED_TO_DELETE_PROPERTY, propertyName);
-                    logger.log(Level.SEVERE, message, e);
-                    throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, message, null);
-
-                }
-                params.set("~search_after", channels.get(channels.size() - 1).getName());
-                channels = channelRepository.search(params).channels();
-            }
         } catch (ElasticsearchException | IOException e) {
+            bulkWriter.countWrite(esService.getES_PROPERTY_INDEX(), BulkOperation.Kind.Delete, BulkWriter.outcome(e));
             String message = MessageFormat.format(TextUtil.FAILED_TO_DELETE_PROPERTY, propertyName);
             logger.log(Level.SEVERE, message, e);
             throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, message, null);
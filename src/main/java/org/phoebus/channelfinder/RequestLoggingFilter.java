@@ -0,0 +1,219 @@
+package org.phoebus.channelfinder;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingRequestWrapper;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpServletResponseWrapper;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.security.Principal;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
+
+/**
+ * Logs a sample of the requests as structured lines: method, path, status, duration, bytes in and out and user.
+ * <p>
+ * The requests are sampled per endpoint, by the longest matching path prefix, the requests failing with a server
+ * error, or an uncaught exception, are always logged. The lines are formatted and written by a background thread,
+ * the lines which do not fit in its bounded queue are dropped and counted. The request payload is only captured, up to a maximum length, when
+ * the logger is at FINE (DEBUG), so that the bodies, e.g. of bulk uploads, are not copied otherwise.
+ */
+public class RequestLoggingFilter extends OncePerRequestFilter {
+
+    private static final Logger logger = Logger.getLogger(RequestLoggingFilter.class.getName());
+
+    public static final String CF_REQUEST_LOG_DROPPED = "cf.request.log.dropped";
+
+    private record Entry(String method, String path, String query, int status, long durationNanos, long bytesIn,
+                         long bytesOut, String user, byte[] payload, Charset charset) {
+    }
+
+    private final double defaultSampleRate;
+    private final List<Map.Entry<String, Double>> sampleRates;
+    private final int maxPayloadLength;
+    private final ThreadPoolExecutor sink;
+
+    /**
+     * @param defaultSampleRate - the fraction of the requests logged, for the paths without a sample rate
+     * @param sampleRates - the fraction of the requests logged, by path prefix
+     * @param maxPayloadLength - the maximum length of the logged payloads
+     * @param queueCapacity - the maximum number of lines waiting to be written
+     */
+    public RequestLoggingFilter(double defaultSampleRate, Map<String, Double> sampleRates, int maxPayloadLength,
+                                int queueCapacity, MeterRegistry meterRegistry) {
+        this.defaultSampleRate = defaultSampleRate;
+        this.sampleRates = sampleRates.entrySet().stream()
+                .sorted(Comparator.comparing((Map.Entry<String, Double> e) -> e.getKey().length()).reversed())
+                .collect(Collectors.toList());
+        this.maxPayloadLength = maxPayloadLength;
+        Counter dropped = Counter.builder(CF_REQUEST_LOG_DROPPED)
+                .description("Request log lines dropped because the log sink was full")
+                .register(meterRegistry);
+        this.sink = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "cf-request-log");
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                (runnable, executor) -> dropped.increment());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        if (!logger.isLoggable(Level.INFO)) {
+            chain.doFilter(request, response);
+            return;
+        }
+        boolean sampled = ThreadLocalRandom.current().nextDouble() < sampleRate(request.getRequestURI());
+        boolean capturePayload = sampled && maxPayloadLength > 0 && logger.isLoggable(Level.FINE);
+        HttpServletRequest loggedRequest = capturePayload ? new ContentCachingRequestWrapper(request, maxPayloadLength) : request;
+        // the response bytes are only counted for the sampled requests
+        CountingResponse countingResponse = sampled ? new CountingResponse(response) : null;
+        long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            chain.doFilter(loggedRequest, countingResponse != null ? countingResponse : response);
+            failed = false;
+        } finally {
+            long duration = System.nanoTime() - start;
+            // an uncaught exception is only turned into a server error once it has left the filter chain
+            int status = failed ? HttpServletResponse.SC_INTERNAL_SERVER_ERROR : response.getStatus();
+            if (sampled || status >= HttpServletResponse.SC_INTERNAL_SERVER_ERROR) {
+                Principal user = request.getUserPrincipal();
+                byte[] payload = loggedRequest instanceof ContentCachingRequestWrapper wrapper ? wrapper.getContentAsByteArray() : null;
+                Entry entry = new Entry(request.getMethod(), request.getRequestURI(), request.getQueryString(), status,
+                        duration, request.getContentLengthLong(), countingResponse != null ? countingResponse.count : -1, user == null ? null : user.getName(),
+                        payload, request.getCharacterEncoding() == null ? StandardCharsets.UTF_8 : Charset.forName(request.getCharacterEncoding()));
+                sink.execute(() -> log(entry));
+            }
+        }
+    }
+
+    /**
+     * @return the sample rate of the longest matching path prefix
+     */
+    double sampleRate(String path) {
+        for (Map.Entry<String, Double> rate : sampleRates) {
+            if (path.startsWith(rate.getKey())) {
+                return rate.getValue();
+            }
+        }
+        return defaultSampleRate;
+    }
+
+    private static void log(Entry entry) {
+        StringBuilder line = new StringBuilder(128)
+                .append("method=").append(entry.method())
+                .append(" path=").append(entry.path());
+        if (entry.query() != null) {
+            line.append(" query=").append(entry.query());
+        }
+        line.append(" status=").append(entry.status())
+                .append(" duration_ms=").append(TimeUnit.NANOSECONDS.toMicros(entry.durationNanos()) / 1000.0)
+                .append(" bytes_in=").append(entry.bytesIn() < 0 ? "-" : entry.bytesIn())
+                .append(" bytes_out=").append(entry.bytesOut() < 0 ? "-" : entry.bytesOut())
+                .append(" user=").append(entry.user() == null ? "-" : entry.user());
+        if (entry.payload() != null && entry.payload().length > 0) {
+            line.append(" payload=").append(new String(entry.payload(), entry.charset()));
+        }
+        logger.log(entry.status() >= HttpServletResponse.SC_INTERNAL_SERVER_ERROR ? Level.WARNING : Level.INFO, line.toString());
+    }
+
+    @Override
+    public void destroy() {
+        sink.shutdown();
+        try {
+            // write the pending lines
+            sink.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Counts the bytes of the response body, without buffering it
+     */
+    private static class CountingResponse extends HttpServletResponseWrapper {
+
+        private long count;
+        private ServletOutputStream outputStream;
+        private PrintWriter writer;
+
+        CountingResponse(HttpServletResponse response) {
+            super(response);
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            if (outputStream == null) {
+                ServletOutputStream delegate = super.getOutputStream();
+                outputStream = new ServletOutputStream() {
+                    @Override
+                    public void write(int b) throws IOException {
+                        delegate.write(b);
+                        count++;
+                    }
+
+                    @Override
+                    public void write(byte[] b, int off, int len) throws IOException {
+                        delegate.write(b, off, len);
+                        count += len;
+                    }
+
+                    @Override
+                    public void flush() throws IOException {
+                        delegate.flush();
+                    }
+
+                    @Override
+                    public boolean isReady() {
+                        return delegate.isReady();
+                    }
+
+                    @Override
+                    public void setWriteListener(WriteListener listener) {
+                        delegate.setWriteListener(listener);
+                    }
+                };
+            }
+            return outputStream;
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            if (writer == null) {
+                writer = new PrintWriter(new OutputStreamWriter(getOutputStream(), getCharacterEncoding()));
+            }
+            return writer;
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            if (writer != null) {
+                writer.flush();
+            }
+            super.flushBuffer();
+        }
+    }
+}
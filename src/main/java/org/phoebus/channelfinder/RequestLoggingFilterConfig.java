@@ -1,21 +1,29 @@
 package org.phoebus.channelfinder;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.web.filter.CommonsRequestLoggingFilter;
+
+import java.util.Map;
 
 @Configuration
 public class RequestLoggingFilterConfig {
 
+    @Value("${request.logging.sample_rate:0.01}")
+    private double sampleRate;
+
+    @Value("#{${request.logging.sample_rates:{:}}}")
+    private Map<String, Double> sampleRates;
+
+    @Value("${request.logging.max_payload_length:10000}")
+    private int maxPayloadLength;
+
+    @Value("${request.logging.queue_capacity:10000}")
+    private int queueCapacity;
+
     @Bean
-    public CommonsRequestLoggingFilter logFilter() {
-        CommonsRequestLoggingFilter filter
-                = new CommonsRequestLoggingFilter();
-        filter.setIncludeQueryString(true);
-        filter.setIncludePayload(true);
-        filter.setMaxPayloadLength(10000);
-        filter.setIncludeHeaders(false);
-        filter.setAfterMessagePrefix("REQUEST DATA : ");
-        return filter;
+    public RequestLoggingFilter logFilter(MeterRegistry meterRegistry) {
+        return new RequestLoggingFilter(sampleRate, sampleRates, maxPayloadLength, queueCapacity, meterRegistry);
     }
-}
\ No newline at end of file
+}
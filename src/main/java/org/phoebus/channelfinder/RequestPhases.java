@@ -0,0 +1,143 @@
+package org.phoebus.channelfinder;
+
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+/**
+ * The time spent by a request in each of its phases, e.g. the authentication or the elastic round trips.
+ * <p>
+ * The phases are recorded, on the request thread, by the code running them and reported by
+ * {@link ServerTimingFilter}. Outside of a request, e.g. in a background job, nothing is recorded. The phases may
+ * overlap, e.g. the validation of the channels includes the elastic round trips checking that their tags exist.
+ */
+public final class RequestPhases {
+
+    static final String ATTRIBUTE = RequestPhases.class.getName();
+
+    public enum Phase {
+        AUTHENTICATION("auth"),
+        AUTHORIZATION("authz"),
+        VALIDATION("validation"),
+        ELASTIC("es"),
+        SERIALIZATION("serialization");
+
+        private final String id;
+
+        Phase(String id) {
+            this.id = id;
+        }
+
+        public String id() {
+            return id;
+        }
+    }
+
+    /**
+     * A phase being timed, ends when closed
+     */
+    public interface Scope extends AutoCloseable {
+        @Override
+        void close();
+    }
+
+    private static final Scope NOOP = () -> { };
+
+    private final long[] nanos = new long[Phase.values().length];
+    private final int[] counts = new int[Phase.values().length];
+    private final boolean[] open = new boolean[Phase.values().length];
+    private long elasticBytes;
+
+    /**
+     * @return the phases of the current request, null outside of a request
+     */
+    public static RequestPhases current() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        return attributes == null ? null
+                : (RequestPhases) attributes.getAttribute(ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+    }
+
+    /**
+     * Start timing a phase of the current request, a phase nested in the same phase is not timed again
+     *
+     * @return the scope to close when the phase ends
+     */
+    public static Scope start(Phase phase) {
+        RequestPhases phases = current();
+        int index = phase.ordinal();
+        if (phases == null || phases.open[index]) {
+            return NOOP;
+        }
+        phases.open[index] = true;
+        long start = System.nanoTime();
+        return () -> {
+            phases.open[index] = false;
+            phases.add(phase, System.nanoTime() - start);
+        };
+    }
+
+    /**
+     * Record a phase of the current request
+     */
+    public static void record(Phase phase, long nanos) {
+        RequestPhases phases = current();
+        if (phases != null) {
+            phases.add(phase, nanos);
+        }
+    }
+
+    /**
+     * Record an elastic round trip of the current request
+     *
+     * @param bytes - the size of the request and response bodies
+     */
+    public static void recordElastic(long nanos, long bytes) {
+        RequestPhases phases = current();
+        if (phases != null) {
+            phases.add(Phase.ELASTIC, nanos);
+            phases.elasticBytes += bytes;
+        }
+    }
+
+    void add(Phase phase, long duration) {
+        nanos[phase.ordinal()] += duration;
+        counts[phase.ordinal()]++;
+    }
+
+    long nanos(Phase phase) {
+        return nanos[phase.ordinal()];
+    }
+
+    int count(Phase phase) {
+        return counts[phase.ordinal()];
+    }
+
+    long elasticBytes() {
+        return elasticBytes;
+    }
+
+    /**
+     * @return the value of the Server-Timing header, the phases which did not occur are omitted
+     */
+    String serverTiming(long totalNanos) {
+        StringBuilder header = new StringBuilder(128);
+        for (Phase phase : Phase.values()) {
+            if (count(phase) == 0) {
+                continue;
+            }
+            appendMetric(header, phase.id(), nanos(phase));
+            if (phase == Phase.ELASTIC) {
+                header.append(";desc=\"").append(count(phase)).append(" calls, ").append(elasticBytes).append(" bytes\"");
+            }
+        }
+        appendMetric(header, "total", totalNanos);
+        return header.toString();
+    }
+
+    private static void appendMetric(StringBuilder header, String name, long nanos) {
+        if (header.length() > 0) {
+            header.append(", ");
+        }
+        // in milliseconds, with microsecond precision
+        header.append(name).append(";dur=").append(Math.round(nanos / 1000.0) / 1000.0);
+    }
+}
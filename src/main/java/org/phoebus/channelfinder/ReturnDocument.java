@@ -0,0 +1,46 @@
+package org.phoebus.channelfinder;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.text.MessageFormat;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * The body returned by the bulk channel writes, selected with the <code>returnDocument</code> request parameter
+ */
+public enum ReturnDocument {
+    /**
+     * no body, the channels are written or the request fails
+     */
+    NONE,
+    /**
+     * the outcome of the write of each channel
+     */
+    MINIMAL,
+    /**
+     * the written channels
+     */
+    FULL;
+
+    public static final String PARAMETER = "returnDocument";
+
+    private static final Logger logger = Logger.getLogger(ReturnDocument.class.getName());
+
+    /**
+     * @param value - the request parameter value, case insensitive
+     * @return the matching return document
+     * @throws ResponseStatusException BAD_REQUEST if the value does not match any return document
+     */
+    public static ReturnDocument of(String value) {
+        for (ReturnDocument returnDocument : values()) {
+            if (returnDocument.name().equalsIgnoreCase(value)) {
+                return returnDocument;
+            }
+        }
+        String message = MessageFormat.format(TextUtil.RETURN_DOCUMENT_INVALID, value);
+        logger.log(Level.SEVERE, message);
+        throw new ResponseStatusException(HttpStatus.BAD_REQUEST, message);
+    }
+}
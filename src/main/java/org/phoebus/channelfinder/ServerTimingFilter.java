@@ -0,0 +1,146 @@
+package org.phoebus.channelfinder;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.phoebus.channelfinder.RequestPhases.Phase;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpServletResponseWrapper;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reports the phases of each request, see {@link RequestPhases}, in the Server-Timing header of the response and as
+ * the timer cf.request.phase, tagged by method, endpoint and phase.
+ * <p>
+ * The header is added when the response body is first written, so it does not include the serialization of the
+ * body, which is only part of the timer.
+ */
+public class ServerTimingFilter extends OncePerRequestFilter {
+
+    public static final String CF_REQUEST_PHASE = "cf.request.phase";
+
+    static final String SERVER_TIMING = "Server-Timing";
+    private static final String TOTAL = "total";
+
+    private final boolean headerEnabled;
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * @param headerEnabled - true to add the Server-Timing header to the responses
+     */
+    public ServerTimingFilter(boolean headerEnabled, MeterRegistry meterRegistry) {
+        this.headerEnabled = headerEnabled;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        long start = System.nanoTime();
+        RequestPhases phases = new RequestPhases();
+        request.setAttribute(RequestPhases.ATTRIBUTE, phases);
+        TimingResponse timingResponse = new TimingResponse(response, phases, start);
+        try {
+            filterChain.doFilter(request, timingResponse);
+        } finally {
+            // a response without a body
+            timingResponse.beginBody();
+            timingResponse.endBody();
+            record(request, phases, System.nanoTime() - start);
+        }
+    }
+
+    private void record(HttpServletRequest request, RequestPhases phases, long totalNanos) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String endpoint = pattern == null ? "unknown" : pattern.toString();
+        for (Phase phase : Phase.values()) {
+            if (phases.count(phase) > 0) {
+                timer(request.getMethod(), endpoint, phase.id()).record(phases.nanos(phase), TimeUnit.NANOSECONDS);
+            }
+        }
+        timer(request.getMethod(), endpoint, TOTAL).record(totalNanos, TimeUnit.NANOSECONDS);
+    }
+
+    private Timer timer(String method, String endpoint, String phase) {
+        return Timer.builder(CF_REQUEST_PHASE)
+                .description("Time spent by the requests in each phase")
+                .tag("method", method)
+                .tag("endpoint", endpoint)
+                .tag("phase", phase)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Adds the Server-Timing header before the response is committed and times the serialization of the body
+     */
+    private class TimingResponse extends HttpServletResponseWrapper {
+
+        private final RequestPhases phases;
+        private final long start;
+        private long bodyStart;
+
+        TimingResponse(HttpServletResponse response, RequestPhases phases, long start) {
+            super(response);
+            this.phases = phases;
+            this.start = start;
+        }
+
+        void beginBody() {
+            if (bodyStart != 0) {
+                return;
+            }
+            bodyStart = System.nanoTime();
+            if (headerEnabled && !isCommitted()) {
+                setHeader(SERVER_TIMING, phases.serverTiming(bodyStart - start));
+            }
+        }
+
+        void endBody() {
+            phases.add(Phase.SERIALIZATION, System.nanoTime() - bodyStart);
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            beginBody();
+            return super.getOutputStream();
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            beginBody();
+            return super.getWriter();
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            beginBody();
+            super.flushBuffer();
+        }
+
+        @Override
+        public void sendError(int sc) throws IOException {
+            beginBody();
+            super.sendError(sc);
+        }
+
+        @Override
+        public void sendError(int sc, String msg) throws IOException {
+            beginBody();
+            super.sendError(sc, msg);
+        }
+
+        @Override
+        public void sendRedirect(String location) throws IOException {
+            beginBody();
+            super.sendRedirect(location);
+        }
+    }
+}
@@ -0,0 +1,254 @@
+package org.phoebus.channelfinder;
+
+import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import co.elastic.clients.elasticsearch.core.SearchRequest;
+import co.elastic.clients.elasticsearch.core.SearchResponse;
+import co.elastic.clients.elasticsearch.core.search.QueryProfile;
+import co.elastic.clients.elasticsearch.core.search.ShardProfile;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.phoebus.channelfinder.entity.SlowQuery;
+import org.phoebus.channelfinder.entity.SlowQuery.Clause;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.MultiValueMap;
+
+import javax.annotation.PreDestroy;
+import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
+
+/**
+ * Detects the channel queries which take longer than a threshold: they are logged with their normalized parameters,
+ * hit count and duration, counted, and the most recent ones are kept, see {@link SlowQueryManager}.
+ * <p>
+ * If enabled, each distinct slow query is run once more with profiling, in the background, to capture the cost of
+ * each of its clauses.
+ */
+@Component
+public class SlowQueryLog {
+
+    private static final Logger logger = Logger.getLogger(SlowQueryLog.class.getName());
+
+    public static final String CF_SLOW_QUERIES = "cf.slow.queries";
+
+    public static final String SEARCH = "search";
+    public static final String COUNT = "count";
+    public static final String SCROLL = "scroll";
+
+    /**
+     * The parameters which only select the page, left out of the normalized query
+     */
+    private static final Set<String> PAGING_PARAMETERS = Set.of("~from", "~search_after");
+
+    private static final int PROFILE_QUEUE_CAPACITY = 4;
+    private static final int MAX_PROFILED = 1000;
+    private static final int MAX_CLAUSES = 50;
+    private static final int MAX_DESCRIPTION_LENGTH = 256;
+
+    private final ElasticsearchClient client;
+    private final MeterRegistry meterRegistry;
+    private final long thresholdNanos;
+    private final boolean profileEnabled;
+    private final int maxEntries;
+    private final List<SlowQuery> recent = new ArrayList<>();
+    /**
+     * The queries which have been profiled, or are queued to be, by operation and normalized query, the oldest are
+     * forgotten and profiled again the next time they are slow
+     */
+    private final Set<List<String>> profiled = Collections.newSetFromMap(new LinkedHashMap<>() {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<List<String>, Boolean> eldest) {
+            return size() > MAX_PROFILED;
+        }
+    });
+    private final ThreadPoolExecutor profiler;
+
+    @Autowired
+    public SlowQueryLog(@Qualifier("searchClient") ElasticsearchClient client,
+                        final MeterRegistry meterRegistry,
+                        @Value("${slow_query.threshold_ms:1000}") long thresholdMillis,
+                        @Value("${slow_query.profile:false}") boolean profileEnabled,
+                        @Value("${slow_query.max_entries:100}") int maxEntries) {
+        this.client = client;
+        this.meterRegistry = meterRegistry;
+        this.thresholdNanos = thresholdMillis < 0 ? -1 : TimeUnit.MILLISECONDS.toNanos(thresholdMillis);
+        this.profileEnabled = profileEnabled;
+        this.maxEntries = maxEntries;
+        this.profiler = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(PROFILE_QUEUE_CAPACITY),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "slow-query-profiler");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    /**
+     * Record a query if it was slow
+     *
+     * @param operation - the operation, e.g. search
+     * @param parameters - the query parameters
+     * @param nanos - the duration of the elastic request
+     * @param hits - the number of hits
+     * @param request - the search request equivalent to the query, to profile it
+     */
+    public void record(String operation, MultiValueMap<String, String> parameters, long nanos, long hits,
+                       Supplier<SearchRequest> request) {
+        if (thresholdNanos < 0 || nanos < thresholdNanos) {
+            return;
+        }
+        String query = normalize(parameters);
+        long millis = TimeUnit.NANOSECONDS.toMillis(nanos);
+        logger.log(Level.WARNING, () -> MessageFormat.format(TextUtil.SLOW_QUERY, operation, query, hits, millis));
+        Counter.builder(CF_SLOW_QUERIES)
+                .description("Channel queries slower than the slow query threshold")
+                .tag("operation", operation)
+                .register(meterRegistry)
+                .increment();
+
+        SlowQuery slowQuery = new SlowQuery(System.currentTimeMillis(), operation, query, hits, millis, null);
+        synchronized (recent) {
+            recent.add(slowQuery);
+            while (recent.size() > maxEntries) {
+                recent.remove(0);
+            }
+        }
+        if (profileEnabled) {
+            List<String> key = List.of(operation, query);
+            synchronized (profiled) {
+                if (!profiled.add(key)) {
+                    return;
+                }
+            }
+            try {
+                profiler.execute(() -> profile(slowQuery, request.get()));
+            } catch (RejectedExecutionException e) {
+                // the profiler is busy, the query is profiled the next time it is slow
+                synchronized (profiled) {
+                    profiled.remove(key);
+                }
+            }
+        }
+    }
+
+    /**
+     * @return the recent slow queries, the most recent first
+     */
+    public List<SlowQuery> recent() {
+        List<SlowQuery> queries;
+        synchronized (recent) {
+            queries = new ArrayList<>(recent);
+        }
+        Collections.reverse(queries);
+        return queries;
+    }
+
+    /**
+     * @return the query parameters with sorted keys and values, without the paging parameters, so that the same
+     * query is always logged the same way
+     */
+    static String normalize(MultiValueMap<String, String> parameters) {
+        return parameters.entrySet().stream()
+                .filter(parameter -> !PAGING_PARAMETERS.contains(parameter.getKey().trim()))
+                .sorted(Comparator.comparing(parameter -> parameter.getKey().trim()))
+                .flatMap(parameter -> parameter.getValue().stream()
+                        .map(value -> parameter.getKey().trim() + "=" + (value == null ? "" : value.trim()))
+                        .sorted())
+                .collect(Collectors.joining("&"));
+    }
+
+    private void profile(SlowQuery slowQuery, SearchRequest request) {
+        try {
+            SearchResponse<ObjectNode> response = client.search(s -> {
+                s.index(request.index())
+                        .query(request.query())
+                        .from(request.from())
+                        .size(request.size())
+                        .trackTotalHits(request.trackTotalHits())
+                        .source(source -> source.fetch(false))
+                        .profile(true);
+                if (!request.sort().isEmpty()) {
+                    s.sort(request.sort());
+                }
+                if (!request.searchAfter().isEmpty()) {
+                    s.searchAfter(request.searchAfter());
+                }
+                return s;
+            }, ObjectNode.class);
+            List<Clause> clauses = response.profile() == null ? Collections.emptyList() : clauses(response.profile().shards());
+            logger.log(Level.INFO, () -> MessageFormat.format(TextUtil.SLOW_QUERY_PROFILE,
+                    slowQuery.operation(), slowQuery.query(), format(clauses)));
+            synchronized (recent) {
+                for (int i = 0; i < recent.size(); i++) {
+                    if (recent.get(i) == slowQuery) {
+                        recent.set(i, slowQuery.withProfile(clauses));
+                    }
+                }
+            }
+        } catch (Exception e) {
+            logger.log(Level.WARNING, MessageFormat.format(TextUtil.SLOW_QUERY_PROFILE_FAILED, slowQuery.query()), e);
+        }
+    }
+
+    /**
+     * @return the query clauses of the slowest shard, depth first
+     */
+    static List<Clause> clauses(List<ShardProfile> shards) {
+        List<Clause> clauses = new ArrayList<>();
+        shards.stream()
+                .max(Comparator.comparingLong(SlowQueryLog::queryNanos))
+                .ifPresent(shard -> shard.searches()
+                        .forEach(search -> search.query().forEach(query -> flatten(query, 0, clauses))));
+        return clauses;
+    }
+
+    private static long queryNanos(ShardProfile shard) {
+        return shard.searches().stream()
+                .flatMap(search -> search.query().stream())
+                .mapToLong(QueryProfile::timeInNanos)
+                .sum();
+    }
+
+    private static void flatten(QueryProfile query, int depth, List<Clause> clauses) {
+        if (clauses.size() >= MAX_CLAUSES) {
+            return;
+        }
+        String description = query.description().length() > MAX_DESCRIPTION_LENGTH
+                ? query.description().substring(0, MAX_DESCRIPTION_LENGTH) + "..."
+                : query.description();
+        clauses.add(new Clause(depth, query.type(), description, query.timeInNanos() / 1_000_000.0));
+        for (QueryProfile child : query.children()) {
+            flatten(child, depth + 1, clauses);
+        }
+    }
+
+    private static String format(List<Clause> clauses) {
+        return clauses.stream()
+                .map(clause -> "  ".repeat(clause.depth()) + clause.type() + " " + clause.description()
+                        + " " + String.format(Locale.ROOT, "%.3f", clause.millis()) + " ms")
+                .collect(Collectors.joining(System.lineSeparator(), System.lineSeparator(), ""));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        profiler.shutdownNow();
+    }
+}
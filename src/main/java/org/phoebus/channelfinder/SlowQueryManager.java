@@ -0,0 +1,53 @@
+package org.phoebus.channelfinder;
+
+import static org.phoebus.channelfinder.CFResourceDescriptors.SLOW_QUERY_RESOURCE_URI;
+
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.phoebus.channelfinder.AuthorizationService.ROLES;
+import org.phoebus.channelfinder.entity.SlowQuery;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * The recent slow queries detected by the {@link SlowQueryLog}, for the admins
+ */
+@CrossOrigin
+@RestController
+@RequestMapping(SLOW_QUERY_RESOURCE_URI)
+@EnableAutoConfiguration
+public class SlowQueryManager {
+
+    private static final Logger logger = Logger.getLogger(SlowQueryManager.class.getName());
+
+    @Autowired
+    SlowQueryLog slowQueryLog;
+
+    @Autowired
+    AuthorizationService authorizationService;
+
+    /**
+     * GET method for listing the recent slow queries, the most recent first, with their profile if they were profiled
+     *
+     * @return the recent slow queries
+     */
+    @GetMapping
+    public List<SlowQuery> list() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authorizationService.isAuthorizedRole(authentication, ROLES.CF_ADMIN)) {
+            logger.log(Level.SEVERE, TextUtil.USER_NOT_AUTHORIZED_ON_SLOW_QUERIES);
+            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, TextUtil.USER_NOT_AUTHORIZED_ON_SLOW_QUERIES, null);
+        }
+        return slowQueryLog.recent();
+    }
+}
@@ -17,7 +17,9 @@ import java.util.stream.StreamSupport;
 import com.google.common.collect.Lists;
 import org.phoebus.channelfinder.AuthorizationService.ROLES;
 import org.phoebus.channelfinder.entity.Channel;
+import org.phoebus.channelfinder.entity.JobStatus;
 import org.phoebus.channelfinder.entity.Tag;
+import org.phoebus.channelfinder.entity.TaskStatus;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
 import org.springframework.http.HttpStatus;
@@ -31,6 +33,7 @@ import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.server.ResponseStatusException;
 
@@ -40,7 +43,6 @@ import org.springframework.web.server.ResponseStatusException;
 @EnableAutoConfiguration
 public class TagManager {
 
-    private static final Logger tagManagerAudit = Logger.getLogger(TagManager.class.getName() + ".audit");
     private static final Logger logger = Logger.getLogger(TagManager.class.getName());
 
     @Autowired
@@ -52,6 +54,18 @@ public class TagManager {
     @Autowired
     AuthorizationService authorizationService;
 
+    @Autowired
+    AuditLog auditLog;
+
+    @Autowired
+    WriteMetrics writeMetrics;
+
+    @Autowired
+    JobService jobService;
+
+    @Autowired
+    TaskRegistry taskRegistry;
+
     /**
      * GET method for retrieving the list of tags in the database.
      *
@@ -74,7 +88,7 @@ public class TagManager {
     @GetMapping("/{tagName}")
     public Tag read(@PathVariable("tagName") String tagName,
                     @RequestParam(value = "withChannels", defaultValue = "true") boolean withChannels) {
-        tagManagerAudit.log(Level.INFO, () -> MessageFormat.format(TextUtil.FIND_TAG, tagName));
+        auditLog.log(AuditLog.READ, AuditLog.TAG, tagName);
 
         if(withChannels) {
             Optional<Tag> foundTag = tagRepository.findById(tagName,true);
@@ -82,7 +96,7 @@ public class TagManager {
                 return foundTag.get();
             } else {
                 String message = MessageFormat.format(TextUtil.TAG_NAME_DOES_NOT_EXIST, tagName);
-                logger.log(Level.SEVERE, message, new ResponseStatusException(HttpStatus.NOT_FOUND));
+                logger.log(Level.SEVERE, message);
                 throw new ResponseStatusException(HttpStatus.NOT_FOUND, message);
             }
         } else {
@@ -91,7 +105,7 @@ public class TagManager {
                 return foundTag.get();
             } else {
                 String message = MessageFormat.format(TextUtil.TAG_NAME_DOES_NOT_EXIST, tagName);
-                logger.log(Level.SEVERE, message, new ResponseStatusException(HttpStatus.NOT_FOUND));
+                logger.log(Level.SEVERE, message);
                 throw new ResponseStatusException(HttpStatus.NOT_FOUND, message);
             }
         }
@@ -111,15 +125,15 @@ public class TagManager {
     public Tag create(@PathVariable("tagName") String tagName, @RequestBody Tag tag) {
         // check if authorized role
         if(authorizationService.isAuthorizedRole(SecurityContextHolder.getContext().getAuthentication(), ROLES.CF_TAG)) {
-            long start = System.currentTimeMillis();
-            tagManagerAudit.log(Level.INFO, () -> MessageFormat.format(TextUtil.CLIENT_INITIALIZATION, (System.currentTimeMillis() - start)));
+            auditLog.log(AuditLog.CREATE, AuditLog.TAG, tagName);
+            writeMetrics.request(AuditLog.TAG, 1);
             // Validate request parameters
             validateTagRequest(tag);
 
             // check if authorized owner
             if(!authorizationService.isAuthorizedOwner(SecurityContextHolder.getContext().getAuthentication(), tag)) {
                 String message = MessageFormat.format(TextUtil.USER_NOT_AUTHORIZED_ON_TAG, tag.toLog());
-                logger.log(Level.SEVERE, message, new ResponseStatusException(HttpStatus.UNAUTHORIZED));
+                logger.log(Level.SEVERE, message);
                 throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, message, null);
             }
             Optional<Tag> existingTag = tagRepository.findById(tagName);
@@ -127,7 +141,7 @@ public class TagManager {
             if(present) {
                 if(!authorizationService.isAuthorizedOwner(SecurityContextHolder.getContext().getAuthentication(), existingTag.get())) {
                     String message = MessageFormat.format(TextUtil.USER_NOT_AUTHORIZED_ON_TAG, existingTag.get().toLog());
-                    logger.log(Level.SEVERE, message, new ResponseStatusException(HttpStatus.UNAUTHORIZED));
+                    logger.log(Level.SEVERE, message);
                     throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, message, null);
                 } 
                 // delete existing tag
@@ -150,11 +164,33 @@ public class TagManager {
             return createdTag;
         } else {
             String message = MessageFormat.format(TextUtil.USER_NOT_AUTHORIZED_ON_TAG, tagName);
-            logger.log(Level.SEVERE, message, new ResponseStatusException(HttpStatus.UNAUTHORIZED));
+            logger.log(Level.SEVERE, message);
             throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, message, null);
         }
     }
 
+    /**
+     * PUT method for creating and <b>exclusively</b> adding the tag identified by the path parameter
+     * <code>tagName</code> to all channels identified by the payload structure <code>tag</code>,
+     * in a background job. The job result is the number of channels the tag was added to.
+     *
+     * @param tagName - name of tag to be created
+     * @param tag - Tag structure containing the list of channels to be tagged
+     * @return the submitted job, its progress can be followed with the job resource
+     */
+    @PutMapping(value = "/{tagName}", params = "async=true")
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    public JobStatus createAsync(@PathVariable("tagName") String tagName, @RequestBody Tag tag) {
+        long channelCount = tag.getChannels() == null ? 0 : tag.getChannels().size();
+        return jobService.submit(MessageFormat.format(TextUtil.CREATE_TAG_JOB, tagName, channelCount), progress -> {
+            progress.setTotal(channelCount);
+            Tag createdTag = create(tagName, tag);
+            long tagged = createdTag.getChannels() == null ? 0 : createdTag.getChannels().size();
+            progress.processed(tagged);
+            return tagged;
+        });
+    }
+
     /**
      * PUT method for creating multiple tags.
      * 
@@ -165,8 +201,8 @@ public class TagManager {
     public Iterable<Tag> create(@RequestBody Iterable<Tag> tags) {
         // check if authorized role
         if(authorizationService.isAuthorizedRole(SecurityContextHolder.getContext().getAuthentication(), ROLES.CF_TAG)) {
-            long start = System.currentTimeMillis();
-            tagManagerAudit.log(Level.INFO, () -> MessageFormat.format(TextUtil.CLIENT_INITIALIZATION, (System.currentTimeMillis() - start)));
+            auditLog.log(AuditLog.CREATE, AuditLog.TAG, tags, Tag::getName);
+            writeMetrics.request(AuditLog.TAG, tags);
 
             // check if authorized owner
             for(Tag tag: tags) {
@@ -175,14 +211,14 @@ public class TagManager {
                 if(present) {
                     if(!authorizationService.isAuthorizedOwner(SecurityContextHolder.getContext().getAuthentication(), existingTag.get())) {
                         String message = MessageFormat.format(TextUtil.USER_NOT_AUTHORIZED_ON_TAG, existingTag.get().toLog());
-                        logger.log(Level.SEVERE, message, new ResponseStatusException(HttpStatus.UNAUTHORIZED));
+                        logger.log(Level.SEVERE, message);
                         throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, message, null);
                     }
                     tag.setOwner(existingTag.get().getOwner());
                 } else {
                     if(!authorizationService.isAuthorizedOwner(SecurityContextHolder.getContext().getAuthentication(), tag)) {
                         String message = MessageFormat.format(TextUtil.USER_NOT_AUTHORIZED_ON_TAG, tag.toLog());
-                        logger.log(Level.SEVERE, message, new ResponseStatusException(HttpStatus.UNAUTHORIZED));
+                        logger.log(Level.SEVERE, message);
                         throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, message, null);
                     }
                 }
@@ -222,7 +258,7 @@ public class TagManager {
             return tags;
         } else {
             String message = MessageFormat.format(TextUtil.USER_NOT_AUTHORIZED_ON_TAGS, tags);
-            logger.log(Level.SEVERE, message, new ResponseStatusException(HttpStatus.UNAUTHORIZED));
+            logger.log(Level.SEVERE, message);
             throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, message, null);
         }
     }
@@ -242,10 +278,8 @@ public class TagManager {
     public Tag addSingle(@PathVariable("tagName") String tagName, @PathVariable("channelName") String channelName) {
         // check if authorized role
         if(authorizationService.isAuthorizedRole(SecurityContextHolder.getContext().getAuthentication(), ROLES.CF_TAG)) {
-            long start = System.currentTimeMillis();
-            tagManagerAudit.log(Level.INFO, () -> MessageFormat.format(TextUtil.CLIENT_INITIALIZATION, (System.currentTimeMillis() - start)));
-            // Validate request parameters
-            validateTagWithChannelRequest(channelName);
+            auditLog.log(AuditLog.UPDATE, AuditLog.TAG, tagName);
+            writeMetrics.request(AuditLog.TAG, 1);
 
             // check if authorized owner
             Optional<Tag> existingTag = tagRepository.findById(tagName);
@@ -253,24 +287,30 @@ public class TagManager {
             if(present) {
                 if(!authorizationService.isAuthorizedOwner(SecurityContextHolder.getContext().getAuthentication(), existingTag.get())) {
                     String message = MessageFormat.format(TextUtil.USER_NOT_AUTHORIZED_ON_TAG, existingTag.get().toLog());
-                    logger.log(Level.SEVERE, message, new ResponseStatusException(HttpStatus.UNAUTHORIZED));
+                    logger.log(Level.SEVERE, message);
                     throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, message, null);
                 } 
-                // add tag to channel
-                Channel channel = channelRepository.findById(channelName).get();
-                channel.addTag(existingTag.get());
-                Channel taggedChannel = channelRepository.save(channel);
+                // add tag to channel, a channel which does not exist is reported by the update
+                Channel taggedChannel;
+                try {
+                    taggedChannel = channelRepository.addTag(channelName, existingTag.get());
+                } catch (ResponseStatusException e) {
+                    if (e.getStatus() == HttpStatus.NOT_FOUND) {
+                        writeMetrics.validationFailed(AuditLog.TAG, WriteMetrics.CHANNEL_NOT_FOUND);
+                    }
+                    throw e;
+                }
                 Tag addedTag = existingTag.get();
                 addedTag.setChannels(Arrays.asList(taggedChannel));
                 return addedTag;
             } else {
                 String message = MessageFormat.format(TextUtil.TAG_NAME_DOES_NOT_EXIST, tagName);
-                logger.log(Level.SEVERE, message, new ResponseStatusException(HttpStatus.NOT_FOUND));
+                logger.log(Level.SEVERE, message);
                 throw new ResponseStatusException(HttpStatus.NOT_FOUND, message);
             }
         } else {
             String message = MessageFormat.format(TextUtil.USER_NOT_AUTHORIZED_ON_TAG, tagName);
-            logger.log(Level.SEVERE, message, new ResponseStatusException(HttpStatus.UNAUTHORIZED));
+            logger.log(Level.SEVERE, message);
             throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, message, null);
         }
     }
@@ -291,15 +331,15 @@ public class TagManager {
     public Tag update(@PathVariable("tagName") String tagName, @RequestBody Tag tag) {
         // check if authorized role
         if(authorizationService.isAuthorizedRole(SecurityContextHolder.getContext().getAuthentication(), ROLES.CF_TAG)) {
-            long start = System.currentTimeMillis();
-            tagManagerAudit.log(Level.INFO, () -> MessageFormat.format(TextUtil.CLIENT_INITIALIZATION, (System.currentTimeMillis() - start)));
+            auditLog.log(AuditLog.UPDATE, AuditLog.TAG, tagName);
+            writeMetrics.request(AuditLog.TAG, 1);
             // Validate request parameters
             validateTagRequest(tag);
 
             // check if authorized owner
             if(!authorizationService.isAuthorizedOwner(SecurityContextHolder.getContext().getAuthentication(), tag)) {
                 String message = MessageFormat.format(TextUtil.USER_NOT_AUTHORIZED_ON_TAG, tag.toLog());
-                logger.log(Level.SEVERE, message, new ResponseStatusException(HttpStatus.UNAUTHORIZED));
+                logger.log(Level.SEVERE, message);
                 throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, message, null);
             }
             List<Channel> channels = new ArrayList<>();
@@ -309,7 +349,7 @@ public class TagManager {
             if(existingTag.isPresent()) {
                 if(!authorizationService.isAuthorizedOwner(SecurityContextHolder.getContext().getAuthentication(), existingTag.get())) {
                     String message = MessageFormat.format(TextUtil.USER_NOT_AUTHORIZED_ON_TAG, existingTag.get().toLog());
-                    logger.log(Level.SEVERE, message, new ResponseStatusException(HttpStatus.UNAUTHORIZED));
+                    logger.log(Level.SEVERE, message);
                     throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, message, null);
                 } 
                 channels = existingTag.get().getChannels();
@@ -349,7 +389,7 @@ public class TagManager {
             return updatedTag;
         } else {
             String message = MessageFormat.format(TextUtil.USER_NOT_AUTHORIZED_ON_TAG, tagName);
-            logger.log(Level.SEVERE, message, new ResponseStatusException(HttpStatus.UNAUTHORIZED));
+            logger.log(Level.SEVERE, message);
             throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, message, null);
         }
     }
@@ -367,8 +407,8 @@ public class TagManager {
     public Iterable<Tag> update(@RequestBody Iterable<Tag> tags) {
         // check if authorized role
         if(authorizationService.isAuthorizedRole(SecurityContextHolder.getContext().getAuthentication(), ROLES.CF_TAG)) {
-            long start = System.currentTimeMillis();
-            tagManagerAudit.log(Level.INFO, () -> MessageFormat.format(TextUtil.CLIENT_INITIALIZATION, (System.currentTimeMillis() - start)));
+            auditLog.log(AuditLog.UPDATE, AuditLog.TAG, tags, Tag::getName);
+            writeMetrics.request(AuditLog.TAG, tags);
 
             // check if authorized owner
             for(Tag tag:tags) {
@@ -377,14 +417,14 @@ public class TagManager {
                 if(present) {
                     if(!authorizationService.isAuthorizedOwner(SecurityContextHolder.getContext().getAuthentication(), existingTag.get())) {
                         String message = MessageFormat.format(TextUtil.USER_NOT_AUTHORIZED_ON_TAG, existingTag.get().toLog());
-                        logger.log(Level.SEVERE, message, new ResponseStatusException(HttpStatus.UNAUTHORIZED));
+                        logger.log(Level.SEVERE, message);
                         throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, message, null);
                     }
                     tag.setOwner(existingTag.get().getOwner());
                 } else {
                     if(!authorizationService.isAuthorizedOwner(SecurityContextHolder.getContext().getAuthentication(), tag)) {
                         String message = MessageFormat.format(TextUtil.USER_NOT_AUTHORIZED_ON_TAG, tag.toLog());
-                        logger.log(Level.SEVERE, message, new ResponseStatusException(HttpStatus.UNAUTHORIZED));
+                        logger.log(Level.SEVERE, message);
                         throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, message, null);
                     }
                 }
@@ -417,7 +457,7 @@ public class TagManager {
             return tags;
         } else {
             String message = MessageFormat.format(TextUtil.USER_NOT_AUTHORIZED_ON_TAGS, tags);
-            logger.log(Level.SEVERE, message, new ResponseStatusException(HttpStatus.UNAUTHORIZED));
+            logger.log(Level.SEVERE, message);
             throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, message, null);
         }
     }
@@ -430,27 +470,54 @@ public class TagManager {
      */
     @DeleteMapping("/{tagName}")
     public void remove(@PathVariable("tagName") String tagName) {
+        checkRemoveAuthorization(tagName);
+        auditLog.log(AuditLog.DELETE, AuditLog.TAG, tagName);
+        writeMetrics.request(AuditLog.TAG, 1);
+        // delete tag
+        tagRepository.deleteById(tagName);
+    }
+
+    /**
+     * DELETE method for deleting the tag identified by the path parameter
+     * <code>tagName</code>, the tag is removed from all channels by an elastic
+     * task running in the background.
+     *
+     * @param tagName - name of tag to remove
+     * @return the submitted task, its progress can be followed with the task resource
+     */
+    @DeleteMapping(value = "/{tagName}", params = "async=true")
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    public TaskStatus removeAsync(@PathVariable("tagName") String tagName) {
+        checkRemoveAuthorization(tagName);
+        auditLog.log(AuditLog.DELETE, AuditLog.TAG, tagName);
+        writeMetrics.request(AuditLog.TAG, 1);
+        // delete tag, the channels are updated in the background
+        String taskId = tagRepository.deleteByIdAsync(tagName);
+        taskRegistry.register(taskId, SecurityContextHolder.getContext().getAuthentication().getName());
+        String description = MessageFormat.format(TextUtil.DELETE_TAG, tagName);
+        logger.log(Level.INFO, () -> MessageFormat.format(TextUtil.SUBMITTED_TASK, taskId, description));
+        return TaskStatus.submitted(taskId, description);
+    }
+
+    private void checkRemoveAuthorization(String tagName) {
         // check if authorized role
         if(authorizationService.isAuthorizedRole(SecurityContextHolder.getContext().getAuthentication(), ROLES.CF_TAG)) {
             Optional<Tag> existingTag = tagRepository.findById(tagName);
             if(existingTag.isPresent()) {
                 // check if authorized owner
-                if(authorizationService.isAuthorizedOwner(SecurityContextHolder.getContext().getAuthentication(), existingTag.get())) {
-                    // delete tag
-                    tagRepository.deleteById(tagName);
-                } else {
+                if(!authorizationService.isAuthorizedOwner(SecurityContextHolder.getContext().getAuthentication(), existingTag.get())) {
                     String message = MessageFormat.format(TextUtil.USER_NOT_AUTHORIZED_ON_TAG, tagName);
-                    logger.log(Level.SEVERE, message, new ResponseStatusException(HttpStatus.UNAUTHORIZED));
+                    logger.log(Level.SEVERE, message);
                     throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, message, null);
                 }
             } else {
                 String message = MessageFormat.format(TextUtil.TAG_NAME_DOES_NOT_EXIST, tagName);
-                logger.log(Level.SEVERE, message, new ResponseStatusException(HttpStatus.NOT_FOUND));
+                logger.log(Level.SEVERE, message);
                 throw new ResponseStatusException(HttpStatus.NOT_FOUND, message);
             }
         } else {
             String message = MessageFormat.format(TextUtil.USER_NOT_AUTHORIZED_ON_TAG, tagName);
-            logger.log(Level.SEVERE, message, new ResponseStatusException(HttpStatus.UNAUTHORIZED));
+            logger.log(Level.SEVERE, message);
             throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, message, null);
         }
     }
@@ -470,30 +537,23 @@ public class TagManager {
             if(existingTag.isPresent()) {
                 // check if authorized owner
                 if(authorizationService.isAuthorizedOwner(SecurityContextHolder.getContext().getAuthentication(), existingTag.get())) {
-                    Optional<Channel> ch = channelRepository.findById(channelName);
-                    if(ch.isPresent()) {
-                        // remove tag from channel
-                        Channel channel = ch.get();
-                        channel.removeTag(new Tag(tagName, ""));
-                        channelRepository.index(channel);
-                    } else {
-                        String message = MessageFormat.format(TextUtil.CHANNEL_NAME_DOES_NOT_EXIST, channelName);
-                        logger.log(Level.SEVERE, message, new ResponseStatusException(HttpStatus.NOT_FOUND));
-                        throw new ResponseStatusException(HttpStatus.NOT_FOUND, message);
-                    }
+                    // remove tag from channel, a missing channel is reported as not found
+                    auditLog.log(AuditLog.UPDATE, AuditLog.TAG, tagName);
+                    writeMetrics.request(AuditLog.TAG, 1);
+                    channelRepository.removeTag(channelName, tagName);
                 } else {
                     String message = MessageFormat.format(TextUtil.USER_NOT_AUTHORIZED_ON_TAG, tagName);
-                    logger.log(Level.SEVERE, message, new ResponseStatusException(HttpStatus.UNAUTHORIZED));
+                    logger.log(Level.SEVERE, message);
                     throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, message, null);
                 }
             } else {
                 String message = MessageFormat.format(TextUtil.TAG_NAME_DOES_NOT_EXIST, tagName);
-                logger.log(Level.SEVERE, message, new ResponseStatusException(HttpStatus.NOT_FOUND));
+                logger.log(Level.SEVERE, message);
                 throw new ResponseStatusException(HttpStatus.NOT_FOUND, message);
             }
         } else {
             String message = MessageFormat.format(TextUtil.USER_NOT_AUTHORIZED_ON_TAG, tagName);
-            logger.log(Level.SEVERE, message, new ResponseStatusException(HttpStatus.UNAUTHORIZED));
+            logger.log(Level.SEVERE, message);
             throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, message, null);
         }
     }
@@ -510,8 +570,16 @@ public class TagManager {
      * @param tags the list of tags to be validated
      */
     public void validateTagRequest(Iterable<Tag> tags) {
-        for(Tag tag: tags) {
-            validateTagRequest(tag);
+        RequestPhases.Scope scope = RequestPhases.start(RequestPhases.Phase.VALIDATION);
+        try {
+            List<String> channelNames = new ArrayList<>();
+            for(Tag tag: tags) {
+                validateTagNameAndOwner(tag);
+                tag.getChannels().forEach(channel -> channelNames.add(channel.getName()));
+            }
+            validateChannelsExist(channelNames);
+        } finally {
+            scope.close();
         }
     }
 
@@ -527,37 +595,44 @@ public class TagManager {
      * @param tag the tag to be validates
      */
     public void validateTagRequest(Tag tag) {
+        RequestPhases.Scope scope = RequestPhases.start(RequestPhases.Phase.VALIDATION);
+        try {
+            validateTagNameAndOwner(tag);
+            validateChannelsExist(tag.getChannels().stream().map(Channel::getName).collect(Collectors.toList()));
+        } finally {
+            scope.close();
+        }
+    }
+
+    private void validateTagNameAndOwner(Tag tag) {
         // 1 
         if (tag.getName() == null || tag.getName().isEmpty()) {
             String message = MessageFormat.format(TextUtil.TAG_NAME_CANNOT_BE_NULL_OR_EMPTY, tag.toLog());
-            logger.log(Level.SEVERE, message, new ResponseStatusException(HttpStatus.BAD_REQUEST));
+            writeMetrics.validationFailed(AuditLog.TAG, WriteMetrics.NAME);
+            logger.log(Level.SEVERE, message);
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, message, null);
         }
         // 2
         if (tag.getOwner() == null || tag.getOwner().isEmpty()) {
             String message = MessageFormat.format(TextUtil.TAG_OWNER_CANNOT_BE_NULL_OR_EMPTY, tag.toLog());
-            logger.log(Level.SEVERE, message, new ResponseStatusException(HttpStatus.BAD_REQUEST));
+            writeMetrics.validationFailed(AuditLog.TAG, WriteMetrics.OWNER);
+            logger.log(Level.SEVERE, message);
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, message, null);
         }
-        // 3
-        List <String> channelNames = tag.getChannels().stream().map(Channel::getName).collect(Collectors.toList());
-        for(String channelName:channelNames) {
-            if(!channelRepository.existsById(channelName)) {
-                String message = MessageFormat.format(TextUtil.CHANNEL_NAME_DOES_NOT_EXIST, channelName);
-                logger.log(Level.SEVERE, message, new ResponseStatusException(HttpStatus.NOT_FOUND));
-                throw new ResponseStatusException(HttpStatus.NOT_FOUND, message);
-            }
-        }
     }
 
     /**
-     * Checks if channel with name "channelName" exists
-     * @param channelName check channel exists
+     * Checks, with a single batched lookup, that all the channels exist, reporting all the missing channels
      */
-    public void validateTagWithChannelRequest(String channelName) {
-        if(!channelRepository.existsById(channelName)) {
-            String message = MessageFormat.format(TextUtil.CHANNEL_NAME_DOES_NOT_EXIST, channelName);
-            logger.log(Level.SEVERE, message, new ResponseStatusException(HttpStatus.NOT_FOUND));
+    private void validateChannelsExist(List<String> channelNames) {
+        // 3
+        List<String> missing = channelRepository.findMissingIds(channelNames);
+        if (!missing.isEmpty()) {
+            String message = missing.size() == 1
+                    ? MessageFormat.format(TextUtil.CHANNEL_NAME_DOES_NOT_EXIST, missing.get(0))
+                    : MessageFormat.format(TextUtil.CHANNEL_NAMES_DO_NOT_EXIST, missing.size(), missing);
+            writeMetrics.validationFailed(AuditLog.TAG, WriteMetrics.CHANNEL_NOT_FOUND);
+            logger.log(Level.SEVERE, message);
             throw new ResponseStatusException(HttpStatus.NOT_FOUND, message);
         }
     }
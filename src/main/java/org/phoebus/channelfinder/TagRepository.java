@@ -2,9 +2,11 @@ package org.phoebus.channelfinder;
 
 import java.io.IOException;
 import java.text.MessageFormat;
-import java.util.Collections;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.TreeMap;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import java.util.stream.StreamSupport;
@@ -15,8 +17,6 @@ import co.elastic.clients.elasticsearch._types.Refresh;
 import co.elastic.clients.elasticsearch._types.Result;
 import co.elastic.clients.elasticsearch._types.SortOptions;
 import co.elastic.clients.elasticsearch._types.query_dsl.IdsQuery;
-import co.elastic.clients.elasticsearch.core.BulkRequest;
-import co.elastic.clients.elasticsearch.core.BulkResponse;
 import co.elastic.clients.elasticsearch.core.CountRequest;
 import co.elastic.clients.elasticsearch.core.CountResponse;
 import co.elastic.clients.elasticsearch.core.DeleteResponse;
@@ -25,10 +25,9 @@ import co.elastic.clients.elasticsearch.core.GetResponse;
 import co.elastic.clients.elasticsearch.core.IndexResponse;
 import co.elastic.clients.elasticsearch.core.SearchRequest;
 import co.elastic.clients.elasticsearch.core.SearchResponse;
-import co.elastic.clients.elasticsearch.core.bulk.BulkResponseItem;
+import co.elastic.clients.elasticsearch.core.bulk.BulkOperation;
 import co.elastic.clients.json.JsonData;
 import co.elastic.clients.json.jackson.JacksonJsonpMapper;
-import org.phoebus.channelfinder.entity.Channel;
 import org.phoebus.channelfinder.entity.Tag;
 import org.phoebus.channelfinder.entity.Tag.OnlyTag;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -64,6 +63,9 @@ public class TagRepository implements CrudRepository<Tag, String> {
     @Autowired
     ChannelRepository channelRepository;
 
+    @Autowired
+    BulkWriter bulkWriter;
+
     ObjectMapper objectMapper = new ObjectMapper().addMixIn(Tag.class, OnlyTag.class);
 
     /**
@@ -84,34 +86,22 @@ public class TagRepository implements CrudRepository<Tag, String> {
      * @return the created tags
      */
     public List<Tag> indexAll(List<Tag> tags) {
-        BulkRequest.Builder br = new BulkRequest.Builder();
+        List<BulkOperation> operations = new ArrayList<>();
         for (Tag tag : tags) {
-            br.operations(op -> op
+            operations.add(BulkOperation.of(op -> op
                     .index(idx -> idx
                             .index(esService.getES_TAG_INDEX())
                             .id(tag.getName())
-                            .document(JsonData.of(tag, new JacksonJsonpMapper(objectMapper)))));
+                            .document(JsonData.of(tag, new JacksonJsonpMapper(objectMapper))))));
         }
         try {
-            BulkResponse result  = client.bulk(br.refresh(Refresh.True).build());
-            // Log errors, if any
-            if (result.errors()) {
-                logger.log(Level.SEVERE, TextUtil.BULK_HAD_ERRORS);
-                for (BulkResponseItem item : result.items()) {
-                    if (item.error() != null) {
-                        logger.log(Level.SEVERE, () -> item.error().reason());
-                    }
-                }
-                // TODO cleanup? or throw exception?
-            } else {
-                return findAllById(tags.stream().map(Tag::getName).toList());
-            }
+            bulkWriter.executeOrThrow(operations);
+            return stored(tags);
         } catch (IOException e) {
             String message = MessageFormat.format(TextUtil.FAILED_TO_INDEX_TAGS, tags);
             logger.log(Level.SEVERE, message, e);
             throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, message, null);
         }
-        return Collections.emptyList();
     }
 
     /**
@@ -130,12 +120,14 @@ public class TagRepository implements CrudRepository<Tag, String> {
                             .id(tagName)
                             .document(JsonData.of(tag, new JacksonJsonpMapper(objectMapper)))
                             .refresh(Refresh.True));
+            bulkWriter.countWrite(esService.getES_TAG_INDEX(), BulkOperation.Kind.Index, BulkWriter.outcome(response.result()));
             // verify the creation of the tag
             if (response.result().equals(Result.Created) || response.result().equals(Result.Updated)) {
                 logger.log(Level.CONFIG, () -> MessageFormat.format(TextUtil.CREATE_TAG, tag.toLog()));
-                return (S) findById(tagName).get();
+                return (S) new Tag(tag.getName(), tag.getOwner());
             }
         } catch (ElasticsearchException | IOException e) {
+            bulkWriter.countWrite(esService.getES_TAG_INDEX(), BulkOperation.Kind.Index, BulkWriter.outcome(e));
             String message = MessageFormat.format(TextUtil.FAILED_TO_UPDATE_SAVE_TAG, tag.toLog());
             logger.log(Level.SEVERE, message, e);
             throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, message, null);
@@ -159,42 +151,34 @@ public class TagRepository implements CrudRepository<Tag, String> {
     @Override
     public <S extends Tag> Iterable<S> saveAll(Iterable<S> tags) {
 
-        BulkRequest.Builder br = new BulkRequest.Builder();
+        List<BulkOperation> operations = new ArrayList<>();
         for (Tag tag : tags) {
-            br.operations(op -> op
+            operations.add(BulkOperation.of(op -> op
                     .index(idx -> idx
                             .index(esService.getES_TAG_INDEX())
                             .id(tag.getName())
                             .document(JsonData.of(tag, new JacksonJsonpMapper(objectMapper)))
                     )
-            );
+            ));
         }
 
-        BulkResponse result = null;
         try {
-            result = client.bulk(br.refresh(Refresh.True).build());
-            // Log errors, if any
-            if (result.errors()) {
-                logger.log(Level.SEVERE, TextUtil.BULK_HAD_ERRORS);
-                for (BulkResponseItem item : result.items()) {
-                    if (item.error() != null) {
-                        logger.log(Level.SEVERE, () -> item.error().reason());
-                    }
-                }
-                // TODO cleanup? or throw exception?
-            } else {
-                return (Iterable<S>) findAllById(
-                        StreamSupport.stream(tags.spliterator(), false)
-                                .map(Tag::getName)
-                                .toList());
-            }
+            bulkWriter.executeOrThrow(operations);
+            return (Iterable<S>) stored(tags);
         } catch (IOException e) {
             String message = MessageFormat.format(TextUtil.FAILED_TO_INDEX_TAGS, tags);
             logger.log(Level.SEVERE, message, e);
             throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, message, null);
-
         }
-        return null;
+    }
+
+    /**
+     * @return the tags as they are stored, without their channels, sorted by name, as they would be found
+     */
+    private static List<Tag> stored(Iterable<? extends Tag> tags) {
+        Map<String, Tag> stored = new TreeMap<>();
+        tags.forEach(tag -> stored.put(tag.getName(), new Tag(tag.getName(), tag.getOwner())));
+        return new ArrayList<>(stored.values());
     }
 
     /**
@@ -312,56 +296,41 @@ public class TagRepository implements CrudRepository<Tag, String> {
     }
 
     /**
-     * delete the given tag by tag name
-     * 
+     * delete the given tag by tag name, the tag is removed from all channels
+     * with an update by query which is completed before returning
+     *
      * @param tagName - tag to be deleted
      */
     @Override
     public void deleteById(String tagName) {
-        try {
+        deleteTagDocument(tagName);
+        long updated = channelRepository.removeTagFromAll(tagName);
+        logger.log(Level.CONFIG, () -> MessageFormat.format(TextUtil.REMOVED_TAG_FROM_CHANNELS, tagName, updated));
+    }
+
+    /**
+     * delete the given tag by tag name, the tag is removed from all channels
+     * with an update by query which is run in the background as an elastic task
+     *
+     * @param tagName - tag to be deleted
+     * @return the id of the elastic task removing the tag from the channels
+     */
+    public String deleteByIdAsync(String tagName) {
+        deleteTagDocument(tagName);
+        return channelRepository.removeTagFromAllAsync(tagName);
+    }
 
+    private void deleteTagDocument(String tagName) {
+        try {
             DeleteResponse response = client
                     .delete(i -> i.index(esService.getES_TAG_INDEX()).id(tagName).refresh(Refresh.True));
+            bulkWriter.countWrite(esService.getES_TAG_INDEX(), BulkOperation.Kind.Delete, BulkWriter.outcome(response.result()));
             // verify the deletion of the tag
             if (response.result().equals(Result.Deleted)) {
                 logger.log(Level.CONFIG, () -> MessageFormat.format(TextUtil.DELETE_TAG, tagName));
             }
-            BulkRequest.Builder br = new BulkRequest.Builder().refresh(Refresh.True);
-            MultiValueMap<String, String> params = new LinkedMultiValueMap<>();
-            params.add("~tag", tagName);
-            List<Channel> channels = channelRepository.search(params).channels();
-            while (!channels.isEmpty()) {
-
-                for (Channel channel : channels) {
-                    // Or
-                    channel.removeTag(channel.getTags().stream().filter(tag -> tagName.equalsIgnoreCase(tag.getName())).findAny().get());
-                    br.operations(op -> op.update(
-                            u -> u.index(esService.getES_CHANNEL_INDEX())
-                                    .id(channel.getName())
-                                    .action(a -> a.doc(channel))));
-                }
-                try {
-                    BulkResponse result = client.bulk(br.build());
-                    // Log errors, if any
-                    if (result.errors()) {
-                        logger.log(Level.SEVERE, TextUtil.BULK_HAD_ERRORS);
-                        for (BulkResponseItem item : result.items()) {
-                            if (item.error() != null) {
-                                logger.log(Level.SEVERE, () -> item.error().reason());
-                            }
-                        }
-                    }
-                } catch (IOException e) {
-                    String message = MessageFormat.format(TextUtil.FAILED_TO_DELETE_TAG, tagName);
-                    logger.log(Level.SEVERE, message, e);
-                    throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, message, null);
-
-                }
-                params.set("~search_after", channels.get(channels.size() - 1).getName());
-                channels = channelRepository.search(params).channels();
-            }
-            
         } catch (ElasticsearchException | IOException e) {
+            bulkWriter.countWrite(esService.getES_TAG_INDEX(), BulkOperation.Kind.Delete, BulkWriter.outcome(e));
             String message = MessageFormat.format(TextUtil.FAILED_TO_DELETE_TAG, tagName);
             logger.log(Level.SEVERE, message, e);
             throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, message, null);
@@ -0,0 +1,142 @@
+package org.phoebus.channelfinder;
+
+import static org.phoebus.channelfinder.CFResourceDescriptors.TASK_RESOURCE_URI;
+
+import java.io.IOException;
+import java.text.MessageFormat;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.phoebus.channelfinder.AuthorizationService.ROLES;
+import org.phoebus.channelfinder.entity.TaskStatus;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import co.elastic.clients.elasticsearch._types.ElasticsearchException;
+import co.elastic.clients.elasticsearch.tasks.GetTasksResponse;
+import co.elastic.clients.elasticsearch.tasks.TaskInfo;
+
+/**
+ * Track and cancel the long running elastic tasks started by the service,
+ * e.g. the removal of a deleted tag or property from all channels.
+ * <p>
+ * Only the tasks recorded in the {@link TaskRegistry} are exposed, the other tasks of the cluster are not found.
+ */
+@CrossOrigin
+@RestController
+@RequestMapping(TASK_RESOURCE_URI)
+@EnableAutoConfiguration
+public class TaskManager {
+
+    private static final Logger logger = Logger.getLogger(TaskManager.class.getName());
+
+    @Autowired
+    private ElasticConfig esService;
+
+    @Autowired
+    AuthorizationService authorizationService;
+
+    @Autowired
+    TaskRegistry taskRegistry;
+
+    /**
+     * GET method for retrieving the status and progress of the task identified by <code>taskId</code>
+     *
+     * @param taskId - elastic task id
+     * @return the status of the task
+     */
+    @GetMapping("/{taskId}")
+    public TaskStatus read(@PathVariable("taskId") String taskId) {
+        checkAuthorized(taskId);
+        try {
+            GetTasksResponse response = esService.getSearchClient().tasks().get(g -> g.taskId(taskId));
+            return toTaskStatus(taskId, response);
+        } catch (ElasticsearchException e) {
+            if (e.status() == HttpStatus.NOT_FOUND.value()) {
+                String message = MessageFormat.format(TextUtil.TASK_DOES_NOT_EXIST, taskId);
+                logger.log(Level.SEVERE, message, e);
+                throw new ResponseStatusException(HttpStatus.NOT_FOUND, message, null);
+            }
+            String message = MessageFormat.format(TextUtil.FAILED_TO_GET_TASK, taskId);
+            logger.log(Level.SEVERE, message, e);
+            throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, message, null);
+        } catch (IOException e) {
+            String message = MessageFormat.format(TextUtil.FAILED_TO_GET_TASK, taskId);
+            logger.log(Level.SEVERE, message, e);
+            throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, message, null);
+        }
+    }
+
+    /**
+     * DELETE method for cancelling the task identified by <code>taskId</code>.
+     * Channels which were already updated by the task are not reverted.
+     *
+     * @param taskId - elastic task id
+     */
+    @DeleteMapping("/{taskId}")
+    public void cancel(@PathVariable("taskId") String taskId) {
+        checkAuthorized(taskId);
+        try {
+            esService.getIndexClient().tasks().cancel(c -> c.taskId(taskId));
+            logger.log(Level.INFO, () -> MessageFormat.format(TextUtil.CANCEL_TASK, taskId));
+        } catch (ElasticsearchException | IOException e) {
+            String message = MessageFormat.format(TextUtil.FAILED_TO_CANCEL_TASK, taskId);
+            logger.log(Level.SEVERE, message, e);
+            throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, message, null);
+        }
+    }
+
+    /**
+     * Check that the task was started by the service, and by the user unless the user is an admin
+     */
+    private void checkAuthorized(String taskId) {
+        TaskRegistry.StartedTask task = taskRegistry.find(taskId).orElseThrow(() -> {
+            String message = MessageFormat.format(TextUtil.TASK_DOES_NOT_EXIST, taskId);
+            logger.log(Level.SEVERE, message);
+            return new ResponseStatusException(HttpStatus.NOT_FOUND, message);
+        });
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null
+                || !(authentication.getName().equals(task.owner())
+                || authorizationService.isAuthorizedRole(authentication, ROLES.CF_ADMIN))) {
+            String message = MessageFormat.format(TextUtil.USER_NOT_AUTHORIZED_ON_TASK, taskId);
+            logger.log(Level.SEVERE, message);
+            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, message, null);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static TaskStatus toTaskStatus(String taskId, GetTasksResponse response) {
+        TaskInfo task = response.task();
+        Map<String, Object> status = task.status() == null ? Collections.emptyMap() : task.status().to(Map.class);
+        return new TaskStatus(taskId,
+                task.description(),
+                response.completed(),
+                Boolean.TRUE.equals(task.cancelled()),
+                TimeUnit.NANOSECONDS.toMillis(task.runningTimeInNanos()),
+                count(status, "total"),
+                count(status, "updated"),
+                count(status, "deleted"),
+                count(status, "noops"),
+                count(status, "version_conflicts"),
+                response.error() == null ? null : response.error().reason());
+    }
+
+    private static long count(Map<String, Object> status, String key) {
+        Object value = status.get(key);
+        return value instanceof Number ? ((Number) value).longValue() : 0;
+    }
+}
@@ -0,0 +1,77 @@
+package org.phoebus.channelfinder;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The elastic tasks started by the service, with the user who started them, so that the task resource only exposes
+ * and cancels these tasks and not the other tasks of the cluster.
+ * <p>
+ * The tasks are kept for the retention time after they were started, and at most max_entries of them.
+ */
+@Service
+public class TaskRegistry {
+
+    /**
+     * A task started by the service
+     *
+     * @param owner the user who started the task
+     * @param started the time the task was started, in milliseconds since the epoch
+     */
+    public record StartedTask(String owner, long started) {
+    }
+
+    private final Map<String, StartedTask> tasks = new ConcurrentHashMap<>();
+    private final Duration retention;
+    private final int maxEntries;
+
+    @Autowired
+    public TaskRegistry(@Value("${tasks.retention.hours:24}") long retentionHours,
+                        @Value("${tasks.max_entries:10000}") int maxEntries) {
+        this.retention = Duration.ofHours(retentionHours);
+        this.maxEntries = maxEntries;
+    }
+
+    /**
+     * Record a task started by a user
+     *
+     * @param taskId - elastic task id
+     * @param owner - the user who started the task
+     */
+    public void register(String taskId, String owner) {
+        if (tasks.size() >= maxEntries) {
+            evictExpiredTasks();
+            // still full, the oldest task is forgotten
+            tasks.entrySet().stream()
+                    .min(Map.Entry.comparingByValue(Comparator.comparingLong(StartedTask::started)))
+                    .filter(oldest -> tasks.size() >= maxEntries)
+                    .ifPresent(oldest -> tasks.remove(oldest.getKey()));
+        }
+        tasks.put(taskId, new StartedTask(owner, System.currentTimeMillis()));
+    }
+
+    /**
+     * @param taskId - elastic task id
+     * @return the task, empty if it was not started by the service or it has been evicted
+     */
+    public Optional<StartedTask> find(String taskId) {
+        return Optional.ofNullable(tasks.get(taskId));
+    }
+
+    /**
+     * Remove the tasks started before the retention time
+     */
+    @Scheduled(fixedRate = 60000)
+    public void evictExpiredTasks() {
+        long oldest = System.currentTimeMillis() - retention.toMillis();
+        tasks.values().removeIf(task -> task.started() < oldest);
+    }
+}
@@ -12,16 +12,25 @@ public class TextUtil {
 	// property
 	// scroll
 	// tag
+	// task
+	// job
 
     public static final String CLIENT_INITIALIZATION      = "Client initialization {0}";
-    public static final String PATH_POST_VALIDATION_TIME  = "|{0} |POST|validation {1}";
-    public static final String PATH_POST_PREPERATION_TIME = "|{0} |POST|prepare {1}";
 
     public static final String COUNT_FAILED_CAUSE         = "Count failed for {0} Cause {1}";
     public static final String SEARCH_FAILED_CAUSE        = "Search failed for {0} Cause {1}";
     public static final String PAYLOAD_PROPERTY_DOES_NOT_MATCH_URI_OR_HAS_BAD_VALUE = "The payload property {0} does not match uri name or has a bad value";
 
     public static final String BULK_HAD_ERRORS            = "Bulk had errors";
+    public static final String BULK_ITEMS_FAILED          = "{0} of {1} bulk items failed";
+    public static final String RETRY_BULK_ITEMS           = "Retrying {0} bulk items after {1} ms, attempt {2}";
+    public static final String AUTH_TOKEN_KEY_INVALID     = "The token key {0} is not valid, it must be id:secret";
+    public static final String AUTH_TOKEN_KEY_GENERATED   = "No token key configured, the tokens are signed with a generated key, valid until a restart";
+    public static final String AUTH_TOKEN_NOT_RENEWABLE   = "A token cannot be issued for a token authentication, authenticate with the user credentials";
+    public static final String AUTH_TOKEN_ISSUED          = "Issued a token for {0}, valid for {1} s";
+    public static final String AUTHENTICATION_FAILED      = "Authentication failed for {0}";
+    public static final String AUTHENTICATION_FAILED_RECENTLY = "Authentication failed recently for {0} with the same credentials";
+    public static final String AUDIT_FAILED               = "Failed to write an audit event";
     public static final String CREATED_INDEX_ACKNOWLEDGED = "Created index {0} acknowledged {1}";
     public static final String UPDATE_INDEX_ACKNOWLEDGED  = "Updated index {0} acknowledged {1}";
     public static final String DELETE_ALL_NOT_SUPPORTED   = "Delete all is not supported.";
@@ -32,6 +41,7 @@ public class TextUtil {
     public static final String CHANNEL_FOUND                            = "Channel found {0}";
     public static final String CHANNEL_NOT_FOUND                        = "Channel not found {0}";
     public static final String CHANNEL_NAME_DOES_NOT_EXIST              = "The channel with the name {0} does not exist";
+    public static final String CHANNEL_NAMES_DO_NOT_EXIST               = "The {0} channels with the names {1} do not exist";
     public static final String CHANNEL_NAME_CANNOT_BE_NULL_OR_EMPTY     = "The channel name cannot be null or empty {0}";
     public static final String CHANNEL_OWNER_CANNOT_BE_NULL_OR_EMPTY    = "The channel owner cannot be null or empty {0}";
     public static final String CHANNEL_NAME_NO_VALID_INSTANCE_PROPERTY  = "The channel with the name {0} does not include a valid instance to the property {1}";
@@ -40,19 +50,55 @@ public class TextUtil {
     public static final String CREATE_PROPERTY                          = "Create property {0}";
     public static final String CREATE_TAG                               = "Create tag {0}";
 
+    public static final String UPDATE_CHANNEL                           = "Update channel {0}";
+
     public static final String DELETE_CHANNEL                           = "Delete channel {0}";
     public static final String DELETE_PROPERTY                          = "Delete property {0}";
     public static final String DELETE_TAG                               = "Delete tag {0}";
+    public static final String REMOVED_PROPERTY_FROM_CHANNELS           = "Removed property {0} from {1} channels";
+    public static final String REMOVED_TAG_FROM_CHANNELS                = "Removed tag {0} from {1} channels";
 
     public static final String FIND_ALL_CHANNELS_NOT_SUPPORTED          = "Find all is not supported. It could return hundreds of thousands of channels.";
     public static final String FIND_CHANNEL                             = "Find channel {0}";
 
     public static final String FAILED_TO_INDEX_CHANNEL                  = "Failed to index channel {0}";
     public static final String FAILED_TO_INDEX_CHANNELS                 = "Failed to index channels {0}";
+    public static final String FAILED_TO_UPDATE_CHANNEL                 = "Failed to update channel {0}";
+    public static final String FAILED_TO_UPDATE_CHANNELS                = "Failed to update {0} channels";
+    public static final String CHANNELS_WRITE_CONFLICT                  = "Failed to update {0} channels because of concurrent updates {1}";
+    public static final String RETRY_CHANNELS_WRITE_CONFLICT            = "Retrying the update of {0} channels with concurrent updates {1}";
+    public static final String SKIPPED_UNCHANGED_CHANNELS               = "Skipped writing {0} unchanged channels";
+    public static final String MERGED_DUPLICATE_CHANNELS                = "Merged {0} duplicate channel entries";
+    public static final String RETURN_DOCUMENT_INVALID                  = "The returnDocument {0} is not valid, it must be one of none, minimal or full";
+    public static final String RETURN_DOCUMENT_ASYNC                    = "The returnDocument cannot be selected for an asynchronous request, the job result is the number of channels created";
     public static final String FAILED_TO_FIND_CHANNEL                   = "Failed to find channel {0}";
     public static final String FAILED_TO_FIND_ALL_CHANNELS              = "Failed to find all channels";
     public static final String FAILED_TO_CHECK_IF_CHANNEL_EXISTS        = "Failed to check if channel exists {0}";
+    public static final String FAILED_TO_CHECK_IF_CHANNELS_EXIST        = "Failed to check if {0} channels exist";
     public static final String FAILED_TO_DELETE_CHANNEL                 = "Failed to delete channel {0}";
+    public static final String FAILED_TO_UPDATE_CHANNELS_BY_QUERY       = "Failed to update channels matching {0}";
+    public static final String FAILED_TO_DELETE_CHANNELS_BY_QUERY       = "Failed to delete channels matching {0}";
+    public static final String FAILED_TO_OPEN_POINT_IN_TIME             = "Failed to open point in time on {0}";
+    public static final String FAILED_TO_CLOSE_POINT_IN_TIME            = "Failed to close point in time {0}";
+    public static final String MUTATION_REQUIRES_SEARCH_PARAMETERS      = "A mutation by query requires at least one search parameter";
+    public static final String MUTATION_INVALID                         = "The mutation {0} is not valid, it requires an action and the tag or property it applies to";
+    public static final String MUTATE_CHANNELS                          = "Mutate channels matching {0} with {1}";
+    public static final String SYNC_REQUIRES_SEARCH_PARAMETERS          = "A sync requires at least one search parameter defining its scope";
+    public static final String SYNC_CHANNELS                            = "Sync {0} channels in the scope {1}, scope exit {2}";
+    public static final String SYNCED_CHANNELS                          = "Synced channels in the scope {0}: {1}";
+    public static final String PATCH_INVALID                            = "The patch {0} is not valid, it requires an operation, a channel and the tag, property or owner it applies to";
+    public static final String PATCH_CHANNELS                           = "Patch {0} channels with {1} operations";
+    public static final String PATCHED_CHANNELS                         = "Patched {0} channels: {1} updated, {2} unchanged, {3} operations failed";
+    public static final String RENAME_INVALID                           = "The rename {0} is not valid, it requires distinct names and each channel can only be renamed once, to a name which is not renamed";
+    public static final String RENAME_TARGETS_EXIST                     = "The {0} channels with the names {1} already exist";
+    public static final String RENAME_CHANNELS                          = "Rename {0} channels";
+    public static final String RENAMED_CHANNELS                         = "Renamed {0} channels";
+    public static final String FAILED_TO_RENAME_CHANNELS                = "Failed to rename channels {0}";
+    public static final String FAILED_TO_UNDO_RENAME                    = "Failed to undo the partial rename of the channels {0}";
+    public static final String NOTIFIED_PROCESSORS                      = "Notified processors of {0} channels updated by task {1}";
+    public static final String FAILED_TO_NOTIFY_PROCESSORS              = "Failed to notify processors of the channels updated by task {0}";
+    public static final String NOTIFY_PROCESSORS_TASK_NOT_FOUND         = "Task {0} can no longer be found, notify the processors of the channels it may have updated";
+    public static final String NOTIFY_PROCESSORS_TIMED_OUT              = "Task {0} did not complete within {1} minutes, the processors are not notified of the channels it updates";
 
     public static final String USER_NOT_AUTHORIZED_ON_CHANNEL           = "User does not have the proper authorization to perform an operation on this channel {0}";
     public static final String USER_NOT_AUTHORIZED_ON_CHANNELS          = "User does not have the proper authorization to perform an operation on these channels {0}";
@@ -99,6 +145,42 @@ public class TextUtil {
     public static final String USER_NOT_AUTHORIZED_ON_TAG               = "User does not have the proper authorization to perform an operation on this tag {0}";
     public static final String USER_NOT_AUTHORIZED_ON_TAGS              = "User does not have the proper authorization to perform an operation on these tags {0}";
 
+    // ----------------------------------------------------------------------------------------------------
+
+    public static final String TASK_DOES_NOT_EXIST                      = "The task with the id {0} does not exist";
+    public static final String SUBMITTED_TASK                           = "Submitted task {0} {1}";
+    public static final String CANCEL_TASK                              = "Cancel task {0}";
+
+    public static final String FAILED_TO_GET_TASK                       = "Failed to get task {0}";
+    public static final String FAILED_TO_CANCEL_TASK                    = "Failed to cancel task {0}";
+
+    public static final String USER_NOT_AUTHORIZED_ON_TASK              = "User does not have the proper authorization to perform an operation on this task {0}";
+
+    // ----------------------------------------------------------------------------------------------------
+
+    public static final String JOB_DOES_NOT_EXIST                       = "The job with the id {0} does not exist";
+    public static final String SUBMITTED_JOB                            = "Submitted job {0} for {1} {2}";
+    public static final String FINISHED_JOB                             = "Job {0} {1} after {2} ms";
+    public static final String CANCEL_JOB                               = "Cancel job {0}";
+    public static final String TOO_MANY_JOBS                            = "User {0} already has {1} jobs queued or running";
+    public static final String JOB_QUEUE_FULL                           = "The job queue is full, failed to submit {0}";
+
+    public static final String JOB_FAILED                               = "Job {0} failed {1}";
+    public static final String CREATE_CHANNELS_JOB                      = "Create or replace {0} channels";
+    public static final String CREATE_TAG_JOB                           = "Create or replace tag {0} on {1} channels";
+    public static final String CREATE_PROPERTY_JOB                      = "Create or replace property {0} on {1} channels";
+    public static final String PROCESS_CHANNELS_JOB                     = "Process channels matching {0}";
+
+    public static final String USER_NOT_AUTHORIZED_ON_JOB               = "User does not have the proper authorization to perform an operation on this job {0}";
+    public static final String USER_NOT_AUTHORIZED_ON_JOBS              = "User does not have the proper authorization to list the jobs";
+
+    // ----------------------------------------------------------------------------------------------------
+
+    public static final String SLOW_QUERY                               = "Slow {0} {1}: {2} hits in {3} ms";
+    public static final String SLOW_QUERY_PROFILE                       = "Profile of the slow {0} {1}:{2}";
+    public static final String SLOW_QUERY_PROFILE_FAILED                = "Failed to profile the slow query {0}";
+    public static final String USER_NOT_AUTHORIZED_ON_SLOW_QUERIES      = "User does not have the proper authorization to read the slow queries";
+
     /**
      * This class is not to be instantiated.
      */
@@ -1,9 +1,13 @@
 package org.phoebus.channelfinder;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.AuthenticationProvider;
 import org.springframework.security.config.annotation.authentication.builders.AuthenticationManagerBuilder;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.builders.WebSecurity;
@@ -11,24 +15,70 @@ import org.springframework.security.config.annotation.web.configuration.WebSecur
 import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.AuthenticationException;
 import org.springframework.security.ldap.DefaultSpringSecurityContextSource;
+import org.springframework.security.ldap.authentication.BindAuthenticator;
+import org.springframework.security.ldap.authentication.LdapAuthenticationProvider;
 import org.springframework.security.ldap.userdetails.DefaultLdapAuthoritiesPopulator;
+import org.springframework.security.ldap.userdetails.LdapUserDetails;
+import org.springframework.security.web.authentication.www.BasicAuthenticationFilter;
+import org.springframework.security.web.util.matcher.AndRequestMatcher;
+import org.springframework.security.web.util.matcher.AntPathRequestMatcher;
+import org.springframework.security.web.util.matcher.NegatedRequestMatcher;
+import org.springframework.security.web.util.matcher.OrRequestMatcher;
 
 @Configuration
 public class WebSecurityConfig extends WebSecurityConfigurerAdapter {
 
+    @Autowired
+    AuthTokenService authTokenService;
+
+    @Autowired
+    MeterRegistry meterRegistry;
+
     @Override
     protected void configure(HttpSecurity http) throws Exception {
         http.csrf().disable();
         http.sessionManagement().sessionCreationPolicy(SessionCreationPolicy.STATELESS);
         http.authorizeRequests().anyRequest().authenticated();
         http.httpBasic();
+        // bearer tokens are verified before, and instead of, the user credentials
+        http.addFilterBefore(new AuthTokenFilter(authTokenService), BasicAuthenticationFilter.class);
+    }
+
+    /**
+     * The authentication with the user credentials, timed per mechanism
+     */
+    @Override
+    protected AuthenticationManager authenticationManager() throws Exception {
+        AuthenticationManager authenticationManager = super.authenticationManager();
+        if (authenticationManager == null) {
+            return null;
+        }
+        return authentication -> {
+            long start = System.nanoTime();
+            try {
+                Authentication result = authenticationManager.authenticate(authentication);
+                authTokenService.record(result.getPrincipal() instanceof LdapUserDetails ? "ldap" : "basic", true, System.nanoTime() - start);
+                return result;
+            } catch (AuthenticationException e) {
+                // a failed authentication is not attributed to one of the mechanisms
+                authTokenService.record("basic", false, System.nanoTime() - start);
+                throw e;
+            }
+        };
     }
 
     @Override
     public void configure(WebSecurity web) throws Exception {
-        // Authentication and Authorization is only needed for non search/query operations
-        web.ignoring().antMatchers(HttpMethod.GET, "/**");
+        // Authentication and Authorization is only needed for non search/query operations, and the task, job and admin resources
+        web.ignoring().requestMatchers(new AndRequestMatcher(
+                new AntPathRequestMatcher("/**", HttpMethod.GET.name()),
+                new NegatedRequestMatcher(new OrRequestMatcher(
+                        new AntPathRequestMatcher("/" + CFResourceDescriptors.TASK_RESOURCE_URI + "/**"),
+                        new AntPathRequestMatcher("/" + CFResourceDescriptors.JOB_RESOURCE_URI + "/**"),
+                        new AntPathRequestMatcher("/" + CFResourceDescriptors.SLOW_QUERY_RESOURCE_URI + "/**")))));
     }
 
     /**
@@ -45,6 +95,18 @@ public class WebSecurityConfig extends WebSecurityConfigurerAdapter {
     @Value("${ldap.groups.search.pattern}")
     String ldap_groups_search_pattern;
 
+    /**
+     * Cache of the LDAP authentications, for both the external and embedded LDAP
+     */
+    @Value("${ldap.cache.enabled:true}")
+    boolean ldap_cache_enabled;
+    @Value("${ldap.cache.ttl_s:300}")
+    long ldap_cache_ttl;
+    @Value("${ldap.cache.failure_ttl_s:10}")
+    long ldap_cache_failure_ttl;
+    @Value("${ldap.cache.max_size:10000}")
+    long ldap_cache_max_size;
+
     /**
      * Embedded LDAP configuration properties
      */
@@ -91,10 +153,7 @@ public class WebSecurityConfig extends WebSecurityConfigurerAdapter {
             myAuthPopulator.setSearchSubtree(true);
             myAuthPopulator.setIgnorePartialResultException(true);
 
-            auth.ldapAuthentication()
-                .userDnPatterns(ldap_user_dn_pattern)
-                .ldapAuthoritiesPopulator(myAuthPopulator)
-                .contextSource(contextSource);
+            auth.authenticationProvider(cached(ldapProvider(contextSource, ldap_user_dn_pattern, myAuthPopulator)));
         }
 
         if (embedded_ldap_enabled) {
@@ -107,11 +166,7 @@ public class WebSecurityConfig extends WebSecurityConfigurerAdapter {
             myAuthPopulator.setIgnorePartialResultException(true);
 
 
-            auth.ldapAuthentication()
-                    .userDnPatterns(embedded_ldap_user_dn_pattern)
-                    .ldapAuthoritiesPopulator(myAuthPopulator)
-                    .groupSearchBase("ou=Group")
-                    .contextSource(contextSource);
+            auth.authenticationProvider(cached(ldapProvider(contextSource, embedded_ldap_user_dn_pattern, myAuthPopulator)));
 
         }
 
@@ -140,6 +195,24 @@ public class WebSecurityConfig extends WebSecurityConfigurerAdapter {
         }
     }
 
+    private static AuthenticationProvider ldapProvider(DefaultSpringSecurityContextSource contextSource, String userDnPattern,
+                                                       DefaultLdapAuthoritiesPopulator authoritiesPopulator) {
+        BindAuthenticator authenticator = new BindAuthenticator(contextSource);
+        authenticator.setUserDnPatterns(new String[]{userDnPattern});
+        return new LdapAuthenticationProvider(authenticator, authoritiesPopulator);
+    }
+
+    /**
+     * @return the LDAP authentication provider, behind the cache of its authentications unless disabled
+     */
+    private AuthenticationProvider cached(AuthenticationProvider ldapProvider) {
+        if (!ldap_cache_enabled) {
+            return ldapProvider;
+        }
+        return new CachingAuthenticationProvider(ldapProvider, "ldap", meterRegistry,
+                ldap_cache_ttl, ldap_cache_failure_ttl, ldap_cache_max_size);
+    }
+
     @Bean
     public PasswordEncoder encoder() {
         return new BCryptPasswordEncoder();
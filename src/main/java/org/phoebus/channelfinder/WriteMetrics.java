@@ -0,0 +1,161 @@
+package org.phoebus.channelfinder;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.http.HttpServletRequest;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The metrics of the write requests: their size, in items and bytes, the validation failures by reason and the
+ * ownership rejections, tagged by resource and endpoint, and optionally by user.
+ * <p>
+ * The user tag is bounded: the first max_users distinct users are tagged with their name, the others as "other".
+ */
+@Component
+public class WriteMetrics {
+
+    public static final String CF_WRITE_REQUEST_ITEMS = "cf.write.request.items";
+    public static final String CF_WRITE_REQUEST_BYTES = "cf.write.request.bytes";
+    public static final String CF_WRITE_VALIDATION_FAILURES = "cf.write.validation.failures";
+    public static final String CF_WRITE_OWNERSHIP_REJECTIONS = "cf.write.ownership.rejections";
+
+    public static final String NAME = "name";
+    public static final String OWNER = "owner";
+    public static final String VALUE = "value";
+    public static final String CHANNEL_NOT_FOUND = "channel_not_found";
+    public static final String TAG_NOT_FOUND = "tag_not_found";
+    public static final String PROPERTY_NOT_FOUND = "property_not_found";
+
+    private static final String NONE = "none";
+    private static final String OTHER = "other";
+
+    private final MeterRegistry meterRegistry;
+    private final boolean userTagEnabled;
+    private final int maxUsers;
+    private final Set<String> users = ConcurrentHashMap.newKeySet();
+
+    @Autowired
+    public WriteMetrics(final MeterRegistry meterRegistry,
+                        @Value("${metrics.write.user_tag.enabled:false}") boolean userTagEnabled,
+                        @Value("${metrics.write.user_tag.max_users:20}") int maxUsers) {
+        this.meterRegistry = meterRegistry;
+        this.userTagEnabled = userTagEnabled;
+        this.maxUsers = maxUsers;
+    }
+
+    /**
+     * Record the size of a write request
+     *
+     * @param resource - the type of the written resources, e.g. channel
+     * @param items - the written resources
+     */
+    public void request(String resource, Iterable<?> items) {
+        int count = 0;
+        for (Object ignored : items) {
+            count++;
+        }
+        request(resource, count);
+    }
+
+    /**
+     * Record the size of a write request
+     *
+     * @param resource - the type of the written resources, e.g. channel
+     * @param count - the number of written resources
+     */
+    public void request(String resource, int count) {
+        Tags tags = tags(resource);
+        DistributionSummary.builder(CF_WRITE_REQUEST_ITEMS)
+                .description("Number of items of the write requests")
+                .tags(tags)
+                .register(meterRegistry)
+                .record(count);
+        HttpServletRequest request = currentRequest();
+        if (request != null && request.getContentLengthLong() >= 0) {
+            DistributionSummary.builder(CF_WRITE_REQUEST_BYTES)
+                    .description("Size of the write request bodies")
+                    .baseUnit("bytes")
+                    .tags(tags)
+                    .register(meterRegistry)
+                    .record(request.getContentLengthLong());
+        }
+    }
+
+    /**
+     * Record a write request rejected by the validation
+     *
+     * @param resource - the type of the validated resource, e.g. channel
+     * @param reason - the reason, e.g. owner
+     */
+    public void validationFailed(String resource, String reason) {
+        Counter.builder(CF_WRITE_VALIDATION_FAILURES)
+                .description("Write requests rejected by the validation")
+                .tags(tags(resource))
+                .tag("reason", reason)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    /**
+     * Record the resources a user is not authorized to write, because the user is not their owner
+     *
+     * @param resource - the type of the resources, e.g. channel
+     * @param count - the number of resources
+     */
+    public void ownershipRejected(String resource, int count) {
+        Counter.builder(CF_WRITE_OWNERSHIP_REJECTIONS)
+                .description("Resources rejected because the user is not their owner")
+                .tags(tags(resource))
+                .register(meterRegistry)
+                .increment(count);
+    }
+
+    private Tags tags(String resource) {
+        Tags tags = Tags.of("resource", resource, "endpoint", endpoint());
+        return userTagEnabled ? tags.and("user", user()) : tags;
+    }
+
+    private static String endpoint() {
+        HttpServletRequest request = currentRequest();
+        if (request == null) {
+            return NONE;
+        }
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return request.getMethod() + " " + (pattern == null ? "unknown" : pattern);
+    }
+
+    private String user() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || authentication.getName() == null) {
+            return NONE;
+        }
+        String user = authentication.getName();
+        if (users.contains(user)) {
+            return user;
+        }
+        // the cap may be exceeded by a few concurrent users, it only bounds the cardinality
+        if (users.size() < maxUsers) {
+            users.add(user);
+            return user;
+        }
+        return OTHER;
+    }
+
+    private static HttpServletRequest currentRequest() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        return attributes instanceof ServletRequestAttributes servletAttributes ? servletAttributes.getRequest() : null;
+    }
+}
@@ -0,0 +1,11 @@
+package org.phoebus.channelfinder.entity;
+
+/**
+ * A signed bearer token, issued after a successful authentication with the user credentials.
+ *
+ * @param token the token, to be sent as <code>Authorization: Bearer &lt;token&gt;</code>
+ * @param type the token type, always <code>Bearer</code>
+ * @param expiresIn the lifetime of the token in seconds
+ */
+public record AuthToken(String token, String type, long expiresIn) {
+}
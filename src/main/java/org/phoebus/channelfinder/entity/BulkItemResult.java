@@ -0,0 +1,43 @@
+package org.phoebus.channelfinder.entity;
+
+/**
+ * The outcome of a single item of a bulk write.
+ *
+ * @param id the id of the written document, e.g. the channel name
+ * @param outcome the outcome of the write
+ * @param status the http status of the item
+ * @param reason the reason the item failed, null if it did not fail
+ */
+public record BulkItemResult(String id, Outcome outcome, int status, String reason) {
+
+    public enum Outcome {
+        CREATED,
+        UPDATED,
+        DELETED,
+        NOOP,
+        NOT_FOUND,
+        FAILED
+    }
+
+    /**
+     * @param id the id of the document which was not written because it is unchanged
+     * @return the result of the unchanged document
+     */
+    public static BulkItemResult noop(String id) {
+        return new BulkItemResult(id, Outcome.NOOP, 200, null);
+    }
+
+    /**
+     * @return true if the item was written, or is unchanged
+     */
+    public boolean written() {
+        return outcome != Outcome.FAILED && outcome != Outcome.NOT_FOUND;
+    }
+
+    /**
+     * @return true if the item failed
+     */
+    public boolean failed() {
+        return outcome == Outcome.FAILED;
+    }
+}
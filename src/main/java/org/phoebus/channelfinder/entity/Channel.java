@@ -9,6 +9,9 @@ package org.phoebus.channelfinder.entity;
  * All rights reserved. Use is subject to license terms.
  * #L%
  */
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.databind.annotation.JsonAppend;
+
 import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.Collectors;
@@ -243,4 +246,20 @@ public class Channel {
         return true;
     }
 
+    /**
+     * A filter to be used with the jackson mapper to ignore the fields of the stored
+     * channel document which are not part of the channel, e.g. its fingerprint
+     */
+    @JsonIgnoreProperties({"fingerprint"})
+    public abstract static class StoredChannel {
+    }
+
+    /**
+     * A filter to be used with the jackson mapper to write the channel document, appending the fingerprint
+     * given as the "fingerprint" attribute of the writer
+     */
+    @JsonAppend(attrs = @JsonAppend.Attr("fingerprint"))
+    public abstract static class IndexedChannel {
+    }
+
 }
@@ -0,0 +1,28 @@
+package org.phoebus.channelfinder.entity;
+
+/**
+ * A mutation applied to all the channels matching a query.
+ *
+ * @param action the mutation to apply
+ * @param tag the tag to add or remove, required by the tag actions
+ * @param property the property to set or remove, required by the property actions. The value is used when setting the property
+ */
+public record ChannelMutation(Action action, Tag tag, Property property) {
+
+    public enum Action {
+        ADD_TAG,
+        REMOVE_TAG,
+        SET_PROPERTY,
+        REMOVE_PROPERTY,
+        DELETE
+    }
+
+    /**
+     * Creates a compact string representation for the log.
+     *
+     * @return string representation
+     */
+    public String toLog() {
+        return action + (tag == null ? "" : " " + tag.toLog()) + (property == null ? "" : " " + property.toLog());
+    }
+}
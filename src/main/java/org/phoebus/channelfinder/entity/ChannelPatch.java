@@ -0,0 +1,36 @@
+package org.phoebus.channelfinder.entity;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * A single operation of a batched patch of named channels.
+ *
+ * @param op the operation
+ * @param channel the name of the channel the operation applies to
+ * @param name the name of the tag or property, required by the tag and property operations
+ * @param value the value of the property, required by <code>setProperty</code>, or the new owner, required by <code>setOwner</code>
+ */
+public record ChannelPatch(Op op, String channel, String name, String value) {
+
+    public enum Op {
+        @JsonProperty("addTag")
+        ADD_TAG,
+        @JsonProperty("removeTag")
+        REMOVE_TAG,
+        @JsonProperty("setProperty")
+        SET_PROPERTY,
+        @JsonProperty("removeProperty")
+        REMOVE_PROPERTY,
+        @JsonProperty("setOwner")
+        SET_OWNER
+    }
+
+    /**
+     * Creates a compact string representation for the log.
+     *
+     * @return string representation
+     */
+    public String toLog() {
+        return op + " " + channel + (name == null ? "" : " " + name) + (value == null ? "" : " " + value);
+    }
+}
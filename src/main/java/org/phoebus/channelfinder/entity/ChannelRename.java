@@ -0,0 +1,19 @@
+package org.phoebus.channelfinder.entity;
+
+/**
+ * The rename of a single channel, part of a bulk rename.
+ *
+ * @param from the current name of the channel
+ * @param to the new name of the channel, which must not exist
+ */
+public record ChannelRename(String from, String to) {
+
+    /**
+     * Creates a compact string representation for the log.
+     *
+     * @return string representation
+     */
+    public String toLog() {
+        return from + " -> " + to;
+    }
+}
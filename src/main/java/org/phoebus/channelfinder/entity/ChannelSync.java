@@ -0,0 +1,13 @@
+package org.phoebus.channelfinder.entity;
+
+import java.util.List;
+
+/**
+ * The complete set of channels of a scope, e.g. all the channels of an IOC, to be synchronized with the index.
+ *
+ * @param channels the channels of the scope, merged into the existing channels like a POST of the channels
+ * @param exit the mutation applied to the channels in the scope which are not part of the channels,
+ *             e.g. setting a pvStatus property to Inactive. Null to leave these channels as they are
+ */
+public record ChannelSync(List<Channel> channels, ChannelMutation exit) {
+}
@@ -0,0 +1,13 @@
+package org.phoebus.channelfinder.entity;
+
+/**
+ * Summary of a channel sync.
+ *
+ * @param created number of channels created
+ * @param updated number of existing channels updated
+ * @param unchanged number of channels which were already up to date
+ * @param exited number of channels in the scope, but not part of the sync, the scope exit mutation was applied to
+ * @param exitUnchanged number of channels in the scope, but not part of the sync, the scope exit mutation was already applied to
+ */
+public record ChannelSyncResult(long created, long updated, long unchanged, long exited, long exitUnchanged) {
+}
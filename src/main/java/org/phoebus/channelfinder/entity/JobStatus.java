@@ -0,0 +1,44 @@
+package org.phoebus.channelfinder.entity;
+
+/**
+ * The status of a long running operation submitted to the {@link org.phoebus.channelfinder.JobService}.
+ *
+ * @param id the job id
+ * @param owner the user who submitted the job
+ * @param description description of the job
+ * @param state the state of the job
+ * @param submitted the time the job was submitted, in milliseconds since the epoch
+ * @param started the time the job started running, 0 if it has not started
+ * @param finished the time the job finished, 0 if it has not finished
+ * @param total the number of items the job will process, 0 if unknown
+ * @param processed the number of items processed so far
+ * @param result the result of the job once it has completed
+ * @param error the reason the job failed, null if it did not fail
+ */
+public record JobStatus(String id,
+                        String owner,
+                        String description,
+                        State state,
+                        long submitted,
+                        long started,
+                        long finished,
+                        long total,
+                        long processed,
+                        Object result,
+                        String error) {
+
+    public enum State {
+        QUEUED,
+        RUNNING,
+        COMPLETED,
+        FAILED,
+        CANCELLED;
+
+        /**
+         * @return true if the job is no longer queued or running
+         */
+        public boolean isDone() {
+            return this == COMPLETED || this == FAILED || this == CANCELLED;
+        }
+    }
+}
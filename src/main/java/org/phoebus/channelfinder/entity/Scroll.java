@@ -1,11 +1,14 @@
 package org.phoebus.channelfinder.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
 import java.util.ArrayList;
 import java.util.List;
 
 public class Scroll {
     private String id;
     private List<Channel> channels = new ArrayList<>();
+    private long total;
 
     @Override
     public String toString() {
@@ -49,4 +52,16 @@ public class Scroll {
     public void setChannels(List<Channel> channels) {
         this.channels = channels;
     }
-}
\ No newline at end of file
+
+    /**
+     * @return the number of channels matching the search, only counted for the first page of a scroll
+     */
+    @JsonIgnore
+    public long getTotal() {
+        return total;
+    }
+
+    public void setTotal(long total) {
+        this.total = total;
+    }
+}
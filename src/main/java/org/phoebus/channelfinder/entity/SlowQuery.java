@@ -0,0 +1,36 @@
+package org.phoebus.channelfinder.entity;
+
+import java.util.List;
+
+/**
+ * A query which took longer than the slow query threshold, see {@link org.phoebus.channelfinder.SlowQueryLog}.
+ *
+ * @param timestamp the time the query completed, in milliseconds since the epoch
+ * @param operation the operation, i.e. search, count or scroll
+ * @param query the normalized query parameters
+ * @param hits the number of hits
+ * @param durationMillis the duration of the elastic request, in milliseconds
+ * @param profile the cost of each clause of the query, from profiling it again, null if it was not profiled
+ */
+public record SlowQuery(long timestamp,
+                        String operation,
+                        String query,
+                        long hits,
+                        long durationMillis,
+                        List<Clause> profile) {
+
+    /**
+     * The profiled cost of a clause of the query
+     *
+     * @param depth the depth of the clause in the query tree, 0 for the top level query
+     * @param type the type of the lucene query, e.g. WildcardQuery
+     * @param description the description of the clause, e.g. the field and pattern
+     * @param millis the time spent in the clause, including its children, in milliseconds
+     */
+    public record Clause(int depth, String type, String description, double millis) {
+    }
+
+    public SlowQuery withProfile(List<Clause> profile) {
+        return new SlowQuery(timestamp, operation, query, hits, durationMillis, profile);
+    }
+}
@@ -0,0 +1,38 @@
+package org.phoebus.channelfinder.entity;
+
+/**
+ * The status of a long running elastic task, e.g. the update by query removing a deleted tag from all channels.
+ *
+ * @param id the elastic task id, of the form node:id
+ * @param description description of the task
+ * @param completed true if the task has completed
+ * @param cancelled true if the task was cancelled
+ * @param runningTimeInMillis the time the task has been running
+ * @param total total number of channels the task will process
+ * @param updated number of channels updated so far
+ * @param deleted number of channels deleted so far
+ * @param noops number of channels which did not need to be updated
+ * @param versionConflicts number of channels skipped because they were concurrently modified
+ * @param error the reason the task failed, null if there was no failure
+ */
+public record TaskStatus(String id,
+                         String description,
+                         boolean completed,
+                         boolean cancelled,
+                         long runningTimeInMillis,
+                         long total,
+                         long updated,
+                         long deleted,
+                         long noops,
+                         long versionConflicts,
+                         String error) {
+
+    /**
+     * @param id the elastic task id
+     * @param description description of the task
+     * @return the status of a task which has just been submitted
+     */
+    public static TaskStatus submitted(String id, String description) {
+        return new TaskStatus(id, description, false, false, 0, 0, 0, 0, 0, 0, null);
+    }
+}
@@ -2,7 +2,10 @@ package org.phoebus.channelfinder.processors;
 
 import org.phoebus.channelfinder.AuthorizationService;
 import org.phoebus.channelfinder.ChannelScroll;
+import org.phoebus.channelfinder.JobService;
+import org.phoebus.channelfinder.TextUtil;
 import org.phoebus.channelfinder.entity.Channel;
+import org.phoebus.channelfinder.entity.JobStatus;
 import org.phoebus.channelfinder.entity.Scroll;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
@@ -15,9 +18,11 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.server.ResponseStatusException;
 
+import java.text.MessageFormat;
 import java.util.List;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -40,6 +45,8 @@ public class ChannelProcessorManager {
     ChannelProcessorService channelProcessorService;
     @Autowired
     AuthorizationService authorizationService;
+    @Autowired
+    JobService jobService;
 
     // TODO replace with PIT and search_after
     @Autowired
@@ -62,35 +69,88 @@ public class ChannelProcessorManager {
     public long processAllChannels() {
         logger.log(Level.INFO, "Calling processor on ALL channels in ChannelFinder");
         // Only allow authorized users to trigger this operation
-        if(authorizationService
-                .isAuthorizedRole(SecurityContextHolder.getContext().getAuthentication(),
-                                  AuthorizationService.ROLES.CF_ADMIN)) {
-            MultiValueMap<String, String> searchParameters = new LinkedMultiValueMap<String, String>();
-            searchParameters.add("~name", "*");
-            return processChannels(searchParameters);
-        } else {
-            logger.log(Level.SEVERE,
-                    "User does not have the proper authorization to perform this operation: /process/all",
-                    new ResponseStatusException(HttpStatus.UNAUTHORIZED));
-            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED,
-                    "User does not have the proper authorization to perform this operation: /process/all");
-        }
+        checkAuthorizedAdmin("/process/all");
+        return processChannels(allChannels());
+    }
+
+    /**
+     * Process all channels in a background job
+     *
+     * @return the submitted job, its progress can be followed with the job resource
+     */
+    @PutMapping(value = "/process/all", params = "async=true")
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    public JobStatus processAllChannelsAsync() {
+        logger.log(Level.INFO, "Submitting a job calling the processor on ALL channels in ChannelFinder");
+        checkAuthorizedAdmin("/process/all");
+        MultiValueMap<String, String> searchParameters = allChannels();
+        return jobService.submit(MessageFormat.format(TextUtil.PROCESS_CHANNELS_JOB, searchParameters),
+                progress -> processChannels(searchParameters, progress));
     }
 
     @PutMapping("/process/query")
     public long processChannels(@RequestParam MultiValueMap<String, String> allRequestParams) {
+        return processChannels(allRequestParams, null);
+    }
+
+    /**
+     * Process the channels matching the query in a background job
+     *
+     * @param allRequestParams - channel search parameters
+     * @return the submitted job, its progress can be followed with the job resource
+     */
+    @PutMapping(value = "/process/query", params = "async=true")
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    public JobStatus processChannelsAsync(@RequestParam MultiValueMap<String, String> allRequestParams) {
+        MultiValueMap<String, String> searchParameters = new LinkedMultiValueMap<>(allRequestParams);
+        searchParameters.remove("async");
+        return jobService.submit(MessageFormat.format(TextUtil.PROCESS_CHANNELS_JOB, searchParameters),
+                progress -> processChannels(searchParameters, progress));
+    }
+
+    private long processChannels(MultiValueMap<String, String> searchParameters, JobService.JobProgress progress) {
         long channelCount = 0;
-        Scroll scrollResult = channelScroll.query(allRequestParams);
+        Scroll scrollResult = channelScroll.query(searchParameters);
+        if (progress != null) {
+            progress.setTotal(scrollResult.getTotal());
+        }
         channelCount += scrollResult.getChannels().size();
         processChannels(scrollResult.getChannels());
+        if (progress != null) {
+            progress.processed(scrollResult.getChannels().size());
+        }
         while(scrollResult.getChannels().size() == defaultMaxSize) {
-            scrollResult = channelScroll.search(scrollResult.getId(), allRequestParams);
+            if (progress != null && progress.isCancelled()) {
+                break;
+            }
+            scrollResult = channelScroll.search(scrollResult.getId(), searchParameters);
             channelCount += scrollResult.getChannels().size();
             processChannels(scrollResult.getChannels());
+            if (progress != null) {
+                progress.processed(scrollResult.getChannels().size());
+            }
         }
         return channelCount;
     }
 
+    private static MultiValueMap<String, String> allChannels() {
+        MultiValueMap<String, String> searchParameters = new LinkedMultiValueMap<String, String>();
+        searchParameters.add("~name", "*");
+        return searchParameters;
+    }
+
+    private void checkAuthorizedAdmin(String operation) {
+        if(!authorizationService
+                .isAuthorizedRole(SecurityContextHolder.getContext().getAuthentication(),
+                                  AuthorizationService.ROLES.CF_ADMIN)) {
+            logger.log(Level.SEVERE,
+                    "User does not have the proper authorization to perform this operation: " + operation,
+                    new ResponseStatusException(HttpStatus.UNAUTHORIZED));
+            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED,
+                    "User does not have the proper authorization to perform this operation: " + operation);
+        }
+    }
+
     @PutMapping("/process/channels")
     public void processChannels(List<Channel> channels) {
         channelProcessorService.sendToProcessors(channels);
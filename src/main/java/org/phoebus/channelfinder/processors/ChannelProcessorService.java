@@ -25,6 +25,13 @@ public class ChannelProcessorService {
         return channelProcessors.size();
     }
 
+    /**
+     * @return true if at least one of the {@link ChannelProcessor}s is enabled
+     */
+    public boolean hasEnabledProcessors() {
+        return channelProcessors.stream().anyMatch(ChannelProcessor::enabled);
+    }
+
     List<String> getProcessorsInfo() {
         return channelProcessors.stream().map(ChannelProcessor::processorInfo).collect(Collectors.toList());
     }
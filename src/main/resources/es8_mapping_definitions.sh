@@ -58,6 +58,10 @@ curl -H 'Content-Type: application/json' -XPUT http://${es_host}:${es_port}/chan
       "script" : {
         "type" : "keyword"
       },
+      "fingerprint" : {
+        "type" : "keyword",
+        "index" : false
+      },
       "properties" : {
         "type" : "nested",
         "properties" : {
@@ -0,0 +1,106 @@
+package org.phoebus.channelfinder;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Handler;
+import java.util.logging.LogRecord;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+class AuditLogTest {
+
+    private static final Logger auditLogger = Logger.getLogger("org.phoebus.channelfinder.audit");
+
+    @Test
+    void eventsAreDroppedWhenTheBufferIsFull() throws Exception {
+        List<String> lines = new CopyOnWriteArrayList<>();
+        CountDownLatch blocked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Handler handler = new Handler() {
+            @Override
+            public void publish(LogRecord logRecord) {
+                lines.add(logRecord.getMessage());
+                blocked.countDown();
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+
+            @Override
+            public void flush() {
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+        auditLogger.addHandler(handler);
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        AuditLog auditLog = new AuditLog("", 0, 1, 2, 10, false, meterRegistry);
+        try {
+            // the first event blocks the appender, the next two fill the buffer and the last three are dropped
+            auditLog.log(AuditLog.CREATE, AuditLog.CHANNEL, "ch0");
+            Assertions.assertTrue(blocked.await(5, TimeUnit.SECONDS));
+            for (int i = 1; i < 6; i++) {
+                auditLog.log(AuditLog.CREATE, AuditLog.CHANNEL, "ch" + i);
+            }
+            Assertions.assertEquals(3, meterRegistry.get(AuditLog.CF_AUDIT_DROPPED).counter().count());
+        } finally {
+            release.countDown();
+            auditLog.shutdown();
+            auditLogger.removeHandler(handler);
+        }
+        Assertions.assertEquals(3, lines.size());
+        Assertions.assertTrue(lines.get(2).endsWith(" user=- op=create resource=channel count=1 names=ch2"), lines.get(2));
+    }
+
+    @Test
+    void eventsAreWrittenToRotatingFiles() throws Exception {
+        Path directory = Files.createTempDirectory("audit");
+        try {
+            SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+            AuditLog auditLog = new AuditLog(directory.resolve("audit%g.log").toString(), 512, 2, 32, 2, true,
+                    meterRegistry);
+            for (int i = 0; i < 20; i++) {
+                String payload = "payload" + i;
+                auditLog.log(AuditLog.UPDATE, AuditLog.TAG, List.of("ch0", "ch1", "ch2"), name -> name, () -> payload);
+            }
+            auditLog.shutdown();
+            Assertions.assertEquals(0, meterRegistry.get(AuditLog.CF_AUDIT_DROPPED).counter().count());
+
+            // the files are rotated at the limit, the oldest ones are deleted
+            Assertions.assertEquals(List.of("audit0.log", "audit1.log"), files(directory));
+            List<String> lines = new ArrayList<>(Files.readAllLines(directory.resolve("audit1.log"), StandardCharsets.UTF_8));
+            lines.addAll(Files.readAllLines(directory.resolve("audit0.log"), StandardCharsets.UTF_8));
+            Assertions.assertTrue(lines.size() < 20, "The oldest audit file was not deleted");
+            Assertions.assertTrue(lines.get(lines.size() - 1)
+                    .endsWith(" op=update resource=tag count=3 names=ch0,ch1,... payload=payload19"), lines.get(lines.size() - 1));
+        } finally {
+            try (Stream<Path> paths = Files.walk(directory)) {
+                paths.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+            }
+        }
+    }
+
+    private static List<String> files(Path directory) throws IOException {
+        try (Stream<Path> paths = Files.list(directory)) {
+            return paths.map(path -> path.getFileName().toString()).sorted().collect(Collectors.toList());
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package org.phoebus.channelfinder;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+
+class AuditRingBufferTest {
+
+    @Test
+    void capacityIsRoundedUpToPowerOfTwo() {
+        Assertions.assertEquals(2, new AuditRingBuffer<String>(1).capacity());
+        Assertions.assertEquals(4, new AuditRingBuffer<String>(3).capacity());
+        Assertions.assertEquals(8192, new AuditRingBuffer<String>(8192).capacity());
+    }
+
+    @Test
+    void itemsArePolledInOrder() {
+        AuditRingBuffer<Integer> buffer = new AuditRingBuffer<>(4);
+        Assertions.assertNull(buffer.poll());
+        for (int round = 0; round < 3; round++) {
+            for (int i = 0; i < 4; i++) {
+                Assertions.assertTrue(buffer.offer(i));
+            }
+            Assertions.assertFalse(buffer.offer(4), "A full buffer accepted an item");
+            for (int i = 0; i < 4; i++) {
+                Assertions.assertEquals(i, buffer.poll());
+            }
+            Assertions.assertNull(buffer.poll());
+        }
+    }
+
+    @Test
+    void concurrentProducers() throws InterruptedException {
+        int producers = 4;
+        int perProducer = 10000;
+        AuditRingBuffer<Integer> buffer = new AuditRingBuffer<>(1024);
+        CountDownLatch done = new CountDownLatch(producers);
+        for (int p = 0; p < producers; p++) {
+            int first = p * perProducer;
+            Thread producer = new Thread(() -> {
+                for (int i = first; i < first + perProducer; i++) {
+                    while (!buffer.offer(i)) {
+                        Thread.onSpinWait();
+                    }
+                }
+                done.countDown();
+            });
+            producer.setDaemon(true);
+            producer.start();
+        }
+        Set<Integer> polled = new HashSet<>();
+        while (polled.size() < producers * perProducer) {
+            Integer item = buffer.poll();
+            if (item != null) {
+                Assertions.assertTrue(polled.add(item), "Item polled twice: " + item);
+            }
+        }
+        done.await();
+        Assertions.assertNull(buffer.poll());
+    }
+}
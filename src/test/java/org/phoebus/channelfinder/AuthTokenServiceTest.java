@@ -0,0 +1,70 @@
+package org.phoebus.channelfinder;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.phoebus.channelfinder.entity.AuthToken;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+class AuthTokenServiceTest {
+
+    private final Authentication user = new UsernamePasswordAuthenticationToken("user", "userPass",
+            List.of(new SimpleGrantedAuthority("ROLE_CF-CHANNELS"), new SimpleGrantedAuthority("ROLE_CF-TAGS")));
+
+    @Test
+    void tokenCarriesUserAndRoles() {
+        AuthTokenService service = new AuthTokenService(new SimpleMeterRegistry(), new String[]{"k1:secret1"}, 60);
+        AuthToken token = service.issue(user);
+        Assertions.assertEquals("Bearer", token.type());
+        Assertions.assertEquals(60, token.expiresIn());
+
+        Authentication authentication = service.authenticate(token.token());
+        Assertions.assertNotNull(authentication);
+        Assertions.assertTrue(authentication.isAuthenticated());
+        Assertions.assertEquals("user", authentication.getName());
+        Assertions.assertEquals(List.of("ROLE_CF-CHANNELS", "ROLE_CF-TAGS"),
+                authentication.getAuthorities().stream().map(GrantedAuthority::getAuthority).collect(Collectors.toList()));
+    }
+
+    @Test
+    void invalidTokensAreRejected() {
+        AuthTokenService service = new AuthTokenService(new SimpleMeterRegistry(), new String[]{"k1:secret1"}, 60);
+        String token = service.issue(user).token();
+        String tampered = service.issue(new UsernamePasswordAuthenticationToken("admin", "adminPass", List.of())).token();
+        tampered = tampered.substring(0, tampered.indexOf('.')) + token.substring(token.indexOf('.'));
+
+        Assertions.assertNull(service.authenticate(tampered));
+        Assertions.assertNull(service.authenticate("garbage"));
+        Assertions.assertNull(service.authenticate("not.base64!"));
+        Assertions.assertNull(new AuthTokenService(new SimpleMeterRegistry(), new String[]{"k1:secret2"}, 60).authenticate(token),
+                "Accepted a token signed with another key");
+    }
+
+    @Test
+    void expiredTokensAreRejected() {
+        AuthTokenService service = new AuthTokenService(new SimpleMeterRegistry(), new String[]{"k1:secret1"}, 0);
+        Assertions.assertNull(service.authenticate(service.issue(user).token()));
+    }
+
+    @Test
+    void tokensOfRotatedKeysAreAccepted() {
+        String token = new AuthTokenService(new SimpleMeterRegistry(), new String[]{"k1:secret1"}, 60).issue(user).token();
+        AuthTokenService rotated = new AuthTokenService(new SimpleMeterRegistry(), new String[]{"k2:secret2", "k1:secret1"}, 60);
+        Assertions.assertNotNull(rotated.authenticate(token));
+        Assertions.assertNotNull(rotated.authenticate(rotated.issue(user).token()));
+        Assertions.assertNull(new AuthTokenService(new SimpleMeterRegistry(), new String[]{"k2:secret2"}, 60).authenticate(token),
+                "Accepted a token signed with a removed key");
+    }
+
+    @Test
+    void invalidKeysAreRejected() {
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> new AuthTokenService(new SimpleMeterRegistry(), new String[]{"secret"}, 60));
+    }
+}
@@ -12,6 +12,8 @@ import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.context.TestPropertySource;
 
+import java.util.List;
+
 @WebMvcTest(AuthorizationService.class)
 @TestPropertySource(value = "classpath:application_test.properties")
 class AuthorizationIT {
@@ -204,11 +206,27 @@ class AuthorizationIT {
         Assertions.assertFalse(authorizationService.isAuthorizedRole(SecurityContextHolder.getContext().getAuthentication(), ROLES.CF_PROPERTY), "authorized user that is admin (property)");
         Assertions.assertFalse(authorizationService.isAuthorizedRole(SecurityContextHolder.getContext().getAuthentication(), ROLES.CF_TAG), "authorized user that is admin (tag)");
     }
-}
-
-
-
-
-
 
+    /**
+     * the ownership of a batch of channels is checked at once, only the channels of other owners are returned
+     */
+    @Test
+    @WithMockUser(username = "valid", roles = "GROUP")
+    void batchOfOwners() {
+        List<Channel> channels = List.of(testChannel, new Channel("groupChannel", "group"),
+                new Channel("otherChannel", "other"), new Channel("otherChannel2", "other"));
+        Assertions.assertEquals(List.of(channels.get(2), channels.get(3)),
+                authorizationService.findUnauthorizedOwners(SecurityContextHolder.getContext().getAuthentication(), channels, Channel::getOwner));
+    }
 
+    /**
+     * an admin is authorized on any batch of channels
+     */
+    @Test
+    @WithMockUser(username = "invalid", roles = "CF-ADMINS")
+    void adminIsAuthorizedOnBatch() {
+        List<Channel> channels = List.of(testChannel, new Channel("otherChannel", "other"));
+        Assertions.assertTrue(authorizationService.findUnauthorizedOwners(SecurityContextHolder.getContext().getAuthentication(), channels, Channel::getOwner).isEmpty(),
+                "failed to authorize user that is admin (channels)");
+    }
+}
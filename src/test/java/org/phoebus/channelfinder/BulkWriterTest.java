@@ -0,0 +1,90 @@
+package org.phoebus.channelfinder;
+
+import co.elastic.clients.elasticsearch._types.Result;
+import co.elastic.clients.elasticsearch.core.bulk.BulkOperation;
+import co.elastic.clients.elasticsearch.core.bulk.BulkResponseItem;
+import co.elastic.clients.elasticsearch.core.bulk.OperationType;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.phoebus.channelfinder.entity.BulkItemResult;
+import org.phoebus.channelfinder.entity.BulkItemResult.Outcome;
+
+import java.io.IOException;
+import java.util.List;
+
+class BulkWriterTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final BulkWriter bulkWriter = new BulkWriter(null, meterRegistry, 3, 100, 1000);
+
+    @Test
+    void backoffIsBoundedWithJitter() {
+        for (int attempt = 0; attempt < 40; attempt++) {
+            long exponential = Math.min(1000, 100L << Math.min(attempt, 30));
+            long backoff = bulkWriter.backoff(attempt);
+            Assertions.assertTrue(backoff >= exponential / 2 && backoff <= exponential,
+                    "Backoff " + backoff + " out of bounds for attempt " + attempt);
+        }
+    }
+
+    @Test
+    void onlyTransientErrorsAreRetried() {
+        Assertions.assertTrue(BulkWriter.isRetryable(429));
+        Assertions.assertTrue(BulkWriter.isRetryable(503));
+        Assertions.assertFalse(BulkWriter.isRetryable(400));
+        Assertions.assertFalse(BulkWriter.isRetryable(409));
+        Assertions.assertFalse(BulkWriter.isRetryable(500));
+    }
+
+    @Test
+    void itemResults() {
+        Assertions.assertEquals(new BulkItemResult("created", Outcome.CREATED, 201, null),
+                BulkWriter.result(item("created", 201, "created", null)));
+        Assertions.assertEquals(new BulkItemResult("updated", Outcome.UPDATED, 200, null),
+                BulkWriter.result(item("updated", 200, "updated", null)));
+        Assertions.assertEquals(new BulkItemResult("noop", Outcome.NOOP, 200, null),
+                BulkWriter.result(item("noop", 200, "noop", null)));
+        Assertions.assertEquals(new BulkItemResult("missing", Outcome.NOT_FOUND, 404, "document missing"),
+                BulkWriter.result(item("missing", 404, null, "document missing")));
+        Assertions.assertEquals(new BulkItemResult("rejected", Outcome.FAILED, 429, "rejected"),
+                BulkWriter.result(item("rejected", 429, null, "rejected")));
+    }
+
+    @Test
+    void singleWritesAreCounted() {
+        bulkWriter.countWrite("channelfinder", BulkOperation.Kind.Index, BulkWriter.outcome(Result.Created));
+        bulkWriter.countWrite("channelfinder", BulkOperation.Kind.Index, BulkWriter.outcome(Result.Updated));
+        bulkWriter.countWrite("channelfinder", BulkOperation.Kind.Index, BulkWriter.outcome(new IOException("timeout")));
+        bulkWriter.countWrite("cf_tags", BulkOperation.Kind.Delete, BulkWriter.outcome(Result.NotFound));
+
+        Assertions.assertEquals(1, meterRegistry.get(BulkWriter.CF_WRITE_OPERATIONS)
+                .tags("index", "channelfinder", "operation", "index", "outcome", "created").counter().count());
+        Assertions.assertEquals(1, meterRegistry.get(BulkWriter.CF_WRITE_OPERATIONS)
+                .tags("index", "channelfinder", "operation", "index", "outcome", "updated").counter().count());
+        Assertions.assertEquals(1, meterRegistry.get(BulkWriter.CF_WRITE_OPERATIONS)
+                .tags("index", "channelfinder", "operation", "index", "outcome", "failed").counter().count());
+        Assertions.assertEquals(1, meterRegistry.get(BulkWriter.CF_WRITE_OPERATIONS)
+                .tags("index", "cf_tags", "operation", "delete", "outcome", "not_found").counter().count());
+    }
+
+    @Test
+    void bulkWriteExceptionStatus() {
+        BulkItemResult failed = new BulkItemResult("failed", Outcome.FAILED, 400, "mapper_parsing_exception");
+        Assertions.assertEquals(207,
+                new BulkWriteException(List.of(BulkItemResult.noop("unchanged"), failed)).getRawStatusCode());
+        Assertions.assertEquals(500, new BulkWriteException(List.of(failed)).getRawStatusCode());
+        BulkItemResult notFound = new BulkItemResult("missing", Outcome.NOT_FOUND, 404, "document missing");
+        Assertions.assertEquals(500, new BulkWriteException(List.of(failed, notFound)).getRawStatusCode());
+    }
+
+    private static BulkResponseItem item(String id, int status, String result, String reason) {
+        return BulkResponseItem.of(i -> {
+            i.operationType(OperationType.Update).index("channelfinder").id(id).status(status).result(result);
+            if (reason != null) {
+                i.error(e -> e.type("error").reason(reason));
+            }
+            return i;
+        });
+    }
+}
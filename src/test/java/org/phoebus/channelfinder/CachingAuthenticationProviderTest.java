@@ -0,0 +1,84 @@
+package org.phoebus.channelfinder;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.AuthenticationProvider;
+import org.springframework.security.authentication.AuthenticationServiceException;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+class CachingAuthenticationProviderTest {
+
+    private final AtomicInteger calls = new AtomicInteger();
+    private boolean available = true;
+
+    /**
+     * accepts the password "userPass" of any user, like a LDAP bind and group search
+     */
+    private final AuthenticationProvider ldap = new AuthenticationProvider() {
+        @Override
+        public Authentication authenticate(Authentication authentication) {
+            calls.incrementAndGet();
+            if (!available) {
+                throw new AuthenticationServiceException("LDAP unavailable");
+            }
+            if (!"userPass".equals(authentication.getCredentials())) {
+                throw new BadCredentialsException("Bad credentials");
+            }
+            return new UsernamePasswordAuthenticationToken(authentication.getName(), authentication.getCredentials(),
+                    List.of(new SimpleGrantedAuthority("ROLE_CF-CHANNELS")));
+        }
+
+        @Override
+        public boolean supports(Class<?> authentication) {
+            return UsernamePasswordAuthenticationToken.class.isAssignableFrom(authentication);
+        }
+    };
+
+    private final CachingAuthenticationProvider provider =
+            new CachingAuthenticationProvider(ldap, "ldap", new SimpleMeterRegistry(), 60, 60, 100);
+
+    @Test
+    void successfulAuthenticationsAreCached() {
+        Authentication first = provider.authenticate(credentials("user", "userPass"));
+        Authentication second = provider.authenticate(credentials("user", "userPass"));
+        Assertions.assertEquals(1, calls.get());
+        Assertions.assertEquals("user", second.getName());
+        Assertions.assertEquals(first.getAuthorities(), second.getAuthorities());
+        Assertions.assertNull(second.getCredentials(), "Kept the credentials");
+
+        // other credentials of the same user are verified
+        Assertions.assertThrows(BadCredentialsException.class, () -> provider.authenticate(credentials("user", "otherPass")));
+        Assertions.assertEquals(2, calls.get());
+    }
+
+    @Test
+    void failedAuthenticationsAreCached() {
+        Assertions.assertThrows(BadCredentialsException.class, () -> provider.authenticate(credentials("user", "wrongPass")));
+        Assertions.assertThrows(BadCredentialsException.class, () -> provider.authenticate(credentials("user", "wrongPass")));
+        Assertions.assertEquals(1, calls.get());
+
+        // the right credentials are not locked out by the cached failure
+        provider.authenticate(credentials("user", "userPass"));
+        Assertions.assertEquals(2, calls.get());
+    }
+
+    @Test
+    void unavailableProviderIsNotCached() {
+        available = false;
+        Assertions.assertThrows(AuthenticationServiceException.class, () -> provider.authenticate(credentials("user", "userPass")));
+        available = true;
+        provider.authenticate(credentials("user", "userPass"));
+        Assertions.assertEquals(2, calls.get());
+    }
+
+    private static Authentication credentials(String username, String password) {
+        return new UsernamePasswordAuthenticationToken(username, password);
+    }
+}
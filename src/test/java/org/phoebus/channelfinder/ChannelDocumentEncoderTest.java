@@ -0,0 +1,57 @@
+package org.phoebus.channelfinder;
+
+import co.elastic.clients.util.BinaryData;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.phoebus.channelfinder.entity.Channel;
+import org.phoebus.channelfinder.entity.Property;
+import org.phoebus.channelfinder.entity.Tag;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+class ChannelDocumentEncoderTest {
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    @Test
+    void encodeChannel() throws IOException {
+        Channel channel = new Channel("testChannel", "testOwner",
+                Arrays.asList(new Property("testProperty", "testOwner", "value")),
+                Arrays.asList(new Tag("testTag", "testOwner")));
+        JsonNode document = read(new ChannelDocumentEncoder(256).encode(channel));
+
+        Assertions.assertEquals("testChannel", document.get("name").asText());
+        Assertions.assertEquals("testOwner", document.get("owner").asText());
+        Assertions.assertEquals("value", document.get("properties").get(0).get("value").asText());
+        Assertions.assertEquals("testTag", document.get("tags").get(0).get("name").asText());
+        // the channels of the tags and properties are not part of the channel document
+        Assertions.assertFalse(document.get("tags").get(0).has("channels"));
+        Assertions.assertEquals(ChannelFingerprint.of(channel), document.get(ChannelFingerprint.FIELD).asText());
+    }
+
+    @Test
+    void encodeAllInOrder() throws IOException {
+        List<Channel> channels = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            channels.add(new Channel("testChannel" + i, "testOwner"));
+        }
+        // a small chunk size, so that the channels are encoded in parallel
+        List<BinaryData> documents = new ChannelDocumentEncoder(3).encodeAll(channels);
+
+        Assertions.assertEquals(channels.size(), documents.size());
+        for (int i = 0; i < channels.size(); i++) {
+            Assertions.assertEquals("testChannel" + i, read(documents.get(i)).get("name").asText());
+        }
+        Assertions.assertTrue(new ChannelDocumentEncoder(3).encodeAll(List.of()).isEmpty());
+    }
+
+    private JsonNode read(BinaryData document) throws IOException {
+        Assertions.assertEquals("application/json", document.contentType());
+        return mapper.readTree(document.asInputStream());
+    }
+}
@@ -0,0 +1,45 @@
+package org.phoebus.channelfinder;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.phoebus.channelfinder.entity.Channel;
+import org.phoebus.channelfinder.entity.Property;
+import org.phoebus.channelfinder.entity.Tag;
+
+import java.util.Arrays;
+
+class ChannelFingerprintTest {
+
+    @Test
+    void fingerprintIgnoresOrder() {
+        Channel channel = new Channel("testChannel", "testOwner",
+                Arrays.asList(new Property("prop0", "testOwner", "value0"), new Property("prop1", "testOwner", "value1")),
+                Arrays.asList(new Tag("tag0", "testOwner"), new Tag("tag1", "testOwner")));
+        Channel reordered = new Channel("testChannel", "testOwner",
+                Arrays.asList(new Property("prop1", "testOwner", "value1"), new Property("prop0", "testOwner", "value0")),
+                Arrays.asList(new Tag("tag1", "testOwner"), new Tag("tag0", "testOwner")));
+        Assertions.assertEquals(ChannelFingerprint.of(channel), ChannelFingerprint.of(reordered));
+    }
+
+    @Test
+    void fingerprintDetectsChanges() {
+        Channel channel = new Channel("testChannel", "testOwner",
+                Arrays.asList(new Property("prop0", "testOwner", "value0")),
+                Arrays.asList(new Tag("tag0", "testOwner")));
+        String fingerprint = ChannelFingerprint.of(channel);
+
+        Assertions.assertNotEquals(fingerprint, ChannelFingerprint.of(new Channel("testChannel", "otherOwner",
+                Arrays.asList(new Property("prop0", "testOwner", "value0")),
+                Arrays.asList(new Tag("tag0", "testOwner")))), "Failed to detect an owner change");
+        Assertions.assertNotEquals(fingerprint, ChannelFingerprint.of(new Channel("testChannel", "testOwner",
+                Arrays.asList(new Property("prop0", "testOwner", "value1")),
+                Arrays.asList(new Tag("tag0", "testOwner")))), "Failed to detect a property value change");
+        Assertions.assertNotEquals(fingerprint, ChannelFingerprint.of(new Channel("testChannel", "testOwner",
+                Arrays.asList(new Property("prop0", "testOwner", "value0")),
+                Arrays.asList(new Tag("tag0", "testOwner"), new Tag("tag1", "testOwner")))), "Failed to detect an added tag");
+        // values are not simply concatenated
+        Assertions.assertNotEquals(
+                ChannelFingerprint.of(new Channel("testChannel", "testOwner", Arrays.asList(new Property("ab", "c", "d")), Arrays.asList())),
+                ChannelFingerprint.of(new Channel("testChannel", "testOwner", Arrays.asList(new Property("a", "bc", "d")), Arrays.asList())));
+    }
+}
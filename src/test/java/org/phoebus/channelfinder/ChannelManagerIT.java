@@ -1,6 +1,7 @@
 package org.phoebus.channelfinder;
 
 import com.google.common.collect.Iterables;
+import com.google.common.collect.Lists;
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Assertions;
@@ -8,13 +9,18 @@ import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.TestInstance;
+import org.phoebus.channelfinder.entity.BulkItemResult;
 import org.phoebus.channelfinder.entity.Channel;
 import org.phoebus.channelfinder.entity.Property;
 import org.phoebus.channelfinder.entity.Tag;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.web.server.ResponseStatusException;
 
 import java.io.IOException;
@@ -23,6 +29,9 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
 @TestInstance(TestInstance.Lifecycle.PER_CLASS)
 @WebMvcTest(ChannelManager.class)
 @WithMockUser(roles = "CF-ADMINS")
@@ -41,6 +50,9 @@ class ChannelManagerIT {
     @Autowired
     ChannelRepository channelRepository;
 
+    @Autowired
+    MockMvc mockMvc;
+
     /**
      * read a single channel
      */
@@ -392,6 +404,64 @@ class ChannelManagerIT {
                 + foundChannels.iterator().next().toLog() + " and " + foundChannels.iterator().next().toLog());
         }
     
+    /**
+     * create and update multiple channels, returning no body or the outcome of each channel
+     */
+    @Test
+    void createXmlChannelsWithReturnDocument() {
+        Channel testChannel0 = new Channel("testChannel0", "testOwner");
+        Channel testChannel1 = new Channel("testChannel1", "testOwner", new ArrayList<>(), testTags);
+        List<Channel> testChannels = Arrays.asList(testChannel0, testChannel1);
+        cleanupTestChannels = testChannels;
+
+        ResponseEntity<Object> response = channelManager.create(testChannels, "none");
+        Assertions.assertEquals(HttpStatus.NO_CONTENT, response.getStatusCode());
+        Assertions.assertNull(response.getBody());
+        Assertions.assertTrue(channelRepository.existsById(testChannel1.getName()), "Failed to create the channels");
+
+        response = channelManager.update(Arrays.asList(new Channel("testChannel0", "testOwner", new ArrayList<>(), testTags),
+                new Channel("testChannel1", "testOwner", new ArrayList<>(), testTags)), "MINIMAL");
+        Assertions.assertEquals(Arrays.asList(
+                        new BulkItemResult("testChannel0", BulkItemResult.Outcome.UPDATED, 200, null),
+                        BulkItemResult.noop("testChannel1")),
+                response.getBody());
+
+        Assertions.assertThrows(ResponseStatusException.class, () -> channelManager.create(testChannels, "partial"));
+    }
+
+    /**
+     * attempt to create channels in a background job with a returnDocument
+     */
+    @Test
+    void createAsyncWithReturnDocument() throws Exception {
+        mockMvc.perform(put("/" + CFResourceDescriptors.CHANNEL_RESOURCE_URI + "?async=true&returnDocument=none")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[]"))
+                .andExpect(status().isBadRequest());
+    }
+
+    /**
+     * create multiple channels with duplicate entries, the entries of the same channel are merged in order
+     */
+    @Test
+    void createXmlChannelsWithDuplicates() {
+        Property property0 = new Property(testProperties.get(0).getName(), testProperties.get(0).getOwner(), "value0");
+        Property property1 = new Property(testProperties.get(1).getName(), testProperties.get(1).getOwner(), "value1");
+        Property updatedProperty0 = new Property(testProperties.get(0).getName(), testProperties.get(0).getOwner(), "updated");
+        List<Channel> testChannels = Arrays.asList(
+                new Channel("testChannel0", "testOwner", new ArrayList<>(Arrays.asList(property0, property1)), new ArrayList<>()),
+                new Channel("testChannel1", "testOwner"),
+                new Channel("testChannel0", "otherOwner", new ArrayList<>(Arrays.asList(updatedProperty0)), new ArrayList<>(testTags.subList(0, 1))));
+        cleanupTestChannels = testChannels;
+
+        List<Channel> createdChannels = Lists.newArrayList(channelManager.create(testChannels));
+        Assertions.assertEquals(2, createdChannels.size(), "Failed to merge the duplicate channels");
+
+        Channel expectedChannel = new Channel("testChannel0", "otherOwner",
+                Arrays.asList(property1, updatedProperty0), testTags.subList(0, 1));
+        Assertions.assertEquals(expectedChannel, channelRepository.findById("testChannel0").get());
+    }
+
     /**
      * delete a channel
      */
@@ -0,0 +1,193 @@
+package org.phoebus.channelfinder;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.phoebus.channelfinder.entity.Channel;
+import org.phoebus.channelfinder.entity.ChannelMutation;
+import org.phoebus.channelfinder.entity.Property;
+import org.phoebus.channelfinder.entity.Tag;
+import org.phoebus.channelfinder.entity.TaskStatus;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.MultiValueMap;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@WebMvcTest(ChannelMutationManager.class)
+@WithMockUser(roles = "CF-ADMINS")
+@TestPropertySource(value = "classpath:application_test.properties")
+class ChannelMutationManagerIT {
+
+    @Autowired
+    ChannelMutationManager channelMutationManager;
+
+    @Autowired
+    TaskManager taskManager;
+
+    @Autowired
+    TaskRegistry taskRegistry;
+
+    @Autowired
+    ChannelRepository channelRepository;
+
+    @Autowired
+    TagRepository tagRepository;
+
+    @Autowired
+    PropertyRepository propertyRepository;
+
+    @Autowired
+    ElasticConfig esService;
+
+    private final Tag testTag = new Tag("testTag", "testOwner");
+    private final Property testProperty = new Property("testProperty", "testOwner");
+
+    @BeforeAll
+    void setupAll() {
+        ElasticConfigIT.setUp(esService);
+    }
+
+    @AfterAll
+    void tearDown() throws IOException {
+        ElasticConfigIT.teardown(esService);
+    }
+
+    /**
+     * add a tag to, and remove it from, all the channels matching a query
+     */
+    @Test
+    void addRemoveTagByQuery() throws InterruptedException {
+        tagRepository.index(testTag);
+        List<Channel> channels = createTestChannels();
+
+        MultiValueMap<String, String> params = new LinkedMultiValueMap<>();
+        params.add("~name", "testChannel*");
+        waitFor(channelMutationManager.mutate(params, new ChannelMutation(ChannelMutation.Action.ADD_TAG, testTag, null)));
+        for (Channel channel : channelRepository.findAllById(names(channels))) {
+            Assertions.assertEquals(Arrays.asList(testTag), channel.getTags(), "Failed to add the tag to " + channel.getName());
+        }
+
+        MultiValueMap<String, String> tagParams = new LinkedMultiValueMap<>();
+        tagParams.add("~tag", testTag.getName());
+        waitFor(channelMutationManager.mutate(tagParams, new ChannelMutation(ChannelMutation.Action.REMOVE_TAG, testTag, null)));
+        Assertions.assertTrue(channelRepository.search(tagParams).channels().isEmpty(), "Failed to remove the tag from the channels");
+    }
+
+    /**
+     * set a property value on all the channels matching a query
+     */
+    @Test
+    void setPropertyByQuery() throws InterruptedException {
+        propertyRepository.index(testProperty);
+        List<Channel> channels = createTestChannels();
+
+        MultiValueMap<String, String> params = new LinkedMultiValueMap<>();
+        params.add("~name", "testChannel0");
+        Property value = new Property(testProperty.getName(), null, "Inactive");
+        waitFor(channelMutationManager.mutate(params, new ChannelMutation(ChannelMutation.Action.SET_PROPERTY, null, value)));
+
+        Channel updated = channelRepository.findById(channels.get(0).getName()).get();
+        Assertions.assertEquals(Arrays.asList(new Property(testProperty.getName(), testProperty.getOwner(), "Inactive")),
+                updated.getProperties(), "Failed to set the property value");
+        Channel notUpdated = channelRepository.findById(channels.get(1).getName()).get();
+        Assertions.assertTrue(notUpdated.getProperties().isEmpty(), "Updated a channel not matching the query");
+    }
+
+    /**
+     * delete all the channels matching a query
+     */
+    @Test
+    void deleteByQuery() throws InterruptedException {
+        List<Channel> channels = createTestChannels();
+
+        MultiValueMap<String, String> params = new LinkedMultiValueMap<>();
+        params.add("~name", "testChannel*");
+        waitFor(channelMutationManager.mutate(params, new ChannelMutation(ChannelMutation.Action.DELETE, null, null)));
+        Assertions.assertFalse(channelRepository.existsById(channels.get(0).getName()), "Failed to delete the channels");
+    }
+
+    /**
+     * a mutation without search parameters or with an invalid spec is rejected
+     */
+    @Test
+    void invalidMutation() {
+        Assertions.assertThrows(ResponseStatusException.class,
+                () -> channelMutationManager.mutate(new LinkedMultiValueMap<>(),
+                        new ChannelMutation(ChannelMutation.Action.ADD_TAG, testTag, null)));
+        MultiValueMap<String, String> params = new LinkedMultiValueMap<>();
+        params.add("~name", "testChannel*");
+        Assertions.assertThrows(ResponseStatusException.class,
+                () -> channelMutationManager.mutate(params, new ChannelMutation(ChannelMutation.Action.ADD_TAG, null, null)));
+        Assertions.assertThrows(ResponseStatusException.class,
+                () -> channelMutationManager.mutate(params, new ChannelMutation(ChannelMutation.Action.ADD_TAG, new Tag("noSuchTag", "testOwner"), null)));
+    }
+
+    /**
+     * the tasks which were not started by the service are not found
+     */
+    @Test
+    void unknownTaskIsNotFound() {
+        ResponseStatusException read = Assertions.assertThrows(ResponseStatusException.class,
+                () -> taskManager.read("otherNode:1"));
+        Assertions.assertEquals(HttpStatus.NOT_FOUND, read.getStatus());
+        ResponseStatusException cancel = Assertions.assertThrows(ResponseStatusException.class,
+                () -> taskManager.cancel("otherNode:1"));
+        Assertions.assertEquals(HttpStatus.NOT_FOUND, cancel.getStatus());
+    }
+
+    /**
+     * only the user who started a task, or an admin, can follow or cancel it
+     */
+    @Test
+    @WithMockUser(username = "otherUser", roles = "CF-TAGS")
+    void otherUsersTaskIsNotAuthorized() {
+        taskRegistry.register("otherNode:2", "testOwner");
+        ResponseStatusException read = Assertions.assertThrows(ResponseStatusException.class,
+                () -> taskManager.read("otherNode:2"));
+        Assertions.assertEquals(HttpStatus.UNAUTHORIZED, read.getStatus());
+        ResponseStatusException cancel = Assertions.assertThrows(ResponseStatusException.class,
+                () -> taskManager.cancel("otherNode:2"));
+        Assertions.assertEquals(HttpStatus.UNAUTHORIZED, cancel.getStatus());
+    }
+
+    private List<Channel> createTestChannels() {
+        List<Channel> channels = Arrays.asList(
+                new Channel("testChannel0", "testOwner"),
+                new Channel("testChannel1", "testOwner"),
+                new Channel("otherChannel", "testOwner"));
+        channelRepository.indexAll(channels);
+        return channels;
+    }
+
+    private static List<String> names(List<Channel> channels) {
+        return channels.stream().map(Channel::getName).filter(n -> n.startsWith("testChannel")).toList();
+    }
+
+    private void waitFor(TaskStatus task) throws InterruptedException {
+        Assertions.assertNotNull(task.id(), "Failed to submit the task");
+        for (int i = 0; i < 50 && !taskManager.read(task.id()).completed(); i++) {
+            Thread.sleep(100);
+        }
+    }
+
+    @AfterEach
+    public void cleanup() {
+        MultiValueMap<String, String> map = new LinkedMultiValueMap<>();
+        map.set("~name", "*");
+        channelRepository.search(map).channels().forEach(c -> channelRepository.deleteById(c.getName()));
+        tagRepository.findAll().forEach(t -> tagRepository.deleteById(t.getName()));
+        propertyRepository.findAll().forEach(p -> propertyRepository.deleteById(p.getName()));
+    }
+}
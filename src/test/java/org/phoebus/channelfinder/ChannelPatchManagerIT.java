@@ -0,0 +1,130 @@
+package org.phoebus.channelfinder;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.phoebus.channelfinder.entity.BulkItemResult;
+import org.phoebus.channelfinder.entity.BulkItemResult.Outcome;
+import org.phoebus.channelfinder.entity.Channel;
+import org.phoebus.channelfinder.entity.ChannelPatch;
+import org.phoebus.channelfinder.entity.ChannelPatch.Op;
+import org.phoebus.channelfinder.entity.Property;
+import org.phoebus.channelfinder.entity.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.MultiValueMap;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@WebMvcTest(ChannelPatchManager.class)
+@WithMockUser(roles = "CF-ADMINS")
+@TestPropertySource(value = "classpath:application_test.properties")
+class ChannelPatchManagerIT {
+
+    @Autowired
+    ChannelPatchManager channelPatchManager;
+
+    @Autowired
+    ChannelRepository channelRepository;
+
+    @Autowired
+    TagRepository tagRepository;
+
+    @Autowired
+    PropertyRepository propertyRepository;
+
+    @Autowired
+    ElasticConfig esService;
+
+    private final Tag testTag = new Tag("testTag", "testOwner");
+    private final Property testProperty = new Property("testProperty", "testOwner");
+
+    @BeforeAll
+    void setupAll() {
+        ElasticConfigIT.setUp(esService);
+    }
+
+    @AfterAll
+    void tearDown() throws IOException {
+        ElasticConfigIT.teardown(esService);
+    }
+
+    /**
+     * patch several channels in a single request, the operations of each channel are applied in order
+     */
+    @Test
+    void patchChannels() {
+        tagRepository.index(testTag);
+        propertyRepository.index(testProperty);
+        channelRepository.indexAll(Arrays.asList(
+                new Channel("testChannel0", "testOwner"),
+                new Channel("testChannel1", "testOwner", new ArrayList<>(), Arrays.asList(new Tag(testTag.getName(), testTag.getOwner())))));
+
+        ResponseEntity<List<BulkItemResult>> response = channelPatchManager.patch(Arrays.asList(
+                new ChannelPatch(Op.ADD_TAG, "testChannel0", "testTag", null),
+                new ChannelPatch(Op.SET_PROPERTY, "testChannel0", "testProperty", "value0"),
+                new ChannelPatch(Op.SET_OWNER, "testChannel0", null, "newOwner"),
+                new ChannelPatch(Op.REMOVE_TAG, "testChannel1", "testTag", null),
+                new ChannelPatch(Op.SET_PROPERTY, "testChannel1", "testProperty", "value1")));
+
+        Assertions.assertEquals(HttpStatus.OK, response.getStatusCode());
+        Assertions.assertTrue(response.getBody().stream().allMatch(item -> item.outcome() == Outcome.UPDATED));
+        Channel channel0 = channelRepository.findById("testChannel0").get();
+        Assertions.assertEquals("newOwner", channel0.getOwner());
+        Assertions.assertEquals(Arrays.asList("testTag"), channel0.getTags().stream().map(Tag::getName).collect(Collectors.toList()));
+        Assertions.assertEquals("value0", channel0.getProperties().get(0).getValue());
+        Channel channel1 = channelRepository.findById("testChannel1").get();
+        Assertions.assertTrue(channel1.getTags().isEmpty(), "Failed to remove the tag");
+        Assertions.assertEquals("value1", channel1.getProperties().get(0).getValue());
+
+        // the same patch again does not change anything
+        response = channelPatchManager.patch(Arrays.asList(
+                new ChannelPatch(Op.ADD_TAG, "testChannel0", "testTag", null),
+                new ChannelPatch(Op.REMOVE_TAG, "testChannel1", "testTag", null)));
+        Assertions.assertTrue(response.getBody().stream().allMatch(item -> item.outcome() == Outcome.NOOP));
+    }
+
+    /**
+     * the invalid operations are reported and not applied, the valid operations are
+     */
+    @Test
+    void patchWithInvalidOperations() {
+        tagRepository.index(testTag);
+        channelRepository.index(new Channel("testChannel0", "testOwner"));
+
+        ResponseEntity<List<BulkItemResult>> response = channelPatchManager.patch(Arrays.asList(
+                new ChannelPatch(Op.ADD_TAG, "testChannel0", "testTag", null),
+                new ChannelPatch(Op.ADD_TAG, "testChannel0", "nonExistingTag", null),
+                new ChannelPatch(Op.ADD_TAG, "nonExistingChannel", "testTag", null),
+                new ChannelPatch(Op.SET_OWNER, "testChannel0", null, "")));
+
+        Assertions.assertEquals(HttpStatus.MULTI_STATUS, response.getStatusCode());
+        Assertions.assertEquals(Arrays.asList(Outcome.UPDATED, Outcome.FAILED, Outcome.NOT_FOUND, Outcome.FAILED),
+                response.getBody().stream().map(BulkItemResult::outcome).collect(Collectors.toList()));
+        Assertions.assertEquals(HttpStatus.NOT_FOUND.value(), response.getBody().get(1).status());
+        Assertions.assertEquals(HttpStatus.BAD_REQUEST.value(), response.getBody().get(3).status());
+        Assertions.assertEquals(1, channelRepository.findById("testChannel0").get().getTags().size());
+    }
+
+    @AfterEach
+    public void cleanup() {
+        MultiValueMap<String, String> map = new LinkedMultiValueMap<>();
+        map.set("~name", "*");
+        channelRepository.search(map).channels().forEach(c -> channelRepository.deleteById(c.getName()));
+        tagRepository.findAll().forEach(t -> tagRepository.deleteById(t.getName()));
+        propertyRepository.findAll().forEach(p -> propertyRepository.deleteById(p.getName()));
+    }
+}
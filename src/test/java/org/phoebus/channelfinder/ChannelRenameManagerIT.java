@@ -0,0 +1,116 @@
+package org.phoebus.channelfinder;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.phoebus.channelfinder.entity.Channel;
+import org.phoebus.channelfinder.entity.ChannelRename;
+import org.phoebus.channelfinder.entity.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.MultiValueMap;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@WebMvcTest(ChannelRenameManager.class)
+@WithMockUser(roles = "CF-ADMINS")
+@TestPropertySource(value = "classpath:application_test.properties")
+class ChannelRenameManagerIT {
+
+    @Autowired
+    ChannelRenameManager channelRenameManager;
+
+    @Autowired
+    ChannelRepository channelRepository;
+
+    @Autowired
+    TagRepository tagRepository;
+
+    @Autowired
+    ElasticConfig esService;
+
+    private final Tag testTag = new Tag("testTag", "testOwner");
+
+    @BeforeAll
+    void setupAll() {
+        ElasticConfigIT.setUp(esService);
+    }
+
+    @AfterAll
+    void tearDown() throws IOException {
+        ElasticConfigIT.teardown(esService);
+    }
+
+    /**
+     * rename several channels in a single request, the tags of the channels are kept
+     */
+    @Test
+    void renameChannels() {
+        tagRepository.index(testTag);
+        channelRepository.indexAll(Arrays.asList(
+                new Channel("testChannel0", "testOwner", new ArrayList<>(), Arrays.asList(new Tag(testTag.getName(), testTag.getOwner()))),
+                new Channel("testChannel1", "testOwner")));
+
+        List<Channel> renamed = channelRenameManager.rename(Arrays.asList(
+                new ChannelRename("testChannel0", "newChannel0"),
+                new ChannelRename("testChannel1", "newChannel1")));
+
+        Assertions.assertEquals(2, renamed.size());
+        Assertions.assertFalse(channelRepository.existsById("testChannel0"), "Failed to delete the renamed channel");
+        Assertions.assertFalse(channelRepository.existsById("testChannel1"), "Failed to delete the renamed channel");
+        Channel channel0 = channelRepository.findById("newChannel0").get();
+        Assertions.assertEquals("testOwner", channel0.getOwner());
+        Assertions.assertEquals(1, channel0.getTags().size());
+        Assertions.assertTrue(channelRepository.existsById("newChannel1"), "Failed to create the renamed channel");
+    }
+
+    /**
+     * no channel is renamed if one of the renames collides with an existing channel, is missing or is invalid
+     */
+    @Test
+    void invalidRenames() {
+        channelRepository.indexAll(Arrays.asList(
+                new Channel("testChannel0", "testOwner"),
+                new Channel("testChannel1", "testOwner")));
+
+        ResponseStatusException chain = Assertions.assertThrows(ResponseStatusException.class,
+                () -> channelRenameManager.rename(Arrays.asList(
+                        new ChannelRename("testChannel0", "newChannel0"),
+                        new ChannelRename("testChannel1", "testChannel0"))));
+        Assertions.assertEquals(HttpStatus.BAD_REQUEST, chain.getStatus());
+
+        channelRepository.index(new Channel("existingChannel", "testOwner"));
+        ResponseStatusException conflict = Assertions.assertThrows(ResponseStatusException.class,
+                () -> channelRenameManager.rename(Arrays.asList(
+                        new ChannelRename("testChannel0", "newChannel0"),
+                        new ChannelRename("testChannel1", "existingChannel"))));
+        Assertions.assertEquals(HttpStatus.CONFLICT, conflict.getStatus());
+
+        ResponseStatusException missing = Assertions.assertThrows(ResponseStatusException.class,
+                () -> channelRenameManager.rename(Arrays.asList(new ChannelRename("nonExistingChannel", "newChannel0"))));
+        Assertions.assertEquals(HttpStatus.NOT_FOUND, missing.getStatus());
+
+        Assertions.assertFalse(channelRepository.existsById("newChannel0"), "Renamed a channel of a rejected request");
+        Assertions.assertTrue(channelRepository.existsById("testChannel0"), "Renamed a channel of a rejected request");
+    }
+
+    @AfterEach
+    public void cleanup() {
+        MultiValueMap<String, String> map = new LinkedMultiValueMap<>();
+        map.set("~name", "*");
+        channelRepository.search(map).channels().forEach(c -> channelRepository.deleteById(c.getName()));
+        tagRepository.findAll().forEach(t -> tagRepository.deleteById(t.getName()));
+    }
+}
@@ -1,7 +1,10 @@
 package org.phoebus.channelfinder;
 
+import co.elastic.clients.elasticsearch._types.Script;
 import com.google.common.collect.Iterables;
 import com.google.common.collect.Lists;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Assertions;
@@ -9,12 +12,16 @@ import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.TestInstance;
+import org.phoebus.channelfinder.ChannelRepository.VersionedChannel;
+import org.phoebus.channelfinder.entity.BulkItemResult;
+import org.phoebus.channelfinder.entity.BulkItemResult.Outcome;
 import org.phoebus.channelfinder.entity.Channel;
 import org.phoebus.channelfinder.entity.Property;
 import org.phoebus.channelfinder.entity.SearchResult;
 import org.phoebus.channelfinder.entity.Tag;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.http.HttpStatus;
 import org.springframework.test.context.TestPropertySource;
 
 import org.springframework.util.LinkedMultiValueMap;
@@ -26,7 +33,9 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
 @TestInstance(TestInstance.Lifecycle.PER_CLASS)
 @WebMvcTest(ChannelRepository.class)
@@ -45,6 +54,9 @@ class ChannelRepositoryIT {
     @Autowired
     PropertyRepository propertyRepository;
 
+    @Autowired
+    MeterRegistry meterRegistry;
+
     @BeforeAll
     void setupAll() {
         ElasticConfigIT.setUp(esService);
@@ -130,6 +142,121 @@ class ChannelRepositoryIT {
         Assertions.assertEquals(expectedChannels, updatedTestChannels, "Failed to update the channels: ");
     }
 
+    /**
+     * save multiple channels, merging them in memory into the already loaded existing channels
+     */
+    @Test
+    void saveXmlChannelsWithExistingChannels() {
+        Channel testChannel = new Channel("testChannel","testOwner", testProperties, testTags);
+        channelRepository.index(testChannel);
+        Channel updateTestChannel = new Channel("testChannel", "updateTestOwner", testProperties.subList(0,1), testTags.subList(0,1));
+        Channel updateTestChannel1 = new Channel("testChannel", "", testUpdatedProperties, testUpdatedTags);
+        Channel newTestChannel = new Channel("testChannel1", "testOwner1", testProperties, testTags);
+        cleanupTestChannels = Arrays.asList(testChannel, newTestChannel);
+
+        Map<String, VersionedChannel> existingChannels = channelRepository.findAllVersionedById(Arrays.asList(testChannel.getName()));
+        List<Channel> updatedTestChannels = channelRepository.saveAll(
+                Arrays.asList(updateTestChannel, updateTestChannel1, newTestChannel), existingChannels);
+        // verify the merged channels match the stored channels
+        Assertions.assertEquals(channelRepository.findAllById(Arrays.asList("testChannel", "testChannel1")), updatedTestChannels,
+                "Failed to merge the channels in memory");
+        Assertions.assertEquals("updateTestOwner", updatedTestChannels.get(0).getOwner(), "Failed to merge the owner");
+    }
+
+    /**
+     * replacing and merging unchanged channels does not write them
+     */
+    @Test
+    void saveUnchangedXmlChannels() {
+        Channel testChannel = new Channel("testChannel","testOwner", testProperties, testTags);
+        Channel testChannel1 = new Channel("testChannel1","testOwner1", testProperties, testTags);
+        cleanupTestChannels = Arrays.asList(testChannel, testChannel1);
+        channelRepository.indexAll(Arrays.asList(testChannel));
+
+        ChannelRepository.SaveResult replaced = channelRepository.replaceAll(Arrays.asList(
+                new Channel("testChannel","testOwner", Lists.reverse(testProperties), Lists.reverse(testTags)),
+                testChannel1));
+        Assertions.assertEquals(2, replaced.channels().size());
+        Assertions.assertEquals(Arrays.asList(testChannel1), replaced.changedChannels(), "Failed to skip the unchanged channel");
+        Assertions.assertTrue(channelRepository.existsById(testChannel1.getName()), "Failed to create the changed channel");
+
+        ChannelRepository.SaveResult merged = channelRepository.saveAll(
+                Arrays.asList(new Channel("testChannel", "", testProperties.subList(0, 1), testTags.subList(0, 1)),
+                        new Channel("testChannel1", "updateTestOwner1")),
+                channelRepository.findAllVersionedById(Arrays.asList("testChannel", "testChannel1")));
+        Assertions.assertEquals(1, merged.unchanged(), "Failed to skip the unchanged merge");
+        Assertions.assertEquals("updateTestOwner1", merged.changedChannels().get(0).getOwner());
+        Assertions.assertEquals("updateTestOwner1", channelRepository.findById("testChannel1").get().getOwner());
+    }
+
+    /**
+     * save a channel which has been updated concurrently since it was read, the update is retried
+     * on the current channel instead of overwriting the concurrent update
+     */
+    @Test
+    void saveXmlChannelsWithConcurrentUpdate() {
+        Channel testChannel = new Channel("testChannel","testOwner", testProperties, testTags);
+        channelRepository.index(testChannel);
+        cleanupTestChannels = Arrays.asList(testChannel);
+
+        Map<String, VersionedChannel> staleChannels = channelRepository.findAllVersionedById(Arrays.asList("testChannel"));
+        // concurrent update, after the channel has been read
+        channelRepository.saveAll(Arrays.asList(new Channel("testChannel", "concurrentOwner")));
+
+        Counter retries = Counter.builder(ChannelRepository.CF_CHANNEL_WRITE_RETRIES).register(meterRegistry);
+        double retriesBefore = retries.count();
+        List<Channel> updatedTestChannels = channelRepository.saveAll(
+                Arrays.asList(new Channel("testChannel", "", testUpdatedProperties, testUpdatedTags)), staleChannels);
+        Assertions.assertEquals(channelRepository.findAllById(Arrays.asList("testChannel")), updatedTestChannels,
+                "Failed to merge the channels in memory");
+        Assertions.assertEquals("concurrentOwner", updatedTestChannels.get(0).getOwner(), "Overwrote the concurrent update");
+        Assertions.assertEquals(retriesBefore + 1, retries.count(), "Failed to retry the conflicting update");
+    }
+
+    /**
+     * save a channel which has been created concurrently since it was read, the channels read again are checked
+     * before the write is retried, so that the concurrent owner is not overwritten
+     */
+    @Test
+    void saveXmlChannelsWithConcurrentCreate() {
+        Channel testChannel = new Channel("testChannel", "concurrentOwner", testProperties, testTags);
+        // concurrent create, the channel is saved as if it did not exist
+        channelRepository.index(testChannel);
+        cleanupTestChannels = Arrays.asList(testChannel);
+
+        List<String> rechecked = new ArrayList<>();
+        ResponseStatusException e = Assertions.assertThrows(ResponseStatusException.class,
+                () -> channelRepository.saveAll(Arrays.asList(new Channel("testChannel", "testOwner")), Collections.emptyMap(),
+                        (channels, existingChannels) -> {
+                            rechecked.add(existingChannels.get("testChannel").channel().getOwner());
+                            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED);
+                        }));
+        Assertions.assertEquals(HttpStatus.UNAUTHORIZED, e.getStatus());
+        Assertions.assertEquals(Arrays.asList("concurrentOwner"), rechecked, "Failed to check the concurrent create");
+        Assertions.assertEquals("concurrentOwner", channelRepository.findById("testChannel").get().getOwner(),
+                "Overwrote the owner of the concurrent create");
+    }
+
+    /**
+     * a bulk update with failing items reports the outcome of each channel, channels which do not exist are skipped
+     */
+    @Test
+    void updateChannelsWithFailingItems() {
+        Channel testChannel = new Channel("testChannel","testOwner", testProperties, testTags);
+        channelRepository.index(testChannel);
+        cleanupTestChannels = Arrays.asList(testChannel);
+
+        // the script fails on every existing channel, it has no params
+        Script failingScript = ChannelScripts.script("ctx._source.owner = params.owner.name", Collections.emptyMap());
+        BulkWriteException e = Assertions.assertThrows(BulkWriteException.class,
+                () -> channelRepository.updateAll(Arrays.asList("testChannel", "nonExistingChannel"), failingScript));
+        // none of the channels was written
+        Assertions.assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, e.getStatus());
+        Assertions.assertEquals(Arrays.asList(Outcome.FAILED, Outcome.NOT_FOUND),
+                e.getItems().stream().map(BulkItemResult::outcome).collect(Collectors.toList()));
+        Assertions.assertEquals("testOwner", channelRepository.findById("testChannel").get().getOwner());
+    }
+
     /**
      * find a single channel
      */
@@ -187,6 +314,24 @@ class ChannelRepositoryIT {
         Assertions.assertFalse(channelRepository.existsByIds(Arrays.asList("test-channel1", "non-existant-channel")), "Failed to check the non-existance of 'non-existant-channel'");
     }
 
+    /**
+     * find all the missing channels in a single batched check
+     */
+    @Test
+    void testFindMissingChannels() {
+        Channel testChannel = new Channel("testChannel","testOwner",testProperties,testTags);
+        Channel testChannel1 = new Channel("testChannel1","testOwner1",testProperties,testTags);
+        channelRepository.indexAll(Arrays.asList(testChannel, testChannel1));
+        cleanupTestChannels = Arrays.asList(testChannel,testChannel1);
+
+        Assertions.assertEquals(Collections.emptyList(),
+                channelRepository.findMissingIds(Arrays.asList("testChannel", "testChannel1")),
+                "Failed to check the existance of channels");
+        Assertions.assertEquals(Arrays.asList("missingChannel", "missingChannel1"),
+                channelRepository.findMissingIds(Arrays.asList("missingChannel", "testChannel", "missingChannel1", "missingChannel")),
+                "Failed to find all the missing channels");
+    }
+
     /**
      * find multiple channels
      */
@@ -403,6 +548,54 @@ class ChannelRepositoryIT {
     }
 
 
+    /**
+     * add and remove a single tag using a partial update
+     */
+    @Test
+    void addRemoveTagPartialUpdate() {
+        Channel testChannel = new Channel("testChannel","testOwner",testProperties,testTags.subList(0,1));
+        channelRepository.index(testChannel);
+        cleanupTestChannels = Arrays.asList(testChannel);
+
+        Channel expectedChannel = new Channel("testChannel","testOwner",testProperties,testTags);
+        Channel updatedChannel = channelRepository.addTag(testChannel.getName(), testTags.get(1));
+        Assertions.assertEquals(expectedChannel, updatedChannel, "Failed to add the tag to the channel");
+        Assertions.assertEquals(Optional.of(expectedChannel), channelRepository.findById(testChannel.getName()),
+                "Failed to add the tag to the channel");
+
+        updatedChannel = channelRepository.removeTag(testChannel.getName(), testTags.get(0).getName());
+        expectedChannel = new Channel("testChannel","testOwner",testProperties,testTags.subList(1,2));
+        Assertions.assertEquals(expectedChannel, updatedChannel, "Failed to remove the tag from the channel");
+
+        Assertions.assertThrows(ResponseStatusException.class,
+                () -> channelRepository.addTag("nonExistingChannel", testTags.get(0)),
+                "Adding a tag to a non existing channel should fail");
+    }
+
+    /**
+     * add, replace and remove a single property using a partial update
+     */
+    @Test
+    void addRemovePropertyPartialUpdate() {
+        Channel testChannel = new Channel("testChannel","testOwner",testProperties.subList(0,1),testTags);
+        channelRepository.index(testChannel);
+        cleanupTestChannels = Arrays.asList(testChannel);
+
+        Channel expectedChannel = new Channel("testChannel","testOwner",testProperties,testTags);
+        Channel updatedChannel = channelRepository.addProperty(testChannel.getName(), testProperties.get(1));
+        Assertions.assertEquals(expectedChannel, updatedChannel, "Failed to add the property to the channel");
+
+        // adding a property with the same name replaces the existing value
+        Property updatedProperty = new Property("testProperty1","testOwner1","newValue");
+        updatedChannel = channelRepository.addProperty(testChannel.getName(), updatedProperty);
+        expectedChannel = new Channel("testChannel","testOwner",Arrays.asList(testProperties.get(0), updatedProperty),testTags);
+        Assertions.assertEquals(expectedChannel, updatedChannel, "Failed to update the property value on the channel");
+
+        updatedChannel = channelRepository.removeProperty(testChannel.getName(), testProperties.get(0).getName());
+        expectedChannel = new Channel("testChannel","testOwner",Arrays.asList(updatedProperty),testTags);
+        Assertions.assertEquals(expectedChannel, updatedChannel, "Failed to remove the property from the channel");
+    }
+
 
     /**
      * A utility class which will create the requested number of test properties named 'test-property#' 
@@ -84,6 +84,8 @@ class ChannelScrollIT {
         searchParameters.clear();
         searchParameters.add("~name", "BR:C001-BI:2{BLA}Pos:?-RB");
         scrollResult = channelScroll.search(null,searchParameters);
+        // the first page counts all the matching channels
+        Assertions.assertEquals(2, scrollResult.getTotal());
         result = scrollResult.getChannels();
         while(scrollResult.getChannels().size()==100) {
             scrollResult = channelScroll.search(scrollResult.getId(), searchParameters);
@@ -0,0 +1,145 @@
+package org.phoebus.channelfinder;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.phoebus.channelfinder.entity.Channel;
+import org.phoebus.channelfinder.entity.ChannelMutation;
+import org.phoebus.channelfinder.entity.ChannelSync;
+import org.phoebus.channelfinder.entity.ChannelSyncResult;
+import org.phoebus.channelfinder.entity.Property;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.MultiValueMap;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@WebMvcTest(ChannelSyncManager.class)
+@WithMockUser(roles = "CF-ADMINS")
+// a small page size, so that the scope is read in several pages
+@TestPropertySource(value = "classpath:application_test.properties", properties = "elasticsearch.query.size=2")
+class ChannelSyncManagerIT {
+
+    @Autowired
+    ChannelSyncManager channelSyncManager;
+
+    @Autowired
+    ChannelRepository channelRepository;
+
+    @Autowired
+    PropertyRepository propertyRepository;
+
+    @Autowired
+    ElasticConfig esService;
+
+    private final Property iocName = new Property("iocName", "testOwner");
+    private final Property pvStatus = new Property("pvStatus", "testOwner");
+    private final ChannelMutation inactive = new ChannelMutation(ChannelMutation.Action.SET_PROPERTY, null,
+            new Property("pvStatus", null, "Inactive"));
+
+    @BeforeAll
+    void setupAll() {
+        ElasticConfigIT.setUp(esService);
+    }
+
+    @AfterAll
+    void tearDown() throws IOException {
+        ElasticConfigIT.teardown(esService);
+    }
+
+    /**
+     * sync the channels of an IOC, creating, updating and deactivating channels
+     */
+    @Test
+    void syncChannels() {
+        propertyRepository.indexAll(Arrays.asList(iocName, pvStatus));
+        channelRepository.indexAll(Arrays.asList(
+                channel("testChannel0", "ioc1", "Active"),
+                channel("testChannel1", "ioc1", "Active"),
+                channel("testChannel2", "ioc1", "Inactive"),
+                channel("testChannel4", "ioc1", "Active"),
+                channel("otherChannel", "ioc2", "Active")));
+
+        List<Channel> channels = Arrays.asList(
+                channel("testChannel3", "ioc1", "Active"),
+                channel("testChannel0", "ioc1", "Active"),
+                channel("otherChannel", "ioc1", "Active"));
+        ChannelSyncResult result = channelSyncManager.sync(scope("ioc1"), new ChannelSync(channels, inactive));
+
+        Assertions.assertEquals(new ChannelSyncResult(1, 1, 1, 2, 1), result);
+        Assertions.assertEquals("Active", status("testChannel3"), "Failed to create the new channel");
+        Assertions.assertEquals("ioc1", value("otherChannel", "iocName"),
+                "Failed to move the channel into the scope");
+        Assertions.assertEquals("Inactive", status("testChannel1"), "Failed to deactivate the channel leaving the scope");
+        Assertions.assertEquals("Inactive", status("testChannel4"), "Failed to deactivate the channel leaving the scope");
+
+        // a repeated sync does not change anything
+        Assertions.assertEquals(new ChannelSyncResult(0, 0, 3, 0, 3),
+                channelSyncManager.sync(scope("ioc1"), new ChannelSync(channels, inactive)));
+    }
+
+    /**
+     * a sync without scope or with an invalid scope exit is rejected
+     */
+    @Test
+    void invalidSync() {
+        Assertions.assertThrows(ResponseStatusException.class,
+                () -> channelSyncManager.sync(new LinkedMultiValueMap<>(), new ChannelSync(List.of(), inactive)));
+        Assertions.assertThrows(ResponseStatusException.class,
+                () -> channelSyncManager.sync(scope("ioc1"),
+                        new ChannelSync(List.of(), new ChannelMutation(ChannelMutation.Action.SET_PROPERTY, null, null))));
+    }
+
+    /**
+     * the names are merged in the order elastic sorts them
+     */
+    @Test
+    void nameOrder() {
+        Assertions.assertTrue(ChannelSyncManager.NAME_ORDER.compare("a:b", "a_b") < 0);
+        Assertions.assertTrue(ChannelSyncManager.NAME_ORDER.compare("A", "a") < 0);
+        // supplementary characters sort after the rest of the basic multilingual plane
+        Assertions.assertTrue(ChannelSyncManager.NAME_ORDER.compare("Ａ", "😀") < 0);
+    }
+
+    private Channel channel(String name, String ioc, String status) {
+        return new Channel(name, "testOwner", Arrays.asList(
+                new Property(iocName.getName(), iocName.getOwner(), ioc),
+                new Property(pvStatus.getName(), pvStatus.getOwner(), status)), new ArrayList<>());
+    }
+
+    private String status(String channelName) {
+        return value(channelName, pvStatus.getName());
+    }
+
+    private String value(String channelName, String propertyName) {
+        return channelRepository.findById(channelName).get().getProperties().stream()
+                .filter(p -> p.getName().equals(propertyName))
+                .map(Property::getValue)
+                .findFirst().orElse(null);
+    }
+
+    private static MultiValueMap<String, String> scope(String ioc) {
+        MultiValueMap<String, String> params = new LinkedMultiValueMap<>();
+        params.add("iocName", ioc);
+        return params;
+    }
+
+    @AfterEach
+    public void cleanup() {
+        MultiValueMap<String, String> map = new LinkedMultiValueMap<>();
+        map.set("~name", "*");
+        channelRepository.search(map).channels().forEach(c -> channelRepository.deleteById(c.getName()));
+        propertyRepository.findAll().forEach(p -> propertyRepository.deleteById(p.getName()));
+    }
+}
@@ -10,7 +10,7 @@ public class ElasticConfigIT {
      * @param elasticConfig Bean with configuration
      * @throws IOException when request fails
      */
-    static void teardown(ElasticConfig elasticConfig) throws IOException {
+    public static void teardown(ElasticConfig elasticConfig) throws IOException {
 
         String[] indexes = new String[] {elasticConfig.getES_CHANNEL_INDEX(), elasticConfig.getES_PROPERTY_INDEX(), elasticConfig.getES_TAG_INDEX()};
         for (String index: indexes) {
@@ -29,7 +29,7 @@ public class ElasticConfigIT {
      *
      * @param elasticConfig Bean with configuration
      */
-    static void setUp(ElasticConfig elasticConfig) {
+    public static void setUp(ElasticConfig elasticConfig) {
         elasticConfig.elasticIndexValidation(elasticConfig.getSearchClient());
     }
 
@@ -0,0 +1,98 @@
+package org.phoebus.channelfinder;
+
+import co.elastic.clients.elasticsearch.core.BulkRequest;
+import co.elastic.clients.elasticsearch.core.SearchRequest;
+import co.elastic.clients.transport.http.TransportHttpClient;
+import co.elastic.clients.transport.instrumentation.Instrumentation;
+import co.elastic.clients.util.BinaryData;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.List;
+
+class ElasticInstrumentationTest {
+
+    @Test
+    void requestsAreTimedByOperationAndIndex() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        ElasticInstrumentation instrumentation = new ElasticInstrumentation("search", meterRegistry, false);
+
+        SearchRequest request = SearchRequest.of(s -> s.index("channelfinder"));
+        try (Instrumentation.Context context = instrumentation.newContext(request, SearchRequest._ENDPOINT)) {
+            context.beforeSendingHttpRequest(new TransportHttpClient.Request("POST", "/channelfinder/_search",
+                    Collections.emptyMap(), Collections.emptyMap(),
+                    List.of(ByteBuffer.wrap("{}".getBytes(StandardCharsets.UTF_8)))), null);
+            context.afterReceivingHttpResponse(response(200, "{\"hits\":{}}"));
+        }
+
+        Assertions.assertEquals(1, meterRegistry.get(ElasticInstrumentation.CF_ELASTIC_REQUESTS)
+                .tag("client", "search").tag("operation", "search").tag("index", "channelfinder").tag("status", "200")
+                .timer().count());
+        Assertions.assertEquals(2, meterRegistry.get(ElasticInstrumentation.CF_ELASTIC_REQUEST_BYTES)
+                .tag("operation", "search").summary().totalAmount());
+        Assertions.assertEquals(11, meterRegistry.get(ElasticInstrumentation.CF_ELASTIC_RESPONSE_BYTES)
+                .tag("operation", "search").summary().totalAmount());
+    }
+
+    @Test
+    void rejectionsAreCounted() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        ElasticInstrumentation instrumentation = new ElasticInstrumentation("index", meterRegistry, false);
+
+        BulkRequest request = BulkRequest.of(b -> b
+                .operations(o -> o.delete(d -> d.index("channelfinder").id("ch0")))
+                .operations(o -> o.delete(d -> d.index("channelfinder").id("ch1"))));
+        try (Instrumentation.Context context = instrumentation.newContext(request, BulkRequest._ENDPOINT)) {
+            context.afterReceivingHttpResponse(response(429, "{}"));
+        }
+
+        Assertions.assertEquals(2, meterRegistry.get(ElasticInstrumentation.CF_ELASTIC_BULK_ITEMS)
+                .summary().totalAmount());
+        Assertions.assertEquals(1, meterRegistry.get(ElasticInstrumentation.CF_ELASTIC_REJECTIONS)
+                .tag("operation", "bulk").counter().count());
+        Assertions.assertEquals(1, meterRegistry.get(ElasticInstrumentation.CF_ELASTIC_REQUESTS)
+                .tag("operation", "bulk").tag("index", "none").tag("status", "429").timer().count());
+    }
+
+    private static TransportHttpClient.Response response(int status, String body) {
+        return new TransportHttpClient.Response() {
+            @Override
+            public TransportHttpClient.Node node() {
+                return null;
+            }
+
+            @Override
+            public int statusCode() {
+                return status;
+            }
+
+            @Override
+            public String header(String name) {
+                return null;
+            }
+
+            @Override
+            public List<String> headers(String name) {
+                return Collections.emptyList();
+            }
+
+            @Override
+            public BinaryData body() {
+                return BinaryData.of(body.getBytes(StandardCharsets.UTF_8), "application/json");
+            }
+
+            @Override
+            public Object originalResponse() {
+                return null;
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+    }
+}
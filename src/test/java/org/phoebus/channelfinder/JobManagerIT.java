@@ -0,0 +1,79 @@
+package org.phoebus.channelfinder;
+
+import org.junit.jupiter.api.Test;
+import org.phoebus.channelfinder.entity.JobStatus;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.anonymous;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(JobManager.class)
+@TestPropertySource(value = "classpath:application_test.properties")
+class JobManagerIT {
+
+    private static final String JOBS = "/" + CFResourceDescriptors.JOB_RESOURCE_URI;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    JobService jobService;
+
+    /**
+     * the user who submitted a job can list and follow it
+     */
+    @Test
+    @WithMockUser(username = "testOwner", roles = "CF-CHANNELS")
+    void readSubmittedJob() throws Exception {
+        JobStatus job = submit();
+
+        mockMvc.perform(get(JOBS + "/" + job.id()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(job.id()))
+                .andExpect(jsonPath("$.owner").value("testOwner"));
+        mockMvc.perform(get(JOBS))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[?(@.id == '" + job.id() + "')]").exists());
+    }
+
+    /**
+     * unlike the other GET requests, the jobs require an authenticated user
+     */
+    @Test
+    @WithMockUser(username = "testOwner", roles = "CF-CHANNELS")
+    void anonymousIsNotAuthorized() throws Exception {
+        JobStatus job = submit();
+
+        mockMvc.perform(get(JOBS + "/" + job.id()).with(anonymous())).andExpect(status().isUnauthorized());
+        mockMvc.perform(get(JOBS).with(anonymous())).andExpect(status().isUnauthorized());
+    }
+
+    /**
+     * only the user who submitted a job, or an admin, can follow it
+     */
+    @Test
+    @WithMockUser(username = "testOwner", roles = "CF-CHANNELS")
+    void otherUsersJobIsNotAuthorized() throws Exception {
+        JobStatus job = submit();
+
+        mockMvc.perform(get(JOBS + "/" + job.id()).with(user("otherUser").roles("CF-CHANNELS")))
+                .andExpect(status().isUnauthorized());
+        mockMvc.perform(get(JOBS + "/" + job.id()).with(user("admin").roles("CF-ADMINS")))
+                .andExpect(status().isOk());
+    }
+
+    private JobStatus submit() {
+        return jobService.submit("test job", progress -> {
+            progress.setTotal(1);
+            progress.processed(1);
+            return 1;
+        });
+    }
+}
@@ -0,0 +1,86 @@
+package org.phoebus.channelfinder;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.phoebus.channelfinder.entity.JobStatus;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+class JobServiceTest {
+
+    private JobService jobService;
+
+    @BeforeEach
+    void setup() {
+        jobService = new JobService(1, 1, 2, 60, new SimpleMeterRegistry());
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken("testUser", null));
+    }
+
+    @AfterEach
+    void cleanup() {
+        jobService.shutdown();
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void jobCompletes() throws InterruptedException {
+        JobStatus submitted = jobService.submit("test job", progress -> {
+            progress.setTotal(10);
+            progress.processed(10);
+            return SecurityContextHolder.getContext().getAuthentication().getName();
+        });
+        Assertions.assertEquals("testUser", submitted.owner());
+
+        JobStatus status = waitForJob(submitted.id());
+        Assertions.assertEquals(JobStatus.State.COMPLETED, status.state());
+        Assertions.assertEquals(10, status.total());
+        Assertions.assertEquals(10, status.processed());
+        // the job runs with the security context of the user who submitted it
+        Assertions.assertEquals("testUser", status.result());
+    }
+
+    @Test
+    void jobFails() throws InterruptedException {
+        JobStatus submitted = jobService.submit("failing job", progress -> {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "bad request");
+        });
+        JobStatus status = waitForJob(submitted.id());
+        Assertions.assertEquals(JobStatus.State.FAILED, status.state());
+        Assertions.assertEquals("bad request", status.error());
+    }
+
+    @Test
+    void perUserLimitAndCancel() throws InterruptedException {
+        CountDownLatch latch = new CountDownLatch(1);
+        JobStatus running = jobService.submit("blocking job", progress -> latch.await(10, TimeUnit.SECONDS));
+        JobStatus queued = jobService.submit("queued job", progress -> null);
+
+        ResponseStatusException e = Assertions.assertThrows(ResponseStatusException.class,
+                () -> jobService.submit("rejected job", progress -> null));
+        Assertions.assertEquals(HttpStatus.TOO_MANY_REQUESTS, e.getStatus());
+
+        Assertions.assertEquals(JobStatus.State.CANCELLED, jobService.cancel(queued.id()).get().state());
+        jobService.cancel(running.id());
+        Assertions.assertEquals(JobStatus.State.CANCELLED, waitForJob(running.id()).state());
+        Assertions.assertTrue(jobService.cancel("noSuchJob").isEmpty());
+    }
+
+    private JobStatus waitForJob(String id) throws InterruptedException {
+        for (int i = 0; i < 100; i++) {
+            JobStatus status = jobService.findById(id).get();
+            if (status.state().isDone()) {
+                return status;
+            }
+            Thread.sleep(50);
+        }
+        return jobService.findById(id).get();
+    }
+}
@@ -36,7 +36,9 @@ import static org.testcontainers.shaded.org.awaitility.Awaitility.await;
         locations = "classpath:application_test.properties",
         properties = {
             "metrics.tags=testTag0, testTag1",
-            "metrics.properties={{'testProperty0', 'testProperty0Value'}, {'testProperty1', 'testProperty1Value'}}"
+            "metrics.properties={{'testProperty0', 'testProperty0Value'}, {'testProperty1', 'testProperty1Value'}}",
+            "metrics.series.properties=testProperty0",
+            "metrics.series.owner=true"
         })
 class MetricsServiceIT {
 
@@ -95,24 +97,29 @@ class MetricsServiceIT {
     @Test
     void testGaugeMetrics() throws Exception {
         mockMvc.perform(get(METRICS_ENDPOINT)).andExpect(status().is(200));
-        mockMvc.perform(get(METRICS_ENDPOINT + MetricsService.CF_TOTAL_CHANNEL_COUNT))
-                .andExpect(jsonPath("$.measurements[0].value").value(0));
-        mockMvc.perform(get(METRICS_ENDPOINT + MetricsService.CF_PROPERTY_COUNT))
-                .andExpect(jsonPath("$.measurements[0].value").value(0));
-        mockMvc.perform(get(METRICS_ENDPOINT + MetricsService.CF_TAG_COUNT))
-                .andExpect(jsonPath("$.measurements[0].value").value(0));
+        await().untilAsserted(() -> {
+            mockMvc.perform(get(METRICS_ENDPOINT + MetricsService.CF_TOTAL_CHANNEL_COUNT))
+                    .andExpect(jsonPath("$.measurements[0].value").value(0));
+            mockMvc.perform(get(METRICS_ENDPOINT + MetricsService.CF_PROPERTY_COUNT))
+                    .andExpect(jsonPath("$.measurements[0].value").value(0));
+            mockMvc.perform(get(METRICS_ENDPOINT + MetricsService.CF_TAG_COUNT))
+                    .andExpect(jsonPath("$.measurements[0].value").value(0));
+        });
 
         Channel testChannel = new Channel("testChannel", "testOwner");
         channelRepository.save(testChannel);
         propertyRepository.saveAll(testProperties);
         tagRepository.saveAll(testTags);
 
-        mockMvc.perform(get(METRICS_ENDPOINT + MetricsService.CF_TOTAL_CHANNEL_COUNT))
-                .andExpect(jsonPath("$.measurements[0].value").value(1));
-        mockMvc.perform(get(METRICS_ENDPOINT + MetricsService.CF_PROPERTY_COUNT))
-                .andExpect(jsonPath("$.measurements[0].value").value(3));
-        mockMvc.perform(get(METRICS_ENDPOINT + MetricsService.CF_TAG_COUNT))
-                .andExpect(jsonPath("$.measurements[0].value").value(2));
+        // the counts are cached between the updates
+        await().untilAsserted(() -> {
+            mockMvc.perform(get(METRICS_ENDPOINT + MetricsService.CF_TOTAL_CHANNEL_COUNT))
+                    .andExpect(jsonPath("$.measurements[0].value").value(1));
+            mockMvc.perform(get(METRICS_ENDPOINT + MetricsService.CF_PROPERTY_COUNT))
+                    .andExpect(jsonPath("$.measurements[0].value").value(3));
+            mockMvc.perform(get(METRICS_ENDPOINT + MetricsService.CF_TAG_COUNT))
+                    .andExpect(jsonPath("$.measurements[0].value").value(2));
+        });
     }
 
     @Test
@@ -169,4 +176,30 @@ class MetricsServiceIT {
                     .andExpect(jsonPath("$.measurements[0].value").value(1));
         });
     }
+
+    @Test
+    void testSeriesMultiGaugeMetrics() throws Exception {
+        propertyRepository.saveAll(testProperties);
+        channelRepository.indexAll(Arrays.asList(
+                new Channel("testChannelSeries0", "testOwner0",
+                        List.of(new Property("testProperty0", "testPropertyOwner0", "ioc0")), List.of()),
+                new Channel("testChannelSeries1", "testOwner0",
+                        List.of(new Property("testProperty0", "testPropertyOwner0", "ioc0")), List.of()),
+                new Channel("testChannelSeries2", "testOwner1",
+                        List.of(new Property("testProperty0", "testPropertyOwner0", "ioc1")), List.of())));
+
+        await().untilAsserted(() -> {
+            mockMvc.perform(get(METRICS_ENDPOINT + MetricsService.CF_CHANNEL_COUNT_BY_PROPERTY)
+                            .param(METRICS_TAG_LABEL, "property:testProperty0")
+                            .param(METRICS_TAG_LABEL, "value:ioc0"))
+                    .andExpect(jsonPath("$.measurements[0].value").value(2));
+            mockMvc.perform(get(METRICS_ENDPOINT + MetricsService.CF_CHANNEL_COUNT_BY_PROPERTY)
+                            .param(METRICS_TAG_LABEL, "property:testProperty0")
+                            .param(METRICS_TAG_LABEL, "value:ioc1"))
+                    .andExpect(jsonPath("$.measurements[0].value").value(1));
+            mockMvc.perform(get(METRICS_ENDPOINT + MetricsService.CF_CHANNEL_COUNT_BY_OWNER)
+                            .param(METRICS_TAG_LABEL, "owner:testOwner0"))
+                    .andExpect(jsonPath("$.measurements[0].value").value(2));
+        });
+    }
 }
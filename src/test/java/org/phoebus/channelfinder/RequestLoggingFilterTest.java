@@ -0,0 +1,169 @@
+package org.phoebus.channelfinder;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import javax.servlet.FilterChain;
+import javax.servlet.http.HttpServletResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Handler;
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+import java.util.logging.Logger;
+
+class RequestLoggingFilterTest {
+
+    private static final Logger logger = Logger.getLogger(RequestLoggingFilter.class.getName());
+
+    private static final String CHANNELS = "/ChannelFinder/resources/channels";
+    private static final String TAGS = "/ChannelFinder/resources/tags";
+
+    private static final FilterChain OK = (request, response) -> request.getInputStream().readAllBytes();
+
+    private final List<LogRecord> records = new CopyOnWriteArrayList<>();
+    private final Handler handler = new Handler() {
+        @Override
+        public void publish(LogRecord logRecord) {
+            records.add(logRecord);
+        }
+
+        @Override
+        public void flush() {
+        }
+
+        @Override
+        public void close() {
+        }
+    };
+    private Level level;
+
+    @BeforeEach
+    void addHandler() {
+        level = logger.getLevel();
+        logger.setLevel(Level.INFO);
+        logger.addHandler(handler);
+    }
+
+    @AfterEach
+    void removeHandler() {
+        logger.removeHandler(handler);
+        logger.setLevel(level);
+    }
+
+    @Test
+    void requestsAreSampledByPathPrefix() throws Exception {
+        RequestLoggingFilter filter = new RequestLoggingFilter(0.0, Map.of(TAGS, 1.0), 100, 10, new SimpleMeterRegistry());
+        Assertions.assertEquals(1.0, filter.sampleRate(TAGS + "/tag0"));
+        Assertions.assertEquals(0.0, filter.sampleRate(CHANNELS));
+
+        filter.doFilter(request("GET", TAGS + "/tag0", null), new MockHttpServletResponse(), OK);
+        filter.doFilter(request("GET", CHANNELS, null), new MockHttpServletResponse(), OK);
+        filter.destroy();
+
+        Assertions.assertEquals(1, records.size());
+        Assertions.assertEquals(Level.INFO, records.get(0).getLevel());
+        Assertions.assertTrue(records.get(0).getMessage().startsWith("method=GET path=" + TAGS + "/tag0 status=200 "),
+                records.get(0).getMessage());
+    }
+
+    @Test
+    void serverErrorsAreAlwaysLogged() throws Exception {
+        RequestLoggingFilter filter = new RequestLoggingFilter(0.0, Map.of(), 100, 10, new SimpleMeterRegistry());
+
+        filter.doFilter(request("PUT", CHANNELS, null), new MockHttpServletResponse(),
+                (request, response) -> ((HttpServletResponse) response).setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE));
+        Assertions.assertThrows(IllegalStateException.class,
+                () -> filter.doFilter(request("POST", CHANNELS, null), new MockHttpServletResponse(),
+                        (request, response) -> {
+                            throw new IllegalStateException("unexpected");
+                        }));
+        filter.destroy();
+
+        Assertions.assertEquals(2, records.size());
+        Assertions.assertTrue(records.stream().allMatch(logRecord -> logRecord.getLevel() == Level.WARNING));
+        Assertions.assertTrue(records.get(0).getMessage().contains(" status=503 "), records.get(0).getMessage());
+        // the status of the response is still 200, the exception is turned into a 500 after the filter
+        Assertions.assertTrue(records.get(1).getMessage().startsWith("method=POST path=" + CHANNELS + " status=500 "),
+                records.get(1).getMessage());
+    }
+
+    @Test
+    void linesAreDroppedWhenTheSinkIsFull() throws Exception {
+        CountDownLatch blocked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Handler blocking = new Handler() {
+            @Override
+            public void publish(LogRecord logRecord) {
+                blocked.countDown();
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+
+            @Override
+            public void flush() {
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+        logger.addHandler(blocking);
+        try {
+            SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+            RequestLoggingFilter filter = new RequestLoggingFilter(1.0, Map.of(), 100, 1, meterRegistry);
+            // the first line blocks the sink, the second one is queued and the third one is dropped
+            filter.doFilter(request("GET", CHANNELS, null), new MockHttpServletResponse(), OK);
+            Assertions.assertTrue(blocked.await(5, TimeUnit.SECONDS));
+            filter.doFilter(request("GET", CHANNELS, null), new MockHttpServletResponse(), OK);
+            filter.doFilter(request("GET", CHANNELS, null), new MockHttpServletResponse(), OK);
+            release.countDown();
+            filter.destroy();
+
+            Assertions.assertEquals(1, meterRegistry.get(RequestLoggingFilter.CF_REQUEST_LOG_DROPPED).counter().count());
+            Assertions.assertEquals(2, records.size());
+        } finally {
+            release.countDown();
+            logger.removeHandler(blocking);
+        }
+    }
+
+    @Test
+    void payloadIsOnlyCapturedAtFine() throws Exception {
+        String payload = "[{\"name\":\"ch0\",\"owner\":\"owner\"}]";
+
+        RequestLoggingFilter filter = new RequestLoggingFilter(1.0, Map.of(), 10, 10, new SimpleMeterRegistry());
+        filter.doFilter(request("PUT", CHANNELS, payload), new MockHttpServletResponse(), OK);
+        logger.setLevel(Level.FINE);
+        filter.doFilter(request("PUT", CHANNELS, payload), new MockHttpServletResponse(), OK);
+        filter.destroy();
+
+        Assertions.assertEquals(2, records.size());
+        Assertions.assertFalse(records.get(0).getMessage().contains("payload="), records.get(0).getMessage());
+        // the payload is cut at the maximum length
+        Assertions.assertTrue(records.get(1).getMessage().endsWith(" payload=" + payload.substring(0, 10)),
+                records.get(1).getMessage());
+        Assertions.assertTrue(records.get(1).getMessage().contains(" bytes_in=" + payload.length() + " "),
+                records.get(1).getMessage());
+    }
+
+    private static MockHttpServletRequest request(String method, String path, String payload) {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, path);
+        if (payload != null) {
+            request.setContent(payload.getBytes(StandardCharsets.UTF_8));
+        }
+        return request;
+    }
+}
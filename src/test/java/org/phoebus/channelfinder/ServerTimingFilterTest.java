@@ -0,0 +1,80 @@
+package org.phoebus.channelfinder;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.phoebus.channelfinder.RequestPhases.Phase;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import javax.servlet.FilterChain;
+import javax.servlet.http.HttpServletRequest;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+class ServerTimingFilterTest {
+
+    /**
+     * a request authenticated, validated and making one elastic round trip
+     */
+    private static final FilterChain CHAIN = (request, response) -> {
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes((HttpServletRequest) request));
+        try {
+            RequestPhases.record(Phase.AUTHENTICATION, 2_000_000);
+            RequestPhases.Scope validation = RequestPhases.start(Phase.VALIDATION);
+            // a nested validation is not timed again
+            RequestPhases.Scope nested = RequestPhases.start(Phase.VALIDATION);
+            RequestPhases.recordElastic(3_000_000, 1024);
+            nested.close();
+            validation.close();
+            response.getOutputStream().write("[]".getBytes(StandardCharsets.UTF_8));
+        } finally {
+            RequestContextHolder.resetRequestAttributes();
+        }
+    };
+
+    @Test
+    void phasesAreReported() throws Exception {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        new ServerTimingFilter(true, meterRegistry)
+                .doFilter(new MockHttpServletRequest("GET", "/ChannelFinder/resources/channels"), response, CHAIN);
+
+        String header = response.getHeader(ServerTimingFilter.SERVER_TIMING);
+        Assertions.assertNotNull(header, "Missing Server-Timing header");
+        Assertions.assertTrue(header.startsWith("auth;dur=2.0, validation;dur="), header);
+        Assertions.assertTrue(header.contains(", es;dur=3.0;desc=\"1 calls, 1024 bytes\", total;dur="), header);
+        Assertions.assertFalse(header.contains("authz"), header);
+
+        Assertions.assertEquals(1, meterRegistry.get(ServerTimingFilter.CF_REQUEST_PHASE)
+                .tag("method", "GET").tag("phase", "validation").timer().count());
+        Assertions.assertEquals(3, meterRegistry.get(ServerTimingFilter.CF_REQUEST_PHASE)
+                .tag("phase", "es").timer().totalTime(TimeUnit.MILLISECONDS), 0.001);
+        Assertions.assertEquals(1, meterRegistry.get(ServerTimingFilter.CF_REQUEST_PHASE)
+                .tag("phase", "serialization").timer().count());
+        Assertions.assertEquals(1, meterRegistry.get(ServerTimingFilter.CF_REQUEST_PHASE)
+                .tag("phase", "total").timer().count());
+    }
+
+    @Test
+    void headerCanBeDisabled() throws Exception {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        new ServerTimingFilter(false, meterRegistry)
+                .doFilter(new MockHttpServletRequest("GET", "/ChannelFinder/resources/channels"), response, CHAIN);
+
+        Assertions.assertNull(response.getHeader(ServerTimingFilter.SERVER_TIMING));
+        Assertions.assertEquals(1, meterRegistry.get(ServerTimingFilter.CF_REQUEST_PHASE)
+                .tag("phase", "es").timer().count());
+    }
+
+    @Test
+    void nothingIsRecordedOutsideOfRequests() {
+        RequestPhases.recordElastic(1_000_000, 1024);
+        RequestPhases.Scope scope = RequestPhases.start(Phase.VALIDATION);
+        Assertions.assertNull(RequestPhases.current());
+        scope.close();
+    }
+}
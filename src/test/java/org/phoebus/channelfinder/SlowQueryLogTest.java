@@ -0,0 +1,94 @@
+package org.phoebus.channelfinder;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.phoebus.channelfinder.entity.SlowQuery;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.MultiValueMap;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+class SlowQueryLogTest {
+
+    private static final long SLOW = TimeUnit.MILLISECONDS.toNanos(1500);
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(10);
+
+    @Test
+    void queriesAreNormalized() {
+        MultiValueMap<String, String> parameters = new LinkedMultiValueMap<>();
+        parameters.add("~tag", "b");
+        parameters.add("~tag", "a ");
+        parameters.add(" ~name", "SR*");
+        parameters.add("~from", "100");
+        parameters.add("~size", "10");
+
+        Assertions.assertEquals("~name=SR*&~size=10&~tag=a&~tag=b", SlowQueryLog.normalize(parameters));
+    }
+
+    @Test
+    void onlySlowQueriesAreKept() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        SlowQueryLog slowQueryLog = new SlowQueryLog(null, meterRegistry, 1000, false, 2);
+
+        slowQueryLog.record(SlowQueryLog.SEARCH, query("fast"), FAST, 1, () -> null);
+        slowQueryLog.record(SlowQueryLog.SEARCH, query("a"), SLOW, 10, () -> null);
+        slowQueryLog.record(SlowQueryLog.COUNT, query("b"), SLOW, 20, () -> null);
+        slowQueryLog.record(SlowQueryLog.SCROLL, query("c"), SLOW, 30, () -> null);
+
+        List<SlowQuery> recent = slowQueryLog.recent();
+        Assertions.assertEquals(2, recent.size());
+        Assertions.assertEquals("~name=c", recent.get(0).query());
+        Assertions.assertEquals(SlowQueryLog.SCROLL, recent.get(0).operation());
+        Assertions.assertEquals(30, recent.get(0).hits());
+        Assertions.assertEquals(1500, recent.get(0).durationMillis());
+        Assertions.assertNull(recent.get(0).profile());
+        Assertions.assertEquals("~name=b", recent.get(1).query());
+        Assertions.assertEquals(1, meterRegistry.get(SlowQueryLog.CF_SLOW_QUERIES)
+                .tag("operation", SlowQueryLog.SEARCH).counter().count());
+    }
+
+    @Test
+    void queriesAreProfiledOnce() throws InterruptedException {
+        SlowQueryLog slowQueryLog = new SlowQueryLog(null, new SimpleMeterRegistry(), 1000, true, 1);
+        AtomicInteger profiled = new AtomicInteger();
+        CountDownLatch done = new CountDownLatch(1);
+        try {
+            slowQueryLog.record(SlowQueryLog.SEARCH, query("a"), SLOW, 10, () -> {
+                profiled.incrementAndGet();
+                return null;
+            });
+            // the query is no longer one of the recent ones, it is still not profiled again
+            slowQueryLog.record(SlowQueryLog.SEARCH, query("b"), SLOW, 10, () -> null);
+            slowQueryLog.record(SlowQueryLog.SEARCH, query("a"), SLOW, 10, () -> {
+                profiled.incrementAndGet();
+                return null;
+            });
+            // the queries are profiled in order
+            slowQueryLog.record(SlowQueryLog.SEARCH, query("c"), SLOW, 10, () -> {
+                done.countDown();
+                return null;
+            });
+            Assertions.assertTrue(done.await(5, TimeUnit.SECONDS));
+            Assertions.assertEquals(1, profiled.get());
+        } finally {
+            slowQueryLog.shutdown();
+        }
+    }
+
+    @Test
+    void detectionCanBeDisabled() {
+        SlowQueryLog slowQueryLog = new SlowQueryLog(null, new SimpleMeterRegistry(), -1, false, 10);
+        slowQueryLog.record(SlowQueryLog.SEARCH, query("a"), SLOW, 10, () -> null);
+        Assertions.assertTrue(slowQueryLog.recent().isEmpty());
+    }
+
+    private static MultiValueMap<String, String> query(String name) {
+        MultiValueMap<String, String> parameters = new LinkedMultiValueMap<>();
+        parameters.add("~name", name);
+        return parameters;
+    }
+}
@@ -0,0 +1,47 @@
+package org.phoebus.channelfinder;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(SlowQueryManager.class)
+@TestPropertySource(value = "classpath:application_test.properties")
+class SlowQueryManagerIT {
+
+    private static final String SLOW_QUERIES = "/" + CFResourceDescriptors.SLOW_QUERY_RESOURCE_URI;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    /**
+     * unlike the other GET requests, listing the slow queries requires an authenticated user
+     */
+    @Test
+    void anonymousIsNotAuthorized() throws Exception {
+        mockMvc.perform(get(SLOW_QUERIES)).andExpect(status().isUnauthorized());
+    }
+
+    /**
+     * only the admins can list the slow queries
+     */
+    @Test
+    @WithMockUser(roles = "CF-CHANNELS")
+    void nonAdminIsNotAuthorized() throws Exception {
+        mockMvc.perform(get(SLOW_QUERIES)).andExpect(status().isUnauthorized());
+    }
+
+    /**
+     * list the slow queries
+     */
+    @Test
+    @WithMockUser(roles = "CF-ADMINS")
+    void adminListsSlowQueries() throws Exception {
+        mockMvc.perform(get(SLOW_QUERIES)).andExpect(status().isOk());
+    }
+}
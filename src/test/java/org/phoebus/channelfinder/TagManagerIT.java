@@ -10,6 +10,7 @@ import org.phoebus.channelfinder.entity.Channel;
 import org.phoebus.channelfinder.entity.Tag;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.http.HttpStatus;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.context.TestPropertySource;
@@ -307,6 +308,20 @@ class TagManagerIT {
         Assertions.assertTrue(channelRepository.findById("testChannel0").get().getTags().stream().anyMatch(t -> t.getName().equals(testTag0.getName())), "Failed to add tag");
     }
 
+    /**
+     * attempt to add a single tag to a non existent channel
+     */
+    @Test
+    void addSingleXmlTagToNonExistingChannel() {
+        Tag testTag0 = new Tag("testTag0", "testOwner");
+        tagRepository.index(testTag0);
+
+        ResponseStatusException e = Assertions.assertThrows(ResponseStatusException.class,
+                () -> tagManager.addSingle(testTag0.getName(), "fakeChannel"));
+        Assertions.assertEquals(HttpStatus.NOT_FOUND, e.getStatus());
+        Assertions.assertFalse(channelRepository.existsById("fakeChannel"), "The channel should not be created");
+    }
+
     /**
      * update a tag 
      */
@@ -235,6 +235,39 @@ class TagRepositoryIT {
         channelRepository.deleteById(createdChannel.getName());
     }
 
+    /**
+     * delete a single tag, removing it from the channels with an elastic task
+     */
+    @Test
+    void deleteXmlTagAsync() throws IOException, InterruptedException {
+        Tag testTag = new Tag("testTag","testOwner");
+        Tag createdTag = tagRepository.index(testTag);
+        Channel channel = new Channel("testChannel","testOwner",null,Arrays.asList(createdTag));
+        Channel channel1 = new Channel("testChannel1","testOwner",null,Arrays.asList(createdTag));
+        cleanupTestTags = Arrays.asList(testTag);
+
+        channelRepository.indexAll(Arrays.asList(channel, channel1));
+        String taskId = tagRepository.deleteByIdAsync(createdTag.getName());
+        Assertions.assertNotNull(taskId, "Failed to submit the task removing the tag from channels");
+        // verify the tag was deleted as expected
+        Assertions.assertNotEquals(Optional.of(testTag), tagRepository.findById(testTag.getName()), "Failed to delete tag");
+
+        // wait for the task to complete
+        for (int i = 0; i < 50 && !esService.getSearchClient().tasks().get(g -> g.taskId(taskId)).completed(); i++) {
+            Thread.sleep(100);
+        }
+
+        // verify the tag was deleted from all channels as expected
+        MultiValueMap<String, String> params = new LinkedMultiValueMap<String, String>();
+        params.add("~tag",testTag.getName());
+        Assertions.assertTrue(channelRepository.search(params).channels().isEmpty(), "Failed to remove tag from channels");
+        Assertions.assertTrue(channelRepository.findById("testChannel1").get().getTags().isEmpty(), "Failed to remove tag from channel");
+
+        // channel clean up
+        channelRepository.deleteById(channel.getName());
+        channelRepository.deleteById(channel1.getName());
+    }
+
     // helper operations to clean up tagrepoIT
     
     private List<Tag> cleanupTestTags = Collections.emptyList();
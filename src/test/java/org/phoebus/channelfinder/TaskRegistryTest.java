@@ -0,0 +1,37 @@
+package org.phoebus.channelfinder;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class TaskRegistryTest {
+
+    @Test
+    void onlyRegisteredTasksAreFound() {
+        TaskRegistry taskRegistry = new TaskRegistry(24, 10);
+        taskRegistry.register("node:1", "alice");
+
+        Assertions.assertEquals("alice", taskRegistry.find("node:1").orElseThrow().owner());
+        Assertions.assertTrue(taskRegistry.find("node:2").isEmpty());
+    }
+
+    @Test
+    void registryIsBounded() {
+        TaskRegistry taskRegistry = new TaskRegistry(24, 2);
+        taskRegistry.register("node:1", "alice");
+        taskRegistry.register("node:2", "alice");
+        taskRegistry.register("node:3", "alice");
+
+        // one of the oldest tasks is forgotten
+        Assertions.assertTrue(taskRegistry.find("node:3").isPresent());
+        Assertions.assertNotEquals(taskRegistry.find("node:1").isPresent(), taskRegistry.find("node:2").isPresent());
+    }
+
+    @Test
+    void expiredTasksAreEvicted() {
+        TaskRegistry taskRegistry = new TaskRegistry(-1, 10);
+        taskRegistry.register("node:1", "alice");
+        taskRegistry.evictExpiredTasks();
+
+        Assertions.assertTrue(taskRegistry.find("node:1").isEmpty());
+    }
+}
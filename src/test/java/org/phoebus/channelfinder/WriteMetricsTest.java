@@ -0,0 +1,56 @@
+package org.phoebus.channelfinder;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.List;
+
+class WriteMetricsTest {
+
+    @Test
+    void requestsAreMeasuredByResource() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        WriteMetrics writeMetrics = new WriteMetrics(meterRegistry, false, 20);
+
+        writeMetrics.request(AuditLog.CHANNEL, List.of("ch0", "ch1", "ch2"));
+        writeMetrics.request(AuditLog.CHANNEL, 1);
+        writeMetrics.validationFailed(AuditLog.TAG, WriteMetrics.OWNER);
+        writeMetrics.ownershipRejected(AuditLog.CHANNEL, 2);
+
+        Assertions.assertEquals(4, meterRegistry.get(WriteMetrics.CF_WRITE_REQUEST_ITEMS)
+                .tag("resource", "channel").tag("endpoint", "none").summary().totalAmount());
+        Assertions.assertEquals(1, meterRegistry.get(WriteMetrics.CF_WRITE_VALIDATION_FAILURES)
+                .tag("resource", "tag").tag("reason", "owner").counter().count());
+        Assertions.assertEquals(2, meterRegistry.get(WriteMetrics.CF_WRITE_OWNERSHIP_REJECTIONS)
+                .tag("resource", "channel").counter().count());
+        // outside of a request there is no body
+        Assertions.assertTrue(meterRegistry.find(WriteMetrics.CF_WRITE_REQUEST_BYTES).summaries().isEmpty());
+        Assertions.assertTrue(meterRegistry.find(WriteMetrics.CF_WRITE_REQUEST_ITEMS).tagKeys("user").summaries().isEmpty());
+    }
+
+    @Test
+    void usersAreBounded() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        WriteMetrics writeMetrics = new WriteMetrics(meterRegistry, true, 2);
+        try {
+            for (String user : List.of("alice", "bob", "carol", "dave", "alice")) {
+                SecurityContextHolder.getContext().setAuthentication(
+                        new UsernamePasswordAuthenticationToken(user, null, List.of()));
+                writeMetrics.request(AuditLog.TAG, 1);
+            }
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+
+        Assertions.assertEquals(2, meterRegistry.get(WriteMetrics.CF_WRITE_REQUEST_ITEMS)
+                .tag("user", "alice").summary().count());
+        Assertions.assertEquals(1, meterRegistry.get(WriteMetrics.CF_WRITE_REQUEST_ITEMS)
+                .tag("user", "bob").summary().count());
+        Assertions.assertEquals(2, meterRegistry.get(WriteMetrics.CF_WRITE_REQUEST_ITEMS)
+                .tag("user", "other").summary().count());
+        Assertions.assertEquals(3, meterRegistry.find(WriteMetrics.CF_WRITE_REQUEST_ITEMS).summaries().size());
+    }
+}
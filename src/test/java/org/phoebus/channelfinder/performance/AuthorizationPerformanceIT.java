@@ -0,0 +1,109 @@
+package org.phoebus.channelfinder.performance;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.phoebus.channelfinder.AuthorizationService;
+import org.phoebus.channelfinder.entity.Channel;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.test.context.TestPropertySource;
+
+import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Performance test comparing the ownership checks of a large bulk request: the previous per channel check, which
+ * copied the authorities of the user for every channel, the per channel check with the authorization context
+ * computed once, and the check of the whole batch at once. No elastic is needed, only the checks are measured.
+ */
+@WebMvcTest(AuthorizationService.class)
+@TestPropertySource(value = "classpath:application_test.properties")
+class AuthorizationPerformanceIT {
+
+    private static final Logger logger = Logger.getLogger(AuthorizationPerformanceIT.class.getName());
+
+    private static final int CHANNELS = 100000;
+    private static final int OWNERS = 20;
+    private static final int ROUNDS = 10;
+
+    @Autowired
+    AuthorizationService authorizationService;
+
+    @Test
+    void checkOwners() {
+        List<GrantedAuthority> authorities = new ArrayList<>();
+        authorities.add(new SimpleGrantedAuthority("ROLE_CF-CHANNELS"));
+        // the user is in all the owner groups but the last one
+        for (int i = 0; i < OWNERS; i++) {
+            authorities.add(new SimpleGrantedAuthority("ROLE_TESTGROUP" + (i < OWNERS - 1 ? i : "OTHER")));
+        }
+        Authentication authentication = new UsernamePasswordAuthenticationToken("testUser", null, authorities);
+        List<Channel> channels = new ArrayList<>();
+        for (int i = 0; i < CHANNELS; i++) {
+            channels.add(new Channel("testChannel" + i, "testGroup" + (i % OWNERS)));
+        }
+
+        long perChannel = Long.MAX_VALUE;
+        long perChannelWithContext = Long.MAX_VALUE;
+        long batch = Long.MAX_VALUE;
+        // the best of a few rounds, the first ones warm up the jit
+        for (int round = 0; round < ROUNDS; round++) {
+            long start = System.nanoTime();
+            List<Channel> unauthorized = new ArrayList<>();
+            for (Channel channel : channels) {
+                if (!previousIsAuthorizedOwner(authentication, channel)) {
+                    unauthorized.add(channel);
+                }
+            }
+            perChannel = Math.min(perChannel, System.nanoTime() - start);
+
+            start = System.nanoTime();
+            List<Channel> unauthorizedWithContext = new ArrayList<>();
+            for (Channel channel : channels) {
+                if (!authorizationService.isAuthorizedOwner(authentication, channel)) {
+                    unauthorizedWithContext.add(channel);
+                }
+            }
+            perChannelWithContext = Math.min(perChannelWithContext, System.nanoTime() - start);
+
+            start = System.nanoTime();
+            List<Channel> unauthorizedBatch = authorizationService.findUnauthorizedOwners(authentication, channels, Channel::getOwner);
+            batch = Math.min(batch, System.nanoTime() - start);
+
+            Assertions.assertEquals(CHANNELS / OWNERS, unauthorized.size());
+            Assertions.assertEquals(unauthorized, unauthorizedWithContext);
+            Assertions.assertEquals(unauthorized, unauthorizedBatch);
+        }
+        long perChannelNanos = perChannel;
+        long perChannelWithContextNanos = perChannelWithContext;
+        long batchNanos = batch;
+        logger.log(Level.INFO, () -> MessageFormat.format(
+                "Check the owners of {0} channels over {1} groups, user with {2} roles: per channel {3}ms, "
+                        + "per channel with the context {4}ms, batch {5}ms",
+                CHANNELS, OWNERS, authorities.size(), perChannelNanos / 1000000, perChannelWithContextNanos / 1000000,
+                batchNanos / 1000000));
+    }
+
+    /**
+     * The per channel check before the authorization context, the authorities are copied for every channel
+     */
+    private static boolean previousIsAuthorizedOwner(Authentication authentication, Channel data) {
+        ArrayList<String> auth = new ArrayList<>();
+        for (GrantedAuthority a : authentication.getAuthorities()) {
+            auth.add(a.getAuthority());
+        }
+        if (!Collections.disjoint(auth, AuthorizationService.admin_groups)) {
+            return true;
+        }
+        return authentication.getName().equals(data.getOwner())
+                || auth.contains("ROLE_" + data.getOwner().trim().toUpperCase());
+    }
+}
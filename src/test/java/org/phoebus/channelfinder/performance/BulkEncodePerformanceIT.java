@@ -0,0 +1,79 @@
+package org.phoebus.channelfinder.performance;
+
+import co.elastic.clients.json.JsonData;
+import co.elastic.clients.json.jackson.JacksonJsonpMapper;
+import co.elastic.clients.util.BinaryData;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.phoebus.channelfinder.ChannelDocumentEncoder;
+import org.phoebus.channelfinder.ChannelFingerprint;
+import org.phoebus.channelfinder.entity.Channel;
+import org.phoebus.channelfinder.entity.Property;
+import org.phoebus.channelfinder.entity.Tag;
+
+import java.io.IOException;
+import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Performance test comparing the serialization of the channel documents of a large bulk request, one
+ * json mapper wrapper per document serialized by the bulk request, with the parallel pre-serialization of
+ * the {@link ChannelDocumentEncoder}. No elastic is needed, only the serialization is measured, the timings are
+ * reported and not asserted since they depend on the machine.
+ */
+class BulkEncodePerformanceIT {
+
+    private static final Logger logger = Logger.getLogger(BulkEncodePerformanceIT.class.getName());
+
+    private static final int CHANNELS = 100000;
+    private static final int PROPERTIES = 20;
+    private static final int ROUNDS = 5;
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .addMixIn(Tag.class, Tag.OnlyTag.class)
+            .addMixIn(Property.class, Property.OnlyProperty.class);
+
+    @Test
+    void encodeChannels() throws IOException {
+        List<Channel> channels = new ArrayList<>();
+        for (int i = 0; i < CHANNELS; i++) {
+            List<Property> properties = new ArrayList<>();
+            for (int p = 0; p < PROPERTIES; p++) {
+                properties.add(new Property("testProperty" + p, "testOwner", "value" + i));
+            }
+            channels.add(new Channel("testChannel" + i, "testOwner", properties, List.of(new Tag("testTag", "testOwner"))));
+        }
+        ChannelDocumentEncoder encoder = new ChannelDocumentEncoder(256);
+        JacksonJsonpMapper transportMapper = new JacksonJsonpMapper(objectMapper);
+
+        long perDocumentMapper = Long.MAX_VALUE;
+        long preEncoded = Long.MAX_VALUE;
+        long bytes = 0;
+        // the best of a few rounds, the first ones warm up the jit
+        for (int round = 0; round < ROUNDS; round++) {
+            long start = System.nanoTime();
+            bytes = 0;
+            for (Channel channel : channels) {
+                ObjectNode document = objectMapper.valueToTree(channel);
+                document.put(ChannelFingerprint.FIELD, ChannelFingerprint.of(channel));
+                // the bulk request serializes each document with the transport mapper
+                bytes += BinaryData.of(JsonData.of(document, new JacksonJsonpMapper(objectMapper)), transportMapper).size();
+            }
+            perDocumentMapper = Math.min(perDocumentMapper, System.nanoTime() - start);
+
+            start = System.nanoTime();
+            List<BinaryData> documents = encoder.encodeAll(channels);
+            preEncoded = Math.min(preEncoded, System.nanoTime() - start);
+            Assertions.assertEquals(bytes, documents.stream().mapToLong(BinaryData::size).sum());
+        }
+        long totalBytes = bytes;
+        logger.log(Level.INFO, () -> MessageFormat.format(
+                "Serialize {0} channels with {1} properties ({2} bytes): per document mapper {3}ms, pre-encoded {4}ms",
+                CHANNELS, PROPERTIES, totalBytes, perDocumentMapper / 1000000, preEncoded / 1000000));
+    }
+}
@@ -0,0 +1,90 @@
+package org.phoebus.channelfinder.performance;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.phoebus.channelfinder.ChannelRepository;
+import org.phoebus.channelfinder.ElasticConfig;
+import org.phoebus.channelfinder.ElasticConfigIT;
+import org.phoebus.channelfinder.entity.Channel;
+import org.phoebus.channelfinder.entity.Property;
+import org.phoebus.channelfinder.entity.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.test.context.TestPropertySource;
+
+import java.io.IOException;
+import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Performance tests comparing the read-modify-write of a complete channel with
+ * a scripted partial update when attaching and detaching a single tag
+ */
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@WebMvcTest(ChannelRepository.class)
+@TestPropertySource(value = "classpath:application_test.properties")
+class PartialUpdatePerformanceIT {
+
+    private static final Logger logger = Logger.getLogger(PartialUpdatePerformanceIT.class.getName());
+
+    private static final int CHANNELS = 100;
+    private static final int PROPERTIES = 60;
+
+    @Autowired
+    ElasticConfig esService;
+
+    @Autowired
+    ChannelRepository channelRepository;
+
+    private final Tag testTag = new Tag("testTag", "testOwner");
+
+    @BeforeAll
+    void setupAll() {
+        ElasticConfigIT.setUp(esService);
+        List<Property> properties = new ArrayList<>();
+        for (int i = 0; i < PROPERTIES; i++) {
+            properties.add(new Property("testProperty" + i, "testOwner", "value" + i));
+        }
+        List<Channel> channels = new ArrayList<>();
+        for (int i = 0; i < CHANNELS; i++) {
+            channels.add(new Channel("testChannel" + i, "testOwner", properties, new ArrayList<>()));
+        }
+        channelRepository.indexAll(channels);
+    }
+
+    @AfterAll
+    void tearDown() throws IOException {
+        ElasticConfigIT.teardown(esService);
+    }
+
+    @Test
+    void attachDetachTag() {
+        long start = System.currentTimeMillis();
+        for (int i = 0; i < CHANNELS; i++) {
+            Channel channel = channelRepository.findById("testChannel" + i).get();
+            channel.addTag(testTag);
+            channelRepository.index(channel);
+            channel.removeTag(testTag);
+            channelRepository.index(channel);
+        }
+        long readModifyWrite = System.currentTimeMillis() - start;
+
+        start = System.currentTimeMillis();
+        for (int i = 0; i < CHANNELS; i++) {
+            channelRepository.addTag("testChannel" + i, testTag);
+            channelRepository.removeTag("testChannel" + i, testTag.getName());
+        }
+        long partialUpdate = System.currentTimeMillis() - start;
+
+        logger.log(Level.INFO, MessageFormat.format(
+                "Attach/detach a tag on {0} channels with {1} properties: read-modify-write {2}ms, partial update {3}ms",
+                CHANNELS, PROPERTIES, readModifyWrite, partialUpdate));
+        Assertions.assertTrue(channelRepository.findById("testChannel0").get().getTags().isEmpty());
+    }
+}